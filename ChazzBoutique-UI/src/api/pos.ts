@@ -25,6 +25,12 @@ export type VarianteRow = {
   talla?: string;
 };
 
+export type VarianteLookupBulk = {
+  encontradas: VarianteLookup[];
+  codigosNoEncontrados: string[];
+  idsNoEncontrados: number[];
+};
+
 export type CrearVentaRequest = {
   usuarioId: number;
   montoPago: number;
@@ -54,6 +60,12 @@ export function buscarVariantePorCodigo(codigo: string) {
   );
 }
 
+// Resuelve muchos códigos/ids en una sola llamada (máx. 500), p. ej. al
+// recuperar un carrito.
+export function buscarVariantesLookup(codigos: string[], ids: number[] = []) {
+  return http.post<VarianteLookupBulk>(`/api/variantes/lookup`, { codigos, ids });
+}
+
 export function crearVenta(payload: CrearVentaRequest) {
   return http.post<VentaResponse>(`/api/ventas`, payload);
 }
@@ -82,3 +94,72 @@ export function obtenerVariantesPorProducto(productoId: number) {
     `/api/productos/${productoId}/variantes`
   );
 }
+
+// ===== Carrito en el servidor =====
+// Cada escaneo manda solo el renglón que cambió y recibe los totales.
+
+export type CarritoDetalle = {
+  codigoBarras: string;
+  nombreProducto: string;
+  talla?: string;
+  color?: string;
+  cantidad: number;
+  precioUnitario: number;
+  importe: number;
+};
+
+export type Carrito = {
+  id: string;
+  usuarioId: number;
+  detalles: CarritoDetalle[];
+  articulos: number;
+  subtotal: number;
+  descuento: number;
+  total: number;
+};
+
+export type CarritoCambio = {
+  carritoId: string;
+  codigoBarras?: string;
+  detalle: CarritoDetalle | null; // null si el renglón se quitó
+  articulos: number;
+  subtotal: number;
+  descuento: number;
+  total: number;
+};
+
+const carritoPath = (id: string) => `/api/carritos/${encodeURIComponent(id)}`;
+const lineaPath = (id: string, codigo: string) =>
+  `${carritoPath(id)}/lineas/${encodeURIComponent(codigo)}`;
+
+export function crearCarrito(usuarioId: number) {
+  return http.post<Carrito>(`/api/carritos`, { usuarioId });
+}
+
+export function obtenerCarrito(id: string) {
+  return http.get<Carrito>(carritoPath(id));
+}
+
+export function agregarAlCarrito(id: string, codigoBarras: string, cantidad = 1) {
+  return http.post<CarritoCambio>(`${carritoPath(id)}/lineas`, { codigoBarras, cantidad });
+}
+
+export function cambiarCantidadCarrito(id: string, codigoBarras: string, cantidad: number) {
+  return http.put<CarritoCambio>(lineaPath(id, codigoBarras), { cantidad });
+}
+
+export function quitarDelCarrito(id: string, codigoBarras: string) {
+  return http.del<CarritoCambio>(lineaPath(id, codigoBarras));
+}
+
+export function aplicarDescuentoCarrito(id: string, descuento: number) {
+  return http.put<CarritoCambio>(`${carritoPath(id)}/descuento`, { descuento });
+}
+
+export function cobrarCarrito(id: string, montoPago: number) {
+  return http.post<VentaResponse>(`${carritoPath(id)}/cobrar`, { montoPago });
+}
+
+export function descartarCarrito(id: string) {
+  return http.del<void>(carritoPath(id));
+}
@@ -1,15 +1,20 @@
 package com.mycompany.chazzboutique;
 
 import com.formdev.flatlaf.themes.FlatMacLightLaf;
+import com.mycompany.chazzboutiquenegocio.analitica.MasVendidosEnVivo;
+import com.mycompany.chazzboutiquenegocio.analitica.MotorAnalitico;
 import com.mycompany.chazzboutiquenegocio.dtos.InicioSesionDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.UsuarioDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.*;
 import com.mycompany.chazzboutiquenegocio.objetosNegocio.*;
 import com.mycompany.chazzboutiquepersistencia.conexion.ConexionBD;
+import com.mycompany.chazzboutiquepersistencia.conexion.ConfiguracionPool;
 import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
 import com.mycompany.chazzboutiquepersistencia.daos.*;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.*;
+import com.mycompany.chazzboutiquepersistencia.metricas.Instrumentacion;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
 
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -30,26 +35,62 @@ public class ChazzBoutique {
             Logger.getLogger(ChazzBoutique.class.getName()).log(Level.SEVERE, null, ex);
         }
 
-        IConexionBD conexionBD = new ConexionBD();
+        ConfiguracionPool configuracion = ConfiguracionPool.cargar();
+        IConexionBD conexionBD = new ConexionBD(configuracion);
+        Runtime.getRuntime().addShutdownHook(new Thread(conexionBD::closeEntityManagerFactory));
 
         // DAOs
-        IUsuarioDAO usuarioDAO = new UsuarioDAO(conexionBD);
-        IVentaDAO ventaDAO = new VentaDAO(conexionBD);
-        IVarianteProductoDAO varianteProductoDAO = new VarianteProductoDAO(conexionBD);
-        IProductoDAO productoDAO = new ProductoDAO(conexionBD);
-        IDetalleVentaDAO detalleVentaDAO = new DetalleVentaDAO(conexionBD);
-        ICategoriaDAO categoriaDAO = new CategoriaDAO(conexionBD);
-        IProveedorDAO proveedorDAO = new ProveedorDAO(conexionBD);
-        IReporteDAO reporteDAO = new ReporteDAO(conexionBD);
+        IUsuarioDAO usuarioDAO = dao(IUsuarioDAO.class, new UsuarioDAO(conexionBD));
+        IVentaDAO ventaDAO = dao(IVentaDAO.class, new VentaDAO(conexionBD));
+        IVarianteProductoDAO varianteProductoDAO = dao(IVarianteProductoDAO.class, new VarianteProductoDAO(conexionBD));
+        IProductoDAO productoDAO = dao(IProductoDAO.class, new ProductoDAO(conexionBD));
+        IDetalleVentaDAO detalleVentaDAO = dao(IDetalleVentaDAO.class, new DetalleVentaDAO(conexionBD));
+        ICategoriaDAO categoriaDAO = dao(ICategoriaDAO.class, new CategoriaDAO(conexionBD));
+        IProveedorDAO proveedorDAO = dao(IProveedorDAO.class, new ProveedorDAO(conexionBD));
+        IResumenVentasDAO resumenVentasDAO = dao(IResumenVentasDAO.class, new ResumenVentasDAO(conexionBD));
+        IReporteDAO reporteDAO = dao(IReporteDAO.class, new ReporteDAO(conexionBD, resumenVentasDAO));
 
         // Negocios
-        IUsuarioNegocio usuarioNegocio = new UsuarioNegocio(usuarioDAO);
-        IVentaNegocio ventaNegocio = new VentaNegocio(ventaDAO, detalleVentaDAO, varianteProductoDAO, usuarioDAO);
-        IVarianteProductoNegocio varianteProductoNegocio = new VarianteProductoNegocio(varianteProductoDAO, productoDAO);
-        IProductoNegocio productoNegocio = new ProductoNegocio(productoDAO, categoriaDAO, proveedorDAO);
-        ICategoriaNegocio categoriaNegocio = new CategoriaNegocio(categoriaDAO);
-        IProveedorNegocio proveedorNegocio = new ProveedorNegocio(proveedorDAO);
-        IReporteNegocio reporteNegocio = new ReporteNegocio(reporteDAO);
+        IUsuarioNegocio usuarioNegocio = negocio(IUsuarioNegocio.class, new UsuarioNegocio(usuarioDAO));
+        IVentaNegocio ventaNegocio = negocio(IVentaNegocio.class,
+                new VentaNegocio(conexionBD, ventaDAO, detalleVentaDAO, varianteProductoDAO, usuarioDAO, resumenVentasDAO));
+        IVarianteProductoNegocio varianteProductoNegocio = negocio(IVarianteProductoNegocio.class,
+                new VarianteProductoNegocio(varianteProductoDAO, productoDAO));
+        ventaNegocio.agregarObservadorInventario(varianteProductoNegocio::invalidarCache);
+        MasVendidosEnVivo masVendidos = new MasVendidosEnVivo();
+        masVendidos.precargarEnSegundoPlano(reporteDAO);
+        ventaNegocio.agregarObservadorVentas(masVendidos);
+        IProductoNegocio productoNegocio = negocio(IProductoNegocio.class, new ProductoNegocio(productoDAO, categoriaDAO, proveedorDAO,
+                configuracion.getPoliticaCache(ConfiguracionPool.CACHE_PRODUCTOS).getTtlMs()));
+        productoNegocio.agregarObservadorProductos(varianteProductoNegocio::refrescarProducto);
+        ICategoriaNegocio categoriaNegocio = negocio(ICategoriaNegocio.class, new CategoriaNegocio(categoriaDAO,
+                configuracion.getPoliticaCache(ConfiguracionPool.CACHE_CATEGORIAS).getTtlMs()));
+        IProveedorNegocio proveedorNegocio = negocio(IProveedorNegocio.class, new ProveedorNegocio(proveedorDAO,
+                configuracion.getPoliticaCache(ConfiguracionPool.CACHE_PROVEEDORES).getTtlMs()));
+        // Igual que en la API: -Dchazz.analitica.habilitada=false evita cargar
+        // todas las ventas en memoria en una caja con poca RAM
+        MotorAnalitico motorAnalitico = null;
+        if (Boolean.parseBoolean(System.getProperty("chazz.analitica.habilitada", "true"))) {
+            motorAnalitico = new MotorAnalitico(reporteDAO);
+            motorAnalitico.cargarEnSegundoPlano();
+        }
+        IReporteNegocio reporteNegocio = negocio(IReporteNegocio.class,
+                new ReporteNegocio(reporteDAO, resumenVentasDAO, motorAnalitico, masVendidos));
+
+        // La primera vez tras la migración reconstruye el historial; mientras,
+        // los reportes salen directamente de las ventas
+        Thread resumenes = new Thread(() -> {
+            try {
+                reporteNegocio.completarResumenes();
+            } catch (NegocioException ex) {
+                Logger.getLogger(ChazzBoutique.class.getName()).log(Level.WARNING, "No se pudieron completar los resúmenes de ventas", ex);
+            }
+        }, "resumenes-ventas");
+        resumenes.setDaemon(true);
+        resumenes.start();
+
+        // Latencias, transacciones y cachés visibles en JConsole/VisualVM
+        RegistroMetricas.global().registrarJmx();
 
         try {
 
@@ -70,7 +111,14 @@ public class ChazzBoutique {
             frmPrincipal.setVisible(true);
         } catch (NegocioException ex) {
             Logger.getLogger(ChazzBoutique.class.getName()).log(Level.SEVERE, "Error al iniciar sesión", ex);
-            System.out.println("Error al iniciar sesión: " + ex.getMessage());
         }
     }
+
+    private static <I> I dao(Class<I> interfaz, I dao) {
+        return Instrumentacion.envolver(interfaz, dao, Instrumentacion.CAPA_DAO);
+    }
+
+    private static <I> I negocio(Class<I> interfaz, I negocio) {
+        return Instrumentacion.envolver(interfaz, negocio, Instrumentacion.CAPA_NEGOCIO);
+    }
 }
@@ -5,12 +5,14 @@
 package presentacion;
 
 import com.mycompany.chazzboutiquenegocio.dtos.CategoriaDTO;
+import com.mycompany.chazzboutiquenegocio.dtos.PaginaDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import java.awt.Color;
 import java.awt.Image;
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -33,6 +35,9 @@ public class PanelCategoriaProducto extends javax.swing.JPanel {
     private final int tamanoPagina = 12;
     private String filtroActual = "";
     private boolean hayMasPaginas = true;
+    // cursores.get(i) abre la página i + 1; se llena conforme se avanza
+    private final List<String> cursores = new ArrayList<>();
+    private Long totalActual;
     private List<VarianteProductoDTO> listaActualDeVariantes;
 
     public PanelCategoriaProducto(FrmPrincipal frmPrincipal, CategoriaDTO categoria) {
@@ -91,17 +96,28 @@ public class PanelCategoriaProducto extends javax.swing.JPanel {
                     panelArticulo4, panelArticulo5, panelArticulo6, panelArticulo7, panelArticulo8, panelArticulo9, panelArticulo10, panelArticulo11, panelArticulo12
             );
 
-            List<VarianteProductoDTO> variantes = frmPrincipal.getVarianteProductoNegocio()
-                    .buscarVariantesPorCategoriaYNombreProducto(this.categoriaSeleccionada.getId().intValue(), filtro, pagina, tamañoPagina);
+            if (pagina == 1) {
+                cursores.clear();
+                cursores.add(null);
+                totalActual = null;
+            }
+            PaginaDTO<VarianteProductoDTO> resultado = frmPrincipal.getVarianteProductoNegocio()
+                    .obtenerPaginaVariantes(categoriaSeleccionada.getId(), filtro, cursores.get(pagina - 1), tamañoPagina, totalActual == null);
+            List<VarianteProductoDTO> variantes = resultado.getElementos();
             listaActualDeVariantes = variantes;
-            long total = frmPrincipal.getVarianteProductoNegocio()
-                    .contarVariantesPorCategoriaYNombreProducto(categoriaSeleccionada.getId().intValue(), filtro);
-            lblArticulos.setText("Todos (" + total + " artículos)");
-
-            List<VarianteProductoDTO> siguientePagina = frmPrincipal.getVarianteProductoNegocio()
-                    .buscarVariantesPorNombreProducto(filtro, pagina + 1, tamañoPagina);
+            if (resultado.getTotal() != null) {
+                totalActual = resultado.getTotal();
+            }
+            lblArticulos.setText("Todos (" + totalActual + " artículos)");
 
-            hayMasPaginas = !siguientePagina.isEmpty();
+            hayMasPaginas = resultado.isHaySiguiente();
+            if (hayMasPaginas) {
+                if (cursores.size() > pagina) {
+                    cursores.set(pagina, resultado.getCursorSiguiente());
+                } else {
+                    cursores.add(resultado.getCursorSiguiente());
+                }
+            }
             // actualizar la interfaz (como ya lo haces)
             List<JLabel> etiquetasNombre = List.of(lblNombreArticulo1, lblNombreArticulo2, lblNombreArticulo3, lblNombreArticulo4, lblNombreArticulo5, lblNombreArticulo6, lblNombreArticulo7, lblNombreArticulo8, lblNombreArticulo9, lblNombreArticulo10, lblNombreArticulo11, lblNombreArticulo12);
             List<JLabel> etiquetasTalla = List.of(lblTallaResult1, lblTallaResult2, lblTallaResult3, lblTallaResult4, lblTallaResult5, lblTallaResult6, lblTallaResult7, lblTallaResult8, lblTallaResult9, lblTallaResult10, lblTallaResult11, lblTallaResult12);
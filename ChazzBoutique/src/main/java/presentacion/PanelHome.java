@@ -5,6 +5,7 @@
 package presentacion;
 
 import com.mycompany.chazzboutiquenegocio.dtos.CategoriaDTO;
+import com.mycompany.chazzboutiquenegocio.dtos.PaginaDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVarianteProductoNegocio;
@@ -13,6 +14,7 @@ import java.awt.Image;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -37,6 +39,9 @@ public class PanelHome extends javax.swing.JPanel {
     private final int tamanoPagina = 6;
     private String filtroActual = "";
     private boolean hayMasPaginas = true;
+    // cursores.get(i) abre la página i + 1; se llena conforme se avanza
+    private final List<String> cursores = new ArrayList<>();
+    private Long totalActual;
     private List<VarianteProductoDTO> listaActualDeVariantes;
 
     public PanelHome(FrmPrincipal frmPrincipal) {
@@ -151,16 +156,28 @@ public class PanelHome extends javax.swing.JPanel {
                     panelArticulo4, panelArticulo5, panelArticulo6
             );
 
-            List<VarianteProductoDTO> variantes = frmPrincipal.getVarianteProductoNegocio()
-                    .buscarVariantesPorNombreProducto(filtro, pagina, tamañoPagina);
+            if (pagina == 1) {
+                cursores.clear();
+                cursores.add(null);
+                totalActual = null;
+            }
+            PaginaDTO<VarianteProductoDTO> resultado = frmPrincipal.getVarianteProductoNegocio()
+                    .obtenerPaginaVariantes(null, filtro, cursores.get(pagina - 1), tamañoPagina, totalActual == null);
+            List<VarianteProductoDTO> variantes = resultado.getElementos();
             listaActualDeVariantes = variantes;
-            long total = frmPrincipal.getVarianteProductoNegocio().contarVariantesPorNombreProducto(filtroActual);
-            lblArticulos.setText("Todos (" + total + " artículos)");
-
-            List<VarianteProductoDTO> siguientePagina = frmPrincipal.getVarianteProductoNegocio()
-                    .buscarVariantesPorNombreProducto(filtro, pagina + 1, tamañoPagina);
+            if (resultado.getTotal() != null) {
+                totalActual = resultado.getTotal();
+            }
+            lblArticulos.setText("Todos (" + totalActual + " artículos)");
 
-            hayMasPaginas = !siguientePagina.isEmpty();
+            hayMasPaginas = resultado.isHaySiguiente();
+            if (hayMasPaginas) {
+                if (cursores.size() > pagina) {
+                    cursores.set(pagina, resultado.getCursorSiguiente());
+                } else {
+                    cursores.add(resultado.getCursorSiguiente());
+                }
+            }
             // actualizar la interfaz (como ya lo haces)
             List<JLabel> etiquetasNombre = List.of(lblNombreArticulo1, lblNombreArticulo2, lblNombreArticulo3, lblNombreArticulo4, lblNombreArticulo5, lblNombreArticulo6);
             List<JLabel> etiquetasTalla = List.of(lblTallaResult1, lblTallaResult2, lblTallaResult3, lblTallaResult4, lblTallaResult5, lblTallaResult6);
@@ -31,6 +31,10 @@ import com.mycompany.chazzboutiquenegocio.dtos.ProductoDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VentaDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquenegocio.tickets.DatosTicket;
+import com.mycompany.chazzboutiquenegocio.tickets.TicketEscPos;
+import com.mycompany.chazzboutiquepersistencia.metricas.Histograma;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Desktop;
@@ -59,7 +63,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
+import javax.print.PrintException;
 import javax.swing.ComboBoxModel;
 import javax.swing.DefaultCellEditor;
 import javax.swing.DefaultComboBoxModel;
@@ -76,7 +80,6 @@ import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 import javax.swing.Timer;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
@@ -87,6 +90,7 @@ import javax.swing.text.AttributeSet;
 import javax.swing.text.BadLocationException;
 import javax.swing.text.DocumentFilter;
 import utils.ColorNameDetector;
+import utils.ImpresoraTicket;
 import utils.ModeloTablaVentas;
 import utils.SpinnerCellEditor;
 import utils.SpinnerRenderer;
@@ -104,10 +108,20 @@ public class PanelVenta extends javax.swing.JPanel {
     private BigDecimal totalSinDescuento;
     private List<String> filaCodigos = new ArrayList<>();
     private File ultimoTicketGenerado = null;
+    private byte[] ultimoTicketEscPos = null;
+    private static final Histograma RENDER_PDF = RegistroMetricas.global().histograma(
+            "chazz_ticket_render_segundos", "Tiempo de generar un ticket", "formato", "pdf");
+    private static final Histograma RENDER_ESCPOS = RegistroMetricas.global().histograma(
+            "chazz_ticket_render_segundos", "Tiempo de generar un ticket", "formato", "escpos");
     private boolean busquedaPorNombre = false;
     private boolean usuarioCambioCombo = false;
     private boolean dialogoCerradoSinSeleccion = false;
 
+    /**
+     * Nombres que se muestran en el combo mientras se escribe.
+     */
+    private static final int MAX_SUGERENCIAS = 20;
+
     public PanelVenta(FrmPrincipal frmPrincipal) {
         initComponents();
         this.frmPrincipal = frmPrincipal;
@@ -266,6 +280,10 @@ public class PanelVenta extends javax.swing.JPanel {
         ((AbstractDocument) txtMontoPago.getDocument()).setDocumentFilter(new NumerosDecimalesFilter());
 
         btnImprimir.addActionListener(e -> {
+            if (ImpresoraTicket.isConfigurada()) {
+                reimprimirTicketDirecto();
+                return;
+            }
             if (ultimoTicketGenerado == null) {
                 JOptionPane.showMessageDialog(this,
                         "No hay tickets generados en esta sesión",
@@ -363,17 +381,12 @@ public class PanelVenta extends javax.swing.JPanel {
 
     private void cargarNombresProductos() {
         try {
-            List<ProductoDTO> productos = frmPrincipal.getProductoNegocio().obtenerTodosProductos();
+            // Las sugerencias salen del índice de autocompletado del negocio;
+            // cargarlo aquí evita que la primera tecla espere a la base.
+            List<String> nombresProductos = sugerencias("");
             cbNombreProducto.removeAllItems();
             cbNombreProducto.setEditable(true);
 
-            // Guardar la lista completa
-            List<String> nombresProductos = new ArrayList<>();
-            for (ProductoDTO producto : productos) {
-                nombresProductos.add(producto.getNombreProducto());
-            }
-            cbNombreProducto.putClientProperty("fullList", nombresProductos);
-
             // Configurar el editor y el filtrado
             JTextField editor = (JTextField) cbNombreProducto.getEditor().getEditorComponent();
             editor.getDocument().addDocumentListener(new DocumentListener() {
@@ -411,7 +424,7 @@ public class PanelVenta extends javax.swing.JPanel {
                     if (timer != null) {
                         timer.stop();
                     }
-                    timer = new Timer(300, evt -> {
+                    timer = new Timer(120, evt -> {
                         if (usuarioCambioCombo && !dialogoCerradoSinSeleccion) {
                             filterComboBox();
                         }
@@ -435,51 +448,41 @@ public class PanelVenta extends javax.swing.JPanel {
 
     private void filterComboBox() {
         JTextField editor = (JTextField) cbNombreProducto.getEditor().getEditorComponent();
-        String filterText = editor.getText().toLowerCase();
+        String filterText = editor.getText();
 
-        @SuppressWarnings("unchecked")
-        List<String> fullList = (List<String>) cbNombreProducto.getClientProperty("fullList");
-        if (fullList == null) {
+        List<String> filteredList;
+        try {
+            // El índice ya está en memoria y corta en MAX_SUGERENCIAS: se
+            // consulta directo en el EDT
+            filteredList = sugerencias(filterText);
+        } catch (NegocioException ex) {
+            Logger.getLogger(PanelVenta.class.getName()).log(Level.WARNING, "Error al autocompletar", ex);
             return;
         }
 
-        // Usar SwingWorker para el filtrado en segundo plano
-        new SwingWorker<List<String>, Void>() {
-            @Override
-            protected List<String> doInBackground() {
-                return fullList.stream()
-                        .filter(item -> item.toLowerCase().contains(filterText))
-                        .collect(Collectors.toList());
-            }
+        // Evitar cambios innecesarios
+        if (filteredList.equals(getCurrentModelItems())) {
+            return;
+        }
 
-            @Override
-            protected void done() {
-                try {
-                    List<String> filteredList = get();
+        Object selected = cbNombreProducto.getSelectedItem();
+        cbNombreProducto.setModel(new DefaultComboBoxModel<>(filteredList.toArray(new String[0])));
+        cbNombreProducto.setSelectedItem(selected);
+        editor.setText(filterText);
 
-                    // Evitar cambios innecesarios
-                    if (filteredList.equals(getCurrentModelItems())) {
-                        return;
-                    }
+        if (!filterText.trim().isEmpty() && cbNombreProducto.isShowing()) {
+            cbNombreProducto.showPopup();
+        } else {
+            cbNombreProducto.hidePopup();
+        }
+    }
 
-                    // Actualizar el modelo en el EDT
-                    SwingUtilities.invokeLater(() -> {
-                        Object selected = cbNombreProducto.getSelectedItem();
-                        cbNombreProducto.setModel(new DefaultComboBoxModel<>(filteredList.toArray(new String[0])));
-                        cbNombreProducto.setSelectedItem(selected);
-                        editor.setText(filterText);
-
-                        if (!filterText.isEmpty() && cbNombreProducto.isShowing()) {
-                            cbNombreProducto.showPopup();
-                        } else {
-                            cbNombreProducto.hidePopup();
-                        }
-                    });
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                }
-            }
-        }.execute();
+    private List<String> sugerencias(String texto) throws NegocioException {
+        List<String> nombres = new ArrayList<>();
+        for (ProductoDTO producto : frmPrincipal.getProductoNegocio().autocompletar(texto, MAX_SUGERENCIAS)) {
+            nombres.add(producto.getNombreProducto());
+        }
+        return nombres;
     }
 
     private List<String> getCurrentModelItems() {
@@ -527,6 +530,8 @@ public class PanelVenta extends javax.swing.JPanel {
 
             // 4. Crear lista de detalles usando el mapa
             List<DetalleVentaDTO> detalles = new ArrayList<>();
+            Map<String, VarianteProductoDTO> variantes = frmPrincipal.getVarianteProductoNegocio()
+                    .obtenerPorCodigosBarra(filaCodigos);
 
             for (int i = 0; i < modelo.getRowCount(); i++) {
                 String codigoBarras = filaCodigos.get(i);
@@ -534,7 +539,7 @@ public class PanelVenta extends javax.swing.JPanel {
                     continue;
                 }
 
-                VarianteProductoDTO variante = frmPrincipal.getVarianteProductoNegocio().obtenerVariantePorCodigoBarra(codigoBarras);
+                VarianteProductoDTO variante = variantes.get(codigoBarras);
                 if (variante == null) {
                     throw new NegocioException("Producto con código " + codigoBarras + " ya no disponible");
                 }
@@ -1741,7 +1746,12 @@ public class PanelVenta extends javax.swing.JPanel {
     }
 
     private void imprimirTicket(VentaDTO ventaDTO) throws IOException {
+        if (ImpresoraTicket.isConfigurada()) {
+            imprimirTicketDirecto(ventaDTO);
+            return;
+        }
         try {
+            long inicioRender = System.nanoTime();
             String fileName = "TicketVenta_" + ventaDTO.getId() + ".pdf";
             File ticketFile = new File(fileName);
             Document document = new Document(new Rectangle(227f, 700f));
@@ -1789,28 +1799,36 @@ public class PanelVenta extends javax.swing.JPanel {
                     "ARTÍCULO", "CANT", "P.UNITARIO", "TOTAL"), boldFont));
             products.add(new Paragraph("----------------------------------------------", normalFont));
 
-            for (DetalleVentaDTO detalle : ventaDTO.getDetalles()) {
-                try {
-                    VarianteProductoDTO producto = frmPrincipal.getVarianteProductoNegocio()
-                            .obtenerVariantePorCodigoBarra(detalle.getCodigoVariante());
+            Map<String, VarianteProductoDTO> variantes = new HashMap<>();
+            try {
+                List<String> codigos = new ArrayList<>();
+                for (DetalleVentaDTO detalle : ventaDTO.getDetalles()) {
+                    codigos.add(detalle.getCodigoVariante());
+                }
+                variantes = frmPrincipal.getVarianteProductoNegocio().obtenerPorCodigosBarra(codigos);
+            } catch (NegocioException e) {
+                Logger.getLogger(PanelVenta.class.getName()).log(Level.SEVERE, "Error obteniendo productos", e);
+            }
 
-                    String nombre = producto.getCodigoBarra();
-                    if (nombre.length() > 25) {
-                        nombre = nombre.substring(0, 22) + "...";
-                    }
+            for (DetalleVentaDTO detalle : ventaDTO.getDetalles()) {
+                VarianteProductoDTO producto = variantes.get(detalle.getCodigoVariante());
+                if (producto == null) {
+                    continue;
+                }
 
-                    String linea = String.format("%-25s %3d %10s %10s",
-                            nombre,
-                            detalle.getCantidad(),
-                            formatoMonedaSimple(detalle.getPrecioUnitario()),
-                            formatoMonedaSimple(detalle.getPrecioUnitario()
-                                    .multiply(BigDecimal.valueOf(detalle.getCantidad()))));
+                String nombre = producto.getCodigoBarra();
+                if (nombre.length() > 25) {
+                    nombre = nombre.substring(0, 22) + "...";
+                }
 
-                    products.add(new Paragraph(linea, normalFont));
+                String linea = String.format("%-25s %3d %10s %10s",
+                        nombre,
+                        detalle.getCantidad(),
+                        formatoMonedaSimple(detalle.getPrecioUnitario()),
+                        formatoMonedaSimple(detalle.getPrecioUnitario()
+                                .multiply(BigDecimal.valueOf(detalle.getCantidad()))));
 
-                } catch (NegocioException e) {
-                    Logger.getLogger(PanelVenta.class.getName()).log(Level.SEVERE, "Error obteniendo producto", e);
-                }
+                products.add(new Paragraph(linea, normalFont));
             }
             document.add(products);
 
@@ -1848,6 +1866,7 @@ public class PanelVenta extends javax.swing.JPanel {
             document.add(footer);
 
             document.close();
+            RENDER_PDF.registrarDesde(inicioRender);
             this.ultimoTicketGenerado = ticketFile;
 
             // Abrir automáticamente
@@ -1859,6 +1878,66 @@ public class PanelVenta extends javax.swing.JPanel {
             Logger.getLogger(PanelVenta.class.getName()).log(Level.SEVERE, "Error generando ticket", e);
         }
     }
+
+    /**
+     * Manda el ticket en ESC/POS a la impresora térmica configurada, sin
+     * generar PDF.
+     */
+    private void imprimirTicketDirecto(VentaDTO ventaDTO) {
+        Map<String, VarianteProductoDTO> variantes = new HashMap<>();
+        try {
+            List<String> codigos = new ArrayList<>();
+            for (DetalleVentaDTO detalle : ventaDTO.getDetalles()) {
+                codigos.add(detalle.getCodigoVariante());
+            }
+            variantes = frmPrincipal.getVarianteProductoNegocio().obtenerPorCodigosBarra(codigos);
+        } catch (NegocioException e) {
+            Logger.getLogger(PanelVenta.class.getName()).log(Level.SEVERE, "Error obteniendo productos", e);
+        }
+
+        List<DatosTicket.Renglon> renglones = new ArrayList<>();
+        for (DetalleVentaDTO detalle : ventaDTO.getDetalles()) {
+            VarianteProductoDTO producto = variantes.get(detalle.getCodigoVariante());
+            String nombre = (producto != null && producto.getNombreProducto() != null)
+                    ? producto.getNombreProducto() : detalle.getCodigoVariante();
+            renglones.add(new DatosTicket.Renglon(nombre, detalle.getCantidad(), detalle.getPrecioUnitario(),
+                    detalle.getPrecioUnitario().multiply(BigDecimal.valueOf(detalle.getCantidad()))));
+        }
+
+        DatosTicket datos = new DatosTicket(ventaDTO.getId(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yy HH:mm")),
+                frmPrincipal.getUsuarioRegistrado().getNombreUsuario(),
+                renglones,
+                totalSinDescuento,
+                ventaDTO.getDescuento(),
+                ventaDTO.getTotal(),
+                ventaDTO.getMontoPago(),
+                ventaDTO.getMontoPago().subtract(ventaDTO.getTotal()));
+
+        long inicioRender = System.nanoTime();
+        this.ultimoTicketEscPos = TicketEscPos.generar(datos, ImpresoraTicket.getColumnas());
+        RENDER_ESCPOS.registrarDesde(inicioRender);
+        reimprimirTicketDirecto();
+    }
+
+    private void reimprimirTicketDirecto() {
+        if (ultimoTicketEscPos == null) {
+            JOptionPane.showMessageDialog(this,
+                    "No hay tickets generados en esta sesión",
+                    "Sin tickets",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        try {
+            ImpresoraTicket.imprimir(ultimoTicketEscPos);
+        } catch (PrintException ex) {
+            Logger.getLogger(PanelVenta.class.getName()).log(Level.SEVERE, "Error imprimiendo ticket", ex);
+            JOptionPane.showMessageDialog(this,
+                    "Error al imprimir el ticket: " + ex.getMessage(),
+                    "Error",
+                    JOptionPane.ERROR_MESSAGE);
+        }
+    }
 // Método auxiliar para formato monetario simple
 
     private String formatoMonedaSimple(BigDecimal cantidad) {
@@ -1,26 +1,35 @@
 package presentacion;
 
 import com.itextpdf.text.Font;
+import com.mycompany.chazzboutiquenegocio.dtos.MasVendidoDTO;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IReporteNegocio;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoInventario;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoVenta;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteCategoriaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteDiaHoraDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteInventarioDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVentaDTO;
 import javax.persistence.PersistenceException;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Comparator;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.function.Function;
 import javax.persistence.PersistenceException;
 import javax.swing.JOptionPane;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
+import utils.ModeloTablaPaginada;
 
 /**
  *
@@ -28,13 +37,21 @@ import javax.swing.table.JTableHeader;
  */
 public class PnlReporte extends javax.swing.JPanel {
 
+    private static final String MAS_VENDIDOS_HOY = "Más vendidos hoy (en vivo)";
+    private static final String MAS_VENDIDOS_SEMANA = "Más vendidos 7 días (en vivo)";
+    private static final int MAS_VENDIDOS_EN_VIVO = 20;
+    private static final String VENTAS_POR_HORA = "Ventas por día y hora";
+    private static final String[] DIAS_SEMANA = {"Lun", "Mar", "Mié", "Jue", "Vie", "Sáb", "Dom"};
+
     FrmPrincipal frmPrincipal;
-    private List<ReporteInventarioDTO> inventarioActual;
 
     public PnlReporte(FrmPrincipal frmPrincipal) {
         initComponents();
         this.frmPrincipal = frmPrincipal;
         this.setSize(new Dimension(1701, 1080));
+        cbxTipoReporte1.addItem(MAS_VENDIDOS_HOY);
+        cbxTipoReporte1.addItem(MAS_VENDIDOS_SEMANA);
+        cbxTipoReporte1.addItem(VENTAS_POR_HORA);
       
         cbxPeriodo.addActionListener(e -> {
             String periodoSeleccionado = (String) cbxPeriodo.getSelectedItem();
@@ -90,7 +107,9 @@ public class PnlReporte extends javax.swing.JPanel {
 
         cbxTipoReporte1.addActionListener(e -> {
             String tipo = (String) cbxTipoReporte1.getSelectedItem();
-            boolean esInventario = "Inventario actual".equals(tipo);
+            // Ni el inventario ni los más vendidos en vivo dependen de las fechas
+            boolean esInventario = "Inventario actual".equals(tipo)
+                    || MAS_VENDIDOS_HOY.equals(tipo) || MAS_VENDIDOS_SEMANA.equals(tipo);
 
             if (esInventario) {
                 // Configuración para Inventario actual
@@ -124,6 +143,17 @@ public class PnlReporte extends javax.swing.JPanel {
         header.setBackground(Color.BLACK);
         header.setPreferredSize(new Dimension(header.getWidth(), 35));
 
+        // El orden lo aplica la consulta; la tabla solo tiene las filas visibles
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int columna = tblReporte.convertColumnIndexToModel(header.columnAtPoint(e.getPoint()));
+                if (columna >= 0 && tblReporte.getModel() instanceof ModeloTablaPaginada) {
+                    ((ModeloTablaPaginada<?>) tblReporte.getModel()).ordenarPor(columna);
+                }
+            }
+        });
+
         tblReporte.setDefaultRenderer(Object.class, new javax.swing.table.DefaultTableCellRenderer() {
             @Override
             public java.awt.Component getTableCellRendererComponent(javax.swing.JTable table, Object value,
@@ -178,81 +208,104 @@ public class PnlReporte extends javax.swing.JPanel {
 //                return;
 //            }
 
-            DefaultTableModel model = new DefaultTableModel();
             IReporteNegocio reporteNegocio = frmPrincipal.getReporteNegocio();
+            // Las filas se consultan por páginas fuera del hilo de Swing, conforme se muestran
+            ModeloTablaPaginada<?> model;
+            ModeloTablaPaginada<ReporteInventarioDTO> modeloInventario = null;
 
             switch (tipoReporte) {
                 case "Ventas":
-                    List<ReporteVentaDTO> ventas = reporteNegocio.obtenerDatosVentas(fechaInicio, fechaFin);
-                    model.addColumn("ID Venta");
-                    model.addColumn("Fecha");
-                    model.addColumn("Total");
-                    model.addColumn("Vendedor");
-
-                    for (ReporteVentaDTO venta : ventas) {
-                        model.addRow(new Object[]{
-                            venta.getVentaId(),
-                            venta.getFecha(),
-                            "$" + venta.getTotal().setScale(2, RoundingMode.HALF_UP),
-                            venta.getVendedor()
-                        });
-                    }
+                    model = new ModeloTablaPaginada<>(new ModeloTablaPaginada.Fuente<ReporteVentaDTO>() {
+                        @Override
+                        public long contar() throws Exception {
+                            return reporteNegocio.contarVentas(fechaInicio, fechaFin);
+                        }
+
+                        @Override
+                        public List<ReporteVentaDTO> pagina(int columnaOrden, boolean descendente, int inicio, int cantidad) throws Exception {
+                            return reporteNegocio.obtenerPaginaVentas(fechaInicio, fechaFin,
+                                    CampoVenta.values()[columnaOrden], descendente, inicio, cantidad);
+                        }
+                    }, CampoVenta.FECHA.ordinal(), true, this::mostrarErrorCarga)
+                            .columna("ID Venta", ReporteVentaDTO::getVentaId)
+                            .columna("Fecha", ReporteVentaDTO::getFecha)
+                            .columna("Total", venta -> "$" + venta.getTotal().setScale(2, RoundingMode.HALF_UP))
+                            .columna("Vendedor", ReporteVentaDTO::getVendedor);
                     break;
 
                 case "Productos más vendidos":
-                    List<ReporteProductoDTO> productos = reporteNegocio.obtenerProductosMasVendidos(fechaInicio, fechaFin);
-                    model.addColumn("Producto");
-                    model.addColumn("Cantidad Vendida");
-                    model.addColumn("Total Vendido");
-                    model.addColumn("Categoría");
-
-                    for (ReporteProductoDTO producto : productos) {
-                        model.addRow(new Object[]{
-                            producto.getNombreProducto(),
-                            producto.getCantidadVendida(),
-                            "$" + producto.getTotalVendido().setScale(2, RoundingMode.HALF_UP),
-                            producto.getCategoria()
-                        });
-                    }
+                    model = new ModeloTablaPaginada<>(ModeloTablaPaginada.enMemoria(
+                            () -> reporteNegocio.obtenerProductosMasVendidos(fechaInicio, fechaFin),
+                            List.of(por(ReporteProductoDTO::getNombreProducto), por(ReporteProductoDTO::getCantidadVendida),
+                                    por(ReporteProductoDTO::getTotalVendido), por(ReporteProductoDTO::getCategoria))),
+                            -1, false, this::mostrarErrorCarga)
+                            .columna("Producto", ReporteProductoDTO::getNombreProducto)
+                            .columna("Cantidad Vendida", ReporteProductoDTO::getCantidadVendida)
+                            .columna("Total Vendido", producto -> "$" + producto.getTotalVendido().setScale(2, RoundingMode.HALF_UP))
+                            .columna("Categoría", ReporteProductoDTO::getCategoria);
                     break;
 
                 case "Ingresos por categoría":
-                    List<ReporteCategoriaDTO> categorias = reporteNegocio.obtenerIngresosPorCategoria(fechaInicio, fechaFin);
-                    model.addColumn("Categoría");
-                    model.addColumn("Ventas Totales");
-                    model.addColumn("Ingresos");
-                    model.addColumn("% del Total");
-
-                    for (ReporteCategoriaDTO categoria : categorias) {
-                        model.addRow(new Object[]{
-                            categoria.getNombreCategoria(),
-                            categoria.getVentasTotales(),
-                            "$" + categoria.getIngresos().setScale(2, RoundingMode.HALF_UP),
-                            categoria.getPorcentaje().setScale(2, RoundingMode.HALF_UP) + "%"
-                        });
-                    }
+                    model = new ModeloTablaPaginada<>(ModeloTablaPaginada.enMemoria(
+                            () -> reporteNegocio.obtenerIngresosPorCategoria(fechaInicio, fechaFin),
+                            List.of(por(ReporteCategoriaDTO::getNombreCategoria), por(ReporteCategoriaDTO::getVentasTotales),
+                                    por(ReporteCategoriaDTO::getIngresos), por(ReporteCategoriaDTO::getPorcentaje))),
+                            -1, false, this::mostrarErrorCarga)
+                            .columna("Categoría", ReporteCategoriaDTO::getNombreCategoria)
+                            .columna("Ventas Totales", ReporteCategoriaDTO::getVentasTotales)
+                            .columna("Ingresos", categoria -> "$" + categoria.getIngresos().setScale(2, RoundingMode.HALF_UP))
+                            .columna("% del Total", categoria -> categoria.getPorcentaje().setScale(2, RoundingMode.HALF_UP) + "%");
                     break;
 
                 case "Inventario actual":
-                    this.inventarioActual = reporteNegocio.obtenerInventarioActual();
-                    model.addColumn("Producto");
-                    model.addColumn("Talla");
-                    model.addColumn("Color");
-                    model.addColumn("Stock");
-                    model.addColumn("Precio Unitario");
-                    model.addColumn("Valor Total");
-
-                    for (ReporteInventarioDTO item : inventarioActual) {
-                        model.addRow(new Object[]{
-                            item.getNombreProducto(),
-                            item.getTalla(),
-                            "", // Celda vacía que se mostrará con color
-                            item.getStock(),
-                            "$" + item.getPrecioUnitario().setScale(2, RoundingMode.HALF_UP),
-                            "$" + item.getValorTotal().setScale(2, RoundingMode.HALF_UP)
-                        });
+                    modeloInventario = new ModeloTablaPaginada<>(new ModeloTablaPaginada.Fuente<ReporteInventarioDTO>() {
+                        @Override
+                        public long contar() throws Exception {
+                            return reporteNegocio.contarInventario();
+                        }
+
+                        @Override
+                        public List<ReporteInventarioDTO> pagina(int columnaOrden, boolean descendente, int inicio, int cantidad) throws Exception {
+                            return reporteNegocio.obtenerPaginaInventario(CampoInventario.values()[columnaOrden],
+                                    descendente, inicio, cantidad);
+                        }
+                    }, CampoInventario.PRODUCTO.ordinal(), false, this::mostrarErrorCarga)
+                            .columna("Producto", ReporteInventarioDTO::getNombreProducto)
+                            .columna("Talla", ReporteInventarioDTO::getTalla)
+                            .columna("Color", item -> "") // Celda vacía que se mostrará con color
+                            .columna("Stock", ReporteInventarioDTO::getStock)
+                            .columna("Precio Unitario", item -> "$" + item.getPrecioUnitario().setScale(2, RoundingMode.HALF_UP))
+                            .columna("Valor Total", item -> "$" + item.getValorTotal().setScale(2, RoundingMode.HALF_UP));
+                    model = modeloInventario;
+                    break;
+                case MAS_VENDIDOS_HOY:
+                case MAS_VENDIDOS_SEMANA:
+                    // Sale del seguimiento en memoria, sin consultar la base
+                    int dias = MAS_VENDIDOS_HOY.equals(tipoReporte) ? 1 : 7;
+                    model = new ModeloTablaPaginada<>(ModeloTablaPaginada.enMemoria(
+                            () -> reporteNegocio.obtenerMasVendidosEnVivo(dias, MAS_VENDIDOS_EN_VIVO),
+                            List.of(por(MasVendidoDTO::getNombreProducto), por(MasVendidoDTO::getUnidades),
+                                    por(MasVendidoDTO::getErrorMaximo), por(MasVendidoDTO::getCategoria))),
+                            -1, false, this::mostrarErrorCarga)
+                            .columna("Producto", MasVendidoDTO::getNombreProducto)
+                            .columna("Unidades", MasVendidoDTO::getUnidades)
+                            .columna("Margen de error", MasVendidoDTO::getErrorMaximo)
+                            .columna("Categoría", MasVendidoDTO::getCategoria);
+                    break;
+                case VENTAS_POR_HORA:
+                    // Una fila por hora y una columna por día con el número de ventas
+                    List<Comparator<long[]>> comparadores = new ArrayList<>();
+                    ModeloTablaPaginada<long[]> modeloHoras = new ModeloTablaPaginada<>(ModeloTablaPaginada.enMemoria(
+                            () -> cuadriculaDiaHora(reporteNegocio.obtenerVentasPorDiaYHora(fechaInicio, fechaFin)),
+                            comparadores), -1, false, this::mostrarErrorCarga)
+                            .columna("Hora", fila -> String.format("%02d:00", fila[0]));
+                    comparadores.add(Comparator.comparingLong(fila -> fila[0]));
+                    for (int dia = 1; dia <= DIAS_SEMANA.length; dia++) {
+                        int i = dia;
+                        modeloHoras.columna(DIAS_SEMANA[dia - 1], fila -> fila[i]);
+                        comparadores.add(Comparator.comparingLong(fila -> fila[i]));
                     }
-
+                    model = modeloHoras;
                     break;
                 default:
                     throw new IllegalArgumentException("Tipo de reporte no válido");
@@ -261,9 +314,10 @@ public class PnlReporte extends javax.swing.JPanel {
             tblReporte.setModel(model);
 
             // LUEGO configurar el renderizador solo si es el reporte de inventario
-            if ("Inventario actual".equals(tipoReporte) && tblReporte.getColumnCount() > 2) {
-                tblReporte.getColumnModel().getColumn(2).setCellRenderer(new ColorCellRenderer(inventarioActual));
+            if (modeloInventario != null && tblReporte.getColumnCount() > 2) {
+                tblReporte.getColumnModel().getColumn(2).setCellRenderer(new ColorCellRenderer(modeloInventario));
             }
+            model.cargar();
         } catch (PersistenceException e) {
             JOptionPane.showMessageDialog(this,
                     "Error de base de datos al generar el reporte: " + e.getMessage(),
@@ -284,6 +338,35 @@ public class PnlReporte extends javax.swing.JPanel {
         }
     }
 
+    private void mostrarErrorCarga(Exception e) {
+        JOptionPane.showMessageDialog(this,
+                "Error al generar el reporte: " + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE);
+        e.printStackTrace();
+    }
+
+    /**
+     * Pasa las celdas del reporte a 24 filas {hora, ventas lunes..domingo},
+     * con cero donde no hubo ventas.
+     */
+    private static List<long[]> cuadriculaDiaHora(List<ReporteDiaHoraDTO> celdas) {
+        List<long[]> filas = new ArrayList<>(24);
+        for (int hora = 0; hora < 24; hora++) {
+            long[] fila = new long[DIAS_SEMANA.length + 1];
+            fila[0] = hora;
+            filas.add(fila);
+        }
+        for (ReporteDiaHoraDTO celda : celdas) {
+            filas.get(celda.getHora())[celda.getDiaSemana()] = celda.getVentas();
+        }
+        return filas;
+    }
+
+    private static <T, C extends Comparable<? super C>> Comparator<T> por(Function<T, C> clave) {
+        return Comparator.comparing(clave, Comparator.nullsFirst(Comparator.naturalOrder()));
+    }
+
     private String formatearTitulo(String texto) {
         String[] palabras = texto.trim().toLowerCase().split("\\s+");
         StringBuilder sb = new StringBuilder();
@@ -487,9 +570,9 @@ public class PnlReporte extends javax.swing.JPanel {
 
     private static class ColorCellRenderer extends javax.swing.table.DefaultTableCellRenderer {
 
-        private final List<ReporteInventarioDTO> inventario;
+        private final ModeloTablaPaginada<ReporteInventarioDTO> inventario;
 
-        public ColorCellRenderer(List<ReporteInventarioDTO> inventario) {
+        public ColorCellRenderer(ModeloTablaPaginada<ReporteInventarioDTO> inventario) {
             this.inventario = inventario;
         }
 
@@ -499,8 +582,9 @@ public class PnlReporte extends javax.swing.JPanel {
 
             java.awt.Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
 
-            if (row < inventario.size()) {
-                String colorHex = inventario.get(row).getColor();
+            ReporteInventarioDTO item = inventario.getFila(table.convertRowIndexToModel(row));
+            if (item != null) {
+                String colorHex = item.getColor();
                 try {
                     c.setBackground(Color.decode(colorHex));
                 } catch (Exception e) {
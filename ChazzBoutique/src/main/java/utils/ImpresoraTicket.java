@@ -0,0 +1,63 @@
+package utils;
+
+import com.mycompany.chazzboutiquenegocio.tickets.TicketEscPos;
+import javax.print.DocFlavor;
+import javax.print.DocPrintJob;
+import javax.print.PrintException;
+import javax.print.PrintService;
+import javax.print.PrintServiceLookup;
+import javax.print.SimpleDoc;
+
+/**
+ * Impresora térmica para mandarle el ticket en ESC/POS sin pasar por el PDF.
+ *
+ * Se activa al arrancar con {@code -Dchazz.tickets.impresora=<nombre>} (el
+ * nombre como aparece en el sistema, o {@code predeterminada}) y opcionalmente
+ * {@code -Dchazz.tickets.columnas=32} para papel de 58 mm (por defecto 48,
+ * papel de 80 mm). Sin impresora configurada el ticket sigue siendo PDF.
+ */
+public final class ImpresoraTicket {
+
+    public static final String CLAVE_IMPRESORA = "chazz.tickets.impresora";
+    public static final String CLAVE_COLUMNAS = "chazz.tickets.columnas";
+    private static final String PREDETERMINADA = "predeterminada";
+
+    private ImpresoraTicket() {
+    }
+
+    public static boolean isConfigurada() {
+        String nombre = System.getProperty(CLAVE_IMPRESORA);
+        return nombre != null && !nombre.isBlank();
+    }
+
+    public static int getColumnas() {
+        String valor = System.getProperty(CLAVE_COLUMNAS);
+        return String.valueOf(TicketEscPos.COLUMNAS_58MM).equals(valor)
+                ? TicketEscPos.COLUMNAS_58MM : TicketEscPos.COLUMNAS_80MM;
+    }
+
+    /**
+     * Manda los bytes tal cual, sin que el sistema los interprete.
+     */
+    public static void imprimir(byte[] escPos) throws PrintException {
+        PrintService servicio = buscarServicio(System.getProperty(CLAVE_IMPRESORA, "").trim());
+        DocPrintJob trabajo = servicio.createPrintJob();
+        trabajo.print(new SimpleDoc(escPos, DocFlavor.BYTE_ARRAY.AUTOSENSE, null), null);
+    }
+
+    private static PrintService buscarServicio(String nombre) throws PrintException {
+        if (nombre.equalsIgnoreCase(PREDETERMINADA)) {
+            PrintService predeterminada = PrintServiceLookup.lookupDefaultPrintService();
+            if (predeterminada == null) {
+                throw new PrintException("No hay impresora predeterminada");
+            }
+            return predeterminada;
+        }
+        for (PrintService s : PrintServiceLookup.lookupPrintServices(DocFlavor.BYTE_ARRAY.AUTOSENSE, null)) {
+            if (s.getName().equalsIgnoreCase(nombre)) {
+                return s;
+            }
+        }
+        throw new PrintException("No se encontró la impresora: " + nombre);
+    }
+}
@@ -0,0 +1,262 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Modelo de tabla que no guarda todas las filas: las pide a una
+ * {@link Fuente} por páginas de {@value #TAMANO_PAGINA} conforme la tabla
+ * las pinta, y conserva solo las {@value #PAGINAS_EN_MEMORIA} usadas más
+ * recientemente. Las consultas corren fuera del hilo de Swing; mientras
+ * llega una página sus celdas se ven vacías.
+ *
+ * El orden lo aplica la fuente: {@link #ordenarPor} descarta las páginas y
+ * las vuelve a pedir ya ordenadas.
+ *
+ * Salvo las consultas, todo se usa desde el hilo de Swing.
+ */
+public class ModeloTablaPaginada<T> extends AbstractTableModel {
+
+    public static final int TAMANO_PAGINA = 200;
+    static final int PAGINAS_EN_MEMORIA = 20;
+
+    /**
+     * De dónde salen las filas. {@code columnaOrden} es el índice de la
+     * columna en el modelo.
+     */
+    public interface Fuente<T> {
+
+        long contar() throws Exception;
+
+        List<T> pagina(int columnaOrden, boolean descendente, int inicio, int cantidad) throws Exception;
+    }
+
+    private final Fuente<T> fuente;
+    private final Consumer<Exception> alFallar;
+    private final List<String> titulos = new ArrayList<>();
+    private final List<Function<T, Object>> valores = new ArrayList<>();
+
+    private final Map<Integer, List<T>> paginas = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> mayor) {
+            return size() > PAGINAS_EN_MEMORIA;
+        }
+    };
+    private final Map<Integer, SwingWorker<List<T>, Void>> pidiendo = new HashMap<>();
+    private int filas;
+    private int columnaOrden;
+    private boolean descendente;
+    // Cambian con cada carga (y orden, para las páginas); las respuestas de
+    // una anterior se descartan
+    private int carga;
+    private int generacion;
+    private boolean avisado;
+
+    /**
+     * @param alFallar recibe el primer error de cada carga; las filas que no
+     * se pudieron traer quedan vacías.
+     */
+    public ModeloTablaPaginada(Fuente<T> fuente, int columnaOrden, boolean descendente, Consumer<Exception> alFallar) {
+        this.fuente = fuente;
+        this.columnaOrden = columnaOrden;
+        this.descendente = descendente;
+        this.alFallar = alFallar;
+    }
+
+    public ModeloTablaPaginada<T> columna(String titulo, Function<T, Object> valor) {
+        titulos.add(titulo);
+        valores.add(valor);
+        return this;
+    }
+
+    /**
+     * Cuenta las filas y deja que la tabla pida las páginas que muestre.
+     */
+    public void cargar() {
+        int esta = ++carga;
+        reiniciar();
+        filas = 0;
+        fireTableDataChanged();
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return fuente.contar();
+            }
+
+            @Override
+            protected void done() {
+                if (esta != carga) {
+                    return;
+                }
+                try {
+                    filas = (int) Math.min(get(), Integer.MAX_VALUE);
+                    fireTableDataChanged();
+                } catch (InterruptedException | ExecutionException e) {
+                    fallo(e);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Ordena por {@code columna}; si ya estaba ordenado por ella, invierte
+     * el sentido.
+     */
+    public void ordenarPor(int columna) {
+        descendente = columna == columnaOrden && !descendente;
+        columnaOrden = columna;
+        reiniciar();
+        fireTableDataChanged();
+    }
+
+    public int getColumnaOrden() {
+        return columnaOrden;
+    }
+
+    public boolean isDescendente() {
+        return descendente;
+    }
+
+    /**
+     * @return la fila, o {@code null} si su página aún no llega (en ese caso
+     * se pide).
+     */
+    public T getFila(int fila) {
+        int pagina = fila / TAMANO_PAGINA;
+        List<T> elementos = paginas.get(pagina);
+        if (elementos == null) {
+            pedir(pagina);
+            return null;
+        }
+        int i = fila % TAMANO_PAGINA;
+        return i < elementos.size() ? elementos.get(i) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return titulos.size();
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return titulos.get(columna);
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        T elemento = getFila(fila);
+        return elemento == null ? null : valores.get(columna).apply(elemento);
+    }
+
+    private void reiniciar() {
+        // Antes de cancelar: una consulta cancelada avisa al terminar en este hilo
+        generacion++;
+        paginas.clear();
+        // Las que aún no empiezan ya no se consultan
+        pidiendo.values().forEach(w -> w.cancel(false));
+        pidiendo.clear();
+        avisado = false;
+    }
+
+    private void pedir(int pagina) {
+        if (pidiendo.containsKey(pagina)) {
+            return;
+        }
+        int esta = generacion;
+        int columna = columnaOrden;
+        boolean desc = descendente;
+        SwingWorker<List<T>, Void> worker = new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() throws Exception {
+                return fuente.pagina(columna, desc, pagina * TAMANO_PAGINA, TAMANO_PAGINA);
+            }
+
+            @Override
+            protected void done() {
+                if (esta != generacion) {
+                    return;
+                }
+                pidiendo.remove(pagina);
+                try {
+                    paginas.put(pagina, get());
+                } catch (InterruptedException | ExecutionException e) {
+                    // Vacía para no volver a pedirla en cada repintado
+                    paginas.put(pagina, Collections.emptyList());
+                    fallo(e);
+                }
+                int desde = pagina * TAMANO_PAGINA;
+                if (desde < filas) {
+                    fireTableRowsUpdated(desde, Math.min(filas, desde + TAMANO_PAGINA) - 1);
+                }
+            }
+        };
+        pidiendo.put(pagina, worker);
+        worker.execute();
+    }
+
+    private void fallo(Exception e) {
+        if (avisado) {
+            return;
+        }
+        avisado = true;
+        Throwable causa = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        alFallar.accept(causa instanceof Exception ? (Exception) causa : e);
+    }
+
+    /**
+     * Fuente para reportes que se consultan completos (unas cuantas filas
+     * por producto o categoría): la consulta se hace una vez, al contar, y
+     * se ordena en memoria con el comparador de cada columna. Con columna
+     * {@code -1} se respeta el orden de la consulta.
+     */
+    public static <T> Fuente<T> enMemoria(Callable<List<T>> consulta, List<Comparator<T>> comparadores) {
+        return new Fuente<T>() {
+            private List<T> todas = List.of();
+            private List<T> ordenadas = List.of();
+            private int columna = -1;
+            private boolean desc;
+
+            @Override
+            public synchronized long contar() throws Exception {
+                todas = consulta.call();
+                ordenadas = todas;
+                columna = -1;
+                return todas.size();
+            }
+
+            @Override
+            public synchronized List<T> pagina(int columnaOrden, boolean descendente, int inicio, int cantidad) {
+                if (columnaOrden != columna || descendente != desc) {
+                    List<T> copia = new ArrayList<>(todas);
+                    if (columnaOrden >= 0) {
+                        Comparator<T> c = comparadores.get(columnaOrden);
+                        copia.sort(descendente ? c.reversed() : c);
+                    }
+                    ordenadas = copia;
+                    columna = columnaOrden;
+                    desc = descendente;
+                }
+                List<T> lista = ordenadas;
+                return inicio >= lista.size()
+                        ? List.of()
+                        : new ArrayList<>(lista.subList(inicio, Math.min(lista.size(), inicio + cantidad)));
+            }
+        };
+    }
+}
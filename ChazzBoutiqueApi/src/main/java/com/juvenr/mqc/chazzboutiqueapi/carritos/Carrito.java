@@ -0,0 +1,109 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos;
+
+import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Estado de un carrito en memoria. Los renglones guardan la variante ya
+ * resuelta y el precio con que se agregó; subtotal y número de artículos se
+ * ajustan con la diferencia de cada cambio, sin recorrer el carrito.
+ *
+ * No es seguro entre hilos: {@link CarritoService} lo usa dentro de un
+ * bloque sincronizado sobre el propio carrito.
+ */
+final class Carrito {
+
+    static final class Renglon {
+
+        final VarianteProductoDTO variante;
+        final BigDecimal precio;
+        int cantidad;
+
+        Renglon(VarianteProductoDTO variante, BigDecimal precio) {
+            this.variante = variante;
+            this.precio = precio;
+        }
+    }
+
+    final String id;
+    final Long usuarioId;
+    /**
+     * Por {@link #clave} del código de barras de la variante (no del texto
+     * escaneado), en el orden en que se agregaron.
+     */
+    final Map<String, Renglon> renglones = new LinkedHashMap<>();
+
+    private BigDecimal subtotal = BigDecimal.ZERO.setScale(2);
+    private BigDecimal descuento = BigDecimal.ZERO.setScale(2);
+    private int articulos;
+    boolean cobrado;
+
+    Carrito(String id, Long usuarioId) {
+        this.id = id;
+        this.usuarioId = usuarioId;
+    }
+
+    /**
+     * La base compara los códigos sin distinguir mayúsculas (collation de
+     * MySQL), así que {@code abc1} y {@code ABC1} son la misma variante y
+     * deben caer en el mismo renglón.
+     */
+    static String clave(String codigoBarra) {
+        return codigoBarra.trim().toUpperCase(Locale.ROOT);
+    }
+
+    Renglon renglon(String codigoBarra) {
+        return renglones.get(clave(codigoBarra));
+    }
+
+    /**
+     * El renglón de la variante; si no hay, lo crea vacío con ese precio.
+     */
+    Renglon renglonPara(VarianteProductoDTO variante, BigDecimal precio) {
+        return renglones.computeIfAbsent(clave(variante.getCodigoBarra()), k -> new Renglon(variante, precio));
+    }
+
+    void quitar(Renglon r) {
+        renglones.remove(clave(r.variante.getCodigoBarra()));
+    }
+
+    /**
+     * Cambia la cantidad de un renglón (0 lo quita) y ajusta los totales.
+     */
+    void ponerCantidad(Renglon r, int cantidad) {
+        int diferencia = cantidad - r.cantidad;
+        subtotal = subtotal.add(r.precio.multiply(BigDecimal.valueOf(diferencia)));
+        articulos += diferencia;
+        r.cantidad = cantidad;
+        if (cantidad == 0) {
+            quitar(r);
+        }
+    }
+
+    void setDescuento(BigDecimal descuento) {
+        this.descuento = descuento;
+    }
+
+    BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    BigDecimal getDescuento() {
+        return descuento;
+    }
+
+    /**
+     * Nunca negativo: si se quitan renglones después de aplicar el descuento
+     * éste puede quedar mayor al subtotal; el cobro lo rechaza.
+     */
+    BigDecimal getTotal() {
+        return subtotal.subtract(descuento).max(BigDecimal.ZERO);
+    }
+
+    int getArticulos() {
+        return articulos;
+    }
+}
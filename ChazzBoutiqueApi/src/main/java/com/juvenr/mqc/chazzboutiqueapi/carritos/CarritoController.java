@@ -0,0 +1,82 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos;
+
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.CantidadCarritoRequest;
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.CarritoCambioResponse;
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.CarritoResponse;
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.CobrarCarritoRequest;
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.CrearCarritoRequest;
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.DescuentoCarritoRequest;
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.LineaCarritoRequest;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.Carga;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.EjecutoresApi;
+import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaResponse;
+import java.util.concurrent.CompletableFuture;
+import javax.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Carrito de venta en el servidor: el POS manda solo el cambio de cada
+ * renglón y recibe los totales, en lugar de recotizar todo el carrito.
+ * Los cambios que solo tocan memoria corren en el hilo de la petición; los
+ * que consultan la base van a su grupo de hilos.
+ */
+@RestController
+@RequestMapping("/api/carritos")
+public class CarritoController {
+
+    private final CarritoService carritoService;
+    private final EjecutoresApi ejecutores;
+
+    public CarritoController(CarritoService carritoService, EjecutoresApi ejecutores) {
+        this.carritoService = carritoService;
+        this.ejecutores = ejecutores;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public CarritoResponse crear(@RequestBody @Valid CrearCarritoRequest req) {
+        return carritoService.crear(req.getUsuarioId());
+    }
+
+    @GetMapping("/{id}")
+    public CarritoResponse obtener(@PathVariable String id) {
+        return carritoService.obtener(id);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void descartar(@PathVariable String id) {
+        carritoService.descartar(id);
+    }
+
+    @PostMapping("/{id}/lineas")
+    public CompletableFuture<CarritoCambioResponse> agregar(@PathVariable String id,
+            @RequestBody @Valid LineaCarritoRequest req) {
+        return ejecutores.ejecutar(Carga.CONSULTAS,
+                () -> carritoService.agregar(id, req.getCodigoBarras(), req.getCantidad()));
+    }
+
+    @PutMapping("/{id}/lineas/{codigo}")
+    public CarritoCambioResponse cambiarCantidad(@PathVariable String id, @PathVariable String codigo,
+            @RequestBody @Valid CantidadCarritoRequest req) {
+        return carritoService.cambiarCantidad(id, codigo, req.getCantidad());
+    }
+
+    @DeleteMapping("/{id}/lineas/{codigo}")
+    public CarritoCambioResponse quitar(@PathVariable String id, @PathVariable String codigo) {
+        return carritoService.quitar(id, codigo);
+    }
+
+    @PutMapping("/{id}/descuento")
+    public CarritoCambioResponse aplicarDescuento(@PathVariable String id,
+            @RequestBody @Valid DescuentoCarritoRequest req) {
+        return carritoService.aplicarDescuento(id, req.getDescuento());
+    }
+
+    @PostMapping("/{id}/cobrar")
+    public CompletableFuture<VentaResponse> cobrar(@PathVariable String id,
+            @RequestBody @Valid CobrarCarritoRequest req) {
+        return ejecutores.ejecutar(Carga.VENTAS, () -> carritoService.cobrar(id, req.getMontoPago()));
+    }
+}
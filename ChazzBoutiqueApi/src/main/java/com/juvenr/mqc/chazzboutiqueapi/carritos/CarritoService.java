@@ -0,0 +1,259 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos;
+
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.CarritoCambioResponse;
+import com.juvenr.mqc.chazzboutiqueapi.carritos.dto.CarritoResponse;
+import com.juvenr.mqc.chazzboutiqueapi.shared.errors.BusinessException;
+import com.juvenr.mqc.chazzboutiqueapi.shared.errors.NotFoundException;
+import com.juvenr.mqc.chazzboutiqueapi.ventas.VentaService;
+import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaDetalleResponse;
+import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaResponse;
+import com.mycompany.chazzboutiquenegocio.cache.CacheLRU;
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
+import com.mycompany.chazzboutiquenegocio.dtos.DetalleVentaDTO;
+import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
+import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVarianteProductoNegocio;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Carritos de venta del lado del servidor. Cada cambio resuelve a lo más
+ * una variante (la del renglón nuevo) y ajusta los totales con la
+ * diferencia; el cobro registra la venta con las variantes y precios que el
+ * carrito ya tiene, sin volver a resolver los códigos.
+ *
+ * Los carritos viven en memoria, con límite de cantidad
+ * ({@code chazz.carritos.capacidad}) y caducan tras
+ * {@code chazz.carritos.ttlMs} sin usarse. Se pierden si la API se
+ * reinicia.
+ */
+@Service
+public class CarritoService {
+
+    static final String CLAVE_CAPACIDAD = "chazz.carritos.capacidad";
+    static final String CLAVE_TTL = "chazz.carritos.ttlMs";
+
+    public static final int CAPACIDAD_POR_DEFECTO = 1000;
+    public static final long TTL_POR_DEFECTO_MS = 30 * 60_000L;
+
+    private final CacheLRU<String, Carrito> carritos;
+    private final IVarianteProductoNegocio varianteNegocio;
+    private final VentaService ventaService;
+
+    public CarritoService(IVarianteProductoNegocio varianteNegocio, VentaService ventaService, Environment env) {
+        this.varianteNegocio = varianteNegocio;
+        this.ventaService = ventaService;
+        this.carritos = new CacheLRU<>("carritos",
+                env.getProperty(CLAVE_CAPACIDAD, Integer.class, CAPACIDAD_POR_DEFECTO),
+                env.getProperty(CLAVE_TTL, Long.class, TTL_POR_DEFECTO_MS));
+    }
+
+    public CarritoResponse crear(Long usuarioId) {
+        if (usuarioId == null) throw new BusinessException("USUARIO_REQUERIDO", "usuarioId requerido");
+
+        Carrito c = new Carrito(UUID.randomUUID().toString(), usuarioId);
+        carritos.poner(c.id, c);
+        synchronized (c) {
+            return aResponse(c);
+        }
+    }
+
+    public CarritoResponse obtener(String id) {
+        Carrito c = buscar(id);
+        synchronized (c) {
+            return aResponse(c);
+        }
+    }
+
+    /**
+     * Agrega {@code cantidad} piezas del código; si ya está en el carrito
+     * solo suma a su renglón.
+     */
+    public CarritoCambioResponse agregar(String id, String codigoBarras, int cantidad) {
+        if (codigoBarras == null || codigoBarras.trim().isEmpty()) {
+            throw new BusinessException("CODIGO_REQUERIDO", "codigoBarras requerido");
+        }
+        if (cantidad <= 0) {
+            throw new BusinessException("CANTIDAD_INVALIDA", "Cantidad inválida para: " + codigoBarras);
+        }
+        String codigo = codigoBarras.trim();
+        Carrito c = buscar(id);
+
+        VarianteProductoDTO variante = null;
+        synchronized (c) {
+            validarAbierto(c);
+            Carrito.Renglon r = c.renglon(codigo);
+            if (r != null) {
+                return cambiar(c, r, r.cantidad + cantidad);
+            }
+        }
+
+        // La consulta va fuera del candado para no frenar otros cambios al carrito
+        try {
+            variante = varianteNegocio.obtenerVariantePorCodigoBarra(codigo);
+        } catch (NegocioException e) {
+            throw new BusinessException("VARIANTE_ERROR", e.getMessage());
+        }
+        if (variante == null) {
+            throw new BusinessException("VARIANTE_NO_EXISTE", "No existe el producto con código: " + codigo);
+        }
+
+        synchronized (c) {
+            validarAbierto(c);
+            // Por el código de la variante: el escaneado puede diferir (p. ej. en mayúsculas)
+            Carrito.Renglon r = c.renglonPara(variante, n2(variante.getPrecioVenta()));
+            return cambiar(c, r, r.cantidad + cantidad);
+        }
+    }
+
+    /**
+     * Fija la cantidad de un renglón; 0 lo quita.
+     */
+    public CarritoCambioResponse cambiarCantidad(String id, String codigoBarras, int cantidad) {
+        if (cantidad < 0) {
+            throw new BusinessException("CANTIDAD_INVALIDA", "Cantidad inválida para: " + codigoBarras);
+        }
+        Carrito c = buscar(id);
+        synchronized (c) {
+            validarAbierto(c);
+            return cambiar(c, renglon(c, codigoBarras), cantidad);
+        }
+    }
+
+    public CarritoCambioResponse quitar(String id, String codigoBarras) {
+        return cambiarCantidad(id, codigoBarras, 0);
+    }
+
+    public CarritoCambioResponse aplicarDescuento(String id, BigDecimal descuento) {
+        BigDecimal d = n2(descuento);
+        if (d.compareTo(BigDecimal.ZERO) < 0) d = BigDecimal.ZERO.setScale(2);
+
+        Carrito c = buscar(id);
+        synchronized (c) {
+            validarAbierto(c);
+            if (d.compareTo(c.getSubtotal()) > 0) {
+                throw new BusinessException("DESCUENTO_INVALIDO", "El descuento no puede ser mayor al subtotal");
+            }
+            c.setDescuento(d);
+            return cambioResponse(c, null, null);
+        }
+    }
+
+    /**
+     * Registra la venta con lo que tiene el carrito y lo cierra. Si la venta
+     * falla (p. ej. otra caja se llevó el stock) el carrito sigue abierto
+     * para corregirlo.
+     */
+    public VentaResponse cobrar(String id, BigDecimal montoPago) {
+        Carrito c = buscar(id);
+        synchronized (c) {
+            validarAbierto(c);
+            if (c.renglones.isEmpty()) {
+                throw new BusinessException("VENTA_VACIA", "Debe agregar productos a la venta");
+            }
+
+            List<DetalleVentaDTO> detalles = new ArrayList<>(c.renglones.size());
+            for (Carrito.Renglon r : c.renglones.values()) {
+                DetalleVentaDTO d = new DetalleVentaDTO();
+                d.setVarianteProductoId(r.variante.getId());
+                d.setCodigoVariante(r.variante.getCodigoBarra());
+                d.setCantidad(r.cantidad);
+                d.setPrecioUnitario(r.precio);
+                detalles.add(d);
+            }
+
+            VentaResponse res = ventaService.registrar(c.usuarioId, detalles, c.getSubtotal(), c.getDescuento(), montoPago);
+            c.cobrado = true;
+            carritos.invalidar(id);
+            return res;
+        }
+    }
+
+    public void descartar(String id) {
+        carritos.invalidar(id);
+    }
+
+    public EstadisticasCache obtenerEstadisticas() {
+        return carritos.obtenerEstadisticas();
+    }
+
+    /**
+     * Busca el carrito y renueva su caducidad.
+     */
+    private Carrito buscar(String id) {
+        Carrito c = (id == null) ? null : carritos.buscar(id);
+        if (c == null) {
+            throw new NotFoundException("CARRITO_NO_EXISTE", "El carrito no existe o ya caducó: " + id);
+        }
+        carritos.poner(id, c);
+        return c;
+    }
+
+    private static void validarAbierto(Carrito c) {
+        if (c.cobrado) {
+            throw new BusinessException("CARRITO_COBRADO", "El carrito ya se cobró: " + c.id);
+        }
+    }
+
+    private static Carrito.Renglon renglon(Carrito c, String codigoBarras) {
+        Carrito.Renglon r = (codigoBarras == null) ? null : c.renglon(codigoBarras);
+        if (r == null) {
+            throw new NotFoundException("RENGLON_NO_EXISTE", "El carrito no tiene el código: " + codigoBarras);
+        }
+        return r;
+    }
+
+    private static CarritoCambioResponse cambiar(Carrito c, Carrito.Renglon r, int cantidad) {
+        if (cantidad > 0 && r.variante.getStock() < cantidad) {
+            if (r.cantidad == 0) {
+                c.quitar(r);
+            }
+            throw new BusinessException("STOCK_INSUFICIENTE",
+                    "Stock insuficiente para " + r.variante.getCodigoBarra() + ". Disponible: " + r.variante.getStock());
+        }
+        c.ponerCantidad(r, cantidad);
+        return cambioResponse(c, r.variante.getCodigoBarra(), cantidad > 0 ? r : null);
+    }
+
+    private static CarritoCambioResponse cambioResponse(Carrito c, String codigo, Carrito.Renglon r) {
+        CarritoCambioResponse res = new CarritoCambioResponse();
+        res.setCarritoId(c.id);
+        res.setCodigoBarras(codigo);
+        res.setDetalle(r == null ? null : detalle(r));
+        res.setArticulos(c.getArticulos());
+        res.setSubtotal(c.getSubtotal());
+        res.setDescuento(c.getDescuento());
+        res.setTotal(c.getTotal());
+        return res;
+    }
+
+    private static CarritoResponse aResponse(Carrito c) {
+        List<VentaDetalleResponse> detalles = new ArrayList<>(c.renglones.size());
+        for (Carrito.Renglon r : c.renglones.values()) {
+            detalles.add(detalle(r));
+        }
+        CarritoResponse res = new CarritoResponse();
+        res.setId(c.id);
+        res.setUsuarioId(c.usuarioId);
+        res.setDetalles(detalles);
+        res.setArticulos(c.getArticulos());
+        res.setSubtotal(c.getSubtotal());
+        res.setDescuento(c.getDescuento());
+        res.setTotal(c.getTotal());
+        return res;
+    }
+
+    private static VentaDetalleResponse detalle(Carrito.Renglon r) {
+        return VentaService.detalleResponse(r.variante, r.cantidad, r.precio);
+    }
+
+    private static BigDecimal n2(BigDecimal v) {
+        if (v == null) return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        return v.setScale(2, RoundingMode.HALF_UP);
+    }
+}
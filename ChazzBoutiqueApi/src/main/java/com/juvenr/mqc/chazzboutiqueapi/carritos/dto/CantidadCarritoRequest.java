@@ -0,0 +1,21 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos.dto;
+
+import javax.validation.constraints.*;
+
+/**
+ * Nueva cantidad de un renglón; 0 lo quita del carrito.
+ */
+public class CantidadCarritoRequest {
+
+    @NotNull
+    @Min(0)
+    private Integer cantidad;
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+}
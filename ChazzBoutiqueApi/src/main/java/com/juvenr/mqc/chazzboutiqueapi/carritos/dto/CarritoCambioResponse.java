@@ -0,0 +1,76 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos.dto;
+
+import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaDetalleResponse;
+import java.math.BigDecimal;
+
+/**
+ * Resultado de un cambio al carrito: solo el renglón tocado y los totales,
+ * no el carrito completo. {@code detalle} es {@code null} si el renglón se
+ * quitó.
+ */
+public class CarritoCambioResponse {
+
+    private String carritoId;
+    private String codigoBarras;
+    private VentaDetalleResponse detalle;
+    private int articulos;
+    private BigDecimal subtotal;
+    private BigDecimal descuento;
+    private BigDecimal total;
+
+    public String getCarritoId() {
+        return carritoId;
+    }
+
+    public void setCarritoId(String carritoId) {
+        this.carritoId = carritoId;
+    }
+
+    public String getCodigoBarras() {
+        return codigoBarras;
+    }
+
+    public void setCodigoBarras(String codigoBarras) {
+        this.codigoBarras = codigoBarras;
+    }
+
+    public VentaDetalleResponse getDetalle() {
+        return detalle;
+    }
+
+    public void setDetalle(VentaDetalleResponse detalle) {
+        this.detalle = detalle;
+    }
+
+    public int getArticulos() {
+        return articulos;
+    }
+
+    public void setArticulos(int articulos) {
+        this.articulos = articulos;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getDescuento() {
+        return descuento;
+    }
+
+    public void setDescuento(BigDecimal descuento) {
+        this.descuento = descuento;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,75 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos.dto;
+
+import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaDetalleResponse;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Estado completo de un carrito.
+ */
+public class CarritoResponse {
+
+    private String id;
+    private Long usuarioId;
+    private List<VentaDetalleResponse> detalles;
+    private int articulos;
+    private BigDecimal subtotal;
+    private BigDecimal descuento;
+    private BigDecimal total;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public List<VentaDetalleResponse> getDetalles() {
+        return detalles;
+    }
+
+    public void setDetalles(List<VentaDetalleResponse> detalles) {
+        this.detalles = detalles;
+    }
+
+    public int getArticulos() {
+        return articulos;
+    }
+
+    public void setArticulos(int articulos) {
+        this.articulos = articulos;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getDescuento() {
+        return descuento;
+    }
+
+    public void setDescuento(BigDecimal descuento) {
+        this.descuento = descuento;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,19 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos.dto;
+
+import java.math.BigDecimal;
+import javax.validation.constraints.*;
+
+public class CobrarCarritoRequest {
+
+    @NotNull
+    @DecimalMin(value = "0.00")
+    private BigDecimal montoPago;
+
+    public BigDecimal getMontoPago() {
+        return montoPago;
+    }
+
+    public void setMontoPago(BigDecimal montoPago) {
+        this.montoPago = montoPago;
+    }
+}
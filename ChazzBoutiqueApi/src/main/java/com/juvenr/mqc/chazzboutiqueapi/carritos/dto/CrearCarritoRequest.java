@@ -0,0 +1,17 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos.dto;
+
+import javax.validation.constraints.*;
+
+public class CrearCarritoRequest {
+
+    @NotNull
+    private Long usuarioId;
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+}
@@ -0,0 +1,19 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos.dto;
+
+import java.math.BigDecimal;
+import javax.validation.constraints.*;
+
+public class DescuentoCarritoRequest {
+
+    @NotNull
+    @DecimalMin(value = "0.00")
+    private BigDecimal descuento;
+
+    public BigDecimal getDescuento() {
+        return descuento;
+    }
+
+    public void setDescuento(BigDecimal descuento) {
+        this.descuento = descuento;
+    }
+}
@@ -0,0 +1,29 @@
+package com.juvenr.mqc.chazzboutiqueapi.carritos.dto;
+
+import javax.validation.constraints.*;
+
+public class LineaCarritoRequest {
+
+    @NotBlank
+    private String codigoBarras;
+
+    @NotNull
+    @Min(1)
+    private Integer cantidad;
+
+    public String getCodigoBarras() {
+        return codigoBarras;
+    }
+
+    public void setCodigoBarras(String codigoBarras) {
+        this.codigoBarras = codigoBarras;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+}
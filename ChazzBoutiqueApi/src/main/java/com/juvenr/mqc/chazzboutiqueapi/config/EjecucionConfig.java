@@ -0,0 +1,27 @@
+package com.juvenr.mqc.chazzboutiqueapi.config;
+
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.Carga;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.EjecutoresApi;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * El único trabajo que Spring MVC lanza por su cuenta es escribir un
+ * ticket directo sobre la respuesta ({@code StreamingResponseBody}); corre
+ * en el grupo de tickets y no en un ejecutor aparte sin límite.
+ */
+@Configuration
+public class EjecucionConfig implements WebMvcConfigurer {
+
+    private final EjecutoresApi ejecutores;
+
+    public EjecucionConfig(EjecutoresApi ejecutores) {
+        this.ejecutores = ejecutores;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(ejecutores.comoTaskExecutor(Carga.TICKETS));
+    }
+}
@@ -0,0 +1,19 @@
+package com.juvenr.mqc.chazzboutiqueapi.config;
+
+import com.juvenr.mqc.chazzboutiqueapi.shared.metricas.MetricasHttpInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Latencia de cada endpoint de la API en el registro de métricas; se leen en
+ * {@code GET /api/metricas}.
+ */
+@Configuration
+public class MetricasConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new MetricasHttpInterceptor()).addPathPatterns("/api/**");
+    }
+}
@@ -1,17 +1,24 @@
 package com.juvenr.mqc.chazzboutiqueapi.config;
 
+import com.mycompany.chazzboutiquenegocio.analitica.MasVendidosEnVivo;
+import com.mycompany.chazzboutiquenegocio.analitica.MotorAnalitico;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IProductoNegocio;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IReporteNegocio;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVarianteProductoNegocio;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVentaNegocio;
 import com.mycompany.chazzboutiquenegocio.objetosNegocio.ProductoNegocio;
+import com.mycompany.chazzboutiquenegocio.objetosNegocio.ReporteNegocio;
 import com.mycompany.chazzboutiquenegocio.objetosNegocio.VarianteProductoNegocio;
 import com.mycompany.chazzboutiquenegocio.objetosNegocio.VentaNegocio;
 import com.mycompany.chazzboutiquepersistencia.conexion.ConexionBD;
+import com.mycompany.chazzboutiquepersistencia.conexion.ConfiguracionPool;
 import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
 import com.mycompany.chazzboutiquepersistencia.daos.CategoriaDAO;
 import com.mycompany.chazzboutiquepersistencia.daos.DetalleVentaDAO;
 import com.mycompany.chazzboutiquepersistencia.daos.ProductoDAO;
 import com.mycompany.chazzboutiquepersistencia.daos.ProveedorDAO;
+import com.mycompany.chazzboutiquepersistencia.daos.ReporteDAO;
+import com.mycompany.chazzboutiquepersistencia.daos.ResumenVentasDAO;
 import com.mycompany.chazzboutiquepersistencia.daos.UsuarioDAO;
 import com.mycompany.chazzboutiquepersistencia.daos.VarianteProductoDAO;
 import com.mycompany.chazzboutiquepersistencia.daos.VentaDAO;
@@ -19,76 +26,163 @@ import com.mycompany.chazzboutiquepersistencia.interfacesDAO.ICategoriaDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IDetalleVentaDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IProductoDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IProveedorDAO;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IReporteDAO;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IResumenVentasDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IUsuarioDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IVarianteProductoDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IVentaDAO;
+import com.mycompany.chazzboutiquepersistencia.metricas.Instrumentacion;
+import java.util.Properties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 
 @Configuration
 public class NegocioBeansConfig {
 
+    /**
+     * Configuración del pool y de la caché compartida. Las claves chazz.db.*
+     * y chazz.cache.* de application.properties (o variables de entorno)
+     * sobreescriben los valores por defecto.
+     */
     @Bean
-    public IConexionBD conexionBD() {
-        return new ConexionBD();
+    public ConfiguracionPool configuracionPool(Environment env) {
+        Properties props = ConfiguracionPool.propiedadesCargadas();
+        for (String clave : props.stringPropertyNames()) {
+            String valor = env.getProperty(clave);
+            if (valor != null) {
+                props.setProperty(clave, valor);
+            }
+        }
+        return ConfiguracionPool.desdePropiedades(props);
+    }
+
+    @Bean(destroyMethod = "closeEntityManagerFactory")
+    public IConexionBD conexionBD(ConfiguracionPool configuracionPool) {
+        return new ConexionBD(configuracionPool);
     }
 
     @Bean
     public IVentaDAO ventaDAO(IConexionBD conexionBD) {
-        return new VentaDAO(conexionBD);
+        return dao(IVentaDAO.class, new VentaDAO(conexionBD));
     }
 
     @Bean
     public IDetalleVentaDAO detalleVentaDAO(IConexionBD conexionBD) {
-        return new DetalleVentaDAO(conexionBD);
+        return dao(IDetalleVentaDAO.class, new DetalleVentaDAO(conexionBD));
     }
 
     @Bean
     public IVarianteProductoDAO varianteProductoDAO(IConexionBD conexionBD) {
-        return new VarianteProductoDAO(conexionBD);
+        return dao(IVarianteProductoDAO.class, new VarianteProductoDAO(conexionBD));
     }
 
     @Bean
     public IUsuarioDAO usuarioDAO(IConexionBD conexionBD) {
-        return new UsuarioDAO(conexionBD);
+        return dao(IUsuarioDAO.class, new UsuarioDAO(conexionBD));
     }
 
     @Bean
     public IProductoDAO productoDAO(IConexionBD conexionBD) {
-        return new ProductoDAO(conexionBD);
+        return dao(IProductoDAO.class, new ProductoDAO(conexionBD));
     }
     
         @Bean
     public ICategoriaDAO categoriaDAO(IConexionBD conexionBD) {
-        return new CategoriaDAO(conexionBD);
+        return dao(ICategoriaDAO.class, new CategoriaDAO(conexionBD));
     }
        @Bean
     public IProveedorDAO proveedorDAO(IConexionBD conexionBD) {
-        return new ProveedorDAO(conexionBD);
+        return dao(IProveedorDAO.class, new ProveedorDAO(conexionBD));
     }
 
+    @Bean
+    public IResumenVentasDAO resumenVentasDAO(IConexionBD conexionBD) {
+        return dao(IResumenVentasDAO.class, new ResumenVentasDAO(conexionBD));
+    }
+
+    @Bean
+    public IReporteDAO reporteDAO(IConexionBD conexionBD, IResumenVentasDAO resumenVentasDAO) {
+        return dao(IReporteDAO.class, new ReporteDAO(conexionBD, resumenVentasDAO));
+    }
+
+
+    /**
+     * Más vendidos en vivo ({@code GET /api/reportes/mas-vendidos}),
+     * alimentado por cada venta que registra {@link #ventaNegocio}.
+     */
+    @Bean
+    public MasVendidosEnVivo masVendidosEnVivo(IReporteDAO reporteDAO) {
+        MasVendidosEnVivo masVendidos = new MasVendidosEnVivo();
+        masVendidos.precargarEnSegundoPlano(reporteDAO);
+        return masVendidos;
+    }
 
     @Bean
     public IVentaNegocio ventaNegocio(
+            IConexionBD conexionBD,
             IVentaDAO ventaDAO,
             IDetalleVentaDAO detalleVentaDAO,
             IVarianteProductoDAO varianteProductoDAO,
-            IUsuarioDAO usuarioDAO
+            IUsuarioDAO usuarioDAO,
+            IResumenVentasDAO resumenVentasDAO,
+            IVarianteProductoNegocio varianteProductoNegocio,
+            MasVendidosEnVivo masVendidosEnVivo
     ) {
-        return new VentaNegocio(ventaDAO, detalleVentaDAO, varianteProductoDAO, usuarioDAO);
+        IVentaNegocio ventaNegocio = new VentaNegocio(conexionBD, ventaDAO, detalleVentaDAO, varianteProductoDAO,
+                usuarioDAO, resumenVentasDAO);
+        ventaNegocio.agregarObservadorInventario(varianteProductoNegocio::invalidarCache);
+        ventaNegocio.agregarObservadorVentas(masVendidosEnVivo);
+        return negocio(IVentaNegocio.class, ventaNegocio);
     }
 
     @Bean
     public IVarianteProductoNegocio varianteProductoNegocio(
             IVarianteProductoDAO varianteProductoDAO,
-            IProductoDAO productoDAO
+            IProductoDAO productoDAO,
+            Environment env
     ) {
-        return new VarianteProductoNegocio(varianteProductoDAO, productoDAO);
+        int capacidad = env.getProperty("chazz.cache.variantes.capacidad", Integer.class,
+                VarianteProductoNegocio.CAPACIDAD_CACHE_POR_DEFECTO);
+        long ttlMs = env.getProperty("chazz.cache.variantes.ttlMs", Long.class,
+                VarianteProductoNegocio.TTL_CACHE_POR_DEFECTO_MS);
+        return negocio(IVarianteProductoNegocio.class,
+                new VarianteProductoNegocio(varianteProductoDAO, productoDAO, capacidad, ttlMs));
+    }
+
+    @Bean
+    public IProductoNegocio productoNegocio(IProductoDAO productoDAO, ICategoriaDAO categoriaDAO, IProveedorDAO proveedorDAO,
+            ConfiguracionPool configuracionPool, IVarianteProductoNegocio varianteProductoNegocio) {
+        IProductoNegocio productoNegocio = new ProductoNegocio(productoDAO, categoriaDAO, proveedorDAO,
+                configuracionPool.getPoliticaCache(ConfiguracionPool.CACHE_PRODUCTOS).getTtlMs());
+        productoNegocio.agregarObservadorProductos(varianteProductoNegocio::refrescarProducto);
+        return negocio(IProductoNegocio.class, productoNegocio);
     }
 
+    /**
+     * Con {@code chazz.analitica.habilitada} los reportes se calculan en
+     * memoria con {@link MotorAnalitico}, que carga las ventas al arrancar.
+     */
     @Bean
-    public IProductoNegocio productoNegocio(IProductoDAO productoDAO, ICategoriaDAO categoriaDAO, IProveedorDAO proveedorDAO) {
-        return new ProductoNegocio(productoDAO,categoriaDAO, proveedorDAO);
+    public IReporteNegocio reporteNegocio(IReporteDAO reporteDAO, IResumenVentasDAO resumenVentasDAO,
+            MasVendidosEnVivo masVendidosEnVivo, Environment env) {
+        MotorAnalitico motor = null;
+        if (env.getProperty("chazz.analitica.habilitada", Boolean.class, true)) {
+            motor = new MotorAnalitico(reporteDAO);
+            motor.cargarEnSegundoPlano();
+        }
+        return negocio(IReporteNegocio.class, new ReporteNegocio(reporteDAO, resumenVentasDAO, motor, masVendidosEnVivo));
+    }
+
+    /**
+     * DAOs y objetos de negocio se publican envueltos para medir cada método
+     * (ver {@code GET /api/metricas}).
+     */
+    private static <I> I dao(Class<I> interfaz, I dao) {
+        return Instrumentacion.envolver(interfaz, dao, Instrumentacion.CAPA_DAO);
     }
 
+    private static <I> I negocio(Class<I> interfaz, I negocio) {
+        return Instrumentacion.envolver(interfaz, negocio, Instrumentacion.CAPA_NEGOCIO);
+    }
 }
@@ -1,6 +1,8 @@
 package com.juvenr.mqc.chazzboutiqueapi.productos;
 
 import com.juvenr.mqc.chazzboutiqueapi.productos.dto.ProductoLiteResponse;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.Carga;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.EjecutoresApi;
 import com.juvenr.mqc.chazzboutiqueapi.variantes.dto.VarianteRowResponse;
 import com.mycompany.chazzboutiquenegocio.dtos.ProductoDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
@@ -11,6 +13,7 @@ import java.util.Collections;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -19,40 +22,51 @@ public class ProductoController {
 
     private final IProductoNegocio productoNegocio;
     private final IVarianteProductoNegocio varianteNegocio;
+    private final EjecutoresApi ejecutores;
 
-    public ProductoController(IProductoNegocio productoNegocio, IVarianteProductoNegocio varianteNegocio) {
+    public ProductoController(IProductoNegocio productoNegocio, IVarianteProductoNegocio varianteNegocio,
+            EjecutoresApi ejecutores) {
         this.productoNegocio = productoNegocio;
         this.varianteNegocio = varianteNegocio;
+        this.ejecutores = ejecutores;
     }
 
     @GetMapping("/buscar")
-    public List<ProductoLiteResponse> buscar(
+    public CompletableFuture<List<ProductoLiteResponse>> buscar(
             @RequestParam("nombre") String nombre,
             @RequestParam(value = "limit", defaultValue = "15") int limit
     ) {
         String q = (nombre == null) ? "" : nombre.trim();
         if (q.isEmpty()) {
-            return Collections.emptyList();
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
 
         // normaliza limit (evita 0, negativos, enormes)
         int safeLimit = Math.max(1, Math.min(limit, 50));
 
+        return ejecutores.ejecutar(Carga.CONSULTAS, () -> buscarBloqueante(q, safeLimit));
+    }
+
+    private List<ProductoLiteResponse> buscarBloqueante(String q, int safeLimit) {
         try {
-            List<ProductoDTO> productos = productoNegocio.buscarPorNombre(q);
+            // El índice ya corta en safeLimit; sin coincidencias da lista vacía
+            List<ProductoDTO> productos = productoNegocio.autocompletar(q, safeLimit);
 
             return productos.stream()
-                    .limit(safeLimit) 
                     .map(p -> new ProductoLiteResponse(p.getId(), p.getNombreProducto()))
                     .collect(Collectors.toList());
 
         } catch (NegocioException e) {
-            return Collections.emptyList();
+            throw new RuntimeException(e.getMessage(), e);
         }
     }
 
     @GetMapping("/{id}/variantes")
-    public List<VarianteRowResponse> variantes(@PathVariable Long id) {
+    public CompletableFuture<List<VarianteRowResponse>> variantes(@PathVariable Long id) {
+        return ejecutores.ejecutar(Carga.CONSULTAS, () -> variantesBloqueante(id));
+    }
+
+    private List<VarianteRowResponse> variantesBloqueante(Long id) {
         try {
             List<VarianteProductoDTO> vars = varianteNegocio.obtenerVariantesPorProducto(id);
 
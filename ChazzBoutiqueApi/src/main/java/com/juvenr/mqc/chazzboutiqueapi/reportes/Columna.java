@@ -0,0 +1,20 @@
+package com.juvenr.mqc.chazzboutiqueapi.reportes;
+
+import java.util.function.Function;
+
+/**
+ * Una columna exportada: su nombre (encabezado del CSV o llave del JSON) y
+ * cómo se saca su valor de la fila.
+ *
+ * @param <T> tipo de la fila.
+ */
+final class Columna<T> {
+
+    final String nombre;
+    final Function<T, Object> valor;
+
+    Columna(String nombre, Function<T, Object> valor) {
+        this.nombre = nombre;
+        this.valor = valor;
+    }
+}
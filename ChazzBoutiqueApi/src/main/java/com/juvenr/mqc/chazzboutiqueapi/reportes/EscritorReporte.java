@@ -0,0 +1,149 @@
+package com.juvenr.mqc.chazzboutiqueapi.reportes;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.ConsumidorFilas;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Escribe las filas de un reporte sobre la respuesta conforme llegan.
+ *
+ * Nada se manda (ni los encabezados HTTP) hasta la primera fila o hasta
+ * {@link #terminar}: si la consulta falla antes, la respuesta sigue libre y
+ * puede contestarse con el error. La primera fila se manda de inmediato; las
+ * demás conforme se llena el búfer.
+ *
+ * @param <T> tipo de la fila.
+ */
+final class EscritorReporte<T> implements ConsumidorFilas<T> {
+
+    private static final char BOM = '\uFEFF';
+    private static final int BUFER = 8 * 1024;
+
+    private final HttpServletResponse response;
+    private final FormatoExportacion formato;
+    private final String nombreArchivo;
+    private final List<Columna<T>> columnas;
+    private final ObjectMapper mapper;
+
+    private Writer csv;
+    private JsonGenerator json;
+    private long filas;
+
+    EscritorReporte(HttpServletResponse response, FormatoExportacion formato, String nombreArchivo,
+            List<Columna<T>> columnas, ObjectMapper mapper) {
+        this.response = response;
+        this.formato = formato;
+        this.nombreArchivo = nombreArchivo;
+        this.columnas = columnas;
+        this.mapper = mapper;
+    }
+
+    @Override
+    public void aceptar(T fila) throws IOException {
+        boolean primera = filas == 0;
+        if (primera) {
+            iniciar();
+        }
+        if (formato == FormatoExportacion.CSV) {
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                csv.write(celdaCsv(columnas.get(i).valor.apply(fila)));
+            }
+            csv.write("\r\n");
+        } else {
+            json.writeStartObject();
+            for (Columna<T> c : columnas) {
+                json.writeFieldName(c.nombre);
+                escribirValorJson(c.valor.apply(fila));
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        filas++;
+        if (primera) {
+            descargar();
+        }
+    }
+
+    /**
+     * Manda lo pendiente; un reporte sin filas queda con solo el encabezado
+     * (CSV) o vacío (NDJSON).
+     */
+    void terminar() throws IOException {
+        if (filas == 0) {
+            iniciar();
+        }
+        descargar();
+    }
+
+    long getFilas() {
+        return filas;
+    }
+
+    private void iniciar() throws IOException {
+        response.setContentType(formato.getTipoContenido());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + nombreArchivo + "." + formato.getExtension() + "\"");
+
+        if (formato == FormatoExportacion.CSV) {
+            csv = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8), BUFER);
+            csv.write(BOM);
+            for (int i = 0; i < columnas.size(); i++) {
+                if (i > 0) {
+                    csv.write(',');
+                }
+                csv.write(celdaCsv(columnas.get(i).nombre));
+            }
+            csv.write("\r\n");
+        } else {
+            json = mapper.getFactory().createGenerator(response.getOutputStream());
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // Sin el espacio que Jackson pone entre valores raíz: cada línea es solo el objeto
+            json.setRootValueSeparator(null);
+        }
+    }
+
+    private void descargar() throws IOException {
+        if (csv != null) {
+            csv.flush();
+        } else if (json != null) {
+            json.flush();
+        }
+    }
+
+    private void escribirValorJson(Object valor) throws IOException {
+        if (valor == null) {
+            json.writeNull();
+        } else if (valor instanceof BigDecimal) {
+            json.writeNumber((BigDecimal) valor);
+        } else if (valor instanceof Number) {
+            json.writeNumber(((Number) valor).longValue());
+        } else {
+            json.writeString(valor.toString());
+        }
+    }
+
+    private static String celdaCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String s = (valor instanceof BigDecimal) ? ((BigDecimal) valor).toPlainString() : valor.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
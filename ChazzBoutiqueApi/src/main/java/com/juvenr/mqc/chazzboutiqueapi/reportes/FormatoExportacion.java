@@ -0,0 +1,46 @@
+package com.juvenr.mqc.chazzboutiqueapi.reportes;
+
+/**
+ * Formatos en que se exportan los reportes; la extensión va en la ruta
+ * ({@code /api/reportes/ventas.csv}).
+ */
+public enum FormatoExportacion {
+
+    /**
+     * Una fila por renglón con encabezado, separado por comas (RFC 4180).
+     * Lleva BOM para que Excel respete los acentos.
+     */
+    CSV("csv", "text/csv;charset=UTF-8"),
+    /**
+     * Un objeto JSON por renglón.
+     */
+    NDJSON("ndjson", "application/x-ndjson");
+
+    private final String extension;
+    private final String tipoContenido;
+
+    FormatoExportacion(String extension, String tipoContenido) {
+        this.extension = extension;
+        this.tipoContenido = tipoContenido;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getTipoContenido() {
+        return tipoContenido;
+    }
+
+    /**
+     * @return el formato con esa extensión; {@code null} si no hay.
+     */
+    public static FormatoExportacion deExtension(String extension) {
+        for (FormatoExportacion f : values()) {
+            if (f.extension.equalsIgnoreCase(extension)) {
+                return f;
+            }
+        }
+        return null;
+    }
+}
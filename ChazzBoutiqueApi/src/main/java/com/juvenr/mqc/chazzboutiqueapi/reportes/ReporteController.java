@@ -0,0 +1,252 @@
+package com.juvenr.mqc.chazzboutiqueapi.reportes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.Carga;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.EjecutoresApi;
+import com.juvenr.mqc.chazzboutiqueapi.shared.errors.BusinessException;
+import com.mycompany.chazzboutiquenegocio.dtos.MasVendidoDTO;
+import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IReporteNegocio;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteCategoriaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteDiaHoraDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteInventarioDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVendedorDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVentaDTO;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Exportación de los reportes en CSV o NDJSON.
+ *
+ * Las filas se leen de la base con un cursor de solo avance y se escriben
+ * sobre la respuesta conforme llegan, así que la memoria no crece con el
+ * rango y la descarga empieza antes de que termine la consulta. El trabajo
+ * corre en el grupo de hilos de reportes, con su propio tiempo máximo
+ * ({@code chazz.reportes.timeoutMs}) en lugar del de las demás peticiones.
+ *
+ * Si la consulta falla antes de la primera fila se contesta con el error;
+ * si falla a medio camino la descarga queda cortada.
+ */
+@RestController
+@RequestMapping("/api/reportes")
+public class ReporteController {
+
+    private static final Logger LOG = Logger.getLogger(ReporteController.class.getName());
+
+    static final String CLAVE_TIMEOUT = "chazz.reportes.timeoutMs";
+    public static final long TIMEOUT_POR_DEFECTO_MS = 10 * 60_000L;
+
+    private static final List<Columna<ReporteVentaDTO>> COLUMNAS_VENTAS = List.of(
+            new Columna<>("ventaId", ReporteVentaDTO::getVentaId),
+            new Columna<>("fecha", ReporteVentaDTO::getFecha),
+            new Columna<>("total", ReporteVentaDTO::getTotal),
+            new Columna<>("vendedor", ReporteVentaDTO::getVendedor));
+
+    private static final List<Columna<ReporteProductoDTO>> COLUMNAS_PRODUCTOS = List.of(
+            new Columna<>("producto", ReporteProductoDTO::getNombreProducto),
+            new Columna<>("categoria", ReporteProductoDTO::getCategoria),
+            new Columna<>("cantidadVendida", ReporteProductoDTO::getCantidadVendida),
+            new Columna<>("totalVendido", ReporteProductoDTO::getTotalVendido));
+
+    private static final List<Columna<ReporteCategoriaDTO>> COLUMNAS_CATEGORIAS = List.of(
+            new Columna<>("categoria", ReporteCategoriaDTO::getNombreCategoria),
+            new Columna<>("ventas", ReporteCategoriaDTO::getVentasTotales),
+            new Columna<>("ingresos", ReporteCategoriaDTO::getIngresos),
+            new Columna<>("porcentaje", ReporteCategoriaDTO::getPorcentaje));
+
+    private static final List<Columna<ReporteVendedorDTO>> COLUMNAS_VENDEDORES = List.of(
+            new Columna<>("vendedor", ReporteVendedorDTO::getVendedor),
+            new Columna<>("ventas", ReporteVendedorDTO::getVentas),
+            new Columna<>("total", ReporteVendedorDTO::getTotal));
+
+    private static final List<Columna<ReporteDiaHoraDTO>> COLUMNAS_DIA_HORA = List.of(
+            new Columna<>("diaSemana", ReporteDiaHoraDTO::getDiaSemana),
+            new Columna<>("hora", ReporteDiaHoraDTO::getHora),
+            new Columna<>("ventas", ReporteDiaHoraDTO::getVentas),
+            new Columna<>("total", ReporteDiaHoraDTO::getTotal));
+
+    private static final List<Columna<ReporteInventarioDTO>> COLUMNAS_INVENTARIO = List.of(
+            new Columna<>("producto", ReporteInventarioDTO::getNombreProducto),
+            new Columna<>("talla", ReporteInventarioDTO::getTalla),
+            new Columna<>("color", ReporteInventarioDTO::getColor),
+            new Columna<>("stock", ReporteInventarioDTO::getStock),
+            new Columna<>("precioUnitario", ReporteInventarioDTO::getPrecioUnitario),
+            new Columna<>("valorTotal", ReporteInventarioDTO::getValorTotal));
+
+    /**
+     * Recorrido de un reporte hacia un escritor.
+     */
+    @FunctionalInterface
+    private interface Recorrido<T> {
+
+        void ejecutar(EscritorReporte<T> escritor) throws Exception;
+    }
+
+    private final IReporteNegocio reporteNegocio;
+    private final EjecutoresApi ejecutores;
+    private final ObjectMapper mapper;
+    private final long timeoutMs;
+
+    public ReporteController(IReporteNegocio reporteNegocio, EjecutoresApi ejecutores, ObjectMapper mapper,
+            Environment env) {
+        this.reporteNegocio = reporteNegocio;
+        this.ejecutores = ejecutores;
+        this.mapper = mapper;
+        this.timeoutMs = env.getProperty(CLAVE_TIMEOUT, Long.class, TIMEOUT_POR_DEFECTO_MS);
+    }
+
+    @GetMapping("/ventas.{formato}")
+    public WebAsyncTask<Void> ventas(@PathVariable String formato,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response) {
+        validarRango(desde, hasta);
+        return exportar(response, formato, "ventas_" + desde + "_" + hasta, COLUMNAS_VENTAS,
+                e -> reporteNegocio.recorrerDatosVentas(desde, hasta, e));
+    }
+
+    @GetMapping("/productos-mas-vendidos.{formato}")
+    public WebAsyncTask<Void> productosMasVendidos(@PathVariable String formato,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response) {
+        validarRango(desde, hasta);
+        return exportar(response, formato, "productos_mas_vendidos_" + desde + "_" + hasta, COLUMNAS_PRODUCTOS,
+                e -> reporteNegocio.recorrerProductosMasVendidos(desde, hasta, e));
+    }
+
+    @GetMapping("/ingresos-categoria.{formato}")
+    public WebAsyncTask<Void> ingresosPorCategoria(@PathVariable String formato,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response) {
+        validarRango(desde, hasta);
+        return exportar(response, formato, "ingresos_categoria_" + desde + "_" + hasta, COLUMNAS_CATEGORIAS,
+                e -> reporteNegocio.recorrerIngresosPorCategoria(desde, hasta, e));
+    }
+
+    /**
+     * Totales por vendedor; son pocas filas, así que se calculan completas
+     * antes de escribirse.
+     */
+    @GetMapping("/vendedores.{formato}")
+    public WebAsyncTask<Void> totalesPorVendedor(@PathVariable String formato,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response) {
+        validarRango(desde, hasta);
+        return exportar(response, formato, "vendedores_" + desde + "_" + hasta, COLUMNAS_VENDEDORES, e -> {
+            for (ReporteVendedorDTO vendedor : reporteNegocio.obtenerTotalesPorVendedor(desde, hasta)) {
+                e.aceptar(vendedor);
+            }
+        });
+    }
+
+    /**
+     * Mapa de calor: una fila por día de la semana (1 = lunes) y hora con
+     * ventas. Las ventas anteriores a que se guardara la hora no cuentan.
+     */
+    @GetMapping("/ventas-por-hora.{formato}")
+    public WebAsyncTask<Void> ventasPorDiaYHora(@PathVariable String formato,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            HttpServletResponse response) {
+        validarRango(desde, hasta);
+        return exportar(response, formato, "ventas_por_hora_" + desde + "_" + hasta, COLUMNAS_DIA_HORA, e -> {
+            for (ReporteDiaHoraDTO celda : reporteNegocio.obtenerVentasPorDiaYHora(desde, hasta)) {
+                e.aceptar(celda);
+            }
+        });
+    }
+
+    @GetMapping("/inventario.{formato}")
+    public WebAsyncTask<Void> inventario(@PathVariable String formato, HttpServletResponse response) {
+        return exportar(response, formato, "inventario_" + LocalDate.now(), COLUMNAS_INVENTARIO,
+                reporteNegocio::recorrerInventarioActual);
+    }
+
+    /**
+     * Más vendidos de hoy ({@code dias=1}) o de los últimos días (hasta 7),
+     * para un tablero en vivo: se responde desde memoria, sin consultar la
+     * base, con unidades aproximadas.
+     */
+    @GetMapping("/mas-vendidos")
+    public List<MasVendidoDTO> masVendidos(@RequestParam(defaultValue = "1") int dias,
+            @RequestParam(defaultValue = "10") int limite) {
+        try {
+            return reporteNegocio.obtenerMasVendidosEnVivo(dias, limite);
+        } catch (NegocioException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a calcular los resúmenes diarios del rango desde las ventas (a
+     * lo más un año; hoy no se toca).
+     */
+    @PostMapping("/resumenes/reconstruir")
+    public CompletableFuture<Map<String, Integer>> reconstruirResumenes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        validarRango(desde, hasta);
+        return ejecutores.ejecutar(Carga.REPORTES, () -> {
+            try {
+                return Map.of("dias", reporteNegocio.reconstruirResumenes(desde, hasta));
+            } catch (NegocioException e) {
+                throw new BusinessException("RESUMENES_ERROR", e.getMessage());
+            }
+        });
+    }
+
+    private <T> WebAsyncTask<Void> exportar(HttpServletResponse response, String extension, String nombreArchivo,
+            List<Columna<T>> columnas, Recorrido<T> recorrido) {
+        FormatoExportacion formato = FormatoExportacion.deExtension(extension);
+        if (formato == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Formato no soportado: " + extension + " (use csv o ndjson)");
+        }
+
+        return new WebAsyncTask<>(timeoutMs, ejecutores.comoTaskExecutor(Carga.REPORTES), () -> {
+            EscritorReporte<T> escritor = new EscritorReporte<>(response, formato, nombreArchivo, columnas, mapper);
+            long inicio = System.nanoTime();
+            try {
+                recorrido.ejecutar(escritor);
+                escritor.terminar();
+            } catch (IOException e) {
+                // El cliente cerró la descarga; la consulta ya se canceló
+                LOG.log(Level.FINE, "Exportacion {0} interrumpida tras {1} filas: {2}",
+                        new Object[]{nombreArchivo, escritor.getFilas(), e.getMessage()});
+                return null;
+            } catch (Exception e) {
+                if (!response.isCommitted()) {
+                    throw e;
+                }
+                LOG.log(Level.WARNING, "Exportacion " + nombreArchivo + " cortada tras "
+                        + escritor.getFilas() + " filas", e);
+                return null;
+            }
+            LOG.log(Level.FINE, "Exportacion {0}: {1} filas en {2} ms", new Object[]{nombreArchivo,
+                escritor.getFilas(), (System.nanoTime() - inicio) / 1_000_000});
+            return null;
+        });
+    }
+
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "desde no puede ser posterior a hasta");
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.juvenr.mqc.chazzboutiqueapi.reportes;
+
+import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IReporteNegocio;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Completa los resúmenes diarios de ventas al arrancar y luego cada
+ * {@code chazz.reportes.resumenes.intervaloMin} minutos (0 lo desactiva).
+ * Al arrancar por primera vez con la migración V3 reconstruye todo el
+ * historial; después solo cierra el día de la migración, y las demás
+ * corridas no hacen nada.
+ */
+@Component
+public class ResumenesVentasJob {
+
+    private static final Logger LOG = Logger.getLogger(ResumenesVentasJob.class.getName());
+
+    static final String CLAVE_INTERVALO = "chazz.reportes.resumenes.intervaloMin";
+    static final long INTERVALO_POR_DEFECTO_MIN = 60;
+
+    private final IReporteNegocio reporteNegocio;
+    private final long intervaloMin;
+    private final ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "resumenes-ventas");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ResumenesVentasJob(IReporteNegocio reporteNegocio, Environment env) {
+        this.reporteNegocio = reporteNegocio;
+        this.intervaloMin = env.getProperty(CLAVE_INTERVALO, Long.class, INTERVALO_POR_DEFECTO_MIN);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (intervaloMin > 0) {
+            programador.scheduleWithFixedDelay(this::completar, 0, intervaloMin, TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        programador.shutdownNow();
+    }
+
+    private void completar() {
+        try {
+            reporteNegocio.completarResumenes();
+        } catch (NegocioException | RuntimeException e) {
+            // Se reintenta en la siguiente corrida; mientras, los reportes salen de las ventas
+            LOG.log(Level.WARNING, "No se pudieron completar los resúmenes de ventas", e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion;
+
+/**
+ * Tipos de trabajo bloqueante de la API. Cada uno corre en su propio grupo
+ * de hilos con cola acotada, así una ráfaga de uno no frena a los demás.
+ */
+public enum Carga {
+
+    /**
+     * Registrar y cotizar ventas.
+     */
+    VENTAS("ventas", 6, 50),
+    /**
+     * Búsquedas de productos y variantes.
+     */
+    CONSULTAS("consultas", 8, 200),
+    /**
+     * Generación de tickets PDF y ESC/POS.
+     */
+    TICKETS("tickets", 3, 50),
+    /**
+     * Reportes.
+     */
+    REPORTES("reportes", 2, 10);
+
+    private final String clave;
+    private final int hilosPorDefecto;
+    private final int colaPorDefecto;
+
+    Carga(String clave, int hilosPorDefecto, int colaPorDefecto) {
+        this.clave = clave;
+        this.hilosPorDefecto = hilosPorDefecto;
+        this.colaPorDefecto = colaPorDefecto;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public int getHilosPorDefecto() {
+        return hilosPorDefecto;
+    }
+
+    public int getColaPorDefecto() {
+        return colaPorDefecto;
+    }
+}
@@ -0,0 +1,187 @@
+package com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion;
+
+import com.juvenr.mqc.chazzboutiqueapi.shared.errors.CargaSaturadaException;
+import com.mycompany.chazzboutiquepersistencia.metricas.Muestras;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.annotation.PreDestroy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Un grupo de hilos acotado por cada {@link Carga}. Los controladores
+ * devuelven el {@link CompletableFuture} de {@link #ejecutar}: el hilo de
+ * Tomcat se libera enseguida y el trabajo con la base o con iText corre en
+ * el grupo de su carga.
+ *
+ * Si todos los hilos de una carga están ocupados y su cola está llena, la
+ * petición se rechaza en ese momento con {@link CargaSaturadaException}
+ * (503, código {@code SATURADO_<CARGA>}).
+ *
+ * Hilos y cola se configuran con
+ * {@code chazz.api.ejecutores.<carga>.hilos} y {@code .cola}. Conviene que
+ * la suma de hilos no pase de {@code chazz.db.pool.max}, para que una carga
+ * no se quede sin conexiones por culpa de otra.
+ */
+@Component
+public class EjecutoresApi {
+
+    static final String PREFIJO = "chazz.api.ejecutores.";
+
+    private final Map<Carga, Grupo> grupos = new EnumMap<>(Carga.class);
+
+    public EjecutoresApi(Environment env) {
+        for (Carga c : Carga.values()) {
+            int hilos = Math.max(1, env.getProperty(PREFIJO + c.getClave() + ".hilos", Integer.class,
+                    c.getHilosPorDefecto()));
+            int cola = Math.max(0, env.getProperty(PREFIJO + c.getClave() + ".cola", Integer.class,
+                    c.getColaPorDefecto()));
+            grupos.put(c, new Grupo(c, hilos, cola));
+        }
+        RegistroMetricas.global().agregarRecolector("ejecutores", this::recolectarMetricas);
+    }
+
+    /**
+     * Corre {@code tarea} en el grupo de {@code carga}, con los datos de la
+     * petición actual disponibles (p. ej. para armar URLs).
+     *
+     * @throws CargaSaturadaException si el grupo no tiene lugar.
+     */
+    public <T> CompletableFuture<T> ejecutar(Carga carga, Supplier<T> tarea) {
+        Grupo grupo = grupos.get(carga);
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        CompletableFuture<T> futuro = CompletableFuture.supplyAsync(() -> {
+            RequestContextHolder.setRequestAttributes(peticion);
+            try {
+                return tarea.get();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }, grupo);
+        futuro.whenComplete((r, e) -> {
+            if (e != null) {
+                grupo.fallidas.increment();
+            }
+        });
+        return futuro;
+    }
+
+    /**
+     * El grupo de {@code carga} como ejecutor de Spring, para trabajo que
+     * Spring MVC lanza por su cuenta (p. ej. un {@code StreamingResponseBody}).
+     */
+    public AsyncTaskExecutor comoTaskExecutor(Carga carga) {
+        return new TaskExecutorAdapter(grupos.get(carga));
+    }
+
+    public List<EstadisticasEjecutor> obtenerEstadisticas() {
+        List<EstadisticasEjecutor> lista = new ArrayList<>(grupos.size());
+        for (Grupo g : grupos.values()) {
+            lista.add(g.estadisticas());
+        }
+        return lista;
+    }
+
+    private void recolectarMetricas(Muestras m) {
+        for (EstadisticasEjecutor e : obtenerEstadisticas()) {
+            String carga = e.getCarga();
+            m.indicador("chazz_ejecutor_activos", "Hilos ocupados del grupo", e.getActivos(), "carga", carga);
+            m.indicador("chazz_ejecutor_en_cola", "Tareas esperando hilo", e.getEnCola(), "carga", carga);
+            m.contador("chazz_ejecutor_completadas_total", "Tareas terminadas", e.getCompletadas(), "carga", carga);
+            m.contador("chazz_ejecutor_fallidas_total", "Tareas que terminaron en error", e.getFallidas(),
+                    "carga", carga);
+            m.contador("chazz_ejecutor_rechazadas_total", "Tareas rechazadas por grupo lleno", e.getRechazadas(),
+                    "carga", carga);
+            m.indicador("chazz_ejecutor_espera_promedio_ms", "Espera promedio en cola", e.getEsperaPromedioMs(),
+                    "carga", carga);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        for (Grupo g : grupos.values()) {
+            g.pool.shutdownNow();
+        }
+    }
+
+    private static final class Grupo implements Executor {
+
+        private final Carga carga;
+        private final int capacidadCola;
+        private final ThreadPoolExecutor pool;
+
+        private final LongAdder completadas = new LongAdder();
+        private final LongAdder fallidas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+        private final LongAdder esperaNanos = new LongAdder();
+        private final LongAccumulator esperaMaximaNanos = new LongAccumulator(Long::max, 0);
+        private final LongAdder ejecucionNanos = new LongAdder();
+
+        Grupo(Carga carga, int hilos, int capacidadCola) {
+            this.carga = carga;
+            this.capacidadCola = capacidadCola;
+            BlockingQueue<Runnable> cola = capacidadCola == 0
+                    ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(capacidadCola);
+            AtomicInteger numero = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS, cola, r -> {
+                Thread t = new Thread(r, "api-" + carga.getClave() + "-" + numero.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }, (r, p) -> {
+                rechazadas.increment();
+                throw new CargaSaturadaException("SATURADO_" + carga.name(),
+                        "El servidor está ocupado (" + carga.getClave() + "), intente de nuevo en un momento");
+            });
+            this.pool.allowCoreThreadTimeOut(true);
+        }
+
+        @Override
+        public void execute(Runnable tarea) {
+            long encolada = System.nanoTime();
+            pool.execute(() -> {
+                long inicio = System.nanoTime();
+                esperaNanos.add(inicio - encolada);
+                esperaMaximaNanos.accumulate(inicio - encolada);
+                try {
+                    tarea.run();
+                    completadas.increment();
+                } catch (RuntimeException | Error e) {
+                    fallidas.increment();
+                    throw e;
+                } finally {
+                    ejecucionNanos.add(System.nanoTime() - inicio);
+                }
+            });
+        }
+
+        EstadisticasEjecutor estadisticas() {
+            long ok = completadas.sum();
+            long error = fallidas.sum();
+            // Los promedios cuentan toda tarea que llegó a correr, terminara bien o no
+            long n = ok + error;
+            return new EstadisticasEjecutor(carga.getClave(), pool.getMaximumPoolSize(), pool.getActiveCount(),
+                    pool.getQueue().size(), capacidadCola, ok, error, rechazadas.sum(),
+                    n == 0 ? 0 : esperaNanos.sum() / 1e6 / n,
+                    esperaMaximaNanos.get() / 1e6,
+                    n == 0 ? 0 : ejecucionNanos.sum() / 1e6 / n);
+        }
+    }
+}
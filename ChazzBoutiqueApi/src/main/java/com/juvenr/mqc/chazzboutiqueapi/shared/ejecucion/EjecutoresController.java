@@ -0,0 +1,23 @@
+package com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion;
+
+import java.util.List;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/ejecutores")
+public class EjecutoresController {
+
+    private final EjecutoresApi ejecutores;
+
+    public EjecutoresController(EjecutoresApi ejecutores) {
+        this.ejecutores = ejecutores;
+    }
+
+    /**
+     * Ocupación, cola, rechazos y tiempos de cada grupo de hilos.
+     */
+    @GetMapping
+    public List<EstadisticasEjecutor> estadisticas() {
+        return ejecutores.obtenerEstadisticas();
+    }
+}
@@ -0,0 +1,82 @@
+package com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion;
+
+/**
+ * Fotografía de los contadores de un grupo de hilos de {@link EjecutoresApi}.
+ */
+public class EstadisticasEjecutor {
+
+    private final String carga;
+    private final int hilos;
+    private final int activos;
+    private final int enCola;
+    private final int capacidadCola;
+    private final long completadas;
+    private final long fallidas;
+    private final long rechazadas;
+    private final double esperaPromedioMs;
+    private final double esperaMaximaMs;
+    private final double ejecucionPromedioMs;
+
+    public EstadisticasEjecutor(String carga, int hilos, int activos, int enCola, int capacidadCola,
+            long completadas, long fallidas, long rechazadas, double esperaPromedioMs, double esperaMaximaMs,
+            double ejecucionPromedioMs) {
+        this.carga = carga;
+        this.hilos = hilos;
+        this.activos = activos;
+        this.enCola = enCola;
+        this.capacidadCola = capacidadCola;
+        this.completadas = completadas;
+        this.fallidas = fallidas;
+        this.rechazadas = rechazadas;
+        this.esperaPromedioMs = esperaPromedioMs;
+        this.esperaMaximaMs = esperaMaximaMs;
+        this.ejecucionPromedioMs = ejecucionPromedioMs;
+    }
+
+    public String getCarga() {
+        return carga;
+    }
+
+    public int getHilos() {
+        return hilos;
+    }
+
+    public int getActivos() {
+        return activos;
+    }
+
+    public int getEnCola() {
+        return enCola;
+    }
+
+    public int getCapacidadCola() {
+        return capacidadCola;
+    }
+
+    public long getCompletadas() {
+        return completadas;
+    }
+
+    public long getFallidas() {
+        return fallidas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    /**
+     * Tiempo promedio en cola antes de empezar a ejecutarse.
+     */
+    public double getEsperaPromedioMs() {
+        return esperaPromedioMs;
+    }
+
+    public double getEsperaMaximaMs() {
+        return esperaMaximaMs;
+    }
+
+    public double getEjecucionPromedioMs() {
+        return ejecucionPromedioMs;
+    }
+}
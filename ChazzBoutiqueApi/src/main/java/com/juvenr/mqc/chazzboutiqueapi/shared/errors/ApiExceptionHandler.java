@@ -1,5 +1,8 @@
 package com.juvenr.mqc.chazzboutiqueapi.shared.errors;
 
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -7,6 +10,8 @@ import org.springframework.web.server.ResponseStatusException;
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
+    private static final Logger LOG = Logger.getLogger(ApiExceptionHandler.class.getName());
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiError> notFound(NotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -19,6 +24,31 @@ public class ApiExceptionHandler {
                 .body(new ApiError(ex.getCode(), ex.getMessage()));
     }
 
+    /**
+     * Grupo de hilos lleno: se contesta enseguida para que el cliente
+     * reintente, en lugar de encolar sin límite.
+     */
+    @ExceptionHandler(CargaSaturadaException.class)
+    public ResponseEntity<ApiError> saturado(CargaSaturadaException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiError(ex.getCode(), ex.getMessage()));
+    }
+
+    /**
+     * Lo mismo cuando el rechazo viene de Spring MVC al lanzar trabajo
+     * asíncrono en uno de los grupos.
+     */
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiError> rechazado(TaskRejectedException ex) {
+        if (ex.getCause() instanceof CargaSaturadaException) {
+            return saturado((CargaSaturadaException) ex.getCause());
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiError("SATURADO", "El servidor está ocupado, intente de nuevo en un momento"));
+    }
+
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<ApiError> responseStatus(ResponseStatusException ex) {
         HttpStatus status = HttpStatus.valueOf(ex.getStatus().value());
@@ -30,7 +60,7 @@ public class ApiExceptionHandler {
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> generic(Exception ex) {
-        ex.printStackTrace();
+        LOG.log(Level.SEVERE, "Error no controlado", ex);
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(new ApiError("INTERNAL_ERROR", "Error inesperado"));
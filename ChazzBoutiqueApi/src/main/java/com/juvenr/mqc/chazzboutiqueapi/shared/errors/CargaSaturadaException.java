@@ -0,0 +1,22 @@
+package com.juvenr.mqc.chazzboutiqueapi.shared.errors;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * El grupo de hilos de una carga tiene todos sus hilos ocupados y la cola
+ * llena. Se contesta 503 de inmediato en lugar de dejar esperando al
+ * cliente.
+ */
+public class CargaSaturadaException extends RejectedExecutionException {
+
+    private final String code;
+
+    public CargaSaturadaException(String code, String msg) {
+        super(msg);
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
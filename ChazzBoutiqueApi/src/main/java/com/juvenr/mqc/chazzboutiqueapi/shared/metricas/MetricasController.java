@@ -0,0 +1,28 @@
+package com.juvenr.mqc.chazzboutiqueapi.shared.metricas;
+
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/metricas")
+public class MetricasController {
+
+    static final String TIPO_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Todas las métricas del proceso en el formato de texto de Prometheus:
+     * latencias por ruta HTTP, por método de negocio y DAO, EntityManagers,
+     * transacciones, pool, cachés, tickets y grupos de hilos.
+     */
+    @GetMapping
+    public ResponseEntity<String> metricas() throws IOException {
+        StringBuilder salida = new StringBuilder(16 * 1024);
+        RegistroMetricas.global().escribirPrometheus(salida);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, TIPO_PROMETHEUS)
+                .body(salida.toString());
+    }
+}
@@ -0,0 +1,44 @@
+package com.juvenr.mqc.chazzboutiqueapi.shared.metricas;
+
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Mide cada petición por ruta (el patrón del mapeo, p. ej.
+ * {@code /api/ventas/{id}/ticket.pdf}), método y código de respuesta.
+ *
+ * En las respuestas asíncronas (tickets, reportes) el inicio se toma en el
+ * primer despacho y la medición se cierra cuando la respuesta termina, no
+ * cuando el hilo del servidor se libera.
+ */
+public class MetricasHttpInterceptor implements HandlerInterceptor {
+
+    private static final String INICIO = MetricasHttpInterceptor.class.getName() + ".inicio";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(INICIO) == null) {
+            request.setAttribute(INICIO, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object inicio = request.getAttribute(INICIO);
+        if (!(inicio instanceof Long)) {
+            return;
+        }
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String ruta = patron != null ? patron.toString() : "otra";
+        // Una excepción que nadie atendió todavía no puso el código en la respuesta
+        int estado = (ex != null && response.getStatus() < 400) ? 500 : response.getStatus();
+        RegistroMetricas.global().histograma("chazz_http_segundos", "Duración de las peticiones HTTP",
+                "metodo", request.getMethod(), "ruta", ruta, "estado", String.valueOf(estado))
+                .registrarDesde((Long) inicio);
+    }
+}
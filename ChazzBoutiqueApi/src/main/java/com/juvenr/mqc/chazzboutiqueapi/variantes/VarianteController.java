@@ -1,12 +1,22 @@
 package com.juvenr.mqc.chazzboutiqueapi.variantes;
 
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.Carga;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.EjecutoresApi;
+import com.juvenr.mqc.chazzboutiqueapi.variantes.dto.VarianteLookupBulkResponse;
+import com.juvenr.mqc.chazzboutiqueapi.variantes.dto.VarianteLookupRequest;
 import com.juvenr.mqc.chazzboutiqueapi.variantes.dto.VarianteLookupResponse;
-import com.mycompany.chazzboutiquenegocio.dtos.ProductoDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
-import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IProductoNegocio;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVarianteProductoNegocio;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
@@ -15,16 +25,25 @@ import org.springframework.web.server.ResponseStatusException;
 @RequestMapping("/api/variantes")
 public class VarianteController {
 
+    /**
+     * Máximo de códigos más ids por llamada a {@link #lookup}.
+     */
+    static final int MAX_LOOKUP = 500;
+
     private final IVarianteProductoNegocio varianteNegocio;
-    private final IProductoNegocio productoNegocio;
+    private final EjecutoresApi ejecutores;
 
-    public VarianteController(IVarianteProductoNegocio varianteNegocio, IProductoNegocio productoNegocio) {
+    public VarianteController(IVarianteProductoNegocio varianteNegocio, EjecutoresApi ejecutores) {
         this.varianteNegocio = varianteNegocio;
-        this.productoNegocio = productoNegocio;
+        this.ejecutores = ejecutores;
     }
 
     @GetMapping("/codigo/{codigo}")
-    public VarianteLookupResponse buscarPorCodigo(@PathVariable String codigo) {
+    public CompletableFuture<VarianteLookupResponse> buscarPorCodigo(@PathVariable String codigo) {
+        return ejecutores.ejecutar(Carga.CONSULTAS, () -> buscarPorCodigoBloqueante(codigo));
+    }
+
+    private VarianteLookupResponse buscarPorCodigoBloqueante(String codigo) {
         try {
             VarianteProductoDTO v = varianteNegocio.obtenerVariantePorCodigoBarra(codigo);
 
@@ -32,27 +51,98 @@ public class VarianteController {
                 throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No existe variante para el código: " + codigo);
             }
 
-            ProductoDTO p = productoNegocio.buscarPorId(v.getProductoId());
-            if (p == null) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No existe producto para la variante del código: " + codigo);
+            return aResponse(v);
+
+        } catch (NegocioException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resuelve en una llamada los códigos e ids de un carrito o de un
+     * anaquel. Los códigos salen de la caché de variantes y los que falten
+     * se leen juntos en una consulta; los ids se leen en otra.
+     */
+    @PostMapping("/lookup")
+    public CompletableFuture<VarianteLookupBulkResponse> lookup(@RequestBody VarianteLookupRequest req) {
+        Set<String> codigos = new LinkedHashSet<>();
+        if (req != null && req.getCodigos() != null) {
+            for (String c : req.getCodigos()) {
+                if (c != null && !c.trim().isEmpty()) {
+                    codigos.add(c.trim());
+                }
+            }
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        if (req != null && req.getIds() != null) {
+            for (Long id : req.getIds()) {
+                if (id != null) {
+                    ids.add(id);
+                }
             }
+        }
+        if (codigos.isEmpty() && ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe enviar al menos un código o id");
+        }
+        if (codigos.size() + ids.size() > MAX_LOOKUP) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Se pueden consultar a lo más " + MAX_LOOKUP + " variantes por llamada");
+        }
 
-            VarianteLookupResponse res = new VarianteLookupResponse();
-            res.setVarianteId(v.getId());
-            res.setCodigoBarras(v.getCodigoBarra());
-            res.setPrecioVenta(v.getPrecioVenta());
+        return ejecutores.ejecutar(Carga.CONSULTAS, () -> resolver(codigos, ids));
+    }
 
-            res.setProductoId(v.getProductoId());
-            res.setNombreProducto(p.getNombreProducto());
+    private VarianteLookupBulkResponse resolver(Set<String> codigos, Set<Long> ids) {
+        try {
+            Map<String, VarianteProductoDTO> porCodigo = codigos.isEmpty()
+                    ? Collections.emptyMap() : varianteNegocio.obtenerPorCodigosBarra(codigos);
+            Map<Long, VarianteProductoDTO> porId = ids.isEmpty()
+                    ? Collections.emptyMap() : varianteNegocio.obtenerPorIds(ids);
 
-            res.setColorHex(v.getColor());
-            res.setStock(v.getStock());
-            res.setTalla(v.getTalla());
+            List<VarianteLookupResponse> encontradas = new ArrayList<>(porCodigo.size() + porId.size());
+            Set<Long> agregadas = new HashSet<>();
+            List<String> codigosNoEncontrados = new ArrayList<>();
+            for (String c : codigos) {
+                VarianteProductoDTO v = porCodigo.get(c);
+                if (v == null) {
+                    codigosNoEncontrados.add(c);
+                } else if (agregadas.add(v.getId())) {
+                    encontradas.add(aResponse(v));
+                }
+            }
+            List<Long> idsNoEncontrados = new ArrayList<>();
+            for (Long id : ids) {
+                VarianteProductoDTO v = porId.get(id);
+                if (v == null) {
+                    idsNoEncontrados.add(id);
+                } else if (agregadas.add(v.getId())) {
+                    encontradas.add(aResponse(v));
+                }
+            }
 
+            VarianteLookupBulkResponse res = new VarianteLookupBulkResponse();
+            res.setEncontradas(encontradas);
+            res.setCodigosNoEncontrados(codigosNoEncontrados);
+            res.setIdsNoEncontrados(idsNoEncontrados);
             return res;
 
         } catch (NegocioException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         }
     }
+
+    private static VarianteLookupResponse aResponse(VarianteProductoDTO v) {
+        VarianteLookupResponse res = new VarianteLookupResponse();
+        res.setVarianteId(v.getId());
+        res.setCodigoBarras(v.getCodigoBarra());
+        res.setPrecioVenta(v.getPrecioVenta());
+
+        res.setProductoId(v.getProductoId());
+        res.setNombreProducto(v.getNombreProducto());
+
+        res.setColorHex(v.getColor());
+        res.setStock(v.getStock());
+        res.setTalla(v.getTalla());
+        return res;
+    }
 }
@@ -0,0 +1,24 @@
+package com.juvenr.mqc.chazzboutiqueapi.variantes.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de {@code POST /api/variantes/lookup}. Las variantes vienen en
+ * el orden en que se pidieron (primero por código, luego por id), sin
+ * repetir; lo que no existe se reporta aparte.
+ */
+public class VarianteLookupBulkResponse {
+
+    private List<VarianteLookupResponse> encontradas;
+    private List<String> codigosNoEncontrados;
+    private List<Long> idsNoEncontrados;
+
+    public List<VarianteLookupResponse> getEncontradas() { return encontradas; }
+    public void setEncontradas(List<VarianteLookupResponse> encontradas) { this.encontradas = encontradas; }
+
+    public List<String> getCodigosNoEncontrados() { return codigosNoEncontrados; }
+    public void setCodigosNoEncontrados(List<String> codigosNoEncontrados) { this.codigosNoEncontrados = codigosNoEncontrados; }
+
+    public List<Long> getIdsNoEncontrados() { return idsNoEncontrados; }
+    public void setIdsNoEncontrados(List<Long> idsNoEncontrados) { this.idsNoEncontrados = idsNoEncontrados; }
+}
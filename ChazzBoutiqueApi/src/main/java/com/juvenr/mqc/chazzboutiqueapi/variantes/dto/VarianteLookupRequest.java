@@ -0,0 +1,18 @@
+package com.juvenr.mqc.chazzboutiqueapi.variantes.dto;
+
+import java.util.List;
+
+/**
+ * Códigos de barras y/o ids de variante a resolver de una sola vez.
+ */
+public class VarianteLookupRequest {
+
+    private List<String> codigos;
+    private List<Long> ids;
+
+    public List<String> getCodigos() { return codigos; }
+    public void setCodigos(List<String> codigos) { this.codigos = codigos; }
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+}
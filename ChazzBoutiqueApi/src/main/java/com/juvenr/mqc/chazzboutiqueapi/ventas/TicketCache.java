@@ -0,0 +1,300 @@
+package com.juvenr.mqc.chazzboutiqueapi.ventas;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import com.mycompany.chazzboutiquepersistencia.conexion.ConfiguracionPool;
+import com.mycompany.chazzboutiquepersistencia.metricas.Muestras;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tickets ya generados, por id de venta. Una venta registrada no cambia, así
+ * que su ticket se genera una vez y se sirve siempre igual (mismo ETag).
+ *
+ * <ul>
+ * <li>En memoria se guardan los más recientes; al pasarse del límite el
+ * menos usado se escribe a disco en lugar de descartarse.</li>
+ * <li>En disco también hay límite; se borra el archivo más viejo.</li>
+ * <li>Si dos peticiones piden el mismo ticket que no está, solo una lo
+ * genera.</li>
+ * </ul>
+ *
+ * Los archivos llevan {@link #VERSION_FORMATO} en el nombre: al cambiar el
+ * diseño del ticket se sube la versión y los de disco dejan de usarse.
+ *
+ * El disco solo extiende la memoria de esta ejecución: los archivos van en
+ * una carpeta propia de la base (URL y usuario) y al arrancar se borran los
+ * que hayan quedado. Tras restaurar o reiniciar la base, una venta nueva
+ * puede tener el id de otra anterior y no debe recibir su ticket.
+ */
+@Component
+public class TicketCache {
+
+    private static final Logger LOG = Logger.getLogger(TicketCache.class.getName());
+
+    public static final String VERSION_FORMATO = "2";
+
+    static final String CLAVE_MEMORIA = "chazz.tickets.cache.memoria";
+    static final String CLAVE_DISCO = "chazz.tickets.cache.disco";
+    static final String CLAVE_DIRECTORIO = "chazz.tickets.cache.directorio";
+
+    /**
+     * Un ticket generado con su ETag (fuerte: depende de los bytes).
+     */
+    public static final class Ticket {
+
+        private final byte[] contenido;
+        private final String etag;
+
+        Ticket(byte[] contenido) {
+            this.contenido = contenido;
+            this.etag = "\"" + VERSION_FORMATO + "-" + sha256(contenido) + "\"";
+        }
+
+        public byte[] getContenido() {
+            return contenido;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private final int maxMemoria;
+    private final int maxDisco;
+    private final Path directorio;
+
+    private final LinkedHashMap<Long, Ticket> memoria = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashSet<Long> enDisco = new LinkedHashSet<>();
+    private final ConcurrentHashMap<Long, CompletableFuture<Ticket>> enCurso = new ConcurrentHashMap<>();
+
+    private final LongAdder aciertosMemoria = new LongAdder();
+    private final LongAdder aciertosDisco = new LongAdder();
+    private final LongAdder generados = new LongAdder();
+
+    public TicketCache(Environment env, ConfiguracionPool configuracionPool) {
+        this.maxMemoria = Math.max(1, env.getProperty(CLAVE_MEMORIA, Integer.class, 200));
+        this.maxDisco = Math.max(0, env.getProperty(CLAVE_DISCO, Integer.class, 5000));
+        String baseDatos = configuracionPool.getUrl() + "|" + configuracionPool.getUsuario();
+        this.directorio = Paths.get(env.getProperty(CLAVE_DIRECTORIO,
+                System.getProperty("java.io.tmpdir") + "/chazz-tickets"))
+                .resolve("bd-" + sha256(baseDatos.getBytes(StandardCharsets.UTF_8)).substring(0, 12));
+        limpiarDisco();
+        RegistroMetricas.global().agregarRecolector("tickets", this::recolectarMetricas);
+    }
+
+    /**
+     * Devuelve el ticket de la venta, generándolo con {@code generar} si no
+     * está en memoria ni en disco.
+     */
+    public Ticket obtener(Long ventaId, Supplier<byte[]> generar) {
+        Ticket t = buscar(ventaId);
+        if (t != null) {
+            return t;
+        }
+
+        CompletableFuture<Ticket> nueva = new CompletableFuture<>();
+        CompletableFuture<Ticket> existente = enCurso.putIfAbsent(ventaId, nueva);
+        if (existente != null) {
+            return esperar(existente);
+        }
+        try {
+            t = new Ticket(generar.get());
+            generados.increment();
+            guardar(ventaId, t);
+            nueva.complete(t);
+            return t;
+        } catch (RuntimeException e) {
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(ventaId, nueva);
+        }
+    }
+
+    /**
+     * @return el ticket si ya está generado; {@code null} si no.
+     */
+    public Ticket buscar(Long ventaId) {
+        synchronized (memoria) {
+            Ticket t = memoria.get(ventaId);
+            if (t != null) {
+                aciertosMemoria.increment();
+                return t;
+            }
+        }
+        Ticket t = leerDisco(ventaId);
+        if (t != null) {
+            aciertosDisco.increment();
+            guardar(ventaId, t);
+        }
+        return t;
+    }
+
+    public long getAciertosMemoria() {
+        return aciertosMemoria.sum();
+    }
+
+    public long getAciertosDisco() {
+        return aciertosDisco.sum();
+    }
+
+    public long getGenerados() {
+        return generados.sum();
+    }
+
+    private void recolectarMetricas(Muestras m) {
+        long memoria = getAciertosMemoria();
+        long disco = getAciertosDisco();
+        long generados = getGenerados();
+        long total = memoria + disco + generados;
+        m.contador("chazz_tickets_total", "Tickets servidos por origen", memoria, "origen", "memoria");
+        m.contador("chazz_tickets_total", "Tickets servidos por origen", disco, "origen", "disco");
+        m.contador("chazz_tickets_total", "Tickets servidos por origen", generados, "origen", "generado");
+        m.indicador("chazz_tickets_tasa_aciertos", "Tickets servidos sin generarlos",
+                total == 0 ? 0d : (memoria + disco) / (double) total);
+    }
+
+    private void guardar(Long ventaId, Ticket t) {
+        List<Map.Entry<Long, Ticket>> desalojados = new ArrayList<>();
+        synchronized (memoria) {
+            memoria.put(ventaId, t);
+            Iterator<Map.Entry<Long, Ticket>> it = memoria.entrySet().iterator();
+            while (memoria.size() > maxMemoria && it.hasNext()) {
+                Map.Entry<Long, Ticket> mayor = it.next();
+                desalojados.add(Map.entry(mayor.getKey(), mayor.getValue()));
+                it.remove();
+            }
+        }
+        // La escritura a disco va fuera del candado para no frenar lecturas.
+        for (Map.Entry<Long, Ticket> e : desalojados) {
+            escribirDisco(e.getKey(), e.getValue());
+        }
+    }
+
+    private Path archivo(Long ventaId) {
+        return directorio.resolve("ticket-v" + VERSION_FORMATO + "-" + ventaId + ".pdf");
+    }
+
+    private Ticket leerDisco(Long ventaId) {
+        synchronized (enDisco) {
+            if (!enDisco.contains(ventaId)) {
+                return null;
+            }
+        }
+        try {
+            return new Ticket(Files.readAllBytes(archivo(ventaId)));
+        } catch (IOException e) {
+            synchronized (enDisco) {
+                enDisco.remove(ventaId);
+            }
+            return null;
+        }
+    }
+
+    private void escribirDisco(Long ventaId, Ticket t) {
+        if (maxDisco == 0) {
+            return;
+        }
+        synchronized (enDisco) {
+            if (enDisco.contains(ventaId)) {
+                return;
+            }
+        }
+        try {
+            Files.createDirectories(directorio);
+            Path tmp = Files.createTempFile(directorio, "ticket", ".tmp");
+            Files.write(tmp, t.getContenido());
+            Files.move(tmp, archivo(ventaId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudo guardar en disco el ticket " + ventaId, e);
+            return;
+        }
+
+        Long aBorrar = null;
+        synchronized (enDisco) {
+            enDisco.add(ventaId);
+            if (enDisco.size() > maxDisco) {
+                Iterator<Long> it = enDisco.iterator();
+                aBorrar = it.next();
+                it.remove();
+            }
+        }
+        if (aBorrar != null) {
+            try {
+                Files.deleteIfExists(archivo(aBorrar));
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "No se pudo borrar el ticket " + aBorrar, e);
+            }
+        }
+    }
+
+    /**
+     * Borra los tickets que quedaron en disco de una ejecución anterior;
+     * nada garantiza que sigan correspondiendo a la misma venta.
+     */
+    private void limpiarDisco() {
+        if (!Files.isDirectory(directorio)) {
+            return;
+        }
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.filter(p -> p.getFileName().toString().startsWith("ticket")).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException e) {
+                    LOG.log(Level.FINE, "No se pudo borrar " + p, e);
+                }
+            });
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "No se pudo limpiar el directorio de tickets " + directorio, e);
+        }
+    }
+
+    private static Ticket esperar(CompletableFuture<Ticket> carga) {
+        try {
+            return carga.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el ticket", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String sha256(byte[] datos) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(datos);
+            StringBuilder sb = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,26 +4,103 @@
  */
 package com.juvenr.mqc.chazzboutiqueapi.ventas;
 
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.Carga;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.EjecutoresApi;
+import com.mycompany.chazzboutiquenegocio.tickets.DatosTicket;
+import com.mycompany.chazzboutiquenegocio.tickets.TicketEscPos;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletResponse;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/ventas")
 public class TicketController {
 
+    private static final CacheControl CACHE = CacheControl.maxAge(1, TimeUnit.DAYS).cachePrivate();
+
     private final TicketService ticketService;
+    private final EjecutoresApi ejecutores;
 
-    public TicketController(TicketService ticketService) {
+    public TicketController(TicketService ticketService, EjecutoresApi ejecutores) {
         this.ticketService = ticketService;
+        this.ejecutores = ejecutores;
     }
 
+    /**
+     * El ticket de una venta no cambia, así que se manda con ETag fuerte; si
+     * el cliente ya lo tiene (If-None-Match) se responde 304 sin cuerpo.
+     *
+     * Con renderizado directo el PDF se escribe sobre la respuesta conforme
+     * se genera, sin ETag ni caché. En los dos casos el trabajo corre en el
+     * grupo de hilos de tickets.
+     */
     @GetMapping("/{id}/ticket.pdf")
-    public ResponseEntity<byte[]> ticketPdf(@PathVariable Long id) {
-        byte[] pdf = ticketService.generarTicketPdf(id);
+    public Object ticketPdf(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) {
+        if (ticketService.isRenderizadoDirecto()) {
+            return (StreamingResponseBody) salida -> {
+                // Los datos se leen antes de tocar la respuesta: si la venta
+                // no existe todavía se puede contestar con error.
+                DatosTicket datos = ticketService.cargarDatos(id);
+                response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"TicketVenta_" + id + ".pdf\"");
+                ticketService.escribirTicketPdf(datos, salida);
+            };
+        }
+
+        return ejecutores.ejecutar(Carga.TICKETS, () -> {
+            TicketCache.Ticket ticket = ticketService.obtenerTicketPdf(id);
+
+            if (coincide(ifNoneMatch, ticket.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(ticket.getEtag())
+                        .cacheControl(CACHE)
+                        .<byte[]>build();
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .eTag(ticket.getEtag())
+                    .cacheControl(CACHE)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"TicketVenta_" + id + ".pdf\"")
+                    .body(ticket.getContenido());
+        });
+    }
+
+    /**
+     * Ticket en comandos ESC/POS para mandarse tal cual a la impresora
+     * térmica: 32 columnas para papel de 58 mm, 48 para 80 mm.
+     */
+    @GetMapping("/{id}/ticket.escpos")
+    public CompletableFuture<ResponseEntity<byte[]>> ticketEscPos(@PathVariable Long id,
+            @RequestParam(defaultValue = "" + TicketEscPos.COLUMNAS_80MM) int columnas) {
+        if (columnas != TicketEscPos.COLUMNAS_58MM && columnas != TicketEscPos.COLUMNAS_80MM) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "columnas debe ser "
+                    + TicketEscPos.COLUMNAS_58MM + " o " + TicketEscPos.COLUMNAS_80MM);
+        }
+        return ejecutores.ejecutar(Carga.TICKETS, () -> ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .cacheControl(CACHE)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"TicketVenta_" + id + ".escpos\"")
+                .body(ticketService.generarTicketEscPos(id, columnas)));
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_PDF)
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"TicketVenta_" + id + ".pdf\"")
-                .body(pdf);
+    private static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String c = candidato.trim();
+            if (c.equals("*") || c.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -8,182 +8,374 @@ import com.mycompany.chazzboutiquenegocio.dtos.VentaDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVarianteProductoNegocio;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVentaNegocio;
+import com.mycompany.chazzboutiquenegocio.tickets.DatosTicket;
+import com.mycompany.chazzboutiquenegocio.tickets.TicketEscPos;
+import com.mycompany.chazzboutiquepersistencia.metricas.Histograma;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PreDestroy;
 
 @Service
 public class TicketService {
 
+    private static final Logger LOG = Logger.getLogger(TicketService.class.getName());
+
     private final IVentaNegocio ventaNegocio;
     private final IVarianteProductoNegocio varianteProductoNegocio;
+    private final TicketCache ticketCache;
+    private final boolean renderizadoDirecto;
+
+    static final String CLAVE_RENDERIZADO = "chazz.tickets.renderizado";
+
+    private static final float ANCHO = 227f;
+    private static final float MARGEN = 15f;
+    /**
+     * Margen extra al calcular el alto de la página, para no partir el
+     * ticket en dos por un error de redondeo.
+     */
+    private static final float HOLGURA = 24f;
+    private static final float ANCHO_CARACTER_COURIER = 0.6f;
+    private static final int TAMANO_INICIAL_PDF = 32 * 1024;
+    private static final String SEPARADOR = "----------------------------------------------";
+
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.COURIER, 14, Font.BOLD);
+    private static final Font NORMAL_FONT = new Font(Font.FontFamily.COURIER, 10, Font.NORMAL);
+    private static final Font BOLD_FONT   = new Font(Font.FontFamily.COURIER, 10, Font.BOLD);
+    private static final Font SMALL_FONT  = new Font(Font.FontFamily.COURIER, 8, Font.NORMAL);
+
+    /**
+     * Logo y QR decodificados una sola vez al arrancar.
+     */
+    private final Image logo = cargarImagen("images/chazzLogoBlack.png", 100, 100);
+    private final Image qr = cargarImagen("images/QRreal.png", 70, 70);
+
+    /**
+     * Tiempo de armar el ticket, sin leer la venta. En el renderizado directo
+     * incluye lo que tarda el cliente en recibirlo.
+     */
+    private final Histograma renderPdf = RegistroMetricas.global().histograma(
+            "chazz_ticket_render_segundos", "Tiempo de generar un ticket", "formato", "pdf");
+    private final Histograma renderEscPos = RegistroMetricas.global().histograma(
+            "chazz_ticket_render_segundos", "Tiempo de generar un ticket", "formato", "escpos");
+
+    /**
+     * Genera en segundo plano el ticket de una venta recién registrada.
+     */
+    private final ExecutorService prerender = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ticket-prerender");
+        t.setDaemon(true);
+        return t;
+    });
 
     public TicketService(IVentaNegocio ventaNegocio,
-                         IVarianteProductoNegocio varianteProductoNegocio) {
+                         IVarianteProductoNegocio varianteProductoNegocio,
+                         TicketCache ticketCache,
+                         Environment env) {
         this.ventaNegocio = ventaNegocio;
         this.varianteProductoNegocio = varianteProductoNegocio;
+        this.ticketCache = ticketCache;
+        this.renderizadoDirecto = "directo".equalsIgnoreCase(env.getProperty(CLAVE_RENDERIZADO, "cache"));
+    }
+
+    /**
+     * @return si los tickets se escriben directo a la respuesta en cada
+     * petición ({@code chazz.tickets.renderizado=directo}) en lugar de
+     * servirse desde {@link TicketCache}.
+     */
+    public boolean isRenderizadoDirecto() {
+        return renderizadoDirecto;
+    }
+
+    /**
+     * Ticket de la venta desde la caché; solo se genera la primera vez.
+     */
+    public TicketCache.Ticket obtenerTicketPdf(Long ventaId) {
+        return ticketCache.obtener(ventaId, () -> generarTicketPdf(ventaId));
+    }
+
+    /**
+     * Encola la generación del ticket para que la impresión automática
+     * después del cobro ya lo encuentre hecho. Debe llamarse cuando la venta
+     * ya está confirmada en la base.
+     */
+    public void prerenderizar(Long ventaId) {
+        if (renderizadoDirecto) {
+            return;
+        }
+        prerender.execute(() -> {
+            try {
+                obtenerTicketPdf(ventaId);
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "No se pudo pre-generar el ticket de la venta " + ventaId, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        prerender.shutdownNow();
     }
 
     public byte[] generarTicketPdf(Long ventaId) {
+        DatosTicket datos = cargarDatos(ventaId);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(TAMANO_INICIAL_PDF);
+        escribirTicketPdf(datos, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Ticket en ESC/POS para imprimir directo en la térmica.
+     *
+     * @param columnas 32 (papel de 58 mm) o 48 (80 mm).
+     */
+    public byte[] generarTicketEscPos(Long ventaId, int columnas) {
+        DatosTicket datos = cargarDatos(ventaId);
+        long inicio = System.nanoTime();
         try {
-            VentaDTO venta = ventaNegocio.obtenerVentaConDetalles(ventaId);
-            if (venta == null) throw new IllegalArgumentException("No existe la venta con id: " + ventaId);
-            if (venta.getDetalles() == null || venta.getDetalles().isEmpty())
-                throw new IllegalArgumentException("La venta no tiene detalles: " + ventaId);
+            return TicketEscPos.generar(datos, columnas);
+        } finally {
+            renderEscPos.registrarDesde(inicio);
+        }
+    }
 
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    /**
+     * Lee la venta y resuelve los nombres de los artículos. Falla aquí (y no
+     * a mitad del PDF) si la venta no existe o no tiene detalles.
+     */
+    DatosTicket cargarDatos(Long ventaId) {
+        VentaDTO venta;
+        try {
+            venta = ventaNegocio.obtenerVentaConDetalles(ventaId);
+        } catch (NegocioException e) {
+            throw new RuntimeException("Error generando ticket PDF: " + e.getMessage(), e);
+        }
+        if (venta == null) throw new IllegalArgumentException("No existe la venta con id: " + ventaId);
+        if (venta.getDetalles() == null || venta.getDetalles().isEmpty())
+            throw new IllegalArgumentException("La venta no tiene detalles: " + ventaId);
+
+        String vendedor = (venta.getVendedorNombre() != null && !venta.getVendedorNombre().isBlank())
+                ? venta.getVendedorNombre()
+                : ("Usuario #" + venta.getUsuarioId());
+
+        // Nombres de todos los artículos en una sola consulta
+        Map<String, VarianteProductoDTO> variantes = new HashMap<>();
+        List<String> codigos = new ArrayList<>();
+        for (DetalleVentaDTO detalle : venta.getDetalles()) {
+            if (detalle.getCodigoVariante() != null && !detalle.getCodigoVariante().isBlank()) {
+                codigos.add(detalle.getCodigoVariante());
+            }
+        }
+        try {
+            variantes = varianteProductoNegocio.obtenerPorCodigosBarra(codigos);
+        } catch (NegocioException ignored) {}
 
-            // Ticket angosto tipo POS
-            Document document = new Document(new Rectangle(227f, 700f));
-            final float MARGIN = 15f;
+        List<DatosTicket.Renglon> renglones = new ArrayList<>(venta.getDetalles().size());
+        for (DetalleVentaDTO detalle : venta.getDetalles()) {
+            String codigo = detalle.getCodigoVariante();
 
-            PdfWriter.getInstance(document, baos);
-            document.setMargins(MARGIN, MARGIN, MARGIN, MARGIN);
-            document.open();
+            // SOLO nombre (fallback a código si no hay nombre)
+            String nombreArticulo = (codigo == null || codigo.isBlank()) ? "SIN-COD" : codigo;
 
-            Font headerFont = new Font(Font.FontFamily.COURIER, 14, Font.BOLD);
-            Font normalFont = new Font(Font.FontFamily.COURIER, 10, Font.NORMAL);
-            Font boldFont   = new Font(Font.FontFamily.COURIER, 10, Font.BOLD);
-            Font smallFont  = new Font(Font.FontFamily.COURIER, 8, Font.NORMAL);
-
-            // ===== HEADER =====
-            Paragraph header = new Paragraph();
-            header.setAlignment(Element.ALIGN_CENTER);
-
-            addImageIfExists(header, "images/chazzLogoBlack.png", 100, 100);
-
-            header.add(new Paragraph("CHAZZ BOUTIQUE", headerFont));
-            header.add(new Paragraph("Calle Guillermo Prieto #339, Col. Centro, Los Mochis", normalFont));
-            header.add(new Paragraph("Tel: +52 1 668 253 1651 | RFC: CHA220401XYZ", normalFont));
-            header.add(new Paragraph("----------------------------------------------", normalFont));
-            document.add(header);
-
-            // ===== INFO VENTA =====
-            String fechaStr = buildFechaStr(venta);
-            Paragraph saleInfo = new Paragraph();
-            saleInfo.add(new Paragraph("Fecha: " + fechaStr, normalFont));
-            saleInfo.add(new Paragraph("Ticket: #" + venta.getId(), normalFont));
-
-            String vendedor = (venta.getVendedorNombre() != null && !venta.getVendedorNombre().isBlank())
-                    ? venta.getVendedorNombre()
-                    : ("Usuario #" + venta.getUsuarioId());
-
-            saleInfo.add(new Paragraph("Vendedor: " + vendedor, normalFont));
-            saleInfo.add(new Paragraph("----------------------------------------------", normalFont));
-            document.add(saleInfo);
-
-            // ===== PRODUCTOS =====
-            Paragraph products = new Paragraph();
-            products.add(new Paragraph(String.format("%-25s %3s %10s %10s",
-                    "ARTÍCULO", "CANT", "P.UNITARIO", "TOTAL"), boldFont));
-            products.add(new Paragraph("----------------------------------------------", normalFont));
-
-            for (DetalleVentaDTO detalle : venta.getDetalles()) {
-                String codigo = detalle.getCodigoVariante();
-
-                // SOLO nombre (fallback a código si no hay nombre)
-                String nombreArticulo = (codigo == null || codigo.isBlank()) ? "SIN-COD" : codigo;
-
-                if (codigo != null && !codigo.isBlank()) {
-                    try {
-                        VarianteProductoDTO v = varianteProductoNegocio.obtenerVariantePorCodigoBarra(codigo);
-                        if (v != null && v.getNombreProducto() != null && !v.getNombreProducto().isBlank()) {
-                            nombreArticulo = v.getNombreProducto();
-                        }
-                    } catch (NegocioException ignored) {}
-                }
-
-                // recorta para no romper columnas
-                if (nombreArticulo.length() > 25) nombreArticulo = nombreArticulo.substring(0, 22) + "...";
-
-                BigDecimal precioUnitario = safeMoney(detalle.getPrecioUnitario());
-                BigDecimal totalLinea = precioUnitario.multiply(BigDecimal.valueOf(detalle.getCantidad()));
-
-                String linea = String.format("%-25s %3d %10s %10s",
-                        nombreArticulo,
-                        detalle.getCantidad(),
-                        formatoMonedaSimple(precioUnitario),
-                        formatoMonedaSimple(totalLinea));
-
-                products.add(new Paragraph(linea, normalFont));
+            VarianteProductoDTO v = (codigo != null) ? variantes.get(codigo) : null;
+            if (v != null && v.getNombreProducto() != null && !v.getNombreProducto().isBlank()) {
+                nombreArticulo = v.getNombreProducto();
             }
 
-            document.add(products);
+            BigDecimal precioUnitario = safeMoney(detalle.getPrecioUnitario());
+            BigDecimal totalLinea = precioUnitario.multiply(BigDecimal.valueOf(detalle.getCantidad()));
+            renglones.add(new DatosTicket.Renglon(nombreArticulo, detalle.getCantidad(), precioUnitario, totalLinea));
+        }
 
-            // ===== TOTALES =====
-            BigDecimal subtotal  = calcularSubtotal(venta);
-            BigDecimal descuento = safeMoney(venta.getDescuento());
-            BigDecimal total     = safeMoney(venta.getTotal());
-            BigDecimal pago      = safeMoney(venta.getMontoPago());
+        BigDecimal subtotal  = calcularSubtotal(venta);
+        BigDecimal descuento = safeMoney(venta.getDescuento());
+        BigDecimal total     = safeMoney(venta.getTotal());
+        BigDecimal pago      = safeMoney(venta.getMontoPago());
 
-            // si total viene 0 por un mapeo, al menos recalcula
-            if (total.compareTo(BigDecimal.ZERO) == 0) {
-                total = maxZero(subtotal.subtract(descuento));
-            }
+        // si total viene 0 por un mapeo, al menos recalcula
+        if (total.compareTo(BigDecimal.ZERO) == 0) {
+            total = maxZero(subtotal.subtract(descuento));
+        }
 
-            BigDecimal cambio = (venta.getCambio() != null)
-                    ? safeMoney(venta.getCambio())
-                    : pago.subtract(total);
+        BigDecimal cambio = (venta.getCambio() != null)
+                ? safeMoney(venta.getCambio())
+                : pago.subtract(total);
 
-            Paragraph totals = new Paragraph();
-            totals.add(new Paragraph("----------------------------------------------", normalFont));
-            totals.add(new Paragraph(String.format("%-15s %15s", "SUBTOTAL:",  formatoMonedaSimple(subtotal)), normalFont));
-            totals.add(new Paragraph(String.format("%-15s %15s", "DESCUENTO:", formatoMonedaSimple(descuento)), normalFont));
-            totals.add(new Paragraph(String.format("%-15s %15s", "TOTAL:",     formatoMonedaSimple(total)), boldFont));
-            totals.add(new Paragraph(String.format("%-15s %15s", "PAGO CON:",  formatoMonedaSimple(pago)), normalFont));
-            totals.add(new Paragraph(String.format("%-15s %15s", "CAMBIO:",    formatoMonedaSimple(maxZero(cambio))), normalFont));
-            totals.add(new Paragraph("----------------------------------------------\n", normalFont));
-            document.add(totals);
+        return new DatosTicket(venta.getId(), buildFechaStr(venta), vendedor, renglones,
+                subtotal, descuento, total, pago, maxZero(cambio));
+    }
 
-            // ===== FOOTER =====
-            Paragraph footer = new Paragraph();
-            footer.setAlignment(Element.ALIGN_CENTER);
-            footer.add(new Paragraph("¡Gracias por su preferencia!", smallFont));
-            footer.add(new Paragraph("Devoluciones en 24 hrs con ticket y etiquetas", smallFont));
-            footer.add(new Paragraph("@chazz.boutique", smallFont));
+    /**
+     * Escribe el PDF directo en {@code salida} (p. ej. la respuesta HTTP),
+     * sin armarlo antes en memoria. No cierra {@code salida}.
+     */
+    void escribirTicketPdf(DatosTicket datos, OutputStream salida) {
+        long inicio = System.nanoTime();
+        try {
+            componerPdf(datos, salida);
+        } finally {
+            renderPdf.registrarDesde(inicio);
+        }
+    }
 
-            addImageIfExists(footer, "images/QRreal.png", 70, 70);
+    private void componerPdf(DatosTicket datos, OutputStream salida) {
+        List<Element> elementos = new ArrayList<>();
+        float alto = 2 * MARGEN + HOLGURA;
+
+        // ===== HEADER =====
+        alto += agregarImagen(elementos, logo);
+        alto += agregarTexto(elementos, DatosTicket.NEGOCIO, HEADER_FONT, Element.ALIGN_CENTER);
+        alto += agregarTexto(elementos, DatosTicket.DIRECCION, NORMAL_FONT, Element.ALIGN_CENTER);
+        alto += agregarTexto(elementos, DatosTicket.TELEFONO_RFC, NORMAL_FONT, Element.ALIGN_CENTER);
+        alto += agregarTexto(elementos, SEPARADOR, NORMAL_FONT, Element.ALIGN_CENTER);
+
+        // ===== INFO VENTA =====
+        alto += agregarTexto(elementos, "Fecha: " + datos.getFecha(), NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, "Ticket: #" + datos.getVentaId(), NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, "Vendedor: " + datos.getVendedor(), NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, SEPARADOR, NORMAL_FONT, Element.ALIGN_LEFT);
+
+        // ===== PRODUCTOS =====
+        alto += agregarTexto(elementos, String.format("%-25s %3s %10s %10s",
+                "ARTÍCULO", "CANT", "P.UNITARIO", "TOTAL"), BOLD_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, SEPARADOR, NORMAL_FONT, Element.ALIGN_LEFT);
+        for (DatosTicket.Renglon r : datos.getRenglones()) {
+            // recorta para no romper columnas
+            String nombreArticulo = r.getArticulo().length() > 25 ? r.getArticulo().substring(0, 22) + "..." : r.getArticulo();
+            alto += agregarTexto(elementos, String.format("%-25s %3d %10s %10s",
+                    nombreArticulo,
+                    r.getCantidad(),
+                    formatoMonedaSimple(r.getPrecioUnitario()),
+                    formatoMonedaSimple(r.getTotal())), NORMAL_FONT, Element.ALIGN_LEFT);
+        }
 
-            document.add(footer);
+        // ===== TOTALES =====
+        alto += agregarTexto(elementos, SEPARADOR, NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, String.format("%-15s %15s", "SUBTOTAL:",  formatoMonedaSimple(datos.getSubtotal())), NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, String.format("%-15s %15s", "DESCUENTO:", formatoMonedaSimple(datos.getDescuento())), NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, String.format("%-15s %15s", "TOTAL:",     formatoMonedaSimple(datos.getTotal())), BOLD_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, String.format("%-15s %15s", "PAGO CON:",  formatoMonedaSimple(datos.getPago())), NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, String.format("%-15s %15s", "CAMBIO:",    formatoMonedaSimple(datos.getCambio())), NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, SEPARADOR, NORMAL_FONT, Element.ALIGN_LEFT);
+        alto += agregarTexto(elementos, " ", NORMAL_FONT, Element.ALIGN_LEFT);
+
+        // ===== FOOTER =====
+        for (String linea : DatosTicket.PIE) {
+            alto += agregarTexto(elementos, linea, SMALL_FONT, Element.ALIGN_CENTER);
+        }
+        alto += agregarImagen(elementos, qr);
 
+        // Ticket angosto tipo POS, tan alto como su contenido
+        Document document = new Document(new Rectangle(ANCHO, alto), MARGEN, MARGEN, MARGEN, MARGEN);
+        try {
+            OutputStream buffer = new BufferedOutputStream(salida, 8192);
+            PdfWriter writer = PdfWriter.getInstance(document, buffer);
+            writer.setCloseStream(false);
+            document.open();
+            for (Element e : elementos) {
+                document.add(e);
+            }
             document.close();
-            return baos.toByteArray();
-
-        } catch (Exception e) {
+            buffer.flush();
+        } catch (DocumentException | IOException e) {
             throw new RuntimeException("Error generando ticket PDF: " + e.getMessage(), e);
         }
     }
 
-    private String buildFechaStr(VentaDTO venta) {
+    /**
+     * @return alto que ocupa el texto: renglones después de partirlo por
+     * palabras al ancho del ticket, por el interlineado de la fuente.
+     */
+    private static float agregarTexto(List<Element> elementos, String texto, Font font, int alineacion) {
+        Paragraph p = new Paragraph(texto, font);
+        p.setAlignment(alineacion);
+        elementos.add(p);
+
+        int porRenglon = Math.max(1, (int) ((ANCHO - 2 * MARGEN) / (ANCHO_CARACTER_COURIER * font.getSize())));
+        return renglones(texto, porRenglon) * p.getTotalLeading();
+    }
+
+    private static float agregarImagen(List<Element> elementos, Image compartida) {
+        if (compartida == null) {
+            return 0;
+        }
+        // La copia comparte los datos ya decodificados; solo cambia la
+        // posición, que cada documento ajusta por su cuenta.
+        Image img;
         try {
-            LocalDate f = venta.getFecha(); // si tu VentaDTO trae LocalDate
-            if (f != null) {
-                String d = f.format(DateTimeFormatter.ofPattern("dd/MM/yy"));
-                String h = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH:mm"));
-                return d + " " + h;
+            img = Image.getInstance(compartida);
+        } catch (Exception e) {
+            return 0;
+        }
+        elementos.add(img);
+        return img.getScaledHeight();
+    }
+
+    static int renglones(String texto, int porRenglon) {
+        int n = 0;
+        int i = 0;
+        int largo = texto.length();
+        do {
+            n++;
+            if (largo - i <= porRenglon) {
+                break;
             }
-        } catch (Exception ignored) {}
-        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yy HH:mm"));
+            int corte = texto.lastIndexOf(' ', i + porRenglon);
+            i = (corte > i) ? corte + 1 : i + porRenglon;
+        } while (i < largo);
+        return n;
     }
 
-    private void addImageIfExists(Paragraph p, String classpathPath, float w, float h) {
+    /**
+     * Decodifica una vez la imagen del classpath; {@code null} si no existe.
+     */
+    private static Image cargarImagen(String classpathPath, float w, float h) {
         try {
             ClassPathResource res = new ClassPathResource(classpathPath);
-            if (!res.exists()) return;
+            if (!res.exists()) return null;
 
-            byte[] bytes = res.getInputStream().readAllBytes();
+            byte[] bytes;
+            try (InputStream in = res.getInputStream()) {
+                bytes = in.readAllBytes();
+            }
             Image img = Image.getInstance(bytes);
             img.scaleToFit(w, h);
             img.setAlignment(Element.ALIGN_CENTER);
-            p.add(img);
-            p.add(Chunk.NEWLINE);
-        } catch (Exception ignored) {}
+            return img;
+        } catch (Exception e) {
+            LOG.log(Level.WARNING, "No se pudo cargar la imagen del ticket " + classpathPath, e);
+            return null;
+        }
+    }
+
+    private String buildFechaStr(VentaDTO venta) {
+        if (venta.getFechaHora() != null) {
+            return venta.getFechaHora().format(DateTimeFormatter.ofPattern("dd/MM/yy HH:mm"));
+        }
+        // Ventas anteriores a que se guardara la hora: solo se conoce el día
+        if (venta.getFecha() != null) {
+            return venta.getFecha().format(DateTimeFormatter.ofPattern("dd/MM/yy"));
+        }
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yy HH:mm"));
     }
 
     private BigDecimal calcularSubtotal(VentaDTO venta) {
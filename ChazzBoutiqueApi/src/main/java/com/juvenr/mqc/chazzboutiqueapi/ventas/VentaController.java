@@ -5,8 +5,12 @@
 package com.juvenr.mqc.chazzboutiqueapi.ventas;
 
 
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.Carga;
+import com.juvenr.mqc.chazzboutiqueapi.shared.ejecucion.EjecutoresApi;
+import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.CotizarVentaResponse;
 import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.CrearVentaRequest;
 import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaResponse;
+import java.util.concurrent.CompletableFuture;
 import javax.validation.Valid;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,19 +19,20 @@ import org.springframework.web.bind.annotation.*;
 public class VentaController {
 
     private final VentaService ventaService;
+    private final EjecutoresApi ejecutores;
 
-    public VentaController(VentaService ventaService) {
+    public VentaController(VentaService ventaService, EjecutoresApi ejecutores) {
         this.ventaService = ventaService;
+        this.ejecutores = ejecutores;
     }
 
     @PostMapping
-    public VentaResponse crear(@RequestBody @Valid CrearVentaRequest req) {
-        return ventaService.crearVenta(req);
+    public CompletableFuture<VentaResponse> crear(@RequestBody @Valid CrearVentaRequest req) {
+        return ejecutores.ejecutar(Carga.VENTAS, () -> ventaService.crearVenta(req));
     }
 
     @PostMapping("/cotizar")
-    public Object cotizar(@RequestBody @Valid CrearVentaRequest req) {
-        // puedes hacer un DTO específico luego
-        return ventaService.cotizar(req);
+    public CompletableFuture<CotizarVentaResponse> cotizar(@RequestBody @Valid CrearVentaRequest req) {
+        return ejecutores.ejecutar(Carga.VENTAS, () -> ventaService.cotizar(req));
     }
 }
@@ -1,6 +1,7 @@
 package com.juvenr.mqc.chazzboutiqueapi.ventas;
 
 import com.juvenr.mqc.chazzboutiqueapi.shared.errors.BusinessException;
+import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.CotizarVentaResponse;
 import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.CrearVentaRequest;
 import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaDetalleResponse;
 import com.juvenr.mqc.chazzboutiqueapi.ventas.dto.VentaResponse;
@@ -18,78 +19,87 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class VentaService {
 
     private final IVentaNegocio ventaNegocio;
     private final IVarianteProductoNegocio varianteNegocio;
+    private final TicketService ticketService;
 
-    public VentaService(IVentaNegocio ventaNegocio, IVarianteProductoNegocio varianteNegocio) {
+    public VentaService(IVentaNegocio ventaNegocio, IVarianteProductoNegocio varianteNegocio,
+            TicketService ticketService) {
         this.ventaNegocio = ventaNegocio;
         this.varianteNegocio = varianteNegocio;
+        this.ticketService = ticketService;
     }
 
     public VentaResponse crearVenta(CrearVentaRequest req) {
-        try {
-            validarRequest(req);
+        validarRequest(req);
 
-            VentaDTO venta = new VentaDTO();
-            venta.setUsuarioId(req.getUsuarioId());
-            venta.setFecha(LocalDate.now());
-            venta.setEstado("COMPLETADA");
+        BigDecimal subtotal = BigDecimal.ZERO;
+        List<DetalleVentaDTO> detalles = new ArrayList<>();
+        Map<String, VarianteProductoDTO> variantes = resolverVariantes(req);
+
+        for (CrearVentaRequest.ItemVentaRequest item : req.getDetalles()) {
+            String codigo = item.getCodigoBarras().trim();
+            int cantidad = item.getCantidad();
+
+            VarianteProductoDTO variante = variantes.get(codigo);
 
-            BigDecimal subtotal = BigDecimal.ZERO;
-            List<DetalleVentaDTO> detalles = new ArrayList<>();
-
-            for (CrearVentaRequest.ItemVentaRequest item : req.getDetalles()) {
-                String codigo = item.getCodigoBarras().trim();
-                int cantidad = item.getCantidad();
-
-                VarianteProductoDTO variante;
-                try {
-                    variante = varianteNegocio.obtenerVariantePorCodigoBarra(codigo);
-                } catch (NegocioException ex) {
-                    throw new BusinessException("VARIANTE_ERROR", ex.getMessage());
-                }
-
-                if (variante == null) {
-                    throw new BusinessException("VARIANTE_NO_EXISTE", "No existe el producto con código: " + codigo);
-                }
-                if (cantidad <= 0) {
-                    throw new BusinessException("CANTIDAD_INVALIDA", "Cantidad inválida para: " + codigo);
-                }
-                if (variante.getStock() < cantidad) {
-                    throw new BusinessException("STOCK_INSUFICIENTE",
-                            "Stock insuficiente para " + codigo + ". Disponible: " + variante.getStock());
-                }
-
-                BigDecimal precioUnitario = n2(variante.getPrecioVenta());
-                BigDecimal sub = precioUnitario.multiply(BigDecimal.valueOf(cantidad));
-
-                DetalleVentaDTO d = new DetalleVentaDTO();
-                d.setCodigoVariante(codigo);
-                d.setCantidad(cantidad);
-                d.setPrecioUnitario(precioUnitario);
-
-                detalles.add(d);
-                subtotal = subtotal.add(sub);
+            if (variante == null) {
+                throw new BusinessException("VARIANTE_NO_EXISTE", "No existe el producto con código: " + codigo);
             }
+            if (cantidad <= 0) {
+                throw new BusinessException("CANTIDAD_INVALIDA", "Cantidad inválida para: " + codigo);
+            }
+            if (variante.getStock() < cantidad) {
+                throw new BusinessException("STOCK_INSUFICIENTE",
+                        "Stock insuficiente para " + codigo + ". Disponible: " + variante.getStock());
+            }
+
+            BigDecimal precioUnitario = n2(variante.getPrecioVenta());
+            BigDecimal sub = precioUnitario.multiply(BigDecimal.valueOf(cantidad));
+
+            DetalleVentaDTO d = new DetalleVentaDTO();
+            d.setCodigoVariante(codigo);
+            d.setCantidad(cantidad);
+            d.setPrecioUnitario(precioUnitario);
 
-            BigDecimal descuento = n2(req.getDescuento());
-            if (descuento.compareTo(BigDecimal.ZERO) < 0) descuento = BigDecimal.ZERO;
+            detalles.add(d);
+            subtotal = subtotal.add(sub);
+        }
+
+        BigDecimal descuento = n2(req.getDescuento());
+        if (descuento.compareTo(BigDecimal.ZERO) < 0) descuento = BigDecimal.ZERO;
+
+        return registrar(req.getUsuarioId(), detalles, subtotal, descuento, req.getMontoPago());
+    }
+
+    /**
+     * Registra una venta cuyos renglones ya traen precio (resueltos por
+     * {@link #crearVenta} o guardados en un carrito) y arma la respuesta.
+     */
+    public VentaResponse registrar(Long usuarioId, List<DetalleVentaDTO> detalles, BigDecimal subtotal,
+            BigDecimal descuento, BigDecimal pago) {
+        try {
             if (descuento.compareTo(subtotal) > 0) {
                 throw new BusinessException("DESCUENTO_INVALIDO", "El descuento no puede ser mayor al subtotal");
             }
 
             BigDecimal total = subtotal.subtract(descuento);
-            BigDecimal montoPago = n2(req.getMontoPago());
+            BigDecimal montoPago = n2(pago);
 
             if (montoPago.compareTo(total) < 0) {
                 throw new BusinessException("PAGO_INSUFICIENTE",
                         "Pago insuficiente. Falta: " + n2(total.subtract(montoPago)));
             }
 
+            VentaDTO venta = new VentaDTO();
+            venta.setUsuarioId(usuarioId);
+            venta.setFecha(LocalDate.now());
+            venta.setEstado("COMPLETADA");
             venta.setDetalles(detalles);
             venta.setDescuento(descuento);
             venta.setTotal(total);
@@ -97,12 +107,14 @@ public class VentaService {
             venta.setCambio(montoPago.subtract(total));
 
             VentaDTO registrada = ventaNegocio.registrarVenta(venta);
+            // registrarVenta ya confirmó la transacción
+            ticketService.prerenderizar(registrada.getId());
 
             VentaResponse res = new VentaResponse();
             res.setId(registrada.getId());
-            res.setFecha(LocalDate.now());
+            res.setFecha(registrada.getFecha());
             res.setEstado("COMPLETADA");
-            res.setUsuarioId(req.getUsuarioId());
+            res.setUsuarioId(usuarioId);
 
             res.setSubtotal(subtotal);
             res.setDescuento(descuento);
@@ -121,28 +133,22 @@ public class VentaService {
 
             return res;
 
-        } catch (BusinessException e) {
-            throw e;
         } catch (NegocioException e) {
             throw new BusinessException("VENTA_ERROR", e.getMessage());
         }
     }
 
-    public Object cotizar(CrearVentaRequest req) {
+    public CotizarVentaResponse cotizar(CrearVentaRequest req) {
         validarRequest(req);
 
         BigDecimal subtotal = BigDecimal.ZERO;
-        List<Object> detalles = new ArrayList<>();
+        List<VentaDetalleResponse> detalles = new ArrayList<>();
+        Map<String, VarianteProductoDTO> variantes = resolverVariantes(req);
 
         for (CrearVentaRequest.ItemVentaRequest item : req.getDetalles()) {
             String codigo = item.getCodigoBarras().trim();
 
-            VarianteProductoDTO variante;
-            try {
-                variante = varianteNegocio.obtenerVariantePorCodigoBarra(codigo);
-            } catch (NegocioException ex) {
-                throw new BusinessException("VARIANTE_ERROR", ex.getMessage());
-            }
+            VarianteProductoDTO variante = variantes.get(codigo);
 
             if (variante == null) {
                 throw new BusinessException("VARIANTE_NO_EXISTE", "No existe el producto con código: " + codigo);
@@ -159,7 +165,7 @@ public class VentaService {
             BigDecimal sub = precio.multiply(BigDecimal.valueOf(item.getCantidad()));
             subtotal = subtotal.add(sub);
 
-            detalles.add(new Object()); 
+            detalles.add(detalleResponse(variante, item.getCantidad(), precio));
         }
 
         BigDecimal descuento = n2(req.getDescuento());
@@ -167,14 +173,27 @@ public class VentaService {
             throw new BusinessException("DESCUENTO_INVALIDO", "El descuento no puede ser mayor al subtotal");
         }
 
-        BigDecimal total = subtotal.subtract(descuento);
+        CotizarVentaResponse res = new CotizarVentaResponse();
+        res.setSubtotal(subtotal);
+        res.setDescuento(descuento);
+        res.setTotal(subtotal.subtract(descuento));
+        res.setDetalles(detalles);
+        return res;
+    }
 
-        return java.util.Map.of(
-                "subtotal", subtotal,
-                "descuento", descuento,
-                "total", total,
-                "detalles", detalles
-        );
+    /**
+     * Renglón de respuesta con los datos de la variante ya resuelta.
+     */
+    public static VentaDetalleResponse detalleResponse(VarianteProductoDTO variante, int cantidad, BigDecimal precio) {
+        VentaDetalleResponse r = new VentaDetalleResponse();
+        r.setCodigoBarras(variante.getCodigoBarra());
+        r.setNombreProducto(variante.getNombreProducto());
+        r.setTalla(variante.getTalla());
+        r.setColor(variante.getColor());
+        r.setCantidad(cantidad);
+        r.setPrecioUnitario(precio);
+        r.setImporte(precio.multiply(BigDecimal.valueOf(cantidad)));
+        return r;
     }
 
     private void validarRequest(CrearVentaRequest req) {
@@ -190,7 +209,22 @@ public class VentaService {
         }
     }
 
-    private BigDecimal n2(BigDecimal v) {
+    /**
+     * Carga todas las variantes del request en una sola consulta.
+     */
+    private Map<String, VarianteProductoDTO> resolverVariantes(CrearVentaRequest req) {
+        List<String> codigos = new ArrayList<>();
+        for (CrearVentaRequest.ItemVentaRequest item : req.getDetalles()) {
+            codigos.add(item.getCodigoBarras().trim());
+        }
+        try {
+            return varianteNegocio.obtenerPorCodigosBarra(codigos);
+        } catch (NegocioException ex) {
+            throw new BusinessException("VARIANTE_ERROR", ex.getMessage());
+        }
+    }
+
+    static BigDecimal n2(BigDecimal v) {
         if (v == null) return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
         return v.setScale(2, RoundingMode.HALF_UP);
     }
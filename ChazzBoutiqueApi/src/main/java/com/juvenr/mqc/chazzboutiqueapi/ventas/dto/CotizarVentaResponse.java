@@ -4,10 +4,49 @@
  */
 package com.juvenr.mqc.chazzboutiqueapi.ventas.dto;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 /**
  *
  * @author carli
  */
 public class CotizarVentaResponse {
-    
+
+    private BigDecimal subtotal;
+    private BigDecimal descuento;
+    private BigDecimal total;
+    private List<VentaDetalleResponse> detalles;
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getDescuento() {
+        return descuento;
+    }
+
+    public void setDescuento(BigDecimal descuento) {
+        this.descuento = descuento;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public List<VentaDetalleResponse> getDetalles() {
+        return detalles;
+    }
+
+    public void setDetalles(List<VentaDetalleResponse> detalles) {
+        this.detalles = detalles;
+    }
 }
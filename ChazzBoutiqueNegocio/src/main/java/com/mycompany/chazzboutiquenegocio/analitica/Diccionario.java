@@ -0,0 +1,48 @@
+package com.mycompany.chazzboutiquenegocio.analitica;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Asigna a cada id de la base un código consecutivo (0, 1, 2...) para que
+ * las columnas guarden {@code int} y los agrupamientos usen arreglos
+ * indexados por código en lugar de mapas. Guarda el último nombre visto de
+ * cada id.
+ *
+ * No es seguro entre hilos; {@link MotorAnalitico} lo protege con su candado.
+ */
+final class Diccionario {
+
+    private final Map<Long, Integer> codigos = new HashMap<>();
+    private long[] ids = new long[64];
+    private String[] nombres = new String[64];
+    private int tamano;
+
+    int codificar(long id, String nombre) {
+        Integer codigo = codigos.get(id);
+        if (codigo == null) {
+            codigo = tamano++;
+            if (codigo == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+                nombres = Arrays.copyOf(nombres, nombres.length * 2);
+            }
+            ids[codigo] = id;
+            codigos.put(id, codigo);
+        }
+        nombres[codigo] = nombre;
+        return codigo;
+    }
+
+    long id(int codigo) {
+        return ids[codigo];
+    }
+
+    String nombre(int codigo) {
+        return nombres[codigo];
+    }
+
+    int tamano() {
+        return tamano;
+    }
+}
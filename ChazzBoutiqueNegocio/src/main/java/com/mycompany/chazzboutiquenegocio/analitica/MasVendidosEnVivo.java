@@ -0,0 +1,191 @@
+package com.mycompany.chazzboutiquenegocio.analitica;
+
+import com.mycompany.chazzboutiquenegocio.dtos.MasVendidoDTO;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IObservadorVentas;
+import com.mycompany.chazzboutiquepersistencia.dominio.DetalleVenta;
+import com.mycompany.chazzboutiquepersistencia.dominio.Producto;
+import com.mycompany.chazzboutiquepersistencia.dominio.Venta;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IReporteDAO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Productos más vendidos de los últimos {@value #DIAS} días, alimentado por
+ * cada venta registrada, sin consultar la base.
+ *
+ * Cada día lleva a lo más {@code capacidad} contadores por producto
+ * (algoritmo Space-Saving): cuando llega un producto nuevo y ya no hay
+ * lugar, toma el contador del que menos lleva y hereda su cuenta como
+ * error. Así la memoria no crece con el catálogo, y cualquier producto que
+ * venda más de {@code 1/capacidad} de las unidades del día está en la lista.
+ * Las unidades reportadas nunca son menores que las reales.
+ *
+ * Cuenta las ventas registradas en este proceso más lo que
+ * {@link #precargarEnSegundoPlano} lea de la base al arrancar; las ventas
+ * que registre otro proceso (p. ej. la API y la aplicación de escritorio a
+ * la vez) no se ven hasta que se vuelva a precargar.
+ */
+public class MasVendidosEnVivo implements IObservadorVentas {
+
+    private static final Logger LOG = Logger.getLogger(MasVendidosEnVivo.class.getName());
+
+    public static final int DIAS = 7;
+    public static final int CAPACIDAD_POR_DEFECTO = 200;
+
+    private static final class Contador {
+
+        final String producto;
+        String categoria;
+        long unidades;
+        long error;
+
+        Contador(String producto) {
+            this.producto = producto;
+        }
+    }
+
+    private static final class Dia {
+
+        long dia = Long.MIN_VALUE;
+        final Map<String, Contador> contadores = new HashMap<>();
+    }
+
+    private final int capacidad;
+    // Un día por casilla, según su número de día módulo DIAS
+    private final Dia[] dias = new Dia[DIAS];
+
+    public MasVendidosEnVivo() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    public MasVendidosEnVivo(int capacidad) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        this.capacidad = capacidad;
+        for (int i = 0; i < DIAS; i++) {
+            dias[i] = new Dia();
+        }
+    }
+
+    @Override
+    public void ventaRegistrada(Venta venta) {
+        for (DetalleVenta d : venta.getDetallesVentas()) {
+            Producto p = d.getVarianteProducto().getProducto();
+            registrar(venta.getFechaVenta(), p.getNombre(),
+                    p.getCategoria() != null ? p.getCategoria().getNombreCategoria() : null, d.getCantidad());
+        }
+    }
+
+    /**
+     * Suma unidades vendidas de un producto en un día. Los días anteriores a
+     * los que ya se guardan se ignoran.
+     */
+    public synchronized void registrar(LocalDate fecha, String producto, String categoria, long unidades) {
+        long numero = fecha.toEpochDay();
+        Dia dia = dias[(int) Math.floorMod(numero, (long) DIAS)];
+        if (dia.dia != numero) {
+            if (dia.dia > numero) {
+                return;
+            }
+            dia.dia = numero;
+            dia.contadores.clear();
+        }
+        Contador c = dia.contadores.get(producto);
+        if (c == null) {
+            c = new Contador(producto);
+            if (dia.contadores.size() >= capacidad) {
+                Contador menor = menor(dia);
+                dia.contadores.remove(menor.producto);
+                c.unidades = menor.unidades;
+                c.error = menor.unidades;
+            }
+            dia.contadores.put(producto, c);
+        }
+        c.unidades += unidades;
+        c.categoria = categoria;
+    }
+
+    /**
+     * Los {@code limite} productos que más vendieron en los {@code dias} días
+     * que terminan en {@code hasta}, del que más al que menos. Recorre solo
+     * los contadores guardados, no las ventas.
+     *
+     * Un producto que no tiene contador en alguno de los días pudo vender
+     * ese día hasta lo que lleva el menor contador; eso se suma a sus
+     * unidades y a su error.
+     */
+    public synchronized List<MasVendidoDTO> masVendidos(LocalDate hasta, int dias, int limite) {
+        long fin = hasta.toEpochDay();
+        long inicio = fin - Math.min(dias, DIAS) + 1;
+
+        Map<String, long[]> sumas = new HashMap<>();
+        Map<String, String> categorias = new HashMap<>();
+        long minimos = 0;
+        for (long numero = inicio; numero <= fin; numero++) {
+            Dia dia = this.dias[(int) Math.floorMod(numero, (long) DIAS)];
+            if (dia.dia != numero) {
+                continue;
+            }
+            long minimo = dia.contadores.size() < capacidad ? 0 : menor(dia).unidades;
+            minimos += minimo;
+            for (Contador c : dia.contadores.values()) {
+                // unidades, error y mínimos de los días en que sí tiene contador
+                long[] s = sumas.computeIfAbsent(c.producto, k -> new long[3]);
+                s[0] += c.unidades;
+                s[1] += c.error;
+                s[2] += minimo;
+                categorias.put(c.producto, c.categoria);
+            }
+        }
+
+        List<MasVendidoDTO> resultado = new ArrayList<>(sumas.size());
+        for (Map.Entry<String, long[]> e : sumas.entrySet()) {
+            long[] s = e.getValue();
+            long ausente = minimos - s[2];
+            resultado.add(new MasVendidoDTO(e.getKey(), categorias.get(e.getKey()), s[0] + ausente, s[1] + ausente));
+        }
+        resultado.sort(Comparator.comparingLong(MasVendidoDTO::getUnidades).reversed()
+                .thenComparing(MasVendidoDTO::getNombreProducto));
+        return resultado.size() > limite ? new ArrayList<>(resultado.subList(0, limite)) : resultado;
+    }
+
+    /**
+     * Carga desde la base lo vendido en los últimos {@value #DIAS} días (hoy
+     * incluido) en un hilo aparte. Una venta que se registre mientras se
+     * lee su día puede contarse dos veces.
+     */
+    public void precargarEnSegundoPlano(IReporteDAO reporteDAO) {
+        Thread hilo = new Thread(() -> {
+            LocalDate hoy = LocalDate.now();
+            try {
+                for (LocalDate fecha = hoy.minusDays(DIAS - 1); !fecha.isAfter(hoy); fecha = fecha.plusDays(1)) {
+                    for (ReporteProductoDTO p : reporteDAO.obtenerProductosMasVendidos(fecha, fecha)) {
+                        registrar(fecha, p.getNombreProducto(), p.getCategoria(), p.getCantidadVendida());
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOG.log(Level.WARNING, "No se pudieron precargar los más vendidos; solo se verán las ventas nuevas", e);
+            }
+        }, "mas-vendidos");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private static Contador menor(Dia dia) {
+        Contador menor = null;
+        for (Contador c : dia.contadores.values()) {
+            if (menor == null || c.unidades < menor.unidades) {
+                menor = c;
+            }
+        }
+        return menor;
+    }
+}
@@ -0,0 +1,508 @@
+package com.mycompany.chazzboutiquenegocio.analitica;
+
+import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.HechoVentaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteCategoriaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVendedorDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVentaDTO;
+import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IReporteDAO;
+import com.mycompany.chazzboutiquepersistencia.metricas.Muestras;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Copia en memoria de las ventas, guardada por columnas de tipos primitivos,
+ * para responder reportes sobre cualquier rango sin consultar la base.
+ *
+ * Cada renglón de venta ocupa una posición en arreglos paralelos: día (días
+ * desde 1970), venta, variante, producto y categoría (como códigos de
+ * {@link Diccionario}), cantidad e importe en centavos. Cada venta ocupa
+ * una posición en otros arreglos: id, día, total en centavos y vendedor.
+ * Un reporte es un recorrido de esos arreglos que acumula en arreglos
+ * indexados por código; por cada bloque de {@value #BLOQUE} posiciones se
+ * guardan el primer y el último día, así los bloques fuera del rango se
+ * saltan sin leerlos.
+ *
+ * {@link #sincronizar()} agrega las ventas nuevas; la primera vez carga
+ * todas. La categoría de cada renglón es la que tenía el producto al
+ * cargarse; los productos más vendidos usan la categoría más reciente.
+ */
+public class MotorAnalitico {
+
+    private static final Logger LOG = Logger.getLogger(MotorAnalitico.class.getName());
+
+    static final int BLOQUE = 4096;
+
+    private static final int SIN_CATEGORIA = -1;
+
+    /**
+     * Una venta con id menor que la última cargada puede aparecer después si
+     * su transacción confirmó más tarde. Los ids saltados se vuelven a buscar
+     * durante este tiempo; luego se dan por descartados (ventas revertidas).
+     */
+    static final long VIDA_HUECO_MS = 10 * 60_000L;
+
+    /**
+     * Un salto de ids mayor que este no se considera ventas en curso.
+     */
+    static final int MAX_HUECO = 1000;
+
+    private final IReporteDAO reporteDAO;
+
+    // Escritura al agregar ventas; lectura en los recorridos
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    // Una sola sincronización a la vez; las demás se omiten
+    private final ReentrantLock sincronizando = new ReentrantLock();
+    private volatile boolean cargado;
+
+    private final Diccionario variantes = new Diccionario();
+    private final Diccionario productos = new Diccionario();
+    private final Diccionario categorias = new Diccionario();
+    private final Diccionario vendedores = new Diccionario();
+    private int[] categoriaActualProducto = new int[64];
+
+    private int renglones;
+    private int[] diaRenglon = new int[BLOQUE];
+    private int[] ventaRenglon = new int[BLOQUE];
+    private int[] varianteRenglon = new int[BLOQUE];
+    private int[] productoRenglon = new int[BLOQUE];
+    private int[] categoriaRenglon = new int[BLOQUE];
+    private int[] cantidadRenglon = new int[BLOQUE];
+    private long[] importeRenglon = new long[BLOQUE];
+    private int[] primerDiaRenglones = new int[1];
+    private int[] ultimoDiaRenglones = new int[1];
+
+    private int ventas;
+    private long[] idVenta = new long[BLOQUE];
+    private int[] diaVenta = new int[BLOQUE];
+    private long[] totalVenta = new long[BLOQUE];
+    private int[] vendedorVenta = new int[BLOQUE];
+    private int[] primerDiaVentas = new int[1];
+    private int[] ultimoDiaVentas = new int[1];
+
+    // Solo se usan con sincronizando tomado
+    private long ultimaVentaId;
+    private final TreeMap<Long, Long> huecos = new TreeMap<>();
+
+    public MotorAnalitico(IReporteDAO reporteDAO) {
+        this.reporteDAO = reporteDAO;
+        RegistroMetricas.global().agregarRecolector("analitica", this::recolectarMetricas);
+    }
+
+    /**
+     * @return si ya terminó la primera carga; antes de eso los reportes
+     * estarían incompletos.
+     */
+    public boolean isCargado() {
+        return cargado;
+    }
+
+    /**
+     * Hace la primera carga en un hilo aparte, para no detener el arranque.
+     */
+    public void cargarEnSegundoPlano() {
+        Thread hilo = new Thread(() -> {
+            try {
+                sincronizar();
+            } catch (NegocioException e) {
+                LOG.log(Level.WARNING, "No se pudo cargar el motor de análisis", e);
+            }
+        }, "motor-analitico");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Agrega las ventas registradas desde la última sincronización (todas la
+     * primera vez). Si otro hilo ya está sincronizando, regresa sin esperar.
+     *
+     * @return si sincronizó.
+     */
+    public boolean sincronizar() throws NegocioException {
+        if (!sincronizando.tryLock()) {
+            return false;
+        }
+        try {
+            long inicio = System.nanoTime();
+            boolean inicial = !cargado;
+            long ahora = System.currentTimeMillis();
+            huecos.values().removeIf(detectado -> ahora - detectado > VIDA_HUECO_MS);
+            long desde = huecos.isEmpty() ? ultimaVentaId : huecos.firstKey() - 1;
+
+            List<HechoVentaDTO> venta = new ArrayList<>();
+            reporteDAO.recorrerHechosVenta(desde, h -> {
+                if (!venta.isEmpty() && venta.get(0).getVentaId() != h.getVentaId()) {
+                    aplicar(venta, inicial, ahora);
+                    venta.clear();
+                }
+                venta.add(h);
+            });
+            if (!venta.isEmpty()) {
+                aplicar(venta, inicial, ahora);
+            }
+            cargado = true;
+            if (inicial) {
+                LOG.info("Motor de análisis cargado: " + ventas + " ventas, " + renglones + " renglones en "
+                        + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+            }
+            return true;
+        } catch (PersistenciaException | IOException e) {
+            throw new NegocioException("Error al cargar las ventas para el análisis", e);
+        } finally {
+            sincronizando.unlock();
+        }
+    }
+
+    public List<ReporteVentaDTO> ventas(LocalDate fechaInicio, LocalDate fechaFin) {
+        int d0 = dia(fechaInicio);
+        int d1 = dia(fechaFin);
+        candado.readLock().lock();
+        try {
+            // Día descendente y, dentro del día, en orden de carga
+            long[] claves = new long[64];
+            int k = 0;
+            for (int b = 0, inicio = 0; inicio < ventas; b++, inicio += BLOQUE) {
+                if (ultimoDiaVentas[b] < d0 || primerDiaVentas[b] > d1) {
+                    continue;
+                }
+                for (int i = inicio, fin = Math.min(ventas, inicio + BLOQUE); i < fin; i++) {
+                    int d = diaVenta[i];
+                    if (d >= d0 && d <= d1) {
+                        if (k == claves.length) {
+                            claves = Arrays.copyOf(claves, k * 2);
+                        }
+                        claves[k++] = ((long) (Integer.MAX_VALUE - d) << 32) | i;
+                    }
+                }
+            }
+            Arrays.sort(claves, 0, k);
+            List<ReporteVentaDTO> resultado = new ArrayList<>(k);
+            for (int j = 0; j < k; j++) {
+                int i = (int) claves[j];
+                resultado.add(new ReporteVentaDTO(idVenta[i], LocalDate.ofEpochDay(diaVenta[i]),
+                        pesos(totalVenta[i]), vendedores.nombre(vendedorVenta[i])));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Como {@code IReporteDAO#obtenerProductosMasVendidos}: por nombre de
+     * producto y categoría, sin los productos sin categoría.
+     */
+    public List<ReporteProductoDTO> productosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin) {
+        int d0 = dia(fechaInicio);
+        int d1 = dia(fechaFin);
+        candado.readLock().lock();
+        try {
+            long[] unidades = new long[productos.tamano()];
+            long[] centavos = new long[productos.tamano()];
+            for (int b = 0, inicio = 0; inicio < renglones; b++, inicio += BLOQUE) {
+                if (ultimoDiaRenglones[b] < d0 || primerDiaRenglones[b] > d1) {
+                    continue;
+                }
+                for (int i = inicio, fin = Math.min(renglones, inicio + BLOQUE); i < fin; i++) {
+                    int d = diaRenglon[i];
+                    if (d >= d0 && d <= d1) {
+                        int p = productoRenglon[i];
+                        unidades[p] += cantidadRenglon[i];
+                        centavos[p] += importeRenglon[i];
+                    }
+                }
+            }
+
+            Map<List<String>, long[]> porNombre = new LinkedHashMap<>();
+            for (int p = 0; p < unidades.length; p++) {
+                int c = categoriaActualProducto[p];
+                if (unidades[p] == 0 || c == SIN_CATEGORIA) {
+                    continue;
+                }
+                long[] suma = porNombre.computeIfAbsent(List.of(productos.nombre(p), categorias.nombre(c)),
+                        clave -> new long[2]);
+                suma[0] += unidades[p];
+                suma[1] += centavos[p];
+            }
+            List<ReporteProductoDTO> resultado = new ArrayList<>(porNombre.size());
+            for (Map.Entry<List<String>, long[]> e : porNombre.entrySet()) {
+                resultado.add(new ReporteProductoDTO(e.getKey().get(0), e.getValue()[0], pesos(e.getValue()[1]),
+                        e.getKey().get(1)));
+            }
+            resultado.sort(Comparator.comparing(ReporteProductoDTO::getCantidadVendida).reversed());
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Como {@code IReporteDAO#obtenerIngresosPorCategoria}: ventas distintas
+     * e ingresos por categoría, y su porcentaje del total vendido en el rango.
+     */
+    public List<ReporteCategoriaDTO> ingresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin) {
+        int d0 = dia(fechaInicio);
+        int d1 = dia(fechaFin);
+        candado.readLock().lock();
+        try {
+            long[] centavos = new long[categorias.tamano()];
+            long[] ventasCategoria = new long[categorias.tamano()];
+            // Los renglones de una venta están juntos: basta comparar con la última venta contada
+            int[] ultimaVenta = new int[categorias.tamano()];
+            Arrays.fill(ultimaVenta, -1);
+            for (int b = 0, inicio = 0; inicio < renglones; b++, inicio += BLOQUE) {
+                if (ultimoDiaRenglones[b] < d0 || primerDiaRenglones[b] > d1) {
+                    continue;
+                }
+                for (int i = inicio, fin = Math.min(renglones, inicio + BLOQUE); i < fin; i++) {
+                    int d = diaRenglon[i];
+                    int c = categoriaRenglon[i];
+                    if (d >= d0 && d <= d1 && c != SIN_CATEGORIA) {
+                        centavos[c] += importeRenglon[i];
+                        if (ultimaVenta[c] != ventaRenglon[i]) {
+                            ultimaVenta[c] = ventaRenglon[i];
+                            ventasCategoria[c]++;
+                        }
+                    }
+                }
+            }
+            long total = totalVendido(d0, d1);
+
+            Map<String, long[]> porNombre = new LinkedHashMap<>();
+            for (int c = 0; c < centavos.length; c++) {
+                if (ventasCategoria[c] == 0) {
+                    continue;
+                }
+                long[] suma = porNombre.computeIfAbsent(categorias.nombre(c), clave -> new long[2]);
+                suma[0] += ventasCategoria[c];
+                suma[1] += centavos[c];
+            }
+            BigDecimal divisor = total == 0 ? BigDecimal.ONE : pesos(total);
+            List<ReporteCategoriaDTO> resultado = new ArrayList<>(porNombre.size());
+            for (Map.Entry<String, long[]> e : porNombre.entrySet()) {
+                BigDecimal ingresos = pesos(e.getValue()[1]);
+                resultado.add(new ReporteCategoriaDTO(e.getKey(), e.getValue()[0], ingresos,
+                        ingresos.multiply(BigDecimal.valueOf(100)).divide(divisor, 2, RoundingMode.HALF_UP)));
+            }
+            resultado.sort(Comparator.comparing(ReporteCategoriaDTO::getIngresos).reversed());
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public List<ReporteVendedorDTO> totalesPorVendedor(LocalDate fechaInicio, LocalDate fechaFin) {
+        int d0 = dia(fechaInicio);
+        int d1 = dia(fechaFin);
+        candado.readLock().lock();
+        try {
+            long[] cuenta = new long[vendedores.tamano()];
+            long[] centavos = new long[vendedores.tamano()];
+            for (int b = 0, inicio = 0; inicio < ventas; b++, inicio += BLOQUE) {
+                if (ultimoDiaVentas[b] < d0 || primerDiaVentas[b] > d1) {
+                    continue;
+                }
+                for (int i = inicio, fin = Math.min(ventas, inicio + BLOQUE); i < fin; i++) {
+                    int d = diaVenta[i];
+                    if (d >= d0 && d <= d1) {
+                        cuenta[vendedorVenta[i]]++;
+                        centavos[vendedorVenta[i]] += totalVenta[i];
+                    }
+                }
+            }
+
+            Map<String, long[]> porNombre = new LinkedHashMap<>();
+            for (int v = 0; v < cuenta.length; v++) {
+                if (cuenta[v] == 0) {
+                    continue;
+                }
+                long[] suma = porNombre.computeIfAbsent(vendedores.nombre(v), clave -> new long[2]);
+                suma[0] += cuenta[v];
+                suma[1] += centavos[v];
+            }
+            List<ReporteVendedorDTO> resultado = new ArrayList<>(porNombre.size());
+            for (Map.Entry<String, long[]> e : porNombre.entrySet()) {
+                resultado.add(new ReporteVendedorDTO(e.getKey(), e.getValue()[0], pesos(e.getValue()[1])));
+            }
+            resultado.sort(Comparator.comparing(ReporteVendedorDTO::getTotal).reversed());
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int getVentas() {
+        candado.readLock().lock();
+        try {
+            return ventas;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int getRenglones() {
+        candado.readLock().lock();
+        try {
+            return renglones;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suma de los totales de las ventas entre los días {@code d0} y
+     * {@code d1}; se llama con el candado de lectura tomado.
+     */
+    private long totalVendido(int d0, int d1) {
+        long total = 0;
+        for (int b = 0, inicio = 0; inicio < ventas; b++, inicio += BLOQUE) {
+            if (ultimoDiaVentas[b] < d0 || primerDiaVentas[b] > d1) {
+                continue;
+            }
+            for (int i = inicio, fin = Math.min(ventas, inicio + BLOQUE); i < fin; i++) {
+                int d = diaVenta[i];
+                if (d >= d0 && d <= d1) {
+                    total += totalVenta[i];
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Agrega una venta con sus renglones, salvo que ya esté cargada.
+     */
+    private void aplicar(List<HechoVentaDTO> renglonesVenta, boolean inicial, long ahora) {
+        long id = renglonesVenta.get(0).getVentaId();
+        if (id <= ultimaVentaId) {
+            if (huecos.remove(id) == null) {
+                return;
+            }
+        } else {
+            if (inicial) {
+                // En la carga inicial solo importan los saltos recientes: las
+                // ventas que aún no confirmaban caen cerca de la última
+                for (long hueco = Math.max(ultimaVentaId + 1, id - MAX_HUECO); hueco < id; hueco++) {
+                    huecos.put(hueco, ahora);
+                }
+                huecos.headMap(id - MAX_HUECO).clear();
+            } else if (id - ultimaVentaId - 1 <= MAX_HUECO) {
+                for (long hueco = ultimaVentaId + 1; hueco < id; hueco++) {
+                    huecos.put(hueco, ahora);
+                }
+            }
+            ultimaVentaId = id;
+        }
+
+        candado.writeLock().lock();
+        try {
+            agregarVenta(renglonesVenta);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    private void agregarVenta(List<HechoVentaDTO> renglonesVenta) {
+        HechoVentaDTO venta = renglonesVenta.get(0);
+        int d = dia(venta.getFecha());
+
+        int v = ventas;
+        if (v == idVenta.length) {
+            int capacidad = v * 2;
+            idVenta = Arrays.copyOf(idVenta, capacidad);
+            diaVenta = Arrays.copyOf(diaVenta, capacidad);
+            totalVenta = Arrays.copyOf(totalVenta, capacidad);
+            vendedorVenta = Arrays.copyOf(vendedorVenta, capacidad);
+            primerDiaVentas = Arrays.copyOf(primerDiaVentas, capacidad / BLOQUE);
+            ultimoDiaVentas = Arrays.copyOf(ultimoDiaVentas, capacidad / BLOQUE);
+        }
+        idVenta[v] = venta.getVentaId();
+        diaVenta[v] = d;
+        totalVenta[v] = centavos(venta.getVentaTotal());
+        vendedorVenta[v] = vendedores.codificar(venta.getUsuarioId(), venta.getNombreUsuario());
+        extenderBloque(primerDiaVentas, ultimoDiaVentas, v, d);
+        ventas = v + 1;
+
+        for (HechoVentaDTO r : renglonesVenta) {
+            if (r.getVarianteId() == null) {
+                continue;
+            }
+            int i = renglones;
+            if (i == diaRenglon.length) {
+                int capacidad = i * 2;
+                diaRenglon = Arrays.copyOf(diaRenglon, capacidad);
+                ventaRenglon = Arrays.copyOf(ventaRenglon, capacidad);
+                varianteRenglon = Arrays.copyOf(varianteRenglon, capacidad);
+                productoRenglon = Arrays.copyOf(productoRenglon, capacidad);
+                categoriaRenglon = Arrays.copyOf(categoriaRenglon, capacidad);
+                cantidadRenglon = Arrays.copyOf(cantidadRenglon, capacidad);
+                importeRenglon = Arrays.copyOf(importeRenglon, capacidad);
+                primerDiaRenglones = Arrays.copyOf(primerDiaRenglones, capacidad / BLOQUE);
+                ultimoDiaRenglones = Arrays.copyOf(ultimoDiaRenglones, capacidad / BLOQUE);
+            }
+            int producto = productos.codificar(r.getProductoId(), r.getNombreProducto());
+            int categoria = r.getCategoriaId() == null
+                    ? SIN_CATEGORIA : categorias.codificar(r.getCategoriaId(), r.getNombreCategoria());
+            if (producto == categoriaActualProducto.length) {
+                categoriaActualProducto = Arrays.copyOf(categoriaActualProducto, producto * 2);
+            }
+            categoriaActualProducto[producto] = categoria;
+
+            diaRenglon[i] = d;
+            ventaRenglon[i] = v;
+            varianteRenglon[i] = variantes.codificar(r.getVarianteId(), null);
+            productoRenglon[i] = producto;
+            categoriaRenglon[i] = categoria;
+            cantidadRenglon[i] = r.getCantidad();
+            importeRenglon[i] = centavos(r.getPrecioUnitario()) * r.getCantidad();
+            extenderBloque(primerDiaRenglones, ultimoDiaRenglones, i, d);
+            renglones = i + 1;
+        }
+    }
+
+    private static void extenderBloque(int[] primerDia, int[] ultimoDia, int posicion, int dia) {
+        int b = posicion / BLOQUE;
+        if (posicion % BLOQUE == 0) {
+            primerDia[b] = dia;
+            ultimoDia[b] = dia;
+        } else {
+            primerDia[b] = Math.min(primerDia[b], dia);
+            ultimoDia[b] = Math.max(ultimoDia[b], dia);
+        }
+    }
+
+    private void recolectarMetricas(Muestras m) {
+        m.indicador("chazz_analitica_ventas", "Ventas cargadas en el motor de análisis", getVentas());
+        m.indicador("chazz_analitica_renglones", "Renglones de venta cargados en el motor de análisis", getRenglones());
+        m.indicador("chazz_analitica_cargado", "1 si terminó la primera carga del motor de análisis",
+                cargado ? 1 : 0);
+    }
+
+    private static int dia(LocalDate fecha) {
+        return (int) fecha.toEpochDay();
+    }
+
+    private static long centavos(BigDecimal pesos) {
+        return pesos.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal pesos(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+}
@@ -0,0 +1,243 @@
+package com.mycompany.chazzboutiquenegocio.busqueda;
+
+import com.mycompany.chazzboutiquenegocio.cache.CacheLRU;
+import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Un {@link IndiceTrigramas} que se llena solo desde la base.
+ *
+ * La primera búsqueda carga todo de forma síncrona. Después el negocio lo
+ * mantiene al día con {@link #guardar} y {@link #eliminar}, y cada
+ * {@code refrescoMs} se recarga completo en segundo plano (mientras tanto se
+ * sigue respondiendo con el índice anterior) para recoger cambios hechos por
+ * otro proceso sobre la misma base. Lo que se guarde o elimine mientras se
+ * lee la fuente se vuelve a aplicar sobre el índice recargado, porque la
+ * lectura pudo haber ocurrido antes del cambio.
+ *
+ * Los resultados de las últimas búsquedas se guardan por versión del
+ * índice, así paginar o contar la misma consulta no vuelve a buscar.
+ *
+ * Opcionalmente mantiene también un {@link IndicePrefijos} sobre un texto
+ * del documento para {@link #autocompletar}, con la misma carga y los mismos
+ * cambios que el índice de trigramas.
+ *
+ * @param <T> tipo del documento.
+ */
+public class Buscador<T> {
+
+    private static final Logger LOG = Logger.getLogger(Buscador.class.getName());
+
+    public static final long REFRESCO_POR_DEFECTO_MS = 5 * 60_000L;
+    private static final int CONSULTAS_RECORDADAS = 64;
+
+    /**
+     * Carga todos los documentos que deben estar en el índice.
+     */
+    @FunctionalInterface
+    public interface Fuente<T> {
+
+        Collection<? extends T> cargarTodo() throws NegocioException;
+    }
+
+    private final String nombre;
+    private final Fuente<T> fuente;
+    private final Function<T, Long> id;
+    private final long refrescoMs;
+    private final IndiceTrigramas<T> indice;
+    private final IndicePrefijos<T> prefijos;
+    private final CacheLRU<String, List<T>> consultas;
+
+    private final Object cargaInicial = new Object();
+    // Una recarga a la vez; los cambios que lleguen mientras tanto se anotan
+    // en pendientes (null = eliminado) con el candado de cambios
+    private final Object recarga = new Object();
+    private final Object cambios = new Object();
+    private Map<Long, T> pendientes;
+    private volatile long cargadoEn;
+    private final AtomicBoolean recargando = new AtomicBoolean();
+    private volatile ExecutorService hiloRecarga;
+
+    public Buscador(String nombre, Fuente<T> fuente, long refrescoMs,
+            Function<T, Long> id, IndiceTrigramas.Campos<T> campos, int... pesos) {
+        this(nombre, fuente, refrescoMs, id, null, campos, pesos);
+    }
+
+    /**
+     * @param autocompletado texto sobre el que trabaja {@link #autocompletar};
+     * {@code null} para no mantener ese índice.
+     */
+    public Buscador(String nombre, Fuente<T> fuente, long refrescoMs, Function<T, Long> id,
+            Function<T, String> autocompletado, IndiceTrigramas.Campos<T> campos, int... pesos) {
+        this.nombre = nombre;
+        this.fuente = fuente;
+        this.id = id;
+        this.refrescoMs = refrescoMs;
+        this.indice = new IndiceTrigramas<>(id, campos, pesos);
+        this.prefijos = (autocompletado == null) ? null : new IndicePrefijos<>(id, autocompletado);
+        this.consultas = new CacheLRU<>(nombre + ".consultas", CONSULTAS_RECORDADAS);
+    }
+
+    /**
+     * @param filtro condición extra sobre cada documento; {@code null} para
+     * ninguna.
+     * @param claveFiltro identifica al filtro para recordar el resultado; dos
+     * filtros distintos deben tener claves distintas.
+     * @return documentos ordenados por relevancia. La lista es compartida, no
+     * se debe modificar.
+     */
+    public List<T> buscar(String consulta, Predicate<? super T> filtro, String claveFiltro) throws NegocioException {
+        asegurarCargado();
+        String clave = indice.getVersion() + "|" + claveFiltro + "|" + NormalizadorTexto.normalizar(consulta);
+        return consultas.obtener(clave, k -> indice.buscar(consulta, filtro));
+    }
+
+    /**
+     * Los {@code limite} mejores documentos cuyas palabras empiezan con las
+     * de {@code consulta}; ver {@link IndicePrefijos#buscar}.
+     *
+     * @throws IllegalStateException si el buscador se creó sin texto de
+     * autocompletado.
+     */
+    public List<T> autocompletar(String consulta, int limite) throws NegocioException {
+        if (prefijos == null) {
+            throw new IllegalStateException("El buscador " + nombre + " no tiene autocompletado");
+        }
+        asegurarCargado();
+        return prefijos.buscar(consulta, limite);
+    }
+
+    public void guardar(T documento) {
+        Long idDocumento = id.apply(documento);
+        synchronized (cambios) {
+            if (pendientes != null) {
+                pendientes.put(idDocumento, documento);
+            }
+            if (cargadoEn != 0) {
+                aplicar(idDocumento, documento);
+            }
+        }
+    }
+
+    public void eliminar(Long idDocumento) {
+        synchronized (cambios) {
+            if (pendientes != null) {
+                pendientes.put(idDocumento, null);
+            }
+            if (cargadoEn != 0) {
+                aplicar(idDocumento, null);
+            }
+        }
+    }
+
+    /**
+     * @return si el índice ya se cargó; antes de eso no tiene caso
+     * mantenerlo al día.
+     */
+    public boolean isCargado() {
+        return cargadoEn != 0;
+    }
+
+    public int tamano() {
+        return indice.tamano();
+    }
+
+    /**
+     * Recarga el índice completo desde la fuente. Los cambios hechos durante
+     * la lectura se aplican encima del resultado.
+     */
+    public void recargar() throws NegocioException {
+        synchronized (recarga) {
+            long inicio = System.currentTimeMillis();
+            synchronized (cambios) {
+                pendientes = new LinkedHashMap<>();
+            }
+            try {
+                Collection<? extends T> todos = fuente.cargarTodo();
+                int reaplicados;
+                synchronized (cambios) {
+                    indice.reconstruir(todos);
+                    if (prefijos != null) {
+                        prefijos.reconstruir(todos);
+                    }
+                    for (Map.Entry<Long, T> cambio : pendientes.entrySet()) {
+                        aplicar(cambio.getKey(), cambio.getValue());
+                    }
+                    reaplicados = pendientes.size();
+                    cargadoEn = System.currentTimeMillis();
+                }
+                LOG.log(Level.FINE, "Indice {0} cargado: {1} documentos y {2} cambios en {3} ms",
+                        new Object[]{nombre, todos.size(), reaplicados, cargadoEn - inicio});
+            } finally {
+                synchronized (cambios) {
+                    pendientes = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param documento {@code null} para eliminar.
+     */
+    private void aplicar(Long idDocumento, T documento) {
+        if (documento == null) {
+            indice.eliminar(idDocumento);
+            if (prefijos != null) {
+                prefijos.eliminar(idDocumento);
+            }
+        } else {
+            indice.guardar(documento);
+            if (prefijos != null) {
+                prefijos.guardar(documento);
+            }
+        }
+    }
+
+    private void asegurarCargado() throws NegocioException {
+        if (cargadoEn == 0) {
+            synchronized (cargaInicial) {
+                if (cargadoEn == 0) {
+                    recargar();
+                }
+            }
+            return;
+        }
+        if (refrescoMs > 0 && System.currentTimeMillis() - cargadoEn > refrescoMs
+                && recargando.compareAndSet(false, true)) {
+            hiloRecarga().execute(() -> {
+                try {
+                    recargar();
+                } catch (NegocioException | RuntimeException e) {
+                    LOG.log(Level.WARNING, "No se pudo recargar el indice " + nombre, e);
+                } finally {
+                    recargando.set(false);
+                }
+            });
+        }
+    }
+
+    private ExecutorService hiloRecarga() {
+        if (hiloRecarga == null) {
+            synchronized (cargaInicial) {
+                if (hiloRecarga == null) {
+                    hiloRecarga = Executors.newSingleThreadExecutor(r -> {
+                        Thread t = new Thread(r, "recarga-" + nombre);
+                        t.setDaemon(true);
+                        return t;
+                    });
+                }
+            }
+        }
+        return hiloRecarga;
+    }
+}
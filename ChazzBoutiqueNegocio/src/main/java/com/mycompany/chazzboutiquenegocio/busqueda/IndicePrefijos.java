@@ -0,0 +1,338 @@
+package com.mycompany.chazzboutiquenegocio.busqueda;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+/**
+ * Índice para autocompletar: encuentra los documentos cuyo texto tiene
+ * palabras que empiezan con las de la consulta ("vest bas" encuentra
+ * "Vestido Básico"), sin distinguir mayúsculas ni acentos.
+ *
+ * Guarda cada palabra de cada documento en un arreglo ordenado; una consulta
+ * ubica por bisección el rango de cada una de sus palabras, recorre el más
+ * corto verificando las demás y se queda solo con los {@code limite}
+ * mejores, sin ordenar ni copiar el resto.
+ *
+ * Orden de resultados: primero aquellos cuyas primeras palabras empiezan,
+ * en orden, con las de la consulta ("vest bas" → "Vestido Básico"), luego
+ * los demás; dentro de cada grupo por texto y luego por id.
+ *
+ * Las búsquedas leen una instantánea inmutable sin candado. Cada cambio arma
+ * una instantánea nueva copiando la anterior e insertando por bisección, sin
+ * reordenar; pensado para catálogos que se leen mucho más de lo que se
+ * modifican.
+ *
+ * @param <T> tipo del documento indexado.
+ */
+public class IndicePrefijos<T> {
+
+    private static final class Documento<T> {
+
+        final T valor;
+        final Long id;
+        final String texto;
+        final String[] palabras;
+
+        Documento(T valor, Long id, String texto) {
+            this.valor = valor;
+            this.id = id;
+            this.texto = texto;
+            this.palabras = texto.isEmpty() ? new String[0] : texto.split(" ");
+        }
+    }
+
+    /**
+     * Una palabra de un documento y su posición dentro de él.
+     */
+    private static final class Entrada<T> {
+
+        final String palabra;
+        final int posicion;
+        final Documento<T> documento;
+
+        Entrada(String palabra, int posicion, Documento<T> documento) {
+            this.palabra = palabra;
+            this.posicion = posicion;
+            this.documento = documento;
+        }
+    }
+
+    private static final class Instantanea<T> {
+
+        final List<Entrada<T>> entradas;
+        final List<Documento<T>> porTexto;
+        final Map<Long, Documento<T>> porId;
+
+        Instantanea(List<Entrada<T>> entradas, List<Documento<T>> porTexto, Map<Long, Documento<T>> porId) {
+            this.entradas = entradas;
+            this.porTexto = porTexto;
+            this.porId = porId;
+        }
+    }
+
+    private static final Comparator<Documento<?>> ORDEN_DOCUMENTOS = Comparator
+            .<Documento<?>, String>comparing(d -> d.texto)
+            .thenComparing(d -> d.id);
+
+    private static final Comparator<Entrada<?>> ORDEN_ENTRADAS = Comparator
+            .<Entrada<?>, String>comparing(e -> e.palabra)
+            .thenComparing(e -> e.documento, ORDEN_DOCUMENTOS)
+            .thenComparingInt(e -> e.posicion);
+
+    private final Function<T, Long> id;
+    private final Function<T, String> texto;
+
+    private final Object escritura = new Object();
+    private volatile Instantanea<T> actual = new Instantanea<>(
+            Collections.emptyList(), Collections.emptyList(), Collections.emptyMap());
+
+    /**
+     * @param id obtiene el identificador único del documento.
+     * @param texto obtiene el texto a autocompletar (p. ej. el nombre).
+     */
+    public IndicePrefijos(Function<T, Long> id, Function<T, String> texto) {
+        this.id = id;
+        this.texto = texto;
+    }
+
+    /**
+     * Reemplaza todo el contenido del índice.
+     */
+    public void reconstruir(Collection<? extends T> nuevos) {
+        Map<Long, Documento<T>> porId = new HashMap<>(nuevos.size() * 2);
+        for (T valor : nuevos) {
+            Documento<T> d = documento(valor);
+            porId.put(d.id, d);
+        }
+        List<Entrada<T>> entradas = new ArrayList<>();
+        for (Documento<T> d : porId.values()) {
+            agregarEntradas(d, entradas);
+        }
+        List<Documento<T>> porTexto = new ArrayList<>(porId.values());
+        entradas.sort(ORDEN_ENTRADAS);
+        porTexto.sort(ORDEN_DOCUMENTOS);
+        synchronized (escritura) {
+            actual = new Instantanea<>(entradas, porTexto, porId);
+        }
+    }
+
+    /**
+     * Agrega el documento o reemplaza al que tenga el mismo id.
+     */
+    public void guardar(T valor) {
+        Documento<T> nuevo = documento(valor);
+        synchronized (escritura) {
+            Instantanea<T> anterior = actual;
+            Documento<T> viejo = anterior.porId.get(nuevo.id);
+
+            List<Entrada<T>> entradas = sinDocumento(anterior.entradas, viejo, nuevo.palabras.length);
+            List<Entrada<T>> nuevas = new ArrayList<>(nuevo.palabras.length);
+            agregarEntradas(nuevo, nuevas);
+            for (Entrada<T> e : nuevas) {
+                insertarOrdenado(entradas, e, ORDEN_ENTRADAS);
+            }
+
+            List<Documento<T>> porTexto = new ArrayList<>(anterior.porTexto.size() + 1);
+            for (Documento<T> d : anterior.porTexto) {
+                if (d != viejo) {
+                    porTexto.add(d);
+                }
+            }
+            insertarOrdenado(porTexto, nuevo, ORDEN_DOCUMENTOS);
+
+            Map<Long, Documento<T>> porId = new HashMap<>(anterior.porId);
+            porId.put(nuevo.id, nuevo);
+            actual = new Instantanea<>(entradas, porTexto, porId);
+        }
+    }
+
+    public void eliminar(Long idDocumento) {
+        synchronized (escritura) {
+            Instantanea<T> anterior = actual;
+            Documento<T> viejo = anterior.porId.get(idDocumento);
+            if (viejo == null) {
+                return;
+            }
+            List<Documento<T>> porTexto = new ArrayList<>(anterior.porTexto);
+            porTexto.remove(viejo);
+            Map<Long, Documento<T>> porId = new HashMap<>(anterior.porId);
+            porId.remove(idDocumento);
+            actual = new Instantanea<>(sinDocumento(anterior.entradas, viejo, 0), porTexto, porId);
+        }
+    }
+
+    /**
+     * Los {@code limite} mejores documentos cuyo texto tiene, para cada
+     * palabra de la consulta, una palabra que empieza con ella. Una consulta
+     * vacía devuelve los primeros por texto.
+     *
+     * @return documentos ordenados; nunca más de {@code limite}.
+     */
+    public List<T> buscar(String consulta, int limite) {
+        if (limite <= 0) {
+            return new ArrayList<>();
+        }
+        Instantanea<T> ins = actual;
+        String[] palabras = NormalizadorTexto.palabras(consulta);
+
+        if (palabras.length == 0) {
+            List<T> primeros = new ArrayList<>(Math.min(limite, ins.porTexto.size()));
+            for (int i = 0; i < ins.porTexto.size() && primeros.size() < limite; i++) {
+                primeros.add(ins.porTexto.get(i).valor);
+            }
+            return primeros;
+        }
+
+        // Se recorre el rango de la palabra con menos entradas; las demás
+        // solo se verifican sobre esos candidatos
+        List<Entrada<T>> entradas = ins.entradas;
+        String guia = null;
+        int desde = 0;
+        int hasta = 0;
+        for (String p : palabras) {
+            int inicio = primeraPosicion(entradas, p);
+            int fin = primeraPosicion(entradas, p + Character.MAX_VALUE);
+            if (guia == null || fin - inicio < hasta - desde) {
+                guia = p;
+                desde = inicio;
+                hasta = fin;
+            }
+        }
+        Comparator<Candidato<T>> orden = Comparator.<Candidato<T>>comparingInt(c -> c.rango)
+                .thenComparing(c -> c.documento, ORDEN_DOCUMENTOS);
+        // Montículo con el peor arriba para sacarlo cuando sobra
+        PriorityQueue<Candidato<T>> mejores = new PriorityQueue<>(limite + 1, orden.reversed());
+
+        for (int i = desde; i < hasta; i++) {
+            Entrada<T> e = entradas.get(i);
+            Documento<T> d = e.documento;
+            // Un documento con dos palabras que empiezan igual se cuenta una vez
+            if (primeraConPrefijo(d.palabras, guia) != e.posicion || !tieneTodas(d.palabras, palabras)) {
+                continue;
+            }
+            int rango = empiezaIgual(d.palabras, palabras) ? 0 : 1;
+            if (mejores.size() == limite && !mejorQue(d, rango, mejores.peek())) {
+                // Lleno y no supera al peor: no hace falta tocar el montículo
+                continue;
+            }
+            mejores.add(new Candidato<>(d, rango));
+            if (mejores.size() > limite) {
+                mejores.poll();
+            }
+        }
+
+        List<Candidato<T>> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(orden);
+        List<T> resultado = new ArrayList<>(ordenados.size());
+        for (Candidato<T> c : ordenados) {
+            resultado.add(c.documento.valor);
+        }
+        return resultado;
+    }
+
+    public int tamano() {
+        return actual.porId.size();
+    }
+
+    private static final class Candidato<T> {
+
+        final Documento<T> documento;
+        final int rango;
+
+        Candidato(Documento<T> documento, int rango) {
+            this.documento = documento;
+            this.rango = rango;
+        }
+    }
+
+    private Documento<T> documento(T valor) {
+        return new Documento<>(valor, id.apply(valor), NormalizadorTexto.normalizar(texto.apply(valor)));
+    }
+
+    private static <T> boolean mejorQue(Documento<T> d, int rango, Candidato<T> otro) {
+        if (rango != otro.rango) {
+            return rango < otro.rango;
+        }
+        return ORDEN_DOCUMENTOS.compare(d, otro.documento) < 0;
+    }
+
+    private static <E> void insertarOrdenado(List<E> lista, E elemento, Comparator<? super E> orden) {
+        int pos = Collections.binarySearch(lista, elemento, orden);
+        lista.add(pos < 0 ? -pos - 1 : pos, elemento);
+    }
+
+    private static <T> void agregarEntradas(Documento<T> d, List<Entrada<T>> destino) {
+        for (int i = 0; i < d.palabras.length; i++) {
+            destino.add(new Entrada<>(d.palabras[i], i, d));
+        }
+    }
+
+    private static <T> List<Entrada<T>> sinDocumento(List<Entrada<T>> entradas, Documento<T> quitar, int extra) {
+        List<Entrada<T>> copia = new ArrayList<>(entradas.size() + extra);
+        for (Entrada<T> e : entradas) {
+            if (e.documento != quitar) {
+                copia.add(e);
+            }
+        }
+        return copia;
+    }
+
+    /**
+     * @return la primera posición cuya palabra es mayor o igual a
+     * {@code prefijo}.
+     */
+    private static <T> int primeraPosicion(List<Entrada<T>> entradas, String prefijo) {
+        int bajo = 0;
+        int alto = entradas.size();
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (entradas.get(medio).palabra.compareTo(prefijo) < 0) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    private static int primeraConPrefijo(String[] palabrasDoc, String prefijo) {
+        for (int i = 0; i < palabrasDoc.length; i++) {
+            if (palabrasDoc[i].startsWith(prefijo)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return si las primeras palabras del documento empiezan, en orden, con
+     * las de la consulta.
+     */
+    private static boolean empiezaIgual(String[] palabrasDoc, String[] consulta) {
+        if (consulta.length > palabrasDoc.length) {
+            return false;
+        }
+        for (int i = 0; i < consulta.length; i++) {
+            if (!palabrasDoc[i].startsWith(consulta[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean tieneTodas(String[] palabrasDoc, String[] consulta) {
+        for (String p : consulta) {
+            if (primeraConPrefijo(palabrasDoc, p) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
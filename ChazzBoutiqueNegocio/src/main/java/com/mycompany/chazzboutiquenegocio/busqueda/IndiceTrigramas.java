@@ -0,0 +1,375 @@
+package com.mycompany.chazzboutiquenegocio.busqueda;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Índice invertido de trigramas en memoria para búsqueda por subcadena.
+ *
+ * Cada documento aporta uno o más campos de texto (p. ej. nombre, color,
+ * talla) que se normalizan con {@link NormalizadorTexto}. Una consulta se
+ * parte en palabras; todas deben aparecer en algún campo del documento. Las
+ * palabras de tres letras o más se resuelven intersectando las listas de
+ * trigramas; las más cortas solo se verifican sobre los candidatos.
+ *
+ * Orden de resultados: mayor puntuación, luego primer campo y luego id. Una
+ * palabra puntúa más si es el campo completo, luego si es prefijo del campo,
+ * luego si empieza una palabra del campo y al final si solo está contenida;
+ * cada campo multiplica por su peso.
+ *
+ * Internamente cada documento ocupa un "slot" creciente, por lo que las
+ * listas de trigramas quedan ordenadas y se intersectan mezclando. Al
+ * actualizar o eliminar, el slot viejo solo se marca muerto; cuando hay
+ * demasiados muertos el índice se compacta.
+ *
+ * @param <T> tipo del documento indexado.
+ */
+public class IndiceTrigramas<T> {
+
+    /**
+     * Textos a indexar de un documento, en el mismo orden que los pesos.
+     */
+    @FunctionalInterface
+    public interface Campos<T> {
+
+        String[] de(T documento);
+    }
+
+    private static final char SEPARADOR = '\u0001';
+    private static final int MIN_MUERTOS_COMPACTAR = 1000;
+
+    private static final int PUNTOS_IGUAL = 100;
+    private static final int PUNTOS_PREFIJO = 60;
+    private static final int PUNTOS_INICIO_PALABRA = 40;
+    private static final int PUNTOS_CONTIENE = 20;
+
+    private final Function<T, Long> id;
+    private final Campos<T> campos;
+    private final int[] pesos;
+
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+    private final List<T> documentos = new ArrayList<>();
+    private final List<String[]> textos = new ArrayList<>();
+    private final Map<Long, Integer> slotPorId = new HashMap<>();
+    private final BitSet vivos = new BitSet();
+    private final Map<String, ListaEnteros> listas = new HashMap<>();
+    private int muertos;
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * @param id obtiene el identificador único del documento.
+     * @param campos obtiene los textos a indexar.
+     * @param pesos peso de cada campo en la puntuación.
+     */
+    public IndiceTrigramas(Function<T, Long> id, Campos<T> campos, int... pesos) {
+        this.id = id;
+        this.campos = campos;
+        this.pesos = pesos.clone();
+    }
+
+    /**
+     * Reemplaza todo el contenido del índice.
+     */
+    public void reconstruir(Collection<? extends T> nuevos) {
+        candado.writeLock().lock();
+        try {
+            limpiarSinCandado();
+            for (T doc : nuevos) {
+                agregarSinCandado(doc);
+            }
+            version.incrementAndGet();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agrega el documento o reemplaza al que tenga el mismo id.
+     */
+    public void guardar(T documento) {
+        candado.writeLock().lock();
+        try {
+            agregarSinCandado(documento);
+            compactarSiConviene();
+            version.incrementAndGet();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long idDocumento) {
+        candado.writeLock().lock();
+        try {
+            matar(idDocumento);
+            compactarSiConviene();
+            version.incrementAndGet();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los documentos que contienen todas las palabras de
+     * {@code consulta}. Una consulta vacía devuelve todo, ordenado por id.
+     *
+     * @param filtro condición adicional; {@code null} para no filtrar.
+     * @return documentos ordenados por relevancia.
+     */
+    public List<T> buscar(String consulta, Predicate<? super T> filtro) {
+        String[] palabras = NormalizadorTexto.palabras(consulta);
+
+        candado.readLock().lock();
+        try {
+            List<Resultado> encontrados = new ArrayList<>();
+            ListaEnteros candidatos = candidatos(palabras);
+            if (candidatos == null) {
+                for (int slot = vivos.nextSetBit(0); slot >= 0; slot = vivos.nextSetBit(slot + 1)) {
+                    evaluar(slot, palabras, filtro, encontrados);
+                }
+            } else {
+                for (int i = 0; i < candidatos.tam; i++) {
+                    int slot = candidatos.datos[i];
+                    if (vivos.get(slot)) {
+                        evaluar(slot, palabras, filtro, encontrados);
+                    }
+                }
+            }
+
+            Comparator<Resultado> orden = palabras.length == 0
+                    ? Comparator.comparing(r -> r.id)
+                    : Comparator.<Resultado>comparingInt(r -> -r.puntos)
+                            .thenComparing(r -> textos.get(r.slot)[0])
+                            .thenComparing(r -> r.id);
+            encontrados.sort(orden);
+
+            List<T> resultado = new ArrayList<>(encontrados.size());
+            for (Resultado r : encontrados) {
+                resultado.add(documentos.get(r.slot));
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return slotPorId.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cambia con cada modificación; sirve para invalidar resultados
+     * guardados de búsquedas anteriores.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    private void evaluar(int slot, String[] palabras, Predicate<? super T> filtro, List<Resultado> salida) {
+        T doc = documentos.get(slot);
+        if (filtro != null && !filtro.test(doc)) {
+            return;
+        }
+        int puntos = palabras.length == 0 ? 1 : puntuar(textos.get(slot), palabras);
+        if (puntos > 0) {
+            salida.add(new Resultado(slot, id.apply(doc), puntos));
+        }
+    }
+
+    private int puntuar(String[] textosDoc, String[] palabras) {
+        int total = 0;
+        for (String palabra : palabras) {
+            int mejor = 0;
+            for (int i = 0; i < textosDoc.length; i++) {
+                String campo = textosDoc[i];
+                int base;
+                if (campo.equals(palabra)) {
+                    base = PUNTOS_IGUAL;
+                } else if (campo.startsWith(palabra)) {
+                    base = PUNTOS_PREFIJO;
+                } else if (campo.contains(" " + palabra)) {
+                    base = PUNTOS_INICIO_PALABRA;
+                } else if (campo.contains(palabra)) {
+                    base = PUNTOS_CONTIENE;
+                } else {
+                    continue;
+                }
+                mejor = Math.max(mejor, base * peso(i));
+            }
+            if (mejor == 0) {
+                return 0;
+            }
+            total += mejor;
+        }
+        return total;
+    }
+
+    private int peso(int campo) {
+        return campo < pesos.length ? pesos[campo] : 1;
+    }
+
+    /**
+     * @return slots que contienen todos los trigramas de la consulta, o
+     * {@code null} si ninguna palabra es lo bastante larga para usarlos.
+     */
+    private ListaEnteros candidatos(String[] palabras) {
+        Set<String> trigramas = new LinkedHashSet<>();
+        for (String palabra : palabras) {
+            trigramas(palabra, trigramas);
+        }
+        if (trigramas.isEmpty()) {
+            return null;
+        }
+
+        List<ListaEnteros> porTrigrama = new ArrayList<>(trigramas.size());
+        for (String t : trigramas) {
+            ListaEnteros lista = listas.get(t);
+            if (lista == null) {
+                return new ListaEnteros();
+            }
+            porTrigrama.add(lista);
+        }
+        porTrigrama.sort(Comparator.comparingInt(l -> l.tam));
+
+        ListaEnteros actual = porTrigrama.get(0);
+        for (int i = 1; i < porTrigrama.size() && actual.tam > 0; i++) {
+            actual = actual.intersectar(porTrigrama.get(i));
+        }
+        return actual;
+    }
+
+    private void agregarSinCandado(T documento) {
+        Long idDoc = id.apply(documento);
+        matar(idDoc);
+
+        String[] crudos = campos.de(documento);
+        String[] normalizados = new String[crudos.length];
+        StringBuilder unidos = new StringBuilder();
+        for (int i = 0; i < crudos.length; i++) {
+            normalizados[i] = NormalizadorTexto.normalizar(crudos[i]);
+            if (i > 0) {
+                unidos.append(SEPARADOR);
+            }
+            unidos.append(normalizados[i]);
+        }
+
+        int slot = documentos.size();
+        documentos.add(documento);
+        textos.add(normalizados);
+        vivos.set(slot);
+        slotPorId.put(idDoc, slot);
+
+        Set<String> trigramas = new LinkedHashSet<>();
+        trigramas(unidos.toString(), trigramas);
+        for (String t : trigramas) {
+            listas.computeIfAbsent(t, k -> new ListaEnteros()).agregar(slot);
+        }
+    }
+
+    private void matar(Long idDocumento) {
+        Integer anterior = slotPorId.remove(idDocumento);
+        if (anterior != null) {
+            vivos.clear(anterior);
+            documentos.set(anterior, null);
+            muertos++;
+        }
+    }
+
+    private void compactarSiConviene() {
+        if (muertos >= MIN_MUERTOS_COMPACTAR && muertos * 3 > documentos.size()) {
+            List<T> actuales = new ArrayList<>(slotPorId.size());
+            for (int slot = vivos.nextSetBit(0); slot >= 0; slot = vivos.nextSetBit(slot + 1)) {
+                actuales.add(documentos.get(slot));
+            }
+            limpiarSinCandado();
+            for (T doc : actuales) {
+                agregarSinCandado(doc);
+            }
+        }
+    }
+
+    private void limpiarSinCandado() {
+        documentos.clear();
+        textos.clear();
+        slotPorId.clear();
+        vivos.clear();
+        listas.clear();
+        muertos = 0;
+    }
+
+    private static void trigramas(String texto, Set<String> destino) {
+        for (int i = 0; i + 3 <= texto.length(); i++) {
+            String t = texto.substring(i, i + 3);
+            if (t.indexOf(SEPARADOR) < 0) {
+                destino.add(t);
+            }
+        }
+    }
+
+    private static final class Resultado {
+
+        final int slot;
+        final Long id;
+        final int puntos;
+
+        Resultado(int slot, Long id, int puntos) {
+            this.slot = slot;
+            this.id = id;
+            this.puntos = puntos;
+        }
+    }
+
+    /**
+     * Lista creciente de enteros sin cajas (Integer); los slots se agregan
+     * en orden ascendente.
+     */
+    private static final class ListaEnteros {
+
+        int[] datos = new int[4];
+        int tam;
+
+        void agregar(int valor) {
+            if (tam == datos.length) {
+                datos = Arrays.copyOf(datos, tam * 2);
+            }
+            datos[tam++] = valor;
+        }
+
+        ListaEnteros intersectar(ListaEnteros otra) {
+            ListaEnteros r = new ListaEnteros();
+            r.datos = new int[Math.max(1, Math.min(tam, otra.tam))];
+            int i = 0;
+            int j = 0;
+            while (i < tam && j < otra.tam) {
+                int a = datos[i];
+                int b = otra.datos[j];
+                if (a == b) {
+                    r.datos[r.tam++] = a;
+                    i++;
+                    j++;
+                } else if (a < b) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return r;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mycompany.chazzboutiquenegocio.busqueda;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Traduce el color hexadecimal guardado en la variante (#RRGGBB) al nombre
+ * con el que la gente lo busca ("Rojo", "Beige"...).
+ */
+public final class NombresColor {
+
+    private static final Map<String, Predicate<int[]>> RANGOS = new LinkedHashMap<>();
+
+    static {
+        // Orden de detección importante (de más específico a más general)
+
+        // Blancos y negros primero
+        RANGOS.put("Blanco", rgb
+                -> rgb[0] >= 240 && rgb[1] >= 240 && rgb[2] >= 240);
+
+        RANGOS.put("Negro", rgb
+                -> rgb[0] <= 15 && rgb[1] <= 15 && rgb[2] <= 15);
+
+        RANGOS.put("Gris", rgb -> {
+            int max = Math.max(Math.max(rgb[0], rgb[1]), rgb[2]);
+            int min = Math.min(Math.min(rgb[0], rgb[1]), rgb[2]);
+            return (max - min) < 30 && max < 200;
+        });
+
+        // Colores primarios
+        RANGOS.put("Rojo", rgb
+                -> rgb[0] - rgb[1] > 60 && rgb[0] - rgb[2] > 60);
+
+        RANGOS.put("Verde", rgb
+                -> rgb[1] - rgb[0] > 60 && rgb[1] - rgb[2] > 60);
+
+        RANGOS.put("Azul", rgb
+                -> rgb[2] - rgb[0] > 60 && rgb[2] - rgb[1] > 60);
+
+        // Colores secundarios
+        RANGOS.put("Amarillo", rgb
+                -> rgb[0] >= 200 && rgb[1] >= 200 && rgb[2] <= 50);
+
+        RANGOS.put("Magenta", rgb
+                -> rgb[0] >= 200 && rgb[2] >= 200 && rgb[1] <= 50);
+
+        RANGOS.put("Cian", rgb
+                -> rgb[1] >= 200 && rgb[2] >= 200 && rgb[0] <= 50);
+
+        // Tonos tierra
+        RANGOS.put("Marrón", rgb
+                -> rgb[0] >= 100 && rgb[0] <= 150
+                && rgb[1] >= 50 && rgb[1] <= 100
+                && rgb[2] <= 50);
+
+        RANGOS.put("Beige", rgb
+                -> rgb[0] >= 200 && rgb[1] >= 180 && rgb[2] >= 140
+                && Math.abs(rgb[0] - rgb[1]) < 30
+                && Math.abs(rgb[1] - rgb[2]) < 40);
+    }
+
+    private NombresColor() {
+    }
+
+    /**
+     * @return el nombre del color, el mismo código si no cae en ningún rango,
+     * o "N/A" si no es un hexadecimal válido.
+     */
+    public static String nombre(String hexColor) {
+        try {
+            int[] rgb = hexARgb(hexColor);
+            for (Map.Entry<String, Predicate<int[]>> e : RANGOS.entrySet()) {
+                if (e.getValue().test(rgb)) {
+                    return e.getKey();
+                }
+            }
+            return hexColor; // Si no coincide, devuelve el código original
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return "N/A";
+        }
+    }
+
+    private static int[] hexARgb(String hexColor) {
+        if (hexColor.startsWith("#")) {
+            hexColor = hexColor.substring(1);
+        }
+
+        if (hexColor.length() == 3) {
+            hexColor = "" + hexColor.charAt(0) + hexColor.charAt(0)
+                    + hexColor.charAt(1) + hexColor.charAt(1)
+                    + hexColor.charAt(2) + hexColor.charAt(2);
+        }
+
+        if (hexColor.length() != 6) {
+            throw new IllegalArgumentException("Formato hexadecimal inválido");
+        }
+
+        return new int[]{
+            Integer.parseInt(hexColor.substring(0, 2), 16),
+            Integer.parseInt(hexColor.substring(2, 4), 16),
+            Integer.parseInt(hexColor.substring(4, 6), 16)
+        };
+    }
+}
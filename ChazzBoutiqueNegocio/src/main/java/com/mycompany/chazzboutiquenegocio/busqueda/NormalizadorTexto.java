@@ -0,0 +1,35 @@
+package com.mycompany.chazzboutiquenegocio.busqueda;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza texto para búsqueda: minúsculas, sin acentos ni diéresis y con
+ * un solo espacio entre palabras. Así "Básica", "BASICA" y "basica" son lo
+ * mismo. La ñ se conserva como n (el acento se quita igual que en á).
+ */
+public final class NormalizadorTexto {
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private NormalizadorTexto() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String sinAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACIOS.matcher(sinAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * @return las palabras normalizadas de {@code texto}; vacío si no hay.
+     */
+    public static String[] palabras(String texto) {
+        String n = normalizar(texto);
+        return n.isEmpty() ? new String[0] : n.split(" ");
+    }
+}
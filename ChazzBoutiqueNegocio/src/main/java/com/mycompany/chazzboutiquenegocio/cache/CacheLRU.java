@@ -0,0 +1,316 @@
+package com.mycompany.chazzboutiquenegocio.cache;
+
+import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquepersistencia.metricas.Muestras;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Caché en memoria de lectura directa (read-through) con tamaño acotado.
+ *
+ * <ul>
+ * <li>Cuando se llena desaloja la entrada usada hace más tiempo (LRU).</li>
+ * <li>Opcionalmente las entradas caducan después de {@code ttlMs}.</li>
+ * <li>Si varios hilos piden la misma clave ausente, solo uno la carga y los
+ * demás esperan ese resultado (single-flight).</li>
+ * <li>Los resultados {@code null} no se guardan.</li>
+ * </ul>
+ *
+ * Una invalidación que ocurre mientras una carga está en curso gana: el
+ * valor cargado se entrega a quien lo pidió pero no se guarda.
+ *
+ * @param <K> tipo de la clave.
+ * @param <V> tipo del valor.
+ */
+public class CacheLRU<K, V> {
+
+    /**
+     * Carga el valor de una clave cuando no está en caché.
+     */
+    @FunctionalInterface
+    public interface Cargador<K, V> {
+
+        V cargar(K clave) throws NegocioException;
+    }
+
+    /**
+     * Carga de una sola vez las claves que faltan en caché.
+     */
+    @FunctionalInterface
+    public interface CargadorLote<K, V> {
+
+        Map<K, V> cargar(Collection<K> claves) throws NegocioException;
+    }
+
+    private static class Entrada<V> {
+
+        final V valor;
+        final long expiraEn;
+
+        Entrada(V valor, long expiraEn) {
+            this.valor = valor;
+            this.expiraEn = expiraEn;
+        }
+    }
+
+    private final String nombre;
+    private final int capacidad;
+    private final long ttlMs;
+
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> cargasEnCurso = new ConcurrentHashMap<>();
+    private final AtomicLong generacion = new AtomicLong();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder cargas = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+
+    /**
+     * @param nombre nombre para estadísticas y registros.
+     * @param capacidad número máximo de entradas.
+     * @param ttlMs vida máxima de una entrada en milisegundos; 0 o menos para
+     * que no caduquen.
+     */
+    public CacheLRU(String nombre, int capacidad, long ttlMs) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser mayor que cero: " + capacidad);
+        }
+        this.nombre = nombre;
+        this.capacidad = capacidad;
+        this.ttlMs = ttlMs;
+        this.entradas = new LinkedHashMap<K, Entrada<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                if (size() > CacheLRU.this.capacidad) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        // Por nombre: una caché que se vuelve a crear reemplaza a la anterior
+        RegistroMetricas.global().agregarRecolector("cache." + nombre, this::recolectarMetricas);
+    }
+
+    public CacheLRU(String nombre, int capacidad) {
+        this(nombre, capacidad, 0);
+    }
+
+    /**
+     * Devuelve el valor en caché o lo carga con {@code cargador}.
+     *
+     * @return el valor, o {@code null} si el cargador devolvió {@code null}.
+     * @throws NegocioException si la carga falla.
+     */
+    public V obtener(K clave, Cargador<K, V> cargador) throws NegocioException {
+        V enCache = buscar(clave);
+        if (enCache != null) {
+            aciertos.increment();
+            return enCache;
+        }
+        fallos.increment();
+
+        CompletableFuture<V> nueva = new CompletableFuture<>();
+        CompletableFuture<V> existente = cargasEnCurso.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            return esperar(existente);
+        }
+
+        long generacionInicial = generacion.get();
+        try {
+            cargas.increment();
+            V valor = cargador.cargar(clave);
+            if (valor != null) {
+                synchronized (entradas) {
+                    if (generacion.get() == generacionInicial) {
+                        entradas.put(clave, new Entrada<>(valor, calcularExpiracion()));
+                    }
+                }
+            }
+            nueva.complete(valor);
+            return valor;
+        } catch (NegocioException | RuntimeException e) {
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            cargasEnCurso.remove(clave, nueva);
+        }
+    }
+
+    /**
+     * Versión por lotes de {@link #obtener}: las claves presentes se sirven de
+     * la caché y las faltantes se cargan con una sola llamada al cargador.
+     *
+     * @return mapa con las claves encontradas; las que no existen no aparecen.
+     */
+    public Map<K, V> obtenerTodos(Collection<K> claves, CargadorLote<K, V> cargador) throws NegocioException {
+        Map<K, V> resultado = new HashMap<>();
+        Set<K> faltantes = new LinkedHashSet<>();
+        for (K clave : claves) {
+            if (clave == null || resultado.containsKey(clave) || faltantes.contains(clave)) {
+                continue;
+            }
+            V enCache = buscar(clave);
+            if (enCache != null) {
+                aciertos.increment();
+                resultado.put(clave, enCache);
+            } else {
+                fallos.increment();
+                faltantes.add(clave);
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return resultado;
+        }
+
+        long generacionInicial = generacion.get();
+        cargas.increment();
+        Map<K, V> cargados = cargador.cargar(faltantes);
+        synchronized (entradas) {
+            if (generacion.get() == generacionInicial) {
+                long expiraEn = calcularExpiracion();
+                for (Map.Entry<K, V> e : cargados.entrySet()) {
+                    if (e.getValue() != null) {
+                        entradas.put(e.getKey(), new Entrada<>(e.getValue(), expiraEn));
+                    }
+                }
+            }
+        }
+        resultado.putAll(cargados);
+        return resultado;
+    }
+
+    /**
+     * Valor en caché sin cargar ni contar acierto o fallo.
+     *
+     * @return el valor vigente o {@code null}.
+     */
+    public V buscar(K clave) {
+        synchronized (entradas) {
+            Entrada<V> e = entradas.get(clave);
+            if (e == null) {
+                return null;
+            }
+            if (e.expiraEn > 0 && e.expiraEn < System.currentTimeMillis()) {
+                entradas.remove(clave);
+                return null;
+            }
+            return e.valor;
+        }
+    }
+
+    public void poner(K clave, V valor) {
+        if (valor == null) {
+            return;
+        }
+        synchronized (entradas) {
+            entradas.put(clave, new Entrada<>(valor, calcularExpiracion()));
+        }
+    }
+
+    public void invalidar(K clave) {
+        synchronized (entradas) {
+            generacion.incrementAndGet();
+            entradas.remove(clave);
+        }
+        invalidaciones.increment();
+    }
+
+    public void invalidar(Iterable<? extends K> claves) {
+        synchronized (entradas) {
+            generacion.incrementAndGet();
+            for (K clave : claves) {
+                entradas.remove(clave);
+            }
+        }
+        invalidaciones.increment();
+    }
+
+    /**
+     * Quita las entradas cuyo valor cumple la condición; útil cuando no se
+     * conoce la clave (p. ej. se tiene el id pero la clave es el código).
+     */
+    public void invalidarSi(Predicate<? super V> condicion) {
+        synchronized (entradas) {
+            generacion.incrementAndGet();
+            Iterator<Entrada<V>> it = entradas.values().iterator();
+            while (it.hasNext()) {
+                if (condicion.test(it.next().valor)) {
+                    it.remove();
+                }
+            }
+        }
+        invalidaciones.increment();
+    }
+
+    public void limpiar() {
+        synchronized (entradas) {
+            generacion.incrementAndGet();
+            entradas.clear();
+        }
+        invalidaciones.increment();
+    }
+
+    public int tamano() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    public EstadisticasCache obtenerEstadisticas() {
+        return new EstadisticasCache(nombre, tamano(), capacidad,
+                aciertos.sum(), fallos.sum(), cargas.sum(), desalojos.sum(), invalidaciones.sum());
+    }
+
+    private void recolectarMetricas(Muestras m) {
+        EstadisticasCache e = obtenerEstadisticas();
+        m.contador("chazz_cache_aciertos_total", "Consultas resueltas desde la caché", e.getAciertos(),
+                "cache", nombre);
+        m.contador("chazz_cache_fallos_total", "Consultas que tuvieron que cargar el valor", e.getFallos(),
+                "cache", nombre);
+        m.indicador("chazz_cache_tasa_aciertos", "Aciertos entre consultas", e.getTasaAciertos(), "cache", nombre);
+        m.indicador("chazz_cache_entradas", "Entradas guardadas", e.getTamano(), "cache", nombre);
+        m.contador("chazz_cache_desalojos_total", "Entradas desalojadas por falta de espacio", e.getDesalojos(),
+                "cache", nombre);
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    private long calcularExpiracion() {
+        return ttlMs > 0 ? System.currentTimeMillis() + ttlMs : 0;
+    }
+
+    private V esperar(CompletableFuture<V> carga) throws NegocioException {
+        try {
+            return carga.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NegocioException("Interrumpido esperando la caché " + nombre, e);
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof NegocioException) {
+                throw (NegocioException) causa;
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            throw new NegocioException("Error al cargar la caché " + nombre, causa);
+        }
+    }
+}
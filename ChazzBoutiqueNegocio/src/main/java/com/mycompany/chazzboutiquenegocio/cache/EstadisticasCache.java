@@ -0,0 +1,76 @@
+package com.mycompany.chazzboutiquenegocio.cache;
+
+/**
+ * Fotografía de los contadores de una {@link CacheLRU}.
+ */
+public class EstadisticasCache {
+
+    private final String nombre;
+    private final int tamano;
+    private final int capacidad;
+    private final long aciertos;
+    private final long fallos;
+    private final long cargas;
+    private final long desalojos;
+    private final long invalidaciones;
+
+    public EstadisticasCache(String nombre, int tamano, int capacidad, long aciertos, long fallos,
+            long cargas, long desalojos, long invalidaciones) {
+        this.nombre = nombre;
+        this.tamano = tamano;
+        this.capacidad = capacidad;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.cargas = cargas;
+        this.desalojos = desalojos;
+        this.invalidaciones = invalidaciones;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    public long getCargas() {
+        return cargas;
+    }
+
+    public long getDesalojos() {
+        return desalojos;
+    }
+
+    public long getInvalidaciones() {
+        return invalidaciones;
+    }
+
+    /**
+     * @return proporción de aciertos entre 0 y 1.
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0d : aciertos / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasCache{" + "nombre=" + nombre + ", tamano=" + tamano + "/" + capacidad
+                + ", aciertos=" + aciertos + ", fallos=" + fallos + ", cargas=" + cargas
+                + ", desalojos=" + desalojos + ", invalidaciones=" + invalidaciones
+                + ", tasaAciertos=" + String.format("%.3f", getTasaAciertos()) + '}';
+    }
+}
@@ -0,0 +1,56 @@
+package com.mycompany.chazzboutiquenegocio.dtos;
+
+/**
+ * Producto entre los más vendidos del seguimiento en vivo. Las unidades son
+ * una cota superior: las reales están entre {@code unidades - errorMaximo}
+ * y {@code unidades}.
+ */
+public class MasVendidoDTO {
+
+    private String nombreProducto;
+    private String categoria;
+    private long unidades;
+    private long errorMaximo;
+
+    public MasVendidoDTO() {
+    }
+
+    public MasVendidoDTO(String nombreProducto, String categoria, long unidades, long errorMaximo) {
+        this.nombreProducto = nombreProducto;
+        this.categoria = categoria;
+        this.unidades = unidades;
+        this.errorMaximo = errorMaximo;
+    }
+
+    public String getNombreProducto() {
+        return nombreProducto;
+    }
+
+    public void setNombreProducto(String nombreProducto) {
+        this.nombreProducto = nombreProducto;
+    }
+
+    public String getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(String categoria) {
+        this.categoria = categoria;
+    }
+
+    public long getUnidades() {
+        return unidades;
+    }
+
+    public void setUnidades(long unidades) {
+        this.unidades = unidades;
+    }
+
+    public long getErrorMaximo() {
+        return errorMaximo;
+    }
+
+    public void setErrorMaximo(long errorMaximo) {
+        this.errorMaximo = errorMaximo;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mycompany.chazzboutiquenegocio.dtos;
+
+import java.util.List;
+
+/**
+ * Página de resultados navegada por cursor.
+ *
+ * Para pedir la siguiente página se manda de vuelta
+ * {@link #getCursorSiguiente()}; su contenido no debe interpretarse.
+ *
+ * @param <T> tipo de los elementos.
+ */
+public class PaginaDTO<T> {
+
+    private List<T> elementos;
+    private String cursorSiguiente;
+    private boolean haySiguiente;
+    private Long total;
+
+    public PaginaDTO() {
+    }
+
+    public PaginaDTO(List<T> elementos, String cursorSiguiente, boolean haySiguiente, Long total) {
+        this.elementos = elementos;
+        this.cursorSiguiente = cursorSiguiente;
+        this.haySiguiente = haySiguiente;
+        this.total = total;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    public void setElementos(List<T> elementos) {
+        this.elementos = elementos;
+    }
+
+    /**
+     * @return cursor de la página siguiente, o {@code null} si no hay.
+     */
+    public String getCursorSiguiente() {
+        return cursorSiguiente;
+    }
+
+    public void setCursorSiguiente(String cursorSiguiente) {
+        this.cursorSiguiente = cursorSiguiente;
+    }
+
+    public boolean isHaySiguiente() {
+        return haySiguiente;
+    }
+
+    public void setHaySiguiente(boolean haySiguiente) {
+        this.haySiguiente = haySiguiente;
+    }
+
+    /**
+     * @return total de elementos, o {@code null} si no se pidió.
+     */
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
@@ -22,6 +22,7 @@ public class VarianteProductoDTO {
     private Long productoId;
     private String nombreProducto;
     private String urlImagen;
+    private Long categoriaId;
 
     public VarianteProductoDTO() {
     }
@@ -153,6 +154,14 @@ public class VarianteProductoDTO {
         this.productoId = productoId;
     }
 
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public void setCategoriaId(Long categoriaId) {
+        this.categoriaId = categoriaId;
+    }
+
     @Override
     public String toString() {
         return "VarianteProductoDTO{" + "id=" + id + ", codigoBarra=" + codigoBarra + ", stock=" + stock + ", precioCompra=" + precioCompra + ", talla=" + talla + ", color=" + color + ", precioVenta=" + precioVenta + ", productoId=" + productoId + ", nombreProducto=" + nombreProducto + ", urlImagen=" + urlImagen + '}';
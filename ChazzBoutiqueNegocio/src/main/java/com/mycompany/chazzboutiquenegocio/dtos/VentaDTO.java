@@ -6,6 +6,7 @@ package com.mycompany.chazzboutiquenegocio.dtos;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -18,6 +19,7 @@ public class VentaDTO {
     private Long usuarioId;
     private String vendedorNombre;
     private LocalDate fecha;
+    private LocalDateTime fechaHora;
     private BigDecimal total;
     private BigDecimal descuento;
     private String estado;
@@ -68,6 +70,18 @@ public class VentaDTO {
         this.fecha = fecha;
     }
 
+    /**
+     * @return cuándo se registró la venta; {@code null} si es anterior a que
+     * se guardara la hora.
+     */
+    public LocalDateTime getFechaHora() {
+        return fechaHora;
+    }
+
+    public void setFechaHora(LocalDateTime fechaHora) {
+        this.fechaHora = fechaHora;
+    }
+
     public BigDecimal getTotal() {
         return total;
     }
@@ -1,5 +1,6 @@
 package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
 import com.mycompany.chazzboutiquenegocio.dtos.CategoriaDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 
@@ -10,4 +11,6 @@ public interface ICategoriaNegocio {
     void actualizarCategoria(CategoriaDTO categoria) throws NegocioException;
     void eliminarCategoria(Long id) throws NegocioException;
     List<CategoriaDTO> obtenerCategorias() throws NegocioException;
+
+    EstadisticasCache obtenerEstadisticasCache();
 }
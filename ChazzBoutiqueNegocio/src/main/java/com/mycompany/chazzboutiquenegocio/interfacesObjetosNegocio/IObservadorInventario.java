@@ -0,0 +1,18 @@
+package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
+
+import java.util.Collection;
+
+/**
+ * Recibe aviso cuando el stock de unas variantes cambia fuera de
+ * {@link IVarianteProductoNegocio}, por ejemplo al registrar una venta.
+ */
+@FunctionalInterface
+public interface IObservadorInventario {
+
+    /**
+     * Se llama después de confirmar la transacción que modificó el stock.
+     *
+     * @param codigosBarra códigos de las variantes afectadas.
+     */
+    void inventarioModificado(Collection<String> codigosBarra);
+}
@@ -0,0 +1,18 @@
+package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
+
+/**
+ * Recibe aviso cuando {@link IProductoNegocio} actualiza o elimina un
+ * producto, por ejemplo para refrescar datos del producto copiados en sus
+ * variantes.
+ */
+@FunctionalInterface
+public interface IObservadorProductos {
+
+    /**
+     * Se llama después de confirmar la transacción, en el hilo que hizo el
+     * cambio.
+     *
+     * @param productoId producto actualizado o eliminado.
+     */
+    void productoModificado(Long productoId);
+}
@@ -0,0 +1,20 @@
+package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
+
+import com.mycompany.chazzboutiquepersistencia.dominio.Venta;
+
+/**
+ * Recibe cada venta que registra {@link IVentaNegocio}, por ejemplo para
+ * llevar estadísticas en vivo.
+ */
+@FunctionalInterface
+public interface IObservadorVentas {
+
+    /**
+     * Se llama después de confirmar la transacción, en el hilo que registró
+     * la venta; no debe tardar.
+     *
+     * @param venta la venta ya guardada, con sus renglones, variantes y
+     * productos cargados.
+     */
+    void ventaRegistrada(Venta venta);
+}
@@ -4,6 +4,7 @@
  */
 package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
 import com.mycompany.chazzboutiquenegocio.dtos.ProductoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import java.util.List;
@@ -18,6 +19,16 @@ public interface IProductoNegocio {
 
     List<ProductoDTO> buscarPorNombre(String nombre) throws NegocioException;
 
+    /**
+     * Productos cuyo nombre tiene palabras que empiezan con las de
+     * {@code texto}, primero los que empiezan con el texto completo. Sin
+     * coincidencias devuelve una lista vacía; un texto vacío devuelve los
+     * primeros por nombre.
+     *
+     * @param limite máximo de resultados.
+     */
+    List<ProductoDTO> autocompletar(String texto, int limite) throws NegocioException;
+
     List<ProductoDTO> obtenerTodosProductos() throws NegocioException;
 
     void crearProducto(ProductoDTO productoDTO) throws NegocioException;
@@ -25,4 +36,11 @@ public interface IProductoNegocio {
     void actualizarProducto(ProductoDTO productoDTO) throws NegocioException;
 
     void eliminarProducto(Long id) throws NegocioException;
+
+    EstadisticasCache obtenerEstadisticasCache();
+
+    /**
+     * Registra a quien debe enterarse de que un producto cambió o se eliminó.
+     */
+    void agregarObservadorProductos(IObservadorProductos observador);
 }
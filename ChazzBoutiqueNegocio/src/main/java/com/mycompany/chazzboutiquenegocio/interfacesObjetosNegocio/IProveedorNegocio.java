@@ -1,5 +1,6 @@
 package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
 import com.mycompany.chazzboutiquenegocio.dtos.ProveedorDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 
@@ -7,4 +8,6 @@ import java.util.List;
 
 public interface IProveedorNegocio {
     List<ProveedorDTO> obtenerProveedores() throws NegocioException;
+
+    EstadisticasCache obtenerEstadisticasCache();
 }
@@ -4,11 +4,18 @@
  */
 package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.dtos.MasVendidoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoInventario;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoVenta;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteCategoriaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteDiaHoraDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteInventarioDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVendedorDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVentaDTO;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.ConsumidorFilas;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -24,5 +31,75 @@ public interface IReporteNegocio {
 
     List<ReporteCategoriaDTO> obtenerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException;
 
+    /**
+     * Ventas y total vendido por usuario, del que más vendió al que menos.
+     */
+    List<ReporteVendedorDTO> obtenerTotalesPorVendedor(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException;
+
+    /**
+     * Mapa de calor de ventas por día de la semana (1 = lunes) y hora; solo
+     * las celdas con ventas, en el orden día, hora. Las ventas registradas
+     * antes de que se guardara la hora no aparecen.
+     */
+    List<ReporteDiaHoraDTO> obtenerVentasPorDiaYHora(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException;
+
+    /**
+     * Más vendidos de hoy ({@code dias = 1}) o de los últimos días (hasta 7)
+     * según el seguimiento en vivo: sin consultar la base, con unidades
+     * aproximadas (ver {@link MasVendidoDTO}).
+     */
+    List<MasVendidoDTO> obtenerMasVendidosEnVivo(int dias, int limite) throws NegocioException;
+
     List<ReporteInventarioDTO> obtenerInventarioActual() throws NegocioException;
+
+    /**
+     * Una ventana del reporte de ventas ordenada por {@code orden}, para
+     * mostrar rangos grandes por partes: {@code cantidad} filas (a lo más
+     * {@code MAX_FILAS_PAGINA}) a partir de la {@code inicio}.
+     */
+    List<ReporteVentaDTO> obtenerPaginaVentas(LocalDate fechaInicio, LocalDate fechaFin, CampoVenta orden,
+            boolean descendente, int inicio, int cantidad) throws NegocioException;
+
+    long contarVentas(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException;
+
+    List<ReporteInventarioDTO> obtenerPaginaInventario(CampoInventario orden, boolean descendente, int inicio,
+            int cantidad) throws NegocioException;
+
+    long contarInventario() throws NegocioException;
+
+    /**
+     * Entrega las filas del reporte a {@code consumidor} conforme se leen de
+     * la base, sin juntarlas en una lista; para exportar rangos grandes. Lo
+     * mismo para los demás {@code recorrer*}.
+     *
+     * @throws IOException la que lance {@code consumidor}.
+     */
+    void recorrerDatosVentas(LocalDate fechaInicio, LocalDate fechaFin, ConsumidorFilas<ReporteVentaDTO> consumidor)
+            throws NegocioException, IOException;
+
+    void recorrerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteProductoDTO> consumidor) throws NegocioException, IOException;
+
+    void recorrerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteCategoriaDTO> consumidor) throws NegocioException, IOException;
+
+    void recorrerInventarioActual(ConsumidorFilas<ReporteInventarioDTO> consumidor)
+            throws NegocioException, IOException;
+
+    /**
+     * Reconstruye los resúmenes diarios de los días que aún no lo están
+     * (los anteriores a que existieran). No hace nada si ya están completos;
+     * se puede llamar al arrancar y periódicamente.
+     *
+     * @return días reconstruidos.
+     */
+    int completarResumenes() throws NegocioException;
+
+    /**
+     * Vuelve a calcular los resúmenes del rango desde las ventas, p. ej.
+     * después de corregir ventas a mano. Hoy y los días futuros se omiten.
+     *
+     * @return días reconstruidos.
+     */
+    int reconstruirResumenes(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException;
 }
@@ -1,14 +1,34 @@
 package com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
+import com.mycompany.chazzboutiquenegocio.dtos.PaginaDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface IVarianteProductoNegocio {
 
     VarianteProductoDTO obtenerVariantePorCodigoBarra(String codigoBarra) throws NegocioException;
 
+    /**
+     * Resuelve todos los códigos de un carrito o ticket con una sola consulta.
+     *
+     * @return mapa código de barras a variante; los códigos inexistentes no
+     * aparecen.
+     */
+    Map<String, VarianteProductoDTO> obtenerPorCodigosBarra(Collection<String> codigosBarra) throws NegocioException;
+
+    /**
+     * Resuelve varias variantes por id con una sola consulta.
+     *
+     * @return mapa id a variante; los ids inexistentes o eliminados no
+     * aparecen.
+     */
+    Map<Long, VarianteProductoDTO> obtenerPorIds(Collection<Long> ids) throws NegocioException;
+
     List<VarianteProductoDTO> obtenerVariantesPorProducto(Long productoId) throws NegocioException;
 
     VarianteProductoDTO buscarPorId(Long id) throws NegocioException;
@@ -19,6 +39,22 @@ public interface IVarianteProductoNegocio {
 
     void eliminarVariante(Long id) throws NegocioException;
 
+    /**
+     * Página del catálogo de variantes navegada por cursor. Cada llamada
+     * hace a lo más una consulta, sin contar ni pedir la página siguiente.
+     *
+     * @param idCategoria categoría del producto; {@code null} para todas.
+     * @param filtro texto a buscar; {@code null} o vacío para todo el
+     * catálogo.
+     * @param cursor {@link PaginaDTO#getCursorSiguiente()} de la página
+     * anterior; {@code null} para la primera.
+     * @param incluirTotal si se debe llenar {@link PaginaDTO#getTotal()}; el
+     * conteo se guarda unos segundos, así que conviene pedirlo solo en la
+     * primera página.
+     */
+    PaginaDTO<VarianteProductoDTO> obtenerPaginaVariantes(Long idCategoria, String filtro, String cursor,
+            int tamano, boolean incluirTotal) throws NegocioException;
+
     public List<VarianteProductoDTO> buscarVariantesPorNombreProducto(String terminoBusqueda, int pagina, int tamanoPagina) throws NegocioException;
 
     public long contarVariantesPorNombreProducto(String terminoBusqueda) throws NegocioException;
@@ -26,4 +62,18 @@ public interface IVarianteProductoNegocio {
     public List<VarianteProductoDTO> buscarVariantesPorCategoriaYNombreProducto(int idCategoria, String nombre, int pagina, int tamañoPagina) throws NegocioException ;
 
     public long contarVariantesPorCategoriaYNombreProducto(int idCategoria, String nombre) throws NegocioException;
+
+    /**
+     * Descarta de la caché de códigos de barras las variantes indicadas.
+     */
+    void invalidarCache(Collection<String> codigosBarra);
+
+    /**
+     * Vuelve a leer las variantes del producto para la búsqueda y la caché
+     * de códigos de barras, que guardan el nombre del producto; las que ya
+     * no existen se quitan.
+     */
+    void refrescarProducto(Long productoId);
+
+    EstadisticasCache obtenerEstadisticasCache();
 }
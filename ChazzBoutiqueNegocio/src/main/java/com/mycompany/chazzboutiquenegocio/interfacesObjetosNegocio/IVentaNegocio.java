@@ -15,4 +15,14 @@ public interface IVentaNegocio {
      public VentaDTO registrarVenta( VentaDTO ventaDTO) throws NegocioException;
      public VentaDTO obtenerVentaConDetalles(Long ventaId) throws NegocioException;
 
+     /**
+      * Registra a quien debe enterarse de que una venta descontó stock.
+      */
+     public void agregarObservadorInventario(IObservadorInventario observador);
+
+     /**
+      * Registra a quien debe enterarse de cada venta confirmada.
+      */
+     public void agregarObservadorVentas(IObservadorVentas observador);
+
 }
@@ -1,5 +1,7 @@
 package com.mycompany.chazzboutiquenegocio.objetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.cache.CacheLRU;
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
 import com.mycompany.chazzboutiquenegocio.dtos.CategoriaDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.ICategoriaNegocio;
@@ -12,10 +14,24 @@ import java.util.stream.Collectors;
 
 public class CategoriaNegocio implements ICategoriaNegocio {
 
+    public static final long TTL_LISTADO_POR_DEFECTO_MS = 600_000;
+    private static final String CLAVE_LISTADO = "todas";
+
     private final ICategoriaDAO categoriaDAO;
 
+    /**
+     * Listado completo de categorías. Las escrituras hechas aquí lo
+     * invalidan; las de otro proceso se ven al caducar.
+     */
+    private final CacheLRU<String, List<CategoriaDTO>> cacheListado;
+
     public CategoriaNegocio(ICategoriaDAO categoriaDAO) {
+        this(categoriaDAO, TTL_LISTADO_POR_DEFECTO_MS);
+    }
+
+    public CategoriaNegocio(ICategoriaDAO categoriaDAO, long ttlListadoMs) {
         this.categoriaDAO = categoriaDAO;
+        this.cacheListado = new CacheLRU<>("categorias.listado", 1, ttlListadoMs);
     }
 
     @Override
@@ -28,6 +44,7 @@ public class CategoriaNegocio implements ICategoriaNegocio {
 
         try {
             categoriaDAO.crearCategoria(categoria);
+            cacheListado.limpiar();
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al crear categoría", e);
         }
@@ -42,6 +59,7 @@ public class CategoriaNegocio implements ICategoriaNegocio {
             categoria.setImagenCategoria(dto.getImagenCategoria());
 
             categoriaDAO.actualizarCategoria(categoria);
+            cacheListado.limpiar();
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al actualizar categoría", e);
         }
@@ -57,6 +75,7 @@ public class CategoriaNegocio implements ICategoriaNegocio {
             }
 
             categoriaDAO.eliminarCategoria(id);
+            cacheListado.limpiar();
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al eliminar la categoría", e);
         }
@@ -64,13 +83,22 @@ public class CategoriaNegocio implements ICategoriaNegocio {
 
     @Override
     public List<CategoriaDTO> obtenerCategorias() throws NegocioException {
-        try {
-            List<Categoria> categorias = categoriaDAO.obtenerTodasCategorias();
-            return categorias.stream()
-                    .map(cat -> new CategoriaDTO(cat.getId(), cat.getNombreCategoria(), cat.getDescripcionCategoria(), cat.getImagenCategoria()))
-                    .collect(Collectors.toList());
-        } catch (PersistenciaException e) {
-            throw new NegocioException("Error al obtener categorías", e);
-        }
+        List<CategoriaDTO> categorias = cacheListado.obtener(CLAVE_LISTADO, k -> {
+            try {
+                return categoriaDAO.obtenerTodasCategorias().stream()
+                        .map(cat -> new CategoriaDTO(cat.getId(), cat.getNombreCategoria(), cat.getDescripcionCategoria(), cat.getImagenCategoria()))
+                        .collect(Collectors.toList());
+            } catch (PersistenciaException e) {
+                throw new NegocioException("Error al obtener categorías", e);
+            }
+        });
+        return categorias.stream()
+                .map(c -> new CategoriaDTO(c.getId(), c.getNombreCategoria(), c.getDescripcionCategoria(), c.getImagenCategoria()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public EstadisticasCache obtenerEstadisticasCache() {
+        return cacheListado.obtenerEstadisticas();
     }
 }
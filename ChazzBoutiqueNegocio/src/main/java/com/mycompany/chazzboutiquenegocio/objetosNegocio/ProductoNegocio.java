@@ -1,7 +1,11 @@
 package com.mycompany.chazzboutiquenegocio.objetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.busqueda.Buscador;
+import com.mycompany.chazzboutiquenegocio.cache.CacheLRU;
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
 import com.mycompany.chazzboutiquenegocio.dtos.ProductoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IObservadorProductos;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IProductoNegocio;
 import com.mycompany.chazzboutiquepersistencia.dominio.Categoria;
 import com.mycompany.chazzboutiquepersistencia.dominio.Producto;
@@ -12,19 +16,48 @@ import com.mycompany.chazzboutiquepersistencia.interfacesDAO.ICategoriaDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IProveedorDAO;
 import java.time.LocalDate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class ProductoNegocio implements IProductoNegocio {
 
+    public static final long TTL_LISTADO_POR_DEFECTO_MS = 300_000;
+    private static final String CLAVE_LISTADO = "todos";
+
     private final IProductoDAO productoDAO;
     private final ICategoriaDAO categoriaDAO;
     private final IProveedorDAO proveedorDAO;
 
+    /**
+     * Búsqueda por subcadena sobre el nombre, sin distinguir mayúsculas ni
+     * acentos, y autocompletado por prefijo del nombre.
+     */
+    private final Buscador<ProductoDTO> buscador;
+
+    /**
+     * Listado completo de productos. Las escrituras hechas aquí lo
+     * invalidan; las de otro proceso se ven al caducar.
+     */
+    private final CacheLRU<String, List<ProductoDTO>> cacheListado;
+
+    private final List<IObservadorProductos> observadoresProductos = new CopyOnWriteArrayList<>();
+
     public ProductoNegocio(IProductoDAO productoDAO, ICategoriaDAO categoriaDAO, IProveedorDAO proveedorDAO) {
+        this(productoDAO, categoriaDAO, proveedorDAO, TTL_LISTADO_POR_DEFECTO_MS);
+    }
+
+    public ProductoNegocio(IProductoDAO productoDAO, ICategoriaDAO categoriaDAO, IProveedorDAO proveedorDAO,
+            long ttlListadoMs) {
+        this.cacheListado = new CacheLRU<>("productos.listado", 1, ttlListadoMs);
         this.productoDAO = productoDAO;
         this.categoriaDAO = categoriaDAO;
         this.proveedorDAO = proveedorDAO;
+        this.buscador = new Buscador<>("productos", this::obtenerTodosProductos, Buscador.REFRESCO_POR_DEFECTO_MS,
+                ProductoDTO::getId, ProductoDTO::getNombreProducto, p -> new String[]{p.getNombreProducto()}, 1);
     }
 
     @Override
@@ -63,33 +96,45 @@ public class ProductoNegocio implements IProductoNegocio {
 
     @Override
     public List<ProductoDTO> buscarPorNombre(String nombre) throws NegocioException {
-        try {
-            if (nombre == null || nombre.trim().isEmpty()) {
-                throw new NegocioException("El nombre de búsqueda no puede estar vacío");
-            }
-
-            List<Producto> productosEntidad = productoDAO.buscarPorNombre(nombre);
-            List<ProductoDTO> productosDTO = convertirEntidadesADTOs(productosEntidad);
+        if (nombre == null || nombre.trim().isEmpty()) {
+            throw new NegocioException("El nombre de búsqueda no puede estar vacío");
+        }
 
-            if (productosDTO.isEmpty()) {
-                throw new NegocioException("No se encontraron productos con ese nombre");
-            }
+        List<ProductoDTO> encontrados = buscador.buscar(nombre, null, "todos");
+        if (encontrados.isEmpty()) {
+            throw new NegocioException("No se encontraron productos con ese nombre");
+        }
 
-            return productosDTO;
+        return copiar(encontrados);
+    }
 
-        } catch (PersistenciaException e) {
-            throw new NegocioException("Error al acceder a los datos: " + e.getMessage(), e);
+    @Override
+    public List<ProductoDTO> autocompletar(String texto, int limite) throws NegocioException {
+        if (texto == null || limite <= 0) {
+            return new ArrayList<>();
         }
+        return copiar(buscador.autocompletar(texto, limite));
     }
 
     @Override
     public List<ProductoDTO> obtenerTodosProductos() throws NegocioException {
-        try {
-            List<Producto> entidades = productoDAO.obtenerTodosProductos();
-            return convertirEntidadesADTOs(entidades);
-        } catch (PersistenciaException e) {
-            throw new NegocioException("Error al recuperar productos: " + e.getMessage());
+        return copiar(cacheListado.obtener(CLAVE_LISTADO, k -> {
+            try {
+                List<Producto> entidades = productoDAO.obtenerTodosProductos();
+                return convertirEntidadesADTOs(entidades);
+            } catch (PersistenciaException e) {
+                throw new NegocioException("Error al recuperar productos: " + e.getMessage());
+            }
+        }));
+    }
+
+    private static List<ProductoDTO> copiar(List<ProductoDTO> compartidos) {
+        List<ProductoDTO> productosDTO = new ArrayList<>(compartidos.size());
+        for (ProductoDTO p : compartidos) {
+            productosDTO.add(new ProductoDTO(p.getId(), p.getNombreProducto(), p.getDescripcionProducto(),
+                    p.getFechaCreacion(), p.getCategoriaId(), p.getProveedorId()));
         }
+        return productosDTO;
     }
 
     @Override
@@ -108,6 +153,8 @@ public class ProductoNegocio implements IProductoNegocio {
             );
 
             productoDAO.crearProducto(producto);
+            cacheListado.limpiar();
+            buscador.guardar(convertirAProductoDTO(producto));
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al crear producto.", e);
         }
@@ -129,6 +176,9 @@ public class ProductoNegocio implements IProductoNegocio {
             );
 
             productoDAO.actualizarProducto(producto);
+            cacheListado.limpiar();
+            buscador.guardar(convertirAProductoDTO(producto));
+            notificarProductoModificado(producto.getId());
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al actualizar producto.", e);
         }
@@ -138,11 +188,31 @@ public class ProductoNegocio implements IProductoNegocio {
     public void eliminarProducto(Long id) throws NegocioException {
         try {
             productoDAO.eliminarProducto(id);
+            cacheListado.limpiar();
+            buscador.eliminar(id);
+            notificarProductoModificado(id);
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al eliminar producto.", e);
         }
     }
 
+    @Override
+    public void agregarObservadorProductos(IObservadorProductos observador) {
+        if (observador != null) {
+            observadoresProductos.add(observador);
+        }
+    }
+
+    private void notificarProductoModificado(Long productoId) {
+        for (IObservadorProductos o : observadoresProductos) {
+            try {
+                o.productoModificado(productoId);
+            } catch (RuntimeException e) {
+                Logger.getLogger(ProductoNegocio.class.getName()).log(Level.WARNING, "Observador de productos falló", e);
+            }
+        }
+    }
+
     public List<ProductoDTO> convertirEntidadesADTOs(List<Producto> productos) {
         return productos.stream()
                 .map(this::convertirAProductoDTO)
@@ -152,4 +222,9 @@ public class ProductoNegocio implements IProductoNegocio {
     public ProductoDTO convertirEntidadADTO(Producto entidad) {
         return convertirAProductoDTO(entidad);
     }
+
+    @Override
+    public EstadisticasCache obtenerEstadisticasCache() {
+        return cacheListado.obtenerEstadisticas();
+    }
 } 
@@ -1,9 +1,10 @@
 package com.mycompany.chazzboutiquenegocio.objetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.cache.CacheLRU;
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
 import com.mycompany.chazzboutiquenegocio.dtos.ProveedorDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IProveedorNegocio;
-import com.mycompany.chazzboutiquepersistencia.dominio.Proveedor;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IProveedorDAO;
 
@@ -12,21 +13,44 @@ import java.util.stream.Collectors;
 
 public class ProveedorNegocio implements IProveedorNegocio {
 
+    public static final long TTL_LISTADO_POR_DEFECTO_MS = 600_000;
+    private static final String CLAVE_LISTADO = "todos";
+
     private final IProveedorDAO proveedorDAO;
 
+    /**
+     * Listado completo de proveedores; aquí no se escriben proveedores, así
+     * que solo se renueva al caducar.
+     */
+    private final CacheLRU<String, List<ProveedorDTO>> cacheListado;
+
     public ProveedorNegocio(IProveedorDAO proveedorDAO) {
+        this(proveedorDAO, TTL_LISTADO_POR_DEFECTO_MS);
+    }
+
+    public ProveedorNegocio(IProveedorDAO proveedorDAO, long ttlListadoMs) {
         this.proveedorDAO = proveedorDAO;
+        this.cacheListado = new CacheLRU<>("proveedores.listado", 1, ttlListadoMs);
     }
 
     @Override
     public List<ProveedorDTO> obtenerProveedores() throws NegocioException {
-        try {
-            List<Proveedor> proveedores = proveedorDAO.obtenerTodos();
-            return proveedores.stream()
-                    .map(p -> new ProveedorDTO(p.getId(), p.getNombre()))
-                    .collect(Collectors.toList());
-        } catch (PersistenciaException e) {
-            throw new NegocioException("Error al obtener proveedores", e);
-        }
+        List<ProveedorDTO> proveedores = cacheListado.obtener(CLAVE_LISTADO, k -> {
+            try {
+                return proveedorDAO.obtenerTodos().stream()
+                        .map(p -> new ProveedorDTO(p.getId(), p.getNombre()))
+                        .collect(Collectors.toList());
+            } catch (PersistenciaException e) {
+                throw new NegocioException("Error al obtener proveedores", e);
+            }
+        });
+        return proveedores.stream()
+                .map(p -> new ProveedorDTO(p.getId(), p.getNombre()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public EstadisticasCache obtenerEstadisticasCache() {
+        return cacheListado.obtenerEstadisticas();
     }
 }
@@ -4,62 +4,514 @@
  */
 package com.mycompany.chazzboutiquenegocio.objetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.analitica.MasVendidosEnVivo;
+import com.mycompany.chazzboutiquenegocio.analitica.MotorAnalitico;
+import com.mycompany.chazzboutiquenegocio.cache.CacheLRU;
+import com.mycompany.chazzboutiquenegocio.dtos.MasVendidoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IReporteNegocio;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoInventario;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoVenta;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteCategoriaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteDiaHoraDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteInventarioDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVendedorDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVentaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtos.EstadoResumenesDTO;
+import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.ConsumidorFilas;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IReporteDAO;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IResumenVentasDAO;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
+ * Con un {@link MotorAnalitico} ya cargado, los reportes por rango se
+ * calculan en memoria con él. Sin motor (o mientras carga), guardan en caché el resultado de la parte del rango
+ * anterior a hoy: esos días ya no reciben ventas (y las ventas no se
+ * editan), así que el resultado no caduca. Solo la parte de hoy en adelante
+ * se consulta cada vez y se combina con lo guardado; un reporte del mes en
+ * curso consulta únicamente el día de hoy. La exportación
+ * ({@code recorrer*}) no pasa por la caché.
  *
  * @author carli
  */
 public class ReporteNegocio implements IReporteNegocio {
 
+    private static final Logger LOG = Logger.getLogger(ReporteNegocio.class.getName());
+
+    /**
+     * Cada día se reconstruye en su propia transacción; un rango más largo
+     * se pide por partes.
+     */
+    private static final int MAX_DIAS_RECONSTRUIR = 366;
+
+    /**
+     * Rangos distintos guardados por tipo de reporte.
+     */
+    static final int CAPACIDAD_CACHE = 64;
+
+    /**
+     * El reporte de ventas tiene una fila por venta: se guardan menos rangos
+     * y ninguno con más filas que {@link #MAX_VENTAS_EN_CACHE}.
+     */
+    static final int CAPACIDAD_CACHE_VENTAS = 16;
+    static final int MAX_VENTAS_EN_CACHE = 20_000;
+
+    /**
+     * Filas por página de {@link #obtenerPaginaVentas} y
+     * {@link #obtenerPaginaInventario}.
+     */
+    public static final int MAX_FILAS_PAGINA = 1000;
+
+    public static final int MAX_MAS_VENDIDOS = 50;
+
     private IReporteDAO reporteDAO;
+    private final IResumenVentasDAO resumenVentasDAO;
+    private final MotorAnalitico motor;
+    private final MasVendidosEnVivo masVendidos;
+
+    private final CacheLRU<String, List<ReporteVentaDTO>> cacheVentas
+            = new CacheLRU<>("reportes.ventas", CAPACIDAD_CACHE_VENTAS);
+    private final CacheLRU<String, List<ReporteProductoDTO>> cacheProductos
+            = new CacheLRU<>("reportes.productos", CAPACIDAD_CACHE);
+    private final CacheLRU<String, Categorias> cacheCategorias
+            = new CacheLRU<>("reportes.categorias", CAPACIDAD_CACHE);
+    private final CacheLRU<String, List<ReporteVendedorDTO>> cacheVendedores
+            = new CacheLRU<>("reportes.vendedores", CAPACIDAD_CACHE);
+
+    /**
+     * Ingresos por categoría de un tramo, con el total de ventas del tramo
+     * para poder recalcular los porcentajes al combinar.
+     */
+    private static final class Categorias {
+
+        final List<ReporteCategoriaDTO> filas;
+        final BigDecimal total;
+
+        Categorias(List<ReporteCategoriaDTO> filas, BigDecimal total) {
+            this.filas = filas;
+            this.total = total;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Consulta<R> {
+
+        R consultar(LocalDate fechaInicio, LocalDate fechaFin) throws Exception;
+    }
 
     public ReporteNegocio(IReporteDAO reporteDAO) {
+        this(reporteDAO, null);
+    }
+
+    public ReporteNegocio(IReporteDAO reporteDAO, IResumenVentasDAO resumenVentasDAO) {
+        this(reporteDAO, resumenVentasDAO, null);
+    }
+
+    public ReporteNegocio(IReporteDAO reporteDAO, IResumenVentasDAO resumenVentasDAO, MotorAnalitico motor) {
+        this(reporteDAO, resumenVentasDAO, motor, null);
+    }
+
+    public ReporteNegocio(IReporteDAO reporteDAO, IResumenVentasDAO resumenVentasDAO, MotorAnalitico motor,
+            MasVendidosEnVivo masVendidos) {
         this.reporteDAO = reporteDAO;
+        this.resumenVentasDAO = resumenVentasDAO;
+        this.motor = motor;
+        this.masVendidos = masVendidos;
     }
 
     @Override
     public List<ReporteVentaDTO> obtenerDatosVentas(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        if (usarMotor()) {
+            return motor.ventas(fechaInicio, fechaFin);
+        }
+        return porTramos(fechaInicio, fechaFin, cacheVentas,
+                (desde, hasta) -> List.copyOf(reporteDAO.obtenerDatosVentas(desde, hasta)),
+                ventas -> ventas.size() <= MAX_VENTAS_EN_CACHE,
+                // Las dos partes vienen de la más reciente a la más antigua
+                (cerrado, abierto) -> {
+                    List<ReporteVentaDTO> ventas = new ArrayList<>(abierto.size() + cerrado.size());
+                    ventas.addAll(abierto);
+                    ventas.addAll(cerrado);
+                    return ventas;
+                },
+                "Error al obtener reporte de ventas");
+    }
+
+    @Override
+    public List<ReporteProductoDTO> obtenerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        if (usarMotor()) {
+            return motor.productosMasVendidos(fechaInicio, fechaFin);
+        }
+        return porTramos(fechaInicio, fechaFin, cacheProductos,
+                (desde, hasta) -> List.copyOf(reporteDAO.obtenerProductosMasVendidos(desde, hasta)),
+                productos -> true, ReporteNegocio::combinarProductos, "Error al obtener productos más vendidos");
+    }
+
+    @Override
+    public List<ReporteCategoriaDTO> obtenerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        if (usarMotor()) {
+            return motor.ingresosPorCategoria(fechaInicio, fechaFin);
+        }
+        return porTramos(fechaInicio, fechaFin, cacheCategorias,
+                (desde, hasta) -> new Categorias(List.copyOf(reporteDAO.obtenerIngresosPorCategoria(desde, hasta)),
+                        reporteDAO.obtenerTotalVentas(desde, hasta)),
+                categorias -> true, ReporteNegocio::combinarCategorias, "Error al obtener ingresos por categoría").filas;
+    }
+
+    @Override
+    public List<ReporteVendedorDTO> obtenerTotalesPorVendedor(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        if (usarMotor()) {
+            return motor.totalesPorVendedor(fechaInicio, fechaFin);
+        }
+        return porTramos(fechaInicio, fechaFin, cacheVendedores,
+                (desde, hasta) -> List.copyOf(reporteDAO.obtenerTotalesPorVendedor(desde, hasta)),
+                vendedores -> true, ReporteNegocio::combinarVendedores, "Error al obtener totales por vendedor");
+    }
+
+    @Override
+    public List<ReporteDiaHoraDTO> obtenerVentasPorDiaYHora(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        try {
+            List<ReporteDiaHoraDTO> celdas = new ArrayList<>(reporteDAO.obtenerVentasPorDiaYHora(fechaInicio, fechaFin));
+            celdas.sort(Comparator.comparing(ReporteDiaHoraDTO::getDiaSemana).thenComparing(ReporteDiaHoraDTO::getHora));
+            return celdas;
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al obtener las ventas por día y hora", e);
+        }
+    }
+
+    @Override
+    public List<MasVendidoDTO> obtenerMasVendidosEnVivo(int dias, int limite) throws NegocioException {
+        if (masVendidos == null) {
+            throw new NegocioException("El seguimiento en vivo de los más vendidos no está habilitado");
+        }
+        if (dias < 1 || dias > MasVendidosEnVivo.DIAS) {
+            throw new NegocioException("Los días deben estar entre 1 y " + MasVendidosEnVivo.DIAS);
+        }
+        if (limite < 1 || limite > MAX_MAS_VENDIDOS) {
+            throw new NegocioException("El límite debe estar entre 1 y " + MAX_MAS_VENDIDOS);
+        }
+        return masVendidos.masVendidos(LocalDate.now(), dias, limite);
+    }
+
+    @Override
+    public List<ReporteInventarioDTO> obtenerInventarioActual() throws NegocioException {
         try {
-            return reporteDAO.obtenerDatosVentas(fechaInicio, fechaFin);
+            return reporteDAO.obtenerInventarioActual();
         } catch (Exception e) {
+            throw new NegocioException("Error al obtener el inventario actual", e);
+        }
+    }
+
+    @Override
+    public List<ReporteVentaDTO> obtenerPaginaVentas(LocalDate fechaInicio, LocalDate fechaFin, CampoVenta orden,
+            boolean descendente, int inicio, int cantidad) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        validarPagina(orden, inicio, cantidad);
+        try {
+            return reporteDAO.obtenerPaginaVentas(fechaInicio, fechaFin, orden, descendente, inicio, cantidad);
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al obtener la página de ventas", e);
+        }
+    }
+
+    @Override
+    public long contarVentas(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        try {
+            return reporteDAO.contarVentas(fechaInicio, fechaFin);
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al contar las ventas", e);
+        }
+    }
+
+    @Override
+    public List<ReporteInventarioDTO> obtenerPaginaInventario(CampoInventario orden, boolean descendente, int inicio,
+            int cantidad) throws NegocioException {
+        validarPagina(orden, inicio, cantidad);
+        try {
+            return reporteDAO.obtenerPaginaInventario(orden, descendente, inicio, cantidad);
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al obtener la página del inventario", e);
+        }
+    }
+
+    @Override
+    public long contarInventario() throws NegocioException {
+        try {
+            return reporteDAO.contarInventario();
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al contar el inventario", e);
+        }
+    }
+
+    @Override
+    public void recorrerDatosVentas(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteVentaDTO> consumidor) throws NegocioException, IOException {
+        validarRango(fechaInicio, fechaFin);
+        try {
+            reporteDAO.recorrerDatosVentas(fechaInicio, fechaFin, consumidor);
+        } catch (PersistenciaException e) {
             throw new NegocioException("Error al obtener reporte de ventas", e);
         }
     }
 
     @Override
-    public List<ReporteProductoDTO> obtenerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+    public void recorrerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteProductoDTO> consumidor) throws NegocioException, IOException {
+        validarRango(fechaInicio, fechaFin);
         try {
-            return reporteDAO.obtenerProductosMasVendidos(fechaInicio, fechaFin);
-        } catch (Exception e) {
+            reporteDAO.recorrerProductosMasVendidos(fechaInicio, fechaFin, consumidor);
+        } catch (PersistenciaException e) {
             throw new NegocioException("Error al obtener productos más vendidos", e);
         }
     }
 
     @Override
-    public List<ReporteCategoriaDTO> obtenerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+    public void recorrerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteCategoriaDTO> consumidor) throws NegocioException, IOException {
+        validarRango(fechaInicio, fechaFin);
         try {
-            return reporteDAO.obtenerIngresosPorCategoria(fechaInicio, fechaFin);
-        } catch (Exception e) {
+            reporteDAO.recorrerIngresosPorCategoria(fechaInicio, fechaFin, consumidor);
+        } catch (PersistenciaException e) {
             throw new NegocioException("Error al obtener ingresos por categoría", e);
         }
     }
 
     @Override
-    public List<ReporteInventarioDTO> obtenerInventarioActual() throws NegocioException {
+    public void recorrerInventarioActual(ConsumidorFilas<ReporteInventarioDTO> consumidor)
+            throws NegocioException, IOException {
         try {
-            return reporteDAO.obtenerInventarioActual();
-        } catch (Exception e) {
+            reporteDAO.recorrerInventarioActual(consumidor);
+        } catch (PersistenciaException e) {
             throw new NegocioException("Error al obtener el inventario actual", e);
         }
     }
 
+    /**
+     * Los días desde {@code mantenidoDesde} se actualizan con cada venta, pero
+     * ese primer día pudo tener ventas antes de la migración; por eso se
+     * reconstruye también, una vez que termina. Se avanza día por día y se
+     * marca el progreso, así una interrupción no obliga a empezar de nuevo.
+     */
+    @Override
+    public synchronized int completarResumenes() throws NegocioException {
+        if (resumenVentasDAO == null) {
+            return 0;
+        }
+        try {
+            EstadoResumenesDTO estado = resumenVentasDAO.obtenerEstado();
+            if (estado.isCompleto()) {
+                return 0;
+            }
+            LocalDate ayer = LocalDate.now().minusDays(1);
+            LocalDate hasta = estado.getMantenidoDesde().isBefore(ayer) ? estado.getMantenidoDesde() : ayer;
+            LocalDate desde = estado.getReconstruidoHasta() == null ? null : estado.getReconstruidoHasta().plusDays(1);
+
+            int dias = 0;
+            for (LocalDate dia : resumenVentasDAO.diasConVentas(desde, hasta)) {
+                resumenVentasDAO.reconstruirDia(dia);
+                resumenVentasDAO.marcarReconstruidoHasta(dia);
+                dias++;
+            }
+            if (!hasta.isBefore(estado.getMantenidoDesde())) {
+                resumenVentasDAO.marcarReconstruidoHasta(hasta);
+            }
+            LOG.info("Resúmenes de ventas completados: " + dias + " días reconstruidos hasta el " + hasta);
+            return dias;
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al completar los resúmenes de ventas", e);
+        }
+    }
+
+    @Override
+    public synchronized int reconstruirResumenes(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        validarRango(fechaInicio, fechaFin);
+        if (resumenVentasDAO == null) {
+            throw new NegocioException("Los resúmenes de ventas no están habilitados");
+        }
+        if (fechaInicio.plusDays(MAX_DIAS_RECONSTRUIR).isBefore(fechaFin)) {
+            throw new NegocioException("Se pueden reconstruir a lo más " + MAX_DIAS_RECONSTRUIR + " días a la vez");
+        }
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        LocalDate hasta = fechaFin.isAfter(ayer) ? ayer : fechaFin;
+        int dias = 0;
+        try {
+            // También los días sin ventas, para borrar lo que hubiera quedado
+            for (LocalDate dia = fechaInicio; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+                resumenVentasDAO.reconstruirDia(dia);
+                dias++;
+            }
+            return dias;
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al reconstruir los resúmenes de ventas", e);
+        } finally {
+            // Si hizo falta reconstruir, lo guardado de esos días puede estar mal
+            limpiarCache();
+        }
+    }
+
+    /**
+     * Divide el rango en la parte cerrada (hasta ayer), que se toma de
+     * {@code cache} o se consulta y se guarda si cumple {@code guardar}, y la
+     * parte abierta (de hoy en adelante), que se consulta siempre; luego las
+     * combina.
+     */
+    private <R> R porTramos(LocalDate fechaInicio, LocalDate fechaFin, CacheLRU<String, R> cache,
+            Consulta<R> consulta, Predicate<R> guardar, BinaryOperator<R> combinar, String error)
+            throws NegocioException {
+        LocalDate hoy = LocalDate.now();
+        try {
+            if (!fechaInicio.isBefore(hoy)) {
+                return consulta.consultar(fechaInicio, fechaFin);
+            }
+            LocalDate finCerrado = fechaFin.isBefore(hoy) ? fechaFin : hoy.minusDays(1);
+            // La caché no guarda null: lo que no se debe guardar se entrega por aquí
+            List<R> sinGuardar = new ArrayList<>(1);
+            R cerrado = cache.obtener(fechaInicio + ".." + finCerrado, clave -> {
+                R valor = consultarParaCache(consulta, fechaInicio, finCerrado, error);
+                if (guardar.test(valor)) {
+                    return valor;
+                }
+                sinGuardar.add(valor);
+                return null;
+            });
+            if (cerrado == null) {
+                // Vacío si otro hilo hizo la consulta y no la guardó
+                cerrado = sinGuardar.isEmpty() ? consulta.consultar(fechaInicio, finCerrado) : sinGuardar.get(0);
+            }
+            if (finCerrado.equals(fechaFin)) {
+                return cerrado;
+            }
+            return combinar.apply(cerrado, consulta.consultar(hoy, fechaFin));
+        } catch (NegocioException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new NegocioException(error, e);
+        }
+    }
+
+    private static <R> R consultarParaCache(Consulta<R> consulta, LocalDate fechaInicio, LocalDate fechaFin,
+            String error) throws NegocioException {
+        try {
+            return consulta.consultar(fechaInicio, fechaFin);
+        } catch (Exception e) {
+            throw new NegocioException(error, e);
+        }
+    }
+
+    private static List<ReporteProductoDTO> combinarProductos(List<ReporteProductoDTO> cerrado,
+            List<ReporteProductoDTO> abierto) {
+        Map<List<String>, ReporteProductoDTO> porProducto = new LinkedHashMap<>();
+        for (List<ReporteProductoDTO> parte : List.of(cerrado, abierto)) {
+            for (ReporteProductoDTO p : parte) {
+                porProducto.merge(List.of(p.getNombreProducto(), p.getCategoria()),
+                        new ReporteProductoDTO(p.getNombreProducto(), p.getCantidadVendida(), p.getTotalVendido(), p.getCategoria()),
+                        (a, b) -> new ReporteProductoDTO(a.getNombreProducto(),
+                                a.getCantidadVendida() + b.getCantidadVendida(),
+                                a.getTotalVendido().add(b.getTotalVendido()), a.getCategoria()));
+            }
+        }
+        List<ReporteProductoDTO> productos = new ArrayList<>(porProducto.values());
+        productos.sort(Comparator.comparing(ReporteProductoDTO::getCantidadVendida).reversed());
+        return productos;
+    }
+
+    private static Categorias combinarCategorias(Categorias cerrado, Categorias abierto) {
+        BigDecimal total = cerrado.total.add(abierto.total);
+        BigDecimal divisor = total.signum() == 0 ? BigDecimal.ONE : total;
+        Map<String, ReporteCategoriaDTO> porCategoria = new LinkedHashMap<>();
+        for (Categorias parte : List.of(cerrado, abierto)) {
+            for (ReporteCategoriaDTO c : parte.filas) {
+                porCategoria.merge(c.getNombreCategoria(),
+                        new ReporteCategoriaDTO(c.getNombreCategoria(), c.getVentasTotales(), c.getIngresos(), null),
+                        (a, b) -> new ReporteCategoriaDTO(a.getNombreCategoria(),
+                                a.getVentasTotales() + b.getVentasTotales(), a.getIngresos().add(b.getIngresos()), null));
+            }
+        }
+        List<ReporteCategoriaDTO> categorias = new ArrayList<>(porCategoria.values());
+        for (ReporteCategoriaDTO c : categorias) {
+            c.setPorcentaje(c.getIngresos().multiply(BigDecimal.valueOf(100)).divide(divisor, 2, RoundingMode.HALF_UP));
+        }
+        categorias.sort(Comparator.comparing(ReporteCategoriaDTO::getIngresos).reversed());
+        return new Categorias(categorias, total);
+    }
+
+    private static List<ReporteVendedorDTO> combinarVendedores(List<ReporteVendedorDTO> cerrado,
+            List<ReporteVendedorDTO> abierto) {
+        Map<String, ReporteVendedorDTO> porVendedor = new LinkedHashMap<>();
+        for (List<ReporteVendedorDTO> parte : List.of(cerrado, abierto)) {
+            for (ReporteVendedorDTO v : parte) {
+                porVendedor.merge(v.getVendedor(), new ReporteVendedorDTO(v.getVendedor(), v.getVentas(), v.getTotal()),
+                        (a, b) -> new ReporteVendedorDTO(a.getVendedor(), a.getVentas() + b.getVentas(),
+                                a.getTotal().add(b.getTotal())));
+            }
+        }
+        List<ReporteVendedorDTO> vendedores = new ArrayList<>(porVendedor.values());
+        vendedores.sort(Comparator.comparing(ReporteVendedorDTO::getTotal).reversed());
+        return vendedores;
+    }
+
+    /**
+     * El motor se usa ya cargado y puesto al día con las ventas recientes; si
+     * no se puede poner al día, el reporte sale de la base.
+     */
+    private boolean usarMotor() {
+        if (motor == null || !motor.isCargado()) {
+            return false;
+        }
+        try {
+            motor.sincronizar();
+            return true;
+        } catch (NegocioException e) {
+            LOG.log(Level.WARNING, "No se pudo actualizar el motor de análisis; el reporte sale de la base", e);
+            return false;
+        }
+    }
+
+    private void limpiarCache() {
+        cacheVentas.limpiar();
+        cacheProductos.limpiar();
+        cacheCategorias.limpiar();
+        cacheVendedores.limpiar();
+    }
+
+    private static void validarRango(LocalDate fechaInicio, LocalDate fechaFin) throws NegocioException {
+        if (fechaInicio == null || fechaFin == null) {
+            throw new NegocioException("Las fechas de inicio y fin son obligatorias");
+        }
+        if (fechaInicio.isAfter(fechaFin)) {
+            throw new NegocioException("La fecha de inicio no puede ser posterior a la fecha de fin");
+        }
+    }
+
+    private static void validarPagina(Enum<?> orden, int inicio, int cantidad) throws NegocioException {
+        if (orden == null) {
+            throw new NegocioException("El orden de la página es obligatorio");
+        }
+        if (inicio < 0) {
+            throw new NegocioException("El inicio de la página no puede ser negativo");
+        }
+        if (cantidad < 1 || cantidad > MAX_FILAS_PAGINA) {
+            throw new NegocioException("El tamaño de página debe estar entre 1 y " + MAX_FILAS_PAGINA);
+        }
+    }
 }
@@ -1,43 +1,277 @@
 package com.mycompany.chazzboutiquenegocio.objetosNegocio;
 
+import com.mycompany.chazzboutiquenegocio.busqueda.Buscador;
+import com.mycompany.chazzboutiquenegocio.busqueda.NombresColor;
+import com.mycompany.chazzboutiquenegocio.cache.CacheLRU;
+import com.mycompany.chazzboutiquenegocio.cache.EstadisticasCache;
+import com.mycompany.chazzboutiquenegocio.dtos.PaginaDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VarianteProductoDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVarianteProductoNegocio;
 import com.mycompany.chazzboutiquepersistencia.dominio.Producto;
 import com.mycompany.chazzboutiquepersistencia.dominio.VarianteProducto;
+import com.mycompany.chazzboutiquepersistencia.dtos.PaginaCursorDTO;
+import com.mycompany.chazzboutiquepersistencia.dtos.VarianteResumenDTO;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IProductoDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IVarianteProductoDAO;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class VarianteProductoNegocio implements IVarianteProductoNegocio {
 
     private final IVarianteProductoDAO varianteProductoDAO;
     private final IProductoDAO productoDAO;
 
+    public static final int CAPACIDAD_CACHE_POR_DEFECTO = 5000;
+    public static final long TTL_CACHE_POR_DEFECTO_MS = 60_000;
+    private static final long TTL_CONTEOS_MS = 30_000;
+
+    /**
+     * Tipos de cursor: último id visto (recorrido por la base) o posición en
+     * el resultado del índice de búsqueda.
+     */
+    private static final char CURSOR_LLAVE = 'k';
+    private static final char CURSOR_POSICION = 'p';
+
+    /**
+     * Variantes por código de barras. Se invalida al crear, actualizar o
+     * eliminar variantes y cuando una venta descuenta stock; el TTL acota lo
+     * viejo que puede estar el stock si otro proceso (la API o el POS)
+     * modifica la misma base.
+     */
+    private final CacheLRU<String, VarianteProductoDTO> cachePorCodigo;
+
+    /**
+     * Búsqueda por subcadena sobre nombre del producto, nombre del color y
+     * talla, sin distinguir mayúsculas ni acentos.
+     */
+    private final Buscador<VarianteProductoDTO> buscador;
+
+    /**
+     * Códigos cuyo stock cambió y falta releer para el índice de búsqueda.
+     * Se atienden en un hilo aparte, varios cambios en una sola consulta,
+     * para no alargar el cobro.
+     */
+    private final Set<String> pendientesIndice = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refrescoProgramado = new AtomicBoolean();
+    private final ExecutorService hiloIndice = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "indice-variantes");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * Totales del catálogo por categoría para {@link #obtenerPaginaVariantes}.
+     */
+    private final CacheLRU<String, Long> cacheConteos = new CacheLRU<>("conteoVariantes", 256, TTL_CONTEOS_MS);
+
     public VarianteProductoNegocio(IVarianteProductoDAO varianteProductoDAO, IProductoDAO productoDAO) {
+        this(varianteProductoDAO, productoDAO, CAPACIDAD_CACHE_POR_DEFECTO, TTL_CACHE_POR_DEFECTO_MS);
+    }
+
+    public VarianteProductoNegocio(IVarianteProductoDAO varianteProductoDAO, IProductoDAO productoDAO,
+            int capacidadCache, long ttlCacheMs) {
         this.varianteProductoDAO = varianteProductoDAO;
         this.productoDAO = productoDAO;
+        this.cachePorCodigo = new CacheLRU<>("variantesPorCodigo", capacidadCache, ttlCacheMs);
+        this.buscador = new Buscador<>("variantes", this::cargarVariantesActivas, Buscador.REFRESCO_POR_DEFECTO_MS,
+                VarianteProductoDTO::getId,
+                v -> new String[]{v.getNombreProducto(), NombresColor.nombre(v.getColor()), v.getTalla()},
+                3, 2, 1);
     }
 
     @Override
     public VarianteProductoDTO obtenerVariantePorCodigoBarra(String codigoBarra) throws NegocioException {
+        if (codigoBarra == null) {
+            return null;
+        }
+        VarianteProductoDTO dto = cachePorCodigo.obtener(VarianteProducto.normalizarCodigo(codigoBarra), clave -> {
+            try {
+                VarianteResumenDTO variante = varianteProductoDAO.obtenerResumenPorCodigoBarra(codigoBarra);
+                return (variante != null) ? convertirA_DTO(variante) : null;
+            } catch (PersistenciaException e) {
+                throw new NegocioException("Error al obtener la variante por código de barra: " + codigoBarra, e);
+            }
+        });
+        return copiar(dto);
+    }
+
+    @Override
+    public Map<String, VarianteProductoDTO> obtenerPorCodigosBarra(Collection<String> codigosBarra) throws NegocioException {
+        if (codigosBarra == null || codigosBarra.isEmpty()) {
+            return new HashMap<>();
+        }
+        // La caché va por código normalizado; a la base y al resultado, el código como se pidió
+        Map<String, String> pedidoPorClave = new HashMap<>();
+        for (String codigo : codigosBarra) {
+            if (codigo != null) {
+                pedidoPorClave.putIfAbsent(VarianteProducto.normalizarCodigo(codigo), codigo);
+            }
+        }
+        Map<String, VarianteProductoDTO> encontradas = cachePorCodigo.obtenerTodos(pedidoPorClave.keySet(), faltantes -> {
+            try {
+                List<String> pedidos = new ArrayList<>(faltantes.size());
+                for (String clave : faltantes) {
+                    pedidos.add(pedidoPorClave.get(clave));
+                }
+                Map<String, VarianteResumenDTO> variantes = varianteProductoDAO.obtenerResumenesPorCodigosBarra(pedidos);
+                Map<String, VarianteProductoDTO> cargadas = new HashMap<>();
+                for (Map.Entry<String, VarianteResumenDTO> e : variantes.entrySet()) {
+                    cargadas.put(VarianteProducto.normalizarCodigo(e.getKey()), convertirA_DTO(e.getValue()));
+                }
+                return cargadas;
+            } catch (PersistenciaException e) {
+                throw new NegocioException("Error al obtener variantes por códigos de barra", e);
+            }
+        });
+        Map<String, VarianteProductoDTO> resultado = new HashMap<>();
+        for (String codigo : codigosBarra) {
+            VarianteProductoDTO v = (codigo == null) ? null : encontradas.get(VarianteProducto.normalizarCodigo(codigo));
+            if (v != null) {
+                resultado.put(codigo, copiar(v));
+            }
+        }
+        return resultado;
+    }
+
+    @Override
+    public Map<Long, VarianteProductoDTO> obtenerPorIds(Collection<Long> ids) throws NegocioException {
+        Map<Long, VarianteProductoDTO> resultado = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return resultado;
+        }
         try {
-            VarianteProducto variante = varianteProductoDAO.obtenerPorCodigoBarra(codigoBarra);
-            return (variante != null) ? convertirA_DTO(variante) : null;
+            for (Map.Entry<Long, VarianteResumenDTO> e : varianteProductoDAO.obtenerResumenesPorIds(ids).entrySet()) {
+                resultado.put(e.getKey(), convertirA_DTO(e.getValue()));
+            }
+            return resultado;
         } catch (PersistenciaException e) {
-            throw new NegocioException("Error al obtener la variante por código de barra: " + codigoBarra, e);
+            throw new NegocioException("Error al obtener variantes por id", e);
+        }
+    }
+
+    /**
+     * Vacía la caché en el momento; el índice de búsqueda se pone al día
+     * después, en otro hilo, con el stock que tengan esas variantes en la
+     * base.
+     */
+    @Override
+    public void invalidarCache(Collection<String> codigosBarra) {
+        if (codigosBarra == null || codigosBarra.isEmpty()) {
+            return;
+        }
+        cachePorCodigo.invalidar(claves(codigosBarra));
+        if (buscador.isCargado()) {
+            pendientesIndice.addAll(codigosBarra);
+            if (refrescoProgramado.compareAndSet(false, true)) {
+                hiloIndice.execute(this::refrescarIndice);
+            }
+        }
+    }
+
+    private void refrescarIndice() {
+        // Antes de tomar los códigos: los que lleguen durante la consulta programan otra vuelta
+        refrescoProgramado.set(false);
+        List<String> codigos = new ArrayList<>(pendientesIndice);
+        if (codigos.isEmpty()) {
+            return;
+        }
+        pendientesIndice.removeAll(codigos);
+        try {
+            for (VarianteResumenDTO v : varianteProductoDAO.obtenerResumenesPorCodigosBarra(codigos).values()) {
+                buscador.guardar(convertirA_DTO(v));
+            }
+        } catch (PersistenciaException | RuntimeException e) {
+            Logger.getLogger(VarianteProductoNegocio.class.getName()).log(Level.WARNING,
+                    "No se pudo refrescar el índice de búsqueda", e);
         }
     }
 
+    @Override
+    public void refrescarProducto(Long productoId) {
+        if (productoId == null) {
+            return;
+        }
+        cachePorCodigo.invalidarSi(v -> v != null && productoId.equals(v.getProductoId()));
+        cacheConteos.limpiar();
+        if (!buscador.isCargado()) {
+            return;
+        }
+        try {
+            Set<Long> vigentes = new HashSet<>();
+            for (VarianteResumenDTO v : varianteProductoDAO.obtenerResumenesPorProducto(productoId)) {
+                VarianteProductoDTO dto = convertirA_DTO(v);
+                vigentes.add(dto.getId());
+                buscador.guardar(dto);
+            }
+            // Un producto eliminado ya no tiene variantes en la base
+            for (VarianteProductoDTO v : buscador.buscar("", doc -> productoId.equals(doc.getProductoId()), "producto=" + productoId)) {
+                if (!vigentes.contains(v.getId())) {
+                    buscador.eliminar(v.getId());
+                }
+            }
+        } catch (PersistenciaException | NegocioException e) {
+            Logger.getLogger(VarianteProductoNegocio.class.getName()).log(Level.WARNING,
+                    "No se pudieron refrescar en la búsqueda las variantes del producto " + productoId, e);
+        }
+    }
+
+    /**
+     * Llaves de {@link #cachePorCodigo}: una por variante aunque se pida con
+     * otras mayúsculas o espacios, para que invalidar la alcance siempre.
+     */
+    private static List<String> claves(Collection<String> codigosBarra) {
+        List<String> claves = new ArrayList<>(codigosBarra.size());
+        for (String codigo : codigosBarra) {
+            if (codigo != null) {
+                claves.add(VarianteProducto.normalizarCodigo(codigo));
+            }
+        }
+        return claves;
+    }
+
+    @Override
+    public EstadisticasCache obtenerEstadisticasCache() {
+        return cachePorCodigo.obtenerEstadisticas();
+    }
+
+    /**
+     * Los DTO son mutables; quien los recibe no debe poder alterar la copia
+     * que vive en la caché.
+     */
+    private VarianteProductoDTO copiar(VarianteProductoDTO o) {
+        if (o == null) {
+            return null;
+        }
+        VarianteProductoDTO c = new VarianteProductoDTO(o.getId(), o.getCodigoBarra(), o.getStock(), o.getPrecioCompra(),
+                o.getTalla(), o.getColor(), o.getPrecioVenta(), o.getProductoId(), o.getNombreProducto(),
+                o.getUrlImagen());
+        c.setCategoriaId(o.getCategoriaId());
+        return c;
+    }
+
     @Override
     public List<VarianteProductoDTO> obtenerVariantesPorProducto(Long productoId) throws NegocioException {
         try {
-            List<VarianteProducto> variantes = varianteProductoDAO.obtenerVariantesPorProducto(productoId);
-            List<VarianteProductoDTO> resultado = new ArrayList<>();
-            for (VarianteProducto variante : variantes) {
+            List<VarianteResumenDTO> variantes = varianteProductoDAO.obtenerResumenesPorProducto(productoId);
+            List<VarianteProductoDTO> resultado = new ArrayList<>(variantes.size());
+            for (VarianteResumenDTO variante : variantes) {
                 resultado.add(convertirA_DTO(variante));
             }
             return resultado;
@@ -54,12 +288,17 @@ public class VarianteProductoNegocio implements IVarianteProductoNegocio {
                 throw new NegocioException("Producto no encontrado con ID: " + dto.getProductoId());
             }
 
+            validarCodigoDisponible(dto.getCodigoBarra(), null);
+
             VarianteProducto variante = new VarianteProducto();
             llenarEntidadDesdeDTO(variante, dto);
             variante.setProducto(producto);
             variante.setEliminado(false);
 
             varianteProductoDAO.crearVariante(variante);
+            cachePorCodigo.invalidar(VarianteProducto.normalizarCodigo(variante.getCodigoBarra()));
+            cacheConteos.limpiar();
+            buscador.guardar(convertirA_DTO(variante));
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al crear variante", e);
         }
@@ -73,13 +312,31 @@ public class VarianteProductoNegocio implements IVarianteProductoNegocio {
                 throw new NegocioException("Variante no encontrada");
             }
 
+            String codigoAnterior = variante.getCodigoBarra();
+            validarCodigoDisponible(dto.getCodigoBarra(), variante.getId());
             llenarEntidadDesdeDTO(variante, dto);
             varianteProductoDAO.actualizarVarianteProducto(variante);
+            cachePorCodigo.invalidar(claves(Arrays.asList(codigoAnterior, variante.getCodigoBarra())));
+            cacheConteos.limpiar();
+            buscador.guardar(convertirA_DTO(variante));
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al actualizar variante", e);
         }
     }
 
+    /**
+     * El código de barras es único entre las variantes activas
+     * (uk_variante_codigo_barra_activo); el de una variante eliminada se
+     * puede reutilizar. Se valida antes para dar un mensaje claro en vez del
+     * error de la BD.
+     */
+    private void validarCodigoDisponible(String codigoBarra, Long idPropio) throws PersistenciaException, NegocioException {
+        VarianteProducto existente = varianteProductoDAO.obtenerPorCodigoBarra(codigoBarra);
+        if (existente != null && !existente.getId().equals(idPropio)) {
+            throw new NegocioException("Ya existe una variante con el código de barras: " + codigoBarra);
+        }
+    }
+
     @Override
     public void eliminarVariante(Long id) throws NegocioException {
         try {
@@ -89,6 +346,9 @@ public class VarianteProductoNegocio implements IVarianteProductoNegocio {
             }
 
             varianteProductoDAO.eliminarVarianteProducto(id);
+            cachePorCodigo.invalidar(VarianteProducto.normalizarCodigo(variante.getCodigoBarra()));
+            cacheConteos.limpiar();
+            buscador.eliminar(id);
         } catch (PersistenciaException e) {
             throw new NegocioException("Error al eliminar variante", e);
         }
@@ -120,12 +380,22 @@ public class VarianteProductoNegocio implements IVarianteProductoNegocio {
         );
         dto.setId(variante.getId());
         dto.setNombreProducto(variante.getProducto() != null ? variante.getProducto().getNombre() : null);
-        
+        if (variante.getProducto() != null && variante.getProducto().getCategoria() != null) {
+            dto.setCategoriaId(variante.getProducto().getCategoria().getId());
+        }
+
+        return dto;
+    }
+
+    private VarianteProductoDTO convertirA_DTO(VarianteResumenDTO v) {
+        VarianteProductoDTO dto = new VarianteProductoDTO(v.getId(), v.getCodigoBarra(), v.getStock(),
+                v.getPrecioCompra(), v.getTalla(), v.getColor(), v.getPrecioVenta(), v.getProductoId(),
+                v.getNombreProducto(), v.getUrlImagen());
+        dto.setCategoriaId(v.getCategoriaId());
         return dto;
     }
 
     private void llenarEntidadDesdeDTO(VarianteProducto entidad, VarianteProductoDTO dto) {
-        System.out.println(dto);
         entidad.setCodigoBarra(dto.getCodigoBarra());
         entidad.setStock(dto.getStock());
         entidad.setPrecioCompra(dto.getPrecioCompra());
@@ -135,59 +405,102 @@ public class VarianteProductoNegocio implements IVarianteProductoNegocio {
         entidad.setUrlImagen(dto.getUrlImagen());
     }
 
+    /**
+     * Sin filtro de texto se recorre la base por id (keyset); con filtro se
+     * pagina sobre el resultado del índice de búsqueda, que ya está en
+     * memoria y ordenado por relevancia.
+     */
     @Override
-    public List<VarianteProductoDTO> buscarVariantesPorNombreProducto(String terminoBusqueda, int pagina, int tamanoPagina) throws NegocioException {
+    public PaginaDTO<VarianteProductoDTO> obtenerPaginaVariantes(Long idCategoria, String filtro, String cursor,
+            int tamano, boolean incluirTotal) throws NegocioException {
+        if (tamano < 1) {
+            throw new NegocioException("Parámetros de paginación inválidos");
+        }
+        if (idCategoria != null && idCategoria <= 0) {
+            throw new NegocioException("El ID de la categoría debe ser mayor que cero");
+        }
+        if (filtro == null || filtro.trim().isEmpty()) {
+            return paginaPorLlave(idCategoria, leerCursor(cursor, CURSOR_LLAVE), tamano, incluirTotal);
+        }
+        return paginaPorIndice(idCategoria, filtro, leerCursor(cursor, CURSOR_POSICION), tamano, incluirTotal);
+    }
+
+    private PaginaDTO<VarianteProductoDTO> paginaPorLlave(Long idCategoria, Long despuesDeId, int tamano,
+            boolean incluirTotal) throws NegocioException {
         try {
-            List<VarianteProducto> variantes = varianteProductoDAO.buscarVariantesPorNombreProducto(terminoBusqueda, pagina, tamanoPagina);
-            List<VarianteProductoDTO> resultado = new ArrayList<>();
+            PaginaCursorDTO<VarianteResumenDTO> pagina = varianteProductoDAO
+                    .obtenerPaginaVariantes(idCategoria, despuesDeId, tamano);
+            List<VarianteProductoDTO> elementos = new ArrayList<>(pagina.getElementos().size());
+            for (VarianteResumenDTO v : pagina.getElementos()) {
+                elementos.add(convertirA_DTO(v));
+            }
+            String siguiente = pagina.isHaySiguiente() ? escribirCursor(CURSOR_LLAVE, pagina.getUltimoId()) : null;
+            Long total = incluirTotal ? cacheConteos.obtener(String.valueOf(idCategoria), k -> {
+                try {
+                    return varianteProductoDAO.contarVariantes(idCategoria);
+                } catch (PersistenciaException e) {
+                    throw new NegocioException("Error al contar variantes", e);
+                }
+            }) : null;
+            return new PaginaDTO<>(elementos, siguiente, pagina.isHaySiguiente(), total);
+        } catch (PersistenciaException e) {
+            throw new NegocioException("Error al obtener la página de variantes", e);
+        }
+    }
 
-            for (VarianteProducto variante : variantes) {
-                VarianteProductoDTO dto = new VarianteProductoDTO(
-                        variante.getCodigoBarra(),
-                        variante.getStock(),
-                        variante.getPrecioCompra(),
-                        variante.getTalla(),
-                        variante.getColor(),
-                        variante.getPrecioVenta(),
-                        variante.getProducto().getId(),
-                        variante.getUrlImagen()
-                );
+    private PaginaDTO<VarianteProductoDTO> paginaPorIndice(Long idCategoria, String filtro, Long posicion,
+            int tamano, boolean incluirTotal) throws NegocioException {
+        List<VarianteProductoDTO> todas = idCategoria == null
+                ? buscador.buscar(filtro, null, "todas")
+                : buscarEnCategoria(idCategoria.intValue(), filtro);
+        int desde = posicion == null ? 0 : (int) Math.min(posicion, todas.size());
+        int hasta = Math.min(todas.size(), desde + tamano);
+        List<VarianteProductoDTO> elementos = new ArrayList<>(hasta - desde);
+        for (int i = desde; i < hasta; i++) {
+            elementos.add(copiar(todas.get(i)));
+        }
+        boolean haySiguiente = hasta < todas.size();
+        return new PaginaDTO<>(elementos, haySiguiente ? escribirCursor(CURSOR_POSICION, hasta) : null,
+                haySiguiente, incluirTotal ? (long) todas.size() : null);
+    }
 
-                dto.setId(variante.getId());
-                dto.setNombreProducto(variante.getProducto().getNombre());
-                dto.setUrlImagen(variante.getUrlImagen()); // Ajusta según tu estructura
+    private static String escribirCursor(char tipo, long valor) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((tipo + ":" + valor).getBytes(StandardCharsets.UTF_8));
+    }
 
-                resultado.add(dto);
+    /**
+     * @return el valor del cursor, o {@code null} si no se mandó cursor.
+     * @throws NegocioException si el cursor no es de este tipo de página (p.
+     * ej. se cambió el filtro y se mandó el cursor anterior).
+     */
+    private static Long leerCursor(String cursor, char tipo) throws NegocioException {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (texto.length() < 3 || texto.charAt(0) != tipo || texto.charAt(1) != ':') {
+                throw new NegocioException("Cursor de página inválido");
             }
-
-            return resultado;
-        } catch (PersistenciaException ex) {
-            throw new NegocioException("Error al obtener variantes filtradas paginadas", ex);
+            long valor = Long.parseLong(texto.substring(2));
+            if (valor < 0) {
+                throw new NegocioException("Cursor de página inválido");
+            }
+            return valor;
+        } catch (IllegalArgumentException e) {
+            throw new NegocioException("Cursor de página inválido", e);
         }
     }
 
     @Override
-    public long contarVariantesPorNombreProducto(String terminoBusqueda) throws NegocioException {
-        try {
-            return varianteProductoDAO.contarVariantesPorNombreProducto(terminoBusqueda);
-        } catch (PersistenciaException e) {
-            throw new NegocioException("Error al contar variantes", e);
-        }
+    public List<VarianteProductoDTO> buscarVariantesPorNombreProducto(String terminoBusqueda, int pagina, int tamanoPagina) throws NegocioException {
+        return pagina(buscador.buscar(terminoBusqueda, null, "todas"), pagina, tamanoPagina);
     }
 
-    private VarianteProductoDTO convertirADTO(VarianteProducto variante) {
-        VarianteProductoDTO dto = new VarianteProductoDTO();
-        dto.setId(variante.getId());
-        dto.setCodigoBarra(variante.getCodigoBarra());
-        dto.setStock(variante.getStock());
-        dto.setPrecioCompra(variante.getPrecioCompra());
-        dto.setPrecioVenta(variante.getPrecioVenta());
-        dto.setTalla(variante.getTalla());
-        dto.setColor(variante.getColor());
-        dto.setUrlImagen(variante.getUrlImagen());
-        dto.setProductoId(variante.getProducto().getId());
-        dto.setNombreProducto(variante.getProducto().getNombre()); // asegúrate que `getNombre()` existe
-        return dto;
+    @Override
+    public long contarVariantesPorNombreProducto(String terminoBusqueda) throws NegocioException {
+        return buscador.buscar(terminoBusqueda, null, "todas").size();
     }
 
     @Override
@@ -198,16 +511,7 @@ public class VarianteProductoNegocio implements IVarianteProductoNegocio {
         if (pagina < 1 || tamañoPagina < 1) {
             throw new NegocioException("Parámetros de paginación inválidos");
         }
-
-        try {
-            String filtro = (nombre == null || nombre.trim().isEmpty()) ? "" : nombre.trim().toLowerCase();
-            List<VarianteProducto> variantes = varianteProductoDAO.buscarVariantesPorCategoriaYNombreProducto(idCategoria, filtro, pagina, tamañoPagina);
-            return variantes.stream()
-                    .map(this::convertirADTO)
-                    .toList();
-        } catch (PersistenciaException e) {
-            throw new NegocioException("Error al buscar variantes", e);
-        }
+        return pagina(buscarEnCategoria(idCategoria, nombre), pagina, tamañoPagina);
     }
 
     @Override
@@ -215,11 +519,34 @@ public class VarianteProductoNegocio implements IVarianteProductoNegocio {
         if (idCategoria <= 0) {
             throw new NegocioException("El ID de la categoría debe ser mayor que cero");
         }
+        return buscarEnCategoria(idCategoria, nombre).size();
+    }
+
+    private List<VarianteProductoDTO> buscarEnCategoria(int idCategoria, String nombre) throws NegocioException {
+        Long categoriaId = (long) idCategoria;
+        return buscador.buscar(nombre, v -> categoriaId.equals(v.getCategoriaId()), "categoria=" + idCategoria);
+    }
+
+    private List<VarianteProductoDTO> pagina(List<VarianteProductoDTO> todas, int pagina, int tamanoPagina) {
+        int desde = Math.max(0, (pagina - 1) * tamanoPagina);
+        int hasta = Math.min(todas.size(), desde + Math.max(0, tamanoPagina));
+        List<VarianteProductoDTO> resultado = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            resultado.add(copiar(todas.get(i)));
+        }
+        return resultado;
+    }
+
+    private List<VarianteProductoDTO> cargarVariantesActivas() throws NegocioException {
         try {
-            String filtro = (nombre == null || nombre.trim().isEmpty()) ? "" : nombre.trim().toLowerCase();
-            return varianteProductoDAO.contarVariantesPorCategoriaYNombreProducto(idCategoria, filtro);
+            List<VarianteResumenDTO> activas = varianteProductoDAO.obtenerResumenesActivos();
+            List<VarianteProductoDTO> todas = new ArrayList<>(activas.size());
+            for (VarianteResumenDTO v : activas) {
+                todas.add(convertirA_DTO(v));
+            }
+            return todas;
         } catch (PersistenciaException e) {
-            throw new NegocioException("Error al contar variantes", e);
+            throw new NegocioException("Error al cargar las variantes para el índice de búsqueda", e);
         }
     }
 
@@ -7,16 +7,29 @@ package com.mycompany.chazzboutiquenegocio.objetosNegocio;
 import com.mycompany.chazzboutiquenegocio.dtos.DetalleVentaDTO;
 import com.mycompany.chazzboutiquenegocio.dtos.VentaDTO;
 import com.mycompany.chazzboutiquenegocio.excepciones.NegocioException;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IObservadorInventario;
+import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IObservadorVentas;
 import com.mycompany.chazzboutiquenegocio.interfacesObjetosNegocio.IVentaNegocio;
+import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
 import com.mycompany.chazzboutiquepersistencia.dominio.DetalleVenta;
 import com.mycompany.chazzboutiquepersistencia.dominio.VarianteProducto;
 import com.mycompany.chazzboutiquepersistencia.dominio.Venta;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IDetalleVentaDAO;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IResumenVentasDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IUsuarioDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IVarianteProductoDAO;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IVentaDAO;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  *
@@ -24,46 +37,66 @@ import java.time.LocalDate;
  */
 public class VentaNegocio implements IVentaNegocio {
 
+    private final IConexionBD conexionBD;
     private final IVentaDAO ventaDAO;
     private final IDetalleVentaDAO detalleVentaDAO;
     private final IVarianteProductoDAO varianteProductoDAO;
     private final IUsuarioDAO usuarioDAO;
+    private final IResumenVentasDAO resumenVentasDAO;
+    private final List<IObservadorInventario> observadoresInventario = new CopyOnWriteArrayList<>();
+    private final List<IObservadorVentas> observadoresVentas = new CopyOnWriteArrayList<>();
 
-    public VentaNegocio(IVentaDAO ventaDAO, IDetalleVentaDAO detalleVentaDAO,
-            IVarianteProductoDAO varianteProductoDAO, IUsuarioDAO usuarioDAO) {
+    public VentaNegocio(IConexionBD conexionBD, IVentaDAO ventaDAO, IDetalleVentaDAO detalleVentaDAO,
+            IVarianteProductoDAO varianteProductoDAO, IUsuarioDAO usuarioDAO, IResumenVentasDAO resumenVentasDAO) {
+        this.conexionBD = conexionBD;
         this.ventaDAO = ventaDAO;
         this.detalleVentaDAO = detalleVentaDAO;
         this.varianteProductoDAO = varianteProductoDAO;
         this.usuarioDAO = usuarioDAO;
+        this.resumenVentasDAO = resumenVentasDAO;
     }
 
+    /**
+     * Registra la venta completa en una sola unidad de trabajo: lectura de
+     * variantes, descuento de stock e inserción de la venta se confirman
+     * juntas o no se confirma nada. El stock se descuenta con un UPDATE
+     * condicional, así dos cajas vendiendo la misma variante no pueden
+     * dejarla en negativo. Los resúmenes diarios se actualizan en la misma
+     * unidad de trabajo.
+     */
     @Override
     public VentaDTO registrarVenta(VentaDTO ventaDTO) throws NegocioException {
-        try {
-            if (ventaDTO.getDetalles() == null || ventaDTO.getDetalles().isEmpty()) {
-                throw new NegocioException("Debe agregar productos a la venta");
-            }
-
-            for (DetalleVentaDTO d : ventaDTO.getDetalles()) {
-                VarianteProducto v = varianteProductoDAO.obtenerPorCodigoBarra(d.getCodigoVariante());
-                if (v.getStock() < d.getCantidad()) {
-                    throw new NegocioException("Stock insuficiente para: " + v.getProducto().getNombre());
-                }
-            }
+        if (ventaDTO.getDetalles() == null || ventaDTO.getDetalles().isEmpty()) {
+            throw new NegocioException("Debe agregar productos a la venta");
+        }
 
+        try (UnidadTrabajo uow = conexionBD.iniciarUnidadTrabajo()) {
             Venta venta = new Venta();
-            venta.setUsuario(usuarioDAO.buscarPorId(ventaDTO.getUsuarioId()));
-            venta.setFechaVenta(LocalDate.now());
+            venta.setUsuario(usuarioDAO.buscarPorId(uow, ventaDTO.getUsuarioId()));
+            LocalDateTime ahora = LocalDateTime.now();
+            venta.setFechaVenta(ahora.toLocalDate());
+            venta.setFechaHoraVenta(ahora);
             venta.setVentaTotal(ventaDTO.getTotal());
             venta.setEstadoVenta("COMPLETADA");
             venta.setDescuento(ventaDTO.getDescuento());
             venta.setMontoPago(ventaDTO.getMontoPago());
             venta.setCambio(ventaDTO.getCambio());
-            venta.setVentaTotal(ventaDTO.getTotal());
+
+            List<String> codigos = new ArrayList<>();
+            for (DetalleVentaDTO d : ventaDTO.getDetalles()) {
+                codigos.add(d.getCodigoVariante());
+            }
+            Map<String, VarianteProducto> variantes = varianteProductoDAO.obtenerPorCodigosBarra(uow, codigos);
+
+            Map<Long, Integer> cantidadesPorVariante = new LinkedHashMap<>();
             for (DetalleVentaDTO d : ventaDTO.getDetalles()) {
-                VarianteProducto v = varianteProductoDAO.obtenerPorCodigoBarra(d.getCodigoVariante());
+                VarianteProducto v = variantes.get(d.getCodigoVariante());
+                if (v == null) {
+                    throw new NegocioException("No existe el producto con código: " + d.getCodigoVariante());
+                }
 
-                if (v.getStock() < d.getCantidad()) {
+                int acumulado = cantidadesPorVariante.merge(v.getId(), d.getCantidad(), Integer::sum);
+                if (v.getStock() < acumulado) {
                     throw new NegocioException("Stock insuficiente para: " + v.getProducto().getNombre());
                 }
 
@@ -73,13 +106,26 @@ public class VentaNegocio implements IVentaNegocio {
                 det.setPrecioUnitario(d.getPrecioUnitario());
 
                 venta.addDetalle(det);
+            }
 
-                v.setStock(v.getStock() - d.getCantidad());
-                varianteProductoDAO.actualizarVarianteProducto(v);
+            // La lectura de arriba puede estar desfasada si otra caja vendió lo mismo;
+            // el UPDATE condicional es quien decide.
+            int filas = varianteProductoDAO.descontarStock(uow, cantidadesPorVariante);
+            if (filas != cantidadesPorVariante.size()) {
+                // Lo que se creía del stock ya no es cierto; que nadie siga usando la copia vieja
+                notificarInventarioModificado(variantes.keySet());
+                throw new NegocioException("Stock insuficiente: el inventario cambió mientras se registraba la venta");
             }
 
-            venta = ventaDAO.registrarVenta(venta);
+            ventaDAO.registrarVenta(uow, venta);
+            resumenVentasDAO.acumularVenta(uow, venta);
+            uow.confirmar();
+            notificarInventarioModificado(variantes.keySet());
+            notificarVentaRegistrada(venta);
+
             ventaDTO.setId(venta.getId());
+            ventaDTO.setFecha(venta.getFechaVenta());
+            ventaDTO.setFechaHora(ahora);
             return ventaDTO;
 
         } catch (PersistenciaException ex) {
@@ -87,6 +133,40 @@ public class VentaNegocio implements IVentaNegocio {
         }
     }
 
+    @Override
+    public void agregarObservadorInventario(IObservadorInventario observador) {
+        if (observador != null) {
+            observadoresInventario.add(observador);
+        }
+    }
+
+    @Override
+    public void agregarObservadorVentas(IObservadorVentas observador) {
+        if (observador != null) {
+            observadoresVentas.add(observador);
+        }
+    }
+
+    private void notificarVentaRegistrada(Venta venta) {
+        for (IObservadorVentas o : observadoresVentas) {
+            try {
+                o.ventaRegistrada(venta);
+            } catch (RuntimeException e) {
+                Logger.getLogger(VentaNegocio.class.getName()).log(Level.WARNING, "Observador de ventas falló", e);
+            }
+        }
+    }
+
+    private void notificarInventarioModificado(Collection<String> codigosBarra) {
+        for (IObservadorInventario o : observadoresInventario) {
+            try {
+                o.inventarioModificado(codigosBarra);
+            } catch (RuntimeException e) {
+                Logger.getLogger(VentaNegocio.class.getName()).log(Level.WARNING, "Observador de inventario falló", e);
+            }
+        }
+    }
+
     @Override
     public VentaDTO obtenerVentaConDetalles(Long ventaId) throws NegocioException {
         try {
@@ -104,6 +184,7 @@ public class VentaNegocio implements IVentaNegocio {
             dto.setCambio(venta.getCambio());
 
             dto.setFecha(venta.getFechaVenta());
+            dto.setFechaHora(venta.getFechaHoraVenta());
             dto.setTotal(venta.getVentaTotal());
             dto.setEstado(venta.getEstadoVenta());
 
@@ -0,0 +1,112 @@
+package com.mycompany.chazzboutiquenegocio.tickets;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Todo lo que se imprime en el ticket de una venta, ya resuelto (nombres de
+ * artículos, totales recalculados). Se arma antes de empezar a escribir el
+ * ticket, así un error de datos todavía puede reportarse como error y no
+ * como un ticket a medias. Lo usan el PDF de la API y {@link TicketEscPos}.
+ */
+public final class DatosTicket {
+
+    // Encabezado y pie, iguales en todos los formatos
+    public static final String NEGOCIO = "CHAZZ BOUTIQUE";
+    public static final String DIRECCION = "Calle Guillermo Prieto #339, Col. Centro, Los Mochis";
+    public static final String TELEFONO_RFC = "Tel: +52 1 668 253 1651 | RFC: CHA220401XYZ";
+    public static final List<String> PIE = List.of(
+            "¡Gracias por su preferencia!",
+            "Devoluciones en 24 hrs con ticket y etiquetas",
+            "@chazz.boutique");
+
+    public static final class Renglon {
+
+        private final String articulo;
+        private final int cantidad;
+        private final BigDecimal precioUnitario;
+        private final BigDecimal total;
+
+        public Renglon(String articulo, int cantidad, BigDecimal precioUnitario, BigDecimal total) {
+            this.articulo = articulo;
+            this.cantidad = cantidad;
+            this.precioUnitario = precioUnitario;
+            this.total = total;
+        }
+
+        public String getArticulo() {
+            return articulo;
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        public BigDecimal getPrecioUnitario() {
+            return precioUnitario;
+        }
+
+        public BigDecimal getTotal() {
+            return total;
+        }
+    }
+
+    private final Long ventaId;
+    private final String fecha;
+    private final String vendedor;
+    private final List<Renglon> renglones;
+    private final BigDecimal subtotal;
+    private final BigDecimal descuento;
+    private final BigDecimal total;
+    private final BigDecimal pago;
+    private final BigDecimal cambio;
+
+    public DatosTicket(Long ventaId, String fecha, String vendedor, List<Renglon> renglones, BigDecimal subtotal,
+            BigDecimal descuento, BigDecimal total, BigDecimal pago, BigDecimal cambio) {
+        this.ventaId = ventaId;
+        this.fecha = fecha;
+        this.vendedor = vendedor;
+        this.renglones = renglones;
+        this.subtotal = subtotal;
+        this.descuento = descuento;
+        this.total = total;
+        this.pago = pago;
+        this.cambio = cambio;
+    }
+
+    public Long getVentaId() {
+        return ventaId;
+    }
+
+    public String getFecha() {
+        return fecha;
+    }
+
+    public String getVendedor() {
+        return vendedor;
+    }
+
+    public List<Renglon> getRenglones() {
+        return renglones;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public BigDecimal getDescuento() {
+        return descuento;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public BigDecimal getPago() {
+        return pago;
+    }
+
+    public BigDecimal getCambio() {
+        return cambio;
+    }
+}
@@ -0,0 +1,191 @@
+package com.mycompany.chazzboutiquenegocio.tickets;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+
+/**
+ * Ticket en comandos ESC/POS para mandarse tal cual a una impresora térmica:
+ * el mismo encabezado, artículos y totales del PDF, pero como texto a
+ * {@link #COLUMNAS_58MM} o {@link #COLUMNAS_80MM} columnas.
+ *
+ * Los acentos se mandan en la página de códigos PC850, que traen las
+ * impresoras térmicas comunes. El logo y el QR no se imprimen.
+ */
+public final class TicketEscPos {
+
+    public static final int COLUMNAS_58MM = 32;
+    public static final int COLUMNAS_80MM = 48;
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final int IZQUIERDA = 0;
+    private static final int CENTRO = 1;
+
+    /**
+     * Número de la tabla PC850 en {@code ESC t n}.
+     */
+    private static final int TABLA_PC850 = 2;
+    private static final Charset PC850 = Charset.isSupported("IBM850") ? Charset.forName("IBM850") : null;
+
+    private final int columnas;
+    private final ByteArrayOutputStream salida = new ByteArrayOutputStream(512);
+
+    private TicketEscPos(int columnas) {
+        this.columnas = columnas;
+    }
+
+    /**
+     * @param columnas {@link #COLUMNAS_58MM} o {@link #COLUMNAS_80MM}.
+     * @return los bytes listos para la impresora, incluido el corte de papel.
+     */
+    public static byte[] generar(DatosTicket datos, int columnas) {
+        if (columnas != COLUMNAS_58MM && columnas != COLUMNAS_80MM) {
+            throw new IllegalArgumentException("Columnas no soportadas: " + columnas
+                    + " (use " + COLUMNAS_58MM + " o " + COLUMNAS_80MM + ")");
+        }
+        return new TicketEscPos(columnas).escribir(datos);
+    }
+
+    private byte[] escribir(DatosTicket datos) {
+        comando(ESC, '@');
+        if (PC850 != null) {
+            comando(ESC, 't', TABLA_PC850);
+        }
+
+        // ===== HEADER =====
+        alinear(CENTRO);
+        comando(GS, '!', 0x11); // doble alto y ancho
+        comando(ESC, 'E', 1);
+        renglon(DatosTicket.NEGOCIO);
+        comando(ESC, 'E', 0);
+        comando(GS, '!', 0);
+        texto(DatosTicket.DIRECCION);
+        texto(DatosTicket.TELEFONO_RFC);
+        separador();
+
+        // ===== INFO VENTA =====
+        alinear(IZQUIERDA);
+        texto("Fecha: " + datos.getFecha());
+        texto("Ticket: #" + datos.getVentaId());
+        texto("Vendedor: " + datos.getVendedor());
+        separador();
+
+        // ===== PRODUCTOS =====
+        // A 48 columnas cabe todo en un renglón; a 32 el nombre va arriba.
+        int anchoNombre = columnas - 4 - 10 - 10 - 3;
+        boolean unRenglon = columnas >= COLUMNAS_80MM;
+        comando(ESC, 'E', 1);
+        if (unRenglon) {
+            renglon(izquierda("ARTICULO", anchoNombre) + " " + derecha("CANT", 4)
+                    + " " + derecha("P.UNIT", 10) + " " + derecha("TOTAL", 10));
+        } else {
+            renglon("ARTICULO");
+            renglon(derecha("CANT", columnas - 22) + derecha("P.UNIT", 11) + derecha("TOTAL", 11));
+        }
+        comando(ESC, 'E', 0);
+        separador();
+        for (DatosTicket.Renglon r : datos.getRenglones()) {
+            String cant = String.valueOf(r.getCantidad());
+            String precio = moneda(r.getPrecioUnitario());
+            String total = moneda(r.getTotal());
+            if (unRenglon) {
+                renglon(izquierda(r.getArticulo(), anchoNombre) + " " + derecha(cant, 4)
+                        + " " + derecha(precio, 10) + " " + derecha(total, 10));
+            } else {
+                String nombre = r.getArticulo();
+                renglon(nombre.length() > columnas ? nombre.substring(0, columnas) : nombre);
+                renglon(derecha(cant, columnas - 22) + derecha(precio, 11) + derecha(total, 11));
+            }
+        }
+
+        // ===== TOTALES =====
+        separador();
+        total("SUBTOTAL:", datos.getSubtotal());
+        total("DESCUENTO:", datos.getDescuento());
+        comando(ESC, 'E', 1);
+        total("TOTAL:", datos.getTotal());
+        comando(ESC, 'E', 0);
+        total("PAGO CON:", datos.getPago());
+        total("CAMBIO:", datos.getCambio());
+        separador();
+
+        // ===== FOOTER =====
+        alinear(CENTRO);
+        for (String linea : DatosTicket.PIE) {
+            texto(linea);
+        }
+
+        comando(ESC, 'd', 4);   // avanza el papel hasta la cuchilla
+        comando(GS, 'V', 1);    // corte parcial
+        return salida.toByteArray();
+    }
+
+    private void total(String etiqueta, BigDecimal valor) {
+        String v = moneda(valor);
+        renglon(izquierda(etiqueta, columnas - v.length()) + v);
+    }
+
+    private void separador() {
+        renglon("-".repeat(columnas));
+    }
+
+    /**
+     * Texto que puede pasar del ancho: se parte por palabras.
+     */
+    private void texto(String texto) {
+        int i = 0;
+        while (texto.length() - i > columnas) {
+            int corte = texto.lastIndexOf(' ', i + columnas);
+            if (corte <= i) {
+                renglon(texto.substring(i, i + columnas));
+                i += columnas;
+            } else {
+                renglon(texto.substring(i, corte));
+                i = corte + 1;
+            }
+        }
+        renglon(texto.substring(i));
+    }
+
+    private void renglon(String texto) {
+        byte[] b = PC850 != null ? texto.getBytes(PC850) : sinAcentos(texto).getBytes(StandardCharsets.US_ASCII);
+        salida.write(b, 0, b.length);
+        salida.write('\n');
+    }
+
+    private void alinear(int alineacion) {
+        comando(ESC, 'a', alineacion);
+    }
+
+    private void comando(int... bytes) {
+        for (int b : bytes) {
+            salida.write(b);
+        }
+    }
+
+    private static String izquierda(String s, int ancho) {
+        if (s.length() >= ancho) {
+            return s.substring(0, ancho);
+        }
+        return s + " ".repeat(ancho - s.length());
+    }
+
+    private static String derecha(String s, int ancho) {
+        if (s.length() >= ancho) {
+            return s.substring(s.length() - ancho);
+        }
+        return " ".repeat(ancho - s.length()) + s;
+    }
+
+    private static String moneda(BigDecimal cantidad) {
+        return "$" + (cantidad == null ? BigDecimal.ZERO : cantidad).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static String sinAcentos(String s) {
+        return Normalizer.normalize(s, Normalizer.Form.NFD).replaceAll("\\p{M}", "").replace('¡', '!');
+    }
+}
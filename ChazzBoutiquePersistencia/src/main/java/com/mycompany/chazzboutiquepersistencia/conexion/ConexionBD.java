@@ -4,9 +4,38 @@
  */
 package com.mycompany.chazzboutiquepersistencia.conexion;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.mycompany.chazzboutiquepersistencia.dominio.Categoria;
+import com.mycompany.chazzboutiquepersistencia.dominio.Producto;
+import com.mycompany.chazzboutiquepersistencia.dominio.Proveedor;
+import com.mycompany.chazzboutiquepersistencia.metricas.Contador;
+import com.mycompany.chazzboutiquepersistencia.metricas.Muestras;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.sql.DataSource;
+import org.eclipse.persistence.config.PersistenceUnitProperties;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.invalidation.NoExpiryCacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.Session;
 
 /**
  *
@@ -14,15 +43,112 @@ import javax.persistence.Persistence;
  */
 public class ConexionBD implements IConexionBD {
 
+    private static final Logger LOG = Logger.getLogger(ConexionBD.class.getName());
+
     private EntityManagerFactory entityManagerFactory;
+    private HikariDataSource dataSource;
+
+    private final LongAdder adquisiciones = new LongAdder();
+    private final LongAdder nanosAdquisicion = new LongAdder();
+    private final LongAccumulator maxNanosAdquisicion = new LongAccumulator(Long::max, 0L);
+    private final AtomicLong timeouts = new AtomicLong();
+    private final Contador entityManagersAbiertos = RegistroMetricas.global().contador(
+            "chazz_entitymanagers_abiertos_total", "EntityManagers creados");
+
+    /**
+     * Entidades de catálogo cuya caché compartida se configura
+     * explícitamente; las claves son las de
+     * {@link ConfiguracionPool#getPoliticaCache(String)}.
+     */
+    private static final Map<String, Class<?>> ENTIDADES_CACHE = new LinkedHashMap<>();
+
+    static {
+        ENTIDADES_CACHE.put(ConfiguracionPool.CACHE_CATEGORIAS, Categoria.class);
+        ENTIDADES_CACHE.put(ConfiguracionPool.CACHE_PROVEEDORES, Proveedor.class);
+        ENTIDADES_CACHE.put(ConfiguracionPool.CACHE_PRODUCTOS, Producto.class);
+    }
+
+    private final Map<String, PoliticaCache> politicasCache = new LinkedHashMap<>();
+    private final ContadorCache contadorCache = new ContadorCache();
 
     public ConexionBD() {
+        this(ConfiguracionPool.cargar());
+    }
+
+    public ConexionBD(ConfiguracionPool configuracion) {
         try {
-            this.entityManagerFactory = Persistence.createEntityManagerFactory("ChazzBoutique");
+            this.dataSource = crearDataSource(configuracion);
+            if (configuracion.isMigrar()) {
+                new MigradorEsquema(dataSource).migrar();
+            }
+
+            Map<String, Object> propiedades = new HashMap<>();
+            propiedades.put("javax.persistence.nonJtaDataSource", dataSource);
+            for (Map.Entry<String, Class<?>> e : ENTIDADES_CACHE.entrySet()) {
+                PoliticaCache politica = configuracion.getPoliticaCache(e.getKey());
+                if (politica != null) {
+                    politicasCache.put(e.getKey(), politica);
+                    propiedades.put(PersistenceUnitProperties.CACHE_SIZE_ + e.getValue().getSimpleName(),
+                            String.valueOf(politica.getCapacidad()));
+                }
+            }
+            this.entityManagerFactory = Persistence.createEntityManagerFactory("ChazzBoutique", propiedades);
+            aplicarPoliticasCache();
+            JpaHelper.getServerSession(entityManagerFactory).getEventManager().addListener(new ContadorTransacciones());
+            RegistroMetricas.global().agregarRecolector("conexionBD", this::recolectarMetricas);
         } catch (Exception e) {
-            System.err.println("Error al inicializar el EntityManagerFactory: " + e.getMessage());
-            e.printStackTrace();
+            // Sin base no hay nada que hacer: se liberan las conexiones ya
+            // abiertas y el arranque falla aquí, no en el primer acceso
+            LOG.log(Level.SEVERE, "Error al inicializar el EntityManagerFactory", e);
+            if (entityManagerFactory != null && entityManagerFactory.isOpen()) {
+                entityManagerFactory.close();
+            }
+            if (dataSource != null) {
+                dataSource.close();
+            }
+            throw new IllegalStateException("No se pudo inicializar la conexión a la base de datos", e);
+        }
+    }
+
+    /**
+     * La capacidad se pasa como propiedad de la unidad de persistencia; la
+     * caducidad no tiene propiedad equivalente y se pone en el descriptor.
+     * Sin caducidad, lo que otro proceso (el POS o la API) cambie en la base
+     * nunca se vería aquí.
+     */
+    private void aplicarPoliticasCache() {
+        Session sesion = JpaHelper.getServerSession(entityManagerFactory);
+        for (Map.Entry<String, PoliticaCache> e : politicasCache.entrySet()) {
+            ClassDescriptor descriptor = sesion.getDescriptor(ENTIDADES_CACHE.get(e.getKey()));
+            long ttlMs = e.getValue().getTtlMs();
+            descriptor.setCacheInvalidationPolicy(ttlMs > 0
+                    ? new TimeToLiveCacheInvalidationPolicy(ttlMs)
+                    : new NoExpiryCacheInvalidationPolicy());
         }
+        sesion.setProfiler(contadorCache);
+    }
+
+    private HikariDataSource crearDataSource(ConfiguracionPool c) {
+        HikariConfig hc = new HikariConfig();
+        hc.setPoolName(c.getNombrePool());
+        hc.setDriverClassName(c.getDriver());
+        hc.setJdbcUrl(c.getUrl());
+        hc.setUsername(c.getUsuario());
+        hc.setPassword(c.getContrasena());
+        hc.setMinimumIdle(c.getMinimoConexiones());
+        hc.setMaximumPoolSize(c.getMaximoConexiones());
+        hc.setConnectionTimeout(c.getTimeoutConexionMs());
+        hc.setIdleTimeout(c.getTimeoutInactivaMs());
+        hc.setMaxLifetime(c.getVidaMaximaMs());
+        hc.setLeakDetectionThreshold(c.getDeteccionFugasMs());
+        hc.setRegisterMbeans(true);
+        hc.setMetricsTrackerFactory(new MedidorAdquisiciones());
+
+        // Sentencias preparadas cacheadas en el driver de MySQL
+        hc.addDataSourceProperty("cachePrepStmts", "true");
+        hc.addDataSourceProperty("prepStmtCacheSize", "250");
+        hc.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        return new HikariDataSource(hc);
     }
 
     /**
@@ -37,13 +163,114 @@ public class ConexionBD implements IConexionBD {
         if (entityManagerFactory == null) {
             throw new IllegalStateException("EntityManagerFactory no esta inicializado.");
         }
+        entityManagersAbiertos.incrementar();
         return entityManagerFactory.createEntityManager();
     }
 
+    @Override
+    public UnidadTrabajo iniciarUnidadTrabajo() {
+        return new UnidadTrabajo(getEntityManager());
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        if (dataSource == null) {
+            throw new IllegalStateException("El pool de conexiones no esta inicializado.");
+        }
+        return dataSource;
+    }
+
+    @Override
+    public EstadisticasPool obtenerEstadisticasPool() {
+        long total = adquisiciones.sum();
+        double promedioMs = total == 0 ? 0d : nanosAdquisicion.sum() / (double) total / 1_000_000d;
+        double maximoMs = maxNanosAdquisicion.get() / 1_000_000d;
+
+        HikariPoolMXBean pool = (dataSource != null) ? dataSource.getHikariPoolMXBean() : null;
+        if (pool == null) {
+            return new EstadisticasPool(0, 0, 0, 0, total, promedioMs, maximoMs, timeouts.get());
+        }
+        return new EstadisticasPool(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                total,
+                promedioMs,
+                maximoMs,
+                timeouts.get()
+        );
+    }
+
+    @Override
+    public List<EstadisticasCacheEntidad> obtenerEstadisticasCache() {
+        List<EstadisticasCacheEntidad> estadisticas = new ArrayList<>();
+        for (Map.Entry<String, PoliticaCache> e : politicasCache.entrySet()) {
+            Class<?> clase = ENTIDADES_CACHE.get(e.getKey());
+            estadisticas.add(new EstadisticasCacheEntidad(e.getKey(), e.getValue(),
+                    contadorCache.aciertos(clase), contadorCache.fallos(clase)));
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Pool y caché compartida en el registro de métricas; se leen de las
+     * mismas estadísticas que {@link #obtenerEstadisticasPool()} y
+     * {@link #obtenerEstadisticasCache()}.
+     */
+    private void recolectarMetricas(Muestras m) {
+        EstadisticasPool pool = obtenerEstadisticasPool();
+        m.indicador("chazz_pool_conexiones", "Conexiones del pool por estado",
+                pool.getConexionesActivas(), "estado", "activa");
+        m.indicador("chazz_pool_conexiones", "Conexiones del pool por estado",
+                pool.getConexionesInactivas(), "estado", "inactiva");
+        m.indicador("chazz_pool_hilos_esperando", "Hilos esperando una conexión", pool.getHilosEsperando());
+        m.contador("chazz_pool_adquisiciones_total", "Conexiones prestadas por el pool", pool.getAdquisiciones());
+        m.contador("chazz_pool_timeouts_total", "Préstamos de conexión que agotaron la espera", pool.getTimeouts());
+        m.indicador("chazz_pool_adquisicion_promedio_ms", "Espera promedio por una conexión",
+                pool.getTiempoPromedioAdquisicionMs());
+        m.indicador("chazz_pool_adquisicion_maxima_ms", "Espera máxima por una conexión",
+                pool.getTiempoMaximoAdquisicionMs());
+        for (EstadisticasCacheEntidad c : obtenerEstadisticasCache()) {
+            m.contador("chazz_cache_entidad_aciertos_total", "Aciertos de la caché compartida de JPA",
+                    c.getAciertos(), "entidad", c.getEntidad());
+            m.contador("chazz_cache_entidad_fallos_total", "Fallos de la caché compartida de JPA",
+                    c.getFallos(), "entidad", c.getEntidad());
+            m.indicador("chazz_cache_entidad_tasa_aciertos", "Aciertos entre consultas a la caché compartida de JPA",
+                    c.getTasaAciertos(), "entidad", c.getEntidad());
+        }
+    }
+
     @Override
     public void closeEntityManagerFactory() {
         if (entityManagerFactory != null && entityManagerFactory.isOpen()) {
             entityManagerFactory.close();
         }
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Recibe de Hikari el tiempo que tarda cada préstamo de conexión.
+     */
+    private class MedidorAdquisiciones implements MetricsTrackerFactory, IMetricsTracker {
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return this;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            adquisiciones.increment();
+            nanosAdquisicion.add(elapsedAcquiredNanos);
+            maxNanosAdquisicion.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.incrementAndGet();
+        }
     }
 }
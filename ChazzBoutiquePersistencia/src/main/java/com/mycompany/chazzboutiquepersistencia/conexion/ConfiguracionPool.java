@@ -0,0 +1,228 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Parámetros de conexión y del pool de conexiones JDBC.
+ *
+ * Los valores se toman de {@code conexion.properties} (classpath) y pueden
+ * sobreescribirse con propiedades del sistema usando las mismas claves, por
+ * ejemplo {@code -Dchazz.db.pool.max=20}.
+ */
+public class ConfiguracionPool {
+
+    public static final String RECURSO = "conexion.properties";
+
+    public static final String URL = "chazz.db.url";
+    public static final String USUARIO = "chazz.db.usuario";
+    public static final String CONTRASENA = "chazz.db.contrasena";
+    public static final String DRIVER = "chazz.db.driver";
+    public static final String POOL_NOMBRE = "chazz.db.pool.nombre";
+    public static final String POOL_MIN = "chazz.db.pool.min";
+    public static final String POOL_MAX = "chazz.db.pool.max";
+    public static final String TIMEOUT_CONEXION_MS = "chazz.db.pool.timeoutConexionMs";
+    public static final String TIMEOUT_INACTIVA_MS = "chazz.db.pool.timeoutInactivaMs";
+    public static final String VIDA_MAXIMA_MS = "chazz.db.pool.vidaMaximaMs";
+    public static final String DETECCION_FUGAS_MS = "chazz.db.pool.deteccionFugasMs";
+    public static final String MIGRAR = "chazz.db.migrar";
+
+    /**
+     * Entidades con política explícita en la caché compartida. Cada una se
+     * configura con {@code chazz.cache.<entidad>.capacidad} y
+     * {@code chazz.cache.<entidad>.ttlMs}.
+     */
+    public static final String CACHE_CATEGORIAS = "categorias";
+    public static final String CACHE_PROVEEDORES = "proveedores";
+    public static final String CACHE_PRODUCTOS = "productos";
+    private static final String[] ENTIDADES_CACHE = {CACHE_CATEGORIAS, CACHE_PROVEEDORES, CACHE_PRODUCTOS};
+
+    private String url;
+    private String usuario;
+    private String contrasena;
+    private String driver;
+    private String nombrePool;
+    private int minimoConexiones;
+    private int maximoConexiones;
+    private long timeoutConexionMs;
+    private long timeoutInactivaMs;
+    private long vidaMaximaMs;
+    private long deteccionFugasMs;
+    private boolean migrar;
+    private final Map<String, PoliticaCache> politicasCache = new LinkedHashMap<>();
+
+    /**
+     * Valores por defecto, equivalentes a los que antes vivían en
+     * persistence.xml.
+     *
+     * @return propiedades con todas las claves conocidas.
+     */
+    public static Properties propiedadesPorDefecto() {
+        Properties p = new Properties();
+        p.setProperty(URL, "jdbc:mysql://localhost:3306/ChazzBoutique?zeroDateTimeBehavior=CONVERT_TO_NULL");
+        p.setProperty(USUARIO, "root");
+        p.setProperty(CONTRASENA, "itson");
+        p.setProperty(DRIVER, "com.mysql.cj.jdbc.Driver");
+        p.setProperty(POOL_NOMBRE, "ChazzBoutiquePool");
+        p.setProperty(POOL_MIN, "2");
+        p.setProperty(POOL_MAX, "10");
+        p.setProperty(TIMEOUT_CONEXION_MS, "5000");
+        p.setProperty(TIMEOUT_INACTIVA_MS, "300000");
+        p.setProperty(VIDA_MAXIMA_MS, "1800000");
+        p.setProperty(DETECCION_FUGAS_MS, "0");
+        p.setProperty(MIGRAR, "true");
+        // Catálogos que cambian poco: se guardan completos hasta 10 minutos
+        p.setProperty(claveCapacidadCache(CACHE_CATEGORIAS), "500");
+        p.setProperty(claveTtlCache(CACHE_CATEGORIAS), "600000");
+        p.setProperty(claveCapacidadCache(CACHE_PROVEEDORES), "500");
+        p.setProperty(claveTtlCache(CACHE_PROVEEDORES), "600000");
+        p.setProperty(claveCapacidadCache(CACHE_PRODUCTOS), "5000");
+        p.setProperty(claveTtlCache(CACHE_PRODUCTOS), "300000");
+        return p;
+    }
+
+    /**
+     * Carga la configuración: valores por defecto, después
+     * {@code conexion.properties} y al final las propiedades del sistema.
+     *
+     * @return la configuración resultante.
+     */
+    public static ConfiguracionPool cargar() {
+        return desdePropiedades(propiedadesCargadas());
+    }
+
+    /**
+     * Igual que {@link #cargar()} pero devuelve las propiedades sin
+     * interpretar, para que otra capa (p. ej. Spring) pueda aplicar sus
+     * propias sobreescrituras antes de construir la configuración.
+     *
+     * @return propiedades combinadas.
+     */
+    public static Properties propiedadesCargadas() {
+        Properties p = propiedadesPorDefecto();
+        try (InputStream in = ConfiguracionPool.class.getClassLoader().getResourceAsStream(RECURSO)) {
+            if (in != null) {
+                p.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo leer " + RECURSO + ": " + e.getMessage());
+        }
+        for (String clave : p.stringPropertyNames()) {
+            String valor = System.getProperty(clave);
+            if (valor != null) {
+                p.setProperty(clave, valor);
+            }
+        }
+        return p;
+    }
+
+    public static ConfiguracionPool desdePropiedades(Properties p) {
+        ConfiguracionPool c = new ConfiguracionPool();
+        c.url = p.getProperty(URL);
+        c.usuario = p.getProperty(USUARIO);
+        c.contrasena = p.getProperty(CONTRASENA);
+        c.driver = p.getProperty(DRIVER);
+        c.nombrePool = p.getProperty(POOL_NOMBRE);
+        c.minimoConexiones = Integer.parseInt(p.getProperty(POOL_MIN).trim());
+        c.maximoConexiones = Integer.parseInt(p.getProperty(POOL_MAX).trim());
+        c.timeoutConexionMs = Long.parseLong(p.getProperty(TIMEOUT_CONEXION_MS).trim());
+        c.timeoutInactivaMs = Long.parseLong(p.getProperty(TIMEOUT_INACTIVA_MS).trim());
+        c.vidaMaximaMs = Long.parseLong(p.getProperty(VIDA_MAXIMA_MS).trim());
+        c.deteccionFugasMs = Long.parseLong(p.getProperty(DETECCION_FUGAS_MS).trim());
+        c.migrar = Boolean.parseBoolean(p.getProperty(MIGRAR, "true").trim());
+        for (String entidad : ENTIDADES_CACHE) {
+            c.politicasCache.put(entidad, new PoliticaCache(
+                    Integer.parseInt(p.getProperty(claveCapacidadCache(entidad)).trim()),
+                    Long.parseLong(p.getProperty(claveTtlCache(entidad)).trim())));
+        }
+
+        if (c.minimoConexiones < 0 || c.maximoConexiones < 1 || c.minimoConexiones > c.maximoConexiones) {
+            throw new IllegalArgumentException("Tamaño de pool inválido: min=" + c.minimoConexiones + ", max=" + c.maximoConexiones);
+        }
+        return c;
+    }
+
+    public static String claveCapacidadCache(String entidad) {
+        return "chazz.cache." + entidad + ".capacidad";
+    }
+
+    public static String claveTtlCache(String entidad) {
+        return "chazz.cache." + entidad + ".ttlMs";
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsuario() {
+        return usuario;
+    }
+
+    public String getContrasena() {
+        return contrasena;
+    }
+
+    public String getDriver() {
+        return driver;
+    }
+
+    public String getNombrePool() {
+        return nombrePool;
+    }
+
+    public int getMinimoConexiones() {
+        return minimoConexiones;
+    }
+
+    public int getMaximoConexiones() {
+        return maximoConexiones;
+    }
+
+    public long getTimeoutConexionMs() {
+        return timeoutConexionMs;
+    }
+
+    public long getTimeoutInactivaMs() {
+        return timeoutInactivaMs;
+    }
+
+    public long getVidaMaximaMs() {
+        return vidaMaximaMs;
+    }
+
+    public long getDeteccionFugasMs() {
+        return deteccionFugasMs;
+    }
+
+    /**
+     * @return si al arrancar se aplican las migraciones pendientes del
+     * esquema (ver {@link MigradorEsquema}).
+     */
+    public boolean isMigrar() {
+        return migrar;
+    }
+
+    /**
+     * @param entidad una de las constantes {@code CACHE_*}.
+     * @return la política configurada, o {@code null} si la entidad no tiene.
+     */
+    public PoliticaCache getPoliticaCache(String entidad) {
+        return politicasCache.get(entidad);
+    }
+
+    public Map<String, PoliticaCache> getPoliticasCache() {
+        return Collections.unmodifiableMap(politicasCache);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfiguracionPool{" + "url=" + url + ", usuario=" + usuario + ", nombrePool=" + nombrePool
+                + ", min=" + minimoConexiones + ", max=" + maximoConexiones
+                + ", timeoutConexionMs=" + timeoutConexionMs + ", timeoutInactivaMs=" + timeoutInactivaMs
+                + ", vidaMaximaMs=" + vidaMaximaMs + ", deteccionFugasMs=" + deteccionFugasMs + ", migrar=" + migrar + ", politicasCache=" + politicasCache + '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.SessionProfilerAdapter;
+
+/**
+ * Perfilador de EclipseLink que solo cuenta los aciertos y fallos de caché
+ * por clase de entidad; las demás mediciones del perfilador se ignoran.
+ */
+class ContadorCache extends SessionProfilerAdapter {
+
+    private final Map<Class<?>, LongAdder> aciertos = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> fallos = new ConcurrentHashMap<>();
+
+    @Override
+    public void occurred(String operacion, DatabaseQuery consulta, AbstractSession sesion) {
+        if (consulta == null || consulta.getReferenceClass() == null) {
+            return;
+        }
+        if (SessionProfiler.CacheHits.equals(operacion)) {
+            aciertos.computeIfAbsent(consulta.getReferenceClass(), k -> new LongAdder()).increment();
+        } else if (SessionProfiler.CacheMisses.equals(operacion)) {
+            fallos.computeIfAbsent(consulta.getReferenceClass(), k -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public int getProfileWeight() {
+        return SessionProfiler.NORMAL;
+    }
+
+    long aciertos(Class<?> clase) {
+        LongAdder a = aciertos.get(clase);
+        return a == null ? 0 : a.sum();
+    }
+
+    long fallos(Class<?> clase) {
+        LongAdder f = fallos.get(clase);
+        return f == null ? 0 : f.sum();
+    }
+}
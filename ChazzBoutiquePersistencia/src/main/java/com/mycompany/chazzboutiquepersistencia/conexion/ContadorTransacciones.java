@@ -0,0 +1,33 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+import com.mycompany.chazzboutiquepersistencia.metricas.Contador;
+import com.mycompany.chazzboutiquepersistencia.metricas.RegistroMetricas;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * Cuenta las transacciones de base de datos confirmadas y revertidas, tanto
+ * las de {@link UnidadTrabajo} como las que los DAOs abren por su cuenta.
+ * Una transacción JPA que no llegó a escribir nada no abre transacción en
+ * la base y no se cuenta.
+ */
+class ContadorTransacciones extends SessionEventAdapter {
+
+    private static final String NOMBRE = "chazz_transacciones_total";
+    private static final String AYUDA = "Transacciones de base de datos por resultado";
+
+    private final Contador confirmadas = RegistroMetricas.global()
+            .contador(NOMBRE, AYUDA, "resultado", "confirmada");
+    private final Contador revertidas = RegistroMetricas.global()
+            .contador(NOMBRE, AYUDA, "resultado", "revertida");
+
+    @Override
+    public void postCommitTransaction(SessionEvent evento) {
+        confirmadas.incrementar();
+    }
+
+    @Override
+    public void postRollbackTransaction(SessionEvent evento) {
+        revertidas.incrementar();
+    }
+}
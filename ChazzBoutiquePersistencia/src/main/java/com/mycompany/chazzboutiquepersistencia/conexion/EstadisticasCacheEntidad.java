@@ -0,0 +1,51 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+/**
+ * Aciertos y fallos de la caché compartida para una entidad, contando tanto
+ * búsquedas por id como resultados de consultas guardados.
+ */
+public class EstadisticasCacheEntidad {
+
+    private final String entidad;
+    private final PoliticaCache politica;
+    private final long aciertos;
+    private final long fallos;
+
+    public EstadisticasCacheEntidad(String entidad, PoliticaCache politica, long aciertos, long fallos) {
+        this.entidad = entidad;
+        this.politica = politica;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public PoliticaCache getPolitica() {
+        return politica;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * @return aciertos entre lecturas totales, de 0 a 1; 0 si no ha habido
+     * lecturas.
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0d : aciertos / (double) total;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasCacheEntidad{" + "entidad=" + entidad + ", aciertos=" + aciertos + ", fallos=" + fallos
+                + ", tasaAciertos=" + String.format("%.3f", getTasaAciertos()) + ", politica=" + politica + '}';
+    }
+}
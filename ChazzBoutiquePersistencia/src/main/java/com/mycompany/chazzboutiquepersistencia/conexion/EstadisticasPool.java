@@ -0,0 +1,71 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+/**
+ * Fotografía del estado del pool de conexiones en un instante.
+ */
+public class EstadisticasPool {
+
+    private final int conexionesActivas;
+    private final int conexionesInactivas;
+    private final int conexionesTotales;
+    private final int hilosEsperando;
+    private final long adquisiciones;
+    private final double tiempoPromedioAdquisicionMs;
+    private final double tiempoMaximoAdquisicionMs;
+    private final long timeouts;
+
+    public EstadisticasPool(int conexionesActivas, int conexionesInactivas, int conexionesTotales,
+            int hilosEsperando, long adquisiciones, double tiempoPromedioAdquisicionMs,
+            double tiempoMaximoAdquisicionMs, long timeouts) {
+        this.conexionesActivas = conexionesActivas;
+        this.conexionesInactivas = conexionesInactivas;
+        this.conexionesTotales = conexionesTotales;
+        this.hilosEsperando = hilosEsperando;
+        this.adquisiciones = adquisiciones;
+        this.tiempoPromedioAdquisicionMs = tiempoPromedioAdquisicionMs;
+        this.tiempoMaximoAdquisicionMs = tiempoMaximoAdquisicionMs;
+        this.timeouts = timeouts;
+    }
+
+    public int getConexionesActivas() {
+        return conexionesActivas;
+    }
+
+    public int getConexionesInactivas() {
+        return conexionesInactivas;
+    }
+
+    public int getConexionesTotales() {
+        return conexionesTotales;
+    }
+
+    public int getHilosEsperando() {
+        return hilosEsperando;
+    }
+
+    public long getAdquisiciones() {
+        return adquisiciones;
+    }
+
+    public double getTiempoPromedioAdquisicionMs() {
+        return tiempoPromedioAdquisicionMs;
+    }
+
+    public double getTiempoMaximoAdquisicionMs() {
+        return tiempoMaximoAdquisicionMs;
+    }
+
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    @Override
+    public String toString() {
+        return "EstadisticasPool{" + "activas=" + conexionesActivas + ", inactivas=" + conexionesInactivas
+                + ", totales=" + conexionesTotales + ", esperando=" + hilosEsperando
+                + ", adquisiciones=" + adquisiciones
+                + ", promedioAdquisicionMs=" + String.format("%.3f", tiempoPromedioAdquisicionMs)
+                + ", maximoAdquisicionMs=" + String.format("%.3f", tiempoMaximoAdquisicionMs)
+                + ", timeouts=" + timeouts + '}';
+    }
+}
@@ -4,7 +4,9 @@
  */
 package com.mycompany.chazzboutiquepersistencia.conexion;
 
+import java.util.List;
 import javax.persistence.EntityManager;
+import javax.sql.DataSource;
 
 /**
  *
@@ -14,6 +16,36 @@ public interface IConexionBD {
 
     public EntityManager getEntityManager();
 
+    /**
+     * Abre un EntityManager con una transacción iniciada para que varios
+     * DAOs trabajen sobre ella y se confirme una sola vez.
+     *
+     * @return la unidad de trabajo; debe cerrarse (try-with-resources).
+     */
+    public UnidadTrabajo iniciarUnidadTrabajo();
+
+    /**
+     * DataSource con pool que respalda a los EntityManager.
+     *
+     * @return el DataSource del pool de conexiones.
+     */
+    public DataSource getDataSource();
+
+    /**
+     * Estado actual del pool: conexiones activas, inactivas, hilos en espera
+     * y tiempo de adquisición.
+     *
+     * @return las estadísticas del pool en este momento.
+     */
+    public EstadisticasPool obtenerEstadisticasPool();
+
+    /**
+     * Aciertos y fallos de la caché compartida por cada entidad con política.
+     *
+     * @return una entrada por entidad configurada.
+     */
+    public List<EstadisticasCacheEntidad> obtenerEstadisticasCache();
+
     public void closeEntityManagerFactory();
 
 }
@@ -0,0 +1,266 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+/**
+ * Aplica al arrancar las migraciones versionadas de
+ * {@code db/migraciones} que la base todavía no tiene.
+ *
+ * Cada script se registra en {@code tblVersionEsquema} al terminar; una
+ * migración ya registrada no se vuelve a ejecutar. Para cambiar el esquema
+ * se agrega un script nuevo a {@link #MIGRACIONES}, nunca se edita uno
+ * existente.
+ *
+ * En MySQL cada sentencia DDL se confirma sola, así que una migración que
+ * falla a la mitad deja aplicadas sus primeras sentencias. Al reintentarla,
+ * las que fallan porque el índice, la columna o la tabla ya existen se
+ * omiten en lugar de volver a detener el arranque.
+ */
+public class MigradorEsquema {
+
+    private static final Logger LOG = Logger.getLogger(MigradorEsquema.class.getName());
+
+    public static final String CARPETA = "db/migraciones/";
+
+    /**
+     * Scripts en orden de aplicación. El nombre sigue
+     * {@code V<version>__<descripcion>.sql}.
+     */
+    static final String[] MIGRACIONES = {
+        "V1__esquema_inicial.sql",
+        "V2__indices.sql",
+        "V3__resumenes_diarios.sql",
+        "V4__fecha_hora_venta.sql"
+    };
+
+    /**
+     * Consultas que deben venir vacías antes de aplicar una versión; cada
+     * fila encontrada es un dato que impediría la migración y se reporta en
+     * el error. Así no se modifica ni se borra nada por cuenta propia.
+     */
+    private static final Map<Integer, Verificacion> VERIFICACIONES = Map.of(
+            2, new Verificacion(
+                    "SELECT codigoBarra FROM tblVarianteProducto WHERE eliminado = 0 "
+                    + "GROUP BY codigoBarra HAVING COUNT(*) > 1",
+                    "Hay variantes activas que comparten código de barras; cambie el código "
+                    + "o elimine las repetidas y vuelva a iniciar. Códigos"));
+
+    /**
+     * Errores de "ya existe" (MySQL y H2) que se omiten al reintentar una
+     * migración aplicada a medias: tabla, columna e índice.
+     */
+    private static final Set<Integer> ERRORES_YA_EXISTE = Set.of(1050, 1060, 1061, 42101, 42111, 42121);
+
+    private static final int MAX_FILAS_REPORTADAS = 20;
+
+    private static final String TABLA_VERSIONES = "tblVersionEsquema";
+    private static final String CANDADO = "chazzboutique_migraciones";
+    private static final int ESPERA_CANDADO_SEG = 60;
+
+    private final DataSource dataSource;
+
+    public MigradorEsquema(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Aplica las migraciones pendientes.
+     *
+     * @return número de migraciones aplicadas en esta llamada.
+     * @throws PersistenciaException si una migración falla; las anteriores
+     * quedan registradas y la fallida se reintenta en el siguiente arranque.
+     */
+    public int migrar() throws PersistenciaException {
+        try (Connection cn = dataSource.getConnection()) {
+            cn.setAutoCommit(true);
+            boolean candado = tomarCandado(cn);
+            try {
+                crearTablaVersiones(cn);
+                Set<Integer> aplicadas = versionesAplicadas(cn);
+
+                int nuevas = 0;
+                for (String script : MIGRACIONES) {
+                    int version = version(script);
+                    if (aplicadas.contains(version)) {
+                        continue;
+                    }
+                    long inicio = System.currentTimeMillis();
+                    verificar(cn, version, script);
+                    ejecutarScript(cn, script);
+                    registrar(cn, version, script);
+                    nuevas++;
+                    LOG.log(Level.INFO, "Migracion {0} aplicada en {1} ms",
+                            new Object[]{script, System.currentTimeMillis() - inicio});
+                }
+                return nuevas;
+            } finally {
+                if (candado) {
+                    soltarCandado(cn);
+                }
+            }
+        } catch (SQLException | IOException e) {
+            throw new PersistenciaException("Error al aplicar las migraciones del esquema: " + e.getMessage(), e);
+        }
+    }
+
+    private void crearTablaVersiones(Connection cn) throws SQLException {
+        try (Statement st = cn.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS " + TABLA_VERSIONES + " ("
+                    + "version INTEGER NOT NULL, "
+                    + "script VARCHAR(200) NOT NULL, "
+                    + "aplicadaEn DATETIME NOT NULL, "
+                    + "PRIMARY KEY (version))");
+        }
+    }
+
+    private Set<Integer> versionesAplicadas(Connection cn) throws SQLException {
+        Set<Integer> versiones = new HashSet<>();
+        try (Statement st = cn.createStatement();
+                ResultSet rs = st.executeQuery("SELECT version FROM " + TABLA_VERSIONES)) {
+            while (rs.next()) {
+                versiones.add(rs.getInt(1));
+            }
+        }
+        return versiones;
+    }
+
+    private void registrar(Connection cn, int version, String script) throws SQLException {
+        try (PreparedStatement ps = cn.prepareStatement(
+                "INSERT INTO " + TABLA_VERSIONES + " (version, script, aplicadaEn) VALUES (?, ?, ?)")) {
+            ps.setInt(1, version);
+            ps.setString(2, script);
+            ps.setTimestamp(3, new Timestamp(System.currentTimeMillis()));
+            ps.executeUpdate();
+        }
+    }
+
+    private void verificar(Connection cn, int version, String script) throws SQLException {
+        Verificacion verificacion = VERIFICACIONES.get(version);
+        if (verificacion == null) {
+            return;
+        }
+        List<String> encontrados = new ArrayList<>();
+        try (Statement st = cn.createStatement();
+                ResultSet rs = st.executeQuery(verificacion.consulta)) {
+            while (rs.next() && encontrados.size() < MAX_FILAS_REPORTADAS) {
+                encontrados.add(rs.getString(1));
+            }
+        }
+        if (!encontrados.isEmpty()) {
+            throw new SQLException("No se puede aplicar " + script + ". " + verificacion.mensaje + ": "
+                    + String.join(", ", encontrados));
+        }
+    }
+
+    private void ejecutarScript(Connection cn, String script) throws IOException, SQLException {
+        for (String sentencia : leerSentencias(CARPETA + script)) {
+            try (Statement st = cn.createStatement()) {
+                st.execute(sentencia);
+            } catch (SQLException e) {
+                if (ERRORES_YA_EXISTE.contains(e.getErrorCode())) {
+                    // Aplicada en un intento anterior que no llegó a registrarse
+                    LOG.log(Level.WARNING, "{0}: se omite, ya estaba aplicada: {1} ({2})",
+                            new Object[]{script, sentencia, e.getMessage()});
+                    continue;
+                }
+                throw new SQLException("Fallo en " + script + ": " + sentencia, e.getSQLState(), e.getErrorCode(), e);
+            }
+        }
+    }
+
+    /**
+     * Separa el script en sentencias terminadas en {@code ;} al final de la
+     * línea, ignorando líneas de comentario {@code --}.
+     */
+    static List<String> leerSentencias(String recurso) throws IOException {
+        InputStream in = MigradorEsquema.class.getClassLoader().getResourceAsStream(recurso);
+        if (in == null) {
+            throw new IOException("No se encontró la migración " + recurso);
+        }
+        List<String> sentencias = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder actual = new StringBuilder();
+            String linea;
+            while ((linea = br.readLine()) != null) {
+                String limpia = linea.trim();
+                if (limpia.isEmpty() || limpia.startsWith("--")) {
+                    continue;
+                }
+                actual.append(linea).append('\n');
+                if (limpia.endsWith(";")) {
+                    String s = actual.toString().trim();
+                    sentencias.add(s.substring(0, s.length() - 1));
+                    actual.setLength(0);
+                }
+            }
+            if (actual.toString().trim().length() > 0) {
+                sentencias.add(actual.toString().trim());
+            }
+        }
+        return sentencias;
+    }
+
+    static int version(String script) {
+        int fin = script.indexOf("__");
+        if (!script.startsWith("V") || fin < 2) {
+            throw new IllegalArgumentException("Nombre de migración inválido: " + script);
+        }
+        return Integer.parseInt(script.substring(1, fin));
+    }
+
+    /**
+     * Evita que el POS y la API migren a la vez al arrancar juntos. Si la
+     * base no soporta GET_LOCK se continúa sin candado.
+     */
+    private boolean tomarCandado(Connection cn) {
+        try (PreparedStatement ps = cn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, CANDADO);
+            ps.setInt(2, ESPERA_CANDADO_SEG);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        } catch (SQLException e) {
+            LOG.log(Level.FINE, "GET_LOCK no disponible, se migra sin candado", e);
+            return false;
+        }
+    }
+
+    private void soltarCandado(Connection cn) {
+        try (PreparedStatement ps = cn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, CANDADO);
+            ps.executeQuery().close();
+        } catch (SQLException e) {
+            LOG.log(Level.FINE, "No se pudo liberar el candado de migraciones", e);
+        }
+    }
+
+    private static final class Verificacion {
+
+        final String consulta;
+        final String mensaje;
+
+        Verificacion(String consulta, String mensaje) {
+            this.consulta = consulta;
+            this.mensaje = mensaje;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+
+/**
+ * Cuánto y por cuánto tiempo se guarda una entidad en la caché compartida
+ * de EclipseLink, y por cuánto tiempo se reutiliza el resultado de sus
+ * consultas de listado.
+ */
+public class PoliticaCache {
+
+    private final int capacidad;
+    private final long ttlMs;
+
+    /**
+     * @param capacidad número de objetos que se conservan en la caché.
+     * @param ttlMs vida máxima de un objeto o resultado en caché; 0 o menos
+     * para que no caduquen.
+     */
+    public PoliticaCache(int capacidad, long ttlMs) {
+        if (capacidad < 1) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser mayor que cero: " + capacidad);
+        }
+        this.capacidad = capacidad;
+        this.ttlMs = ttlMs;
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    @Override
+    public String toString() {
+        return "PoliticaCache{" + "capacidad=" + capacidad + ", ttlMs=" + ttlMs + '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.mycompany.chazzboutiquepersistencia.conexion;
+
+import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+
+/**
+ * Unidad de trabajo: un EntityManager con una transacción abierta que varios
+ * DAOs comparten. Quien la inicia decide cuándo confirmarla; si se cierra sin
+ * confirmar, todo lo hecho se revierte.
+ *
+ * <pre>
+ * try (UnidadTrabajo uow = conexionBD.iniciarUnidadTrabajo()) {
+ *     ...daos con uow...
+ *     uow.confirmar();
+ * }
+ * </pre>
+ */
+public class UnidadTrabajo implements AutoCloseable {
+
+    private final EntityManager em;
+    private final EntityTransaction tx;
+
+    public UnidadTrabajo(EntityManager em) {
+        this.em = em;
+        this.tx = em.getTransaction();
+        this.tx.begin();
+    }
+
+    public EntityManager getEntityManager() {
+        if (!em.isOpen()) {
+            throw new IllegalStateException("La unidad de trabajo ya fue cerrada.");
+        }
+        return em;
+    }
+
+    public boolean isActiva() {
+        return em.isOpen() && tx.isActive();
+    }
+
+    /**
+     * Confirma (commit) todos los cambios de la unidad de trabajo.
+     *
+     * @throws PersistenciaException si la confirmación falla; en ese caso
+     * la transacción queda revertida.
+     */
+    public void confirmar() throws PersistenciaException {
+        try {
+            tx.commit();
+        } catch (Exception e) {
+            revertir();
+            throw new PersistenciaException("Error al confirmar la transacción", e);
+        }
+    }
+
+    public void revertir() {
+        if (tx.isActive()) {
+            tx.rollback();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            revertir();
+        } finally {
+            if (em.isOpen()) {
+                em.close();
+            }
+        }
+    }
+}
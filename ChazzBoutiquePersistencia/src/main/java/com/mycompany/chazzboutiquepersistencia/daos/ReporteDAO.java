@@ -5,17 +5,35 @@
 package com.mycompany.chazzboutiquepersistencia.daos;
 
 import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoInventario;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoVenta;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.HechoVentaDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteCategoriaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteDiaHoraDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteInventarioDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVendedorDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVentaDTO;
 import com.mycompany.chazzboutiquepersistencia.dtos.ReporteVentaResultadoDTO;
 import com.mycompany.chazzboutiquepersistencia.dtos.ReporteVentasDTO;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.ConsumidorFilas;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IReporteDAO;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IResumenVentasDAO;
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.NonUniqueResultException;
@@ -23,15 +41,46 @@ import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 
 /**
+ * Reportes por rango de fechas.
+ *
+ * Construido con un {@link IResumenVentasDAO}, los productos más vendidos y
+ * los ingresos por categoría salen de los resúmenes diarios para los días
+ * anteriores a hoy y solo recorren las ventas de hoy; el costo deja de
+ * depender del largo del rango. Esto aplica una vez que los resúmenes están
+ * completos ({@link com.mycompany.chazzboutiquepersistencia.dtos.EstadoResumenesDTO#isCompleto()});
+ * mientras tanto todo sale de las ventas, como sin resúmenes.
+ *
+ * En ingresos por categoría, los días resumidos cuentan la categoría que
+ * tenía el producto al venderse; las ventas leídas directamente, la actual.
  *
  * @author carli
  */
 public class ReporteDAO implements IReporteDAO {
 
+    private static final Logger LOG = Logger.getLogger(ReporteDAO.class.getName());
+
+    /**
+     * Filas que se piden a la base por viaje en los recorridos, salvo en
+     * MySQL (ver {@link #tamanoLote}).
+     */
+    private static final int FILAS_POR_LOTE = 500;
+
     IConexionBD conexionBD;
 
+    private final IResumenVentasDAO resumenes;
+
+    private volatile Integer tamanoLote;
+
+    // Una vez completos, los resúmenes no dejan de estarlo
+    private volatile boolean resumenesCompletos;
+
     public ReporteDAO(IConexionBD conexionBD) {
+        this(conexionBD, null);
+    }
+
+    public ReporteDAO(IConexionBD conexionBD, IResumenVentasDAO resumenes) {
         this.conexionBD = conexionBD;
+        this.resumenes = resumenes;
     }
 
     @Override
@@ -57,6 +106,10 @@ public class ReporteDAO implements IReporteDAO {
 
     @Override
     public List<ReporteProductoDTO> obtenerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenceException {
+        if (usarResumenes()) {
+            return juntar(filas -> recorrerProductosMasVendidos(fechaInicio, fechaFin, filas),
+                    "Error al obtener productos más vendidos");
+        }
         EntityManager em = conexionBD.getEntityManager();
         try {
             String jpql = "SELECT new com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO(p.nombreProducto, SUM(dv.cantidad), "
@@ -83,6 +136,10 @@ public class ReporteDAO implements IReporteDAO {
 
     @Override
     public List<ReporteCategoriaDTO> obtenerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenceException {
+        if (usarResumenes()) {
+            return juntar(filas -> recorrerIngresosPorCategoria(fechaInicio, fechaFin, filas),
+                    "Error al obtener ingresos por categoría");
+        }
         EntityManager em = conexionBD.getEntityManager();
         try {
             // Calcular el total de ventas en el periodo
@@ -146,4 +203,444 @@ public class ReporteDAO implements IReporteDAO {
         }
     }
 
+    @Override
+    public List<ReporteDiaHoraDTO> obtenerVentasPorDiaYHora(LocalDate fechaInicio, LocalDate fechaFin)
+            throws PersistenciaException {
+        // Rango sobre la hora (no la fecha) para recorrer solo idx_venta_fecha_hora_total.
+        // DAYOFWEEK va de 1 (domingo) a 7 (sábado) en MySQL y H2
+        String sql = "SELECT DAYOFWEEK(fechaHoraVenta), HOUR(fechaHoraVenta), COUNT(*), SUM(ventaTotal) "
+                + "FROM tblVenta "
+                + "WHERE fechaHoraVenta >= ? AND fechaHoraVenta < ? "
+                + "GROUP BY DAYOFWEEK(fechaHoraVenta), HOUR(fechaHoraVenta)";
+
+        List<ReporteDiaHoraDTO> celdas = new ArrayList<>(7 * 24);
+        try {
+            recorrer(sql, new Object[]{Timestamp.valueOf(fechaInicio.atStartOfDay()),
+                Timestamp.valueOf(fechaFin.plusDays(1).atStartOfDay())},
+                    rs -> new ReporteDiaHoraDTO((rs.getInt(1) + 5) % 7 + 1, rs.getInt(2), rs.getLong(3), rs.getBigDecimal(4)),
+                    celdas::add, "Error al obtener las ventas por día y hora");
+        } catch (IOException e) {
+            throw new PersistenciaException("Error al obtener las ventas por día y hora", e);
+        }
+        return celdas;
+    }
+
+    @Override
+    public List<ReporteVentaDTO> obtenerPaginaVentas(LocalDate fechaInicio, LocalDate fechaFin, CampoVenta orden,
+            boolean descendente, int inicio, int cantidad) throws PersistenciaException {
+        String columna;
+        switch (orden) {
+            case FECHA:
+                columna = "v.fechaVenta";
+                break;
+            case TOTAL:
+                columna = "v.ventaTotal";
+                break;
+            case VENDEDOR:
+                columna = "u.nombreUsuario";
+                break;
+            default:
+                columna = null;
+        }
+        String sentido = descendente ? " DESC" : " ASC";
+        String sql = "SELECT v.venta_id, v.fechaVenta, v.ventaTotal, u.nombreUsuario "
+                + "FROM tblVenta v JOIN tblUsuario u ON u.usuario_id = v.usuario_id "
+                + "WHERE v.fechaVenta BETWEEN ? AND ? "
+                + "ORDER BY " + (columna != null ? columna + sentido + ", " : "") + "v.venta_id" + sentido
+                + " LIMIT ? OFFSET ?";
+
+        List<ReporteVentaDTO> filas = new ArrayList<>(cantidad);
+        try {
+            recorrer(sql, new Object[]{Date.valueOf(fechaInicio), Date.valueOf(fechaFin), cantidad, inicio},
+                    rs -> new ReporteVentaDTO(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3), rs.getString(4)),
+                    filas::add, "Error al obtener la página de ventas");
+        } catch (IOException e) {
+            throw new PersistenciaException("Error al obtener la página de ventas", e);
+        }
+        return filas;
+    }
+
+    @Override
+    public long contarVentas(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenciaException {
+        return contar("SELECT COUNT(*) FROM tblVenta WHERE fechaVenta BETWEEN ? AND ?",
+                new Object[]{Date.valueOf(fechaInicio), Date.valueOf(fechaFin)}, "Error al contar las ventas");
+    }
+
+    @Override
+    public List<ReporteInventarioDTO> obtenerPaginaInventario(CampoInventario orden, boolean descendente, int inicio,
+            int cantidad) throws PersistenciaException {
+        String columna;
+        switch (orden) {
+            case TALLA:
+                columna = "vp.talla";
+                break;
+            case COLOR:
+                columna = "vp.color";
+                break;
+            case STOCK:
+                columna = "vp.stock";
+                break;
+            case PRECIO_UNITARIO:
+                columna = "vp.precioVenta";
+                break;
+            case VALOR_TOTAL:
+                columna = "vp.precioVenta * vp.stock";
+                break;
+            default:
+                columna = "p.nombreProducto";
+        }
+        String sentido = descendente ? " DESC" : " ASC";
+        String sql = "SELECT p.nombreProducto, vp.talla, vp.color, vp.stock, vp.precioVenta "
+                + "FROM tblVarianteProducto vp JOIN tblProducto p ON p.producto_id = vp.producto_id "
+                + "WHERE vp.stock > 0 "
+                + "ORDER BY " + columna + sentido + ", vp.varianteproducto_id" + sentido
+                + " LIMIT ? OFFSET ?";
+
+        List<ReporteInventarioDTO> filas = new ArrayList<>(cantidad);
+        try {
+            recorrer(sql, new Object[]{cantidad, inicio}, rs -> {
+                int stock = rs.getInt(4);
+                BigDecimal precio = rs.getBigDecimal(5);
+                return new ReporteInventarioDTO(rs.getString(1), rs.getString(2), rs.getString(3), stock,
+                        precio, precio.multiply(BigDecimal.valueOf(stock)));
+            }, filas::add, "Error al obtener la página del inventario");
+        } catch (IOException e) {
+            throw new PersistenciaException("Error al obtener la página del inventario", e);
+        }
+        return filas;
+    }
+
+    @Override
+    public long contarInventario() throws PersistenciaException {
+        return contar("SELECT COUNT(*) FROM tblVarianteProducto WHERE stock > 0", new Object[0],
+                "Error al contar el inventario");
+    }
+
+    @Override
+    public void recorrerDatosVentas(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteVentaDTO> consumidor) throws PersistenciaException, IOException {
+        String sql = "SELECT v.venta_id, v.fechaVenta, v.ventaTotal, u.nombreUsuario "
+                + "FROM tblVenta v JOIN tblUsuario u ON u.usuario_id = v.usuario_id "
+                + "WHERE v.fechaVenta BETWEEN ? AND ? "
+                // Mismo orden que obtenerDatosVentas: sale del índice (fechaVenta, ventaTotal)
+                // leído al revés, sin ordenar todo el rango antes de la primera fila
+                + "ORDER BY v.fechaVenta DESC";
+
+        recorrer(sql, new Object[]{Date.valueOf(fechaInicio), Date.valueOf(fechaFin)},
+                rs -> new ReporteVentaDTO(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3), rs.getString(4)),
+                consumidor, "Error en la consulta de ventas");
+    }
+
+    @Override
+    public void recorrerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteProductoDTO> consumidor) throws PersistenciaException, IOException {
+        String sql;
+        Object[] parametros;
+        if (usarResumenes()) {
+            sql = "SELECT p.nombreProducto, SUM(x.unidades), SUM(x.ingresos), c.nombreCategoria "
+                    + "FROM (SELECT producto_id, unidades, ingresos FROM tblResumenDiarioProducto "
+                    + "WHERE fecha BETWEEN ? AND ? "
+                    + "UNION ALL "
+                    + "SELECT vp.producto_id, dv.cantidad, dv.precioUnitario * dv.cantidad "
+                    + "FROM tblDetalleVenta dv "
+                    + "JOIN tblVenta v ON v.venta_id = dv.venta_id "
+                    + "JOIN tblVarianteProducto vp ON vp.varianteproducto_id = dv.varianteProducto_id "
+                    + "WHERE v.fechaVenta BETWEEN ? AND ?) x "
+                    + "JOIN tblProducto p ON p.producto_id = x.producto_id "
+                    + "JOIN tblCategoria c ON c.categoria_id = p.categoria_id "
+                    + "GROUP BY p.nombreProducto, c.nombreCategoria "
+                    + "ORDER BY SUM(x.unidades) DESC";
+            parametros = rangosResumenYHoy(fechaInicio, fechaFin);
+        } else {
+            sql = "SELECT p.nombreProducto, SUM(dv.cantidad), SUM(dv.precioUnitario * dv.cantidad), c.nombreCategoria "
+                    + "FROM tblDetalleVenta dv "
+                    + "JOIN tblVenta v ON v.venta_id = dv.venta_id "
+                    + "JOIN tblVarianteProducto vp ON vp.varianteproducto_id = dv.varianteProducto_id "
+                    + "JOIN tblProducto p ON p.producto_id = vp.producto_id "
+                    + "JOIN tblCategoria c ON c.categoria_id = p.categoria_id "
+                    + "WHERE v.fechaVenta BETWEEN ? AND ? "
+                    + "GROUP BY p.nombreProducto, c.nombreCategoria "
+                    + "ORDER BY SUM(dv.cantidad) DESC";
+            parametros = new Object[]{Date.valueOf(fechaInicio), Date.valueOf(fechaFin)};
+        }
+
+        recorrer(sql, parametros,
+                rs -> new ReporteProductoDTO(rs.getString(1), rs.getLong(2),
+                        rs.getBigDecimal(3).setScale(2, RoundingMode.HALF_UP), rs.getString(4)),
+                consumidor, "Error al obtener productos más vendidos");
+    }
+
+    @Override
+    public void recorrerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteCategoriaDTO> consumidor) throws PersistenciaException, IOException {
+        if (usarResumenes()) {
+            recorrerIngresosPorCategoriaDesdeResumenes(fechaInicio, fechaFin, consumidor);
+            return;
+        }
+        Object[] rango = {Date.valueOf(fechaInicio), Date.valueOf(fechaFin)};
+
+        BigDecimal total = obtenerTotalVentas(fechaInicio, fechaFin);
+        BigDecimal totalVentas = total.signum() == 0 ? BigDecimal.ONE : total;
+
+        String sql = "SELECT c.nombreCategoria, COUNT(DISTINCT v.venta_id), SUM(d.precioUnitario * d.cantidad) "
+                + "FROM tblVenta v "
+                + "JOIN tblDetalleVenta d ON d.venta_id = v.venta_id "
+                + "JOIN tblVarianteProducto vp ON vp.varianteproducto_id = d.varianteProducto_id "
+                + "JOIN tblProducto p ON p.producto_id = vp.producto_id "
+                + "JOIN tblCategoria c ON c.categoria_id = p.categoria_id "
+                + "WHERE v.fechaVenta BETWEEN ? AND ? "
+                + "GROUP BY c.nombreCategoria "
+                + "ORDER BY SUM(d.precioUnitario * d.cantidad) DESC";
+
+        recorrer(sql, rango, rs -> {
+            BigDecimal ingresos = rs.getBigDecimal(3);
+            BigDecimal porcentaje = ingresos.multiply(BigDecimal.valueOf(100)).divide(totalVentas, 2, RoundingMode.HALF_UP);
+            return new ReporteCategoriaDTO(rs.getString(1), rs.getLong(2), ingresos, porcentaje);
+        }, consumidor, "Error al obtener ingresos por categoría");
+    }
+
+    @Override
+    public BigDecimal obtenerTotalVentas(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenciaException {
+        String sql;
+        Object[] parametros;
+        if (usarResumenes()) {
+            sql = "SELECT (SELECT SUM(total) FROM tblResumenDiarioVendedor WHERE fecha BETWEEN ? AND ?), "
+                    + "(SELECT SUM(ventaTotal) FROM tblVenta WHERE fechaVenta BETWEEN ? AND ?)";
+            parametros = rangosResumenYHoy(fechaInicio, fechaFin);
+        } else {
+            // Sale del índice (fechaVenta, ventaTotal)
+            sql = "SELECT SUM(ventaTotal), NULL FROM tblVenta WHERE fechaVenta BETWEEN ? AND ?";
+            parametros = new Object[]{Date.valueOf(fechaInicio), Date.valueOf(fechaFin)};
+        }
+
+        BigDecimal[] total = new BigDecimal[1];
+        try {
+            recorrer(sql, parametros, rs -> sumar(rs.getBigDecimal(1), rs.getBigDecimal(2)), suma -> total[0] = suma,
+                    "Error al obtener el total de ventas");
+        } catch (IOException e) {
+            // El consumidor solo guarda el valor; no escribe nada
+            throw new PersistenciaException("Error al obtener el total de ventas", e);
+        }
+        return total[0];
+    }
+
+    @Override
+    public List<ReporteVendedorDTO> obtenerTotalesPorVendedor(LocalDate fechaInicio, LocalDate fechaFin)
+            throws PersistenciaException {
+        String sql;
+        Object[] parametros;
+        if (usarResumenes()) {
+            sql = "SELECT u.nombreUsuario, SUM(x.ventas), SUM(x.total) "
+                    + "FROM (SELECT usuario_id, ventas, total FROM tblResumenDiarioVendedor WHERE fecha BETWEEN ? AND ? "
+                    + "UNION ALL "
+                    + "SELECT usuario_id, 1, ventaTotal FROM tblVenta WHERE fechaVenta BETWEEN ? AND ?) x "
+                    + "JOIN tblUsuario u ON u.usuario_id = x.usuario_id "
+                    + "GROUP BY u.nombreUsuario "
+                    + "ORDER BY SUM(x.total) DESC";
+            parametros = rangosResumenYHoy(fechaInicio, fechaFin);
+        } else {
+            sql = "SELECT u.nombreUsuario, COUNT(*), SUM(v.ventaTotal) "
+                    + "FROM tblVenta v JOIN tblUsuario u ON u.usuario_id = v.usuario_id "
+                    + "WHERE v.fechaVenta BETWEEN ? AND ? "
+                    + "GROUP BY u.nombreUsuario "
+                    + "ORDER BY SUM(v.ventaTotal) DESC";
+            parametros = new Object[]{Date.valueOf(fechaInicio), Date.valueOf(fechaFin)};
+        }
+        List<ReporteVendedorDTO> vendedores = new ArrayList<>();
+        try {
+            recorrer(sql, parametros, rs -> new ReporteVendedorDTO(rs.getString(1), rs.getLong(2), rs.getBigDecimal(3)),
+                    vendedores::add, "Error al obtener totales por vendedor");
+        } catch (IOException e) {
+            // El consumidor solo junta las filas; no escribe nada
+            throw new PersistenciaException("Error al obtener totales por vendedor", e);
+        }
+        return vendedores;
+    }
+
+    @Override
+    public void recorrerHechosVenta(long ventaIdDesde, ConsumidorFilas<HechoVentaDTO> consumidor)
+            throws PersistenciaException, IOException {
+        String sql = "SELECT v.venta_id, v.fechaVenta, v.ventaTotal, v.usuario_id, u.nombreUsuario, "
+                + "d.varianteProducto_id, vp.producto_id, p.nombreProducto, p.categoria_id, c.nombreCategoria, "
+                + "d.cantidad, d.precioUnitario "
+                + "FROM tblVenta v "
+                + "JOIN tblUsuario u ON u.usuario_id = v.usuario_id "
+                + "LEFT JOIN tblDetalleVenta d ON d.venta_id = v.venta_id "
+                + "LEFT JOIN tblVarianteProducto vp ON vp.varianteproducto_id = d.varianteProducto_id "
+                + "LEFT JOIN tblProducto p ON p.producto_id = vp.producto_id "
+                + "LEFT JOIN tblCategoria c ON c.categoria_id = p.categoria_id "
+                + "WHERE v.venta_id > ? "
+                + "ORDER BY v.venta_id";
+
+        recorrer(sql, new Object[]{ventaIdDesde}, rs -> new HechoVentaDTO(
+                rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3), rs.getLong(4), rs.getString(5),
+                rs.getObject(6, Long.class), rs.getObject(7, Long.class), rs.getString(8),
+                rs.getObject(9, Long.class), rs.getString(10), rs.getObject(11, Integer.class), rs.getBigDecimal(12)),
+                consumidor, "Error al leer las ventas para el análisis");
+    }
+
+    private void recorrerIngresosPorCategoriaDesdeResumenes(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteCategoriaDTO> consumidor) throws PersistenciaException, IOException {
+        Object[] rangos = rangosResumenYHoy(fechaInicio, fechaFin);
+
+        BigDecimal total = obtenerTotalVentas(fechaInicio, fechaFin);
+        BigDecimal totalVentas = total.signum() == 0 ? BigDecimal.ONE : total;
+
+        // Una venta cae en un solo día, así que sumar las ventas de cada día
+        // da las ventas distintas del rango
+        String sql = "SELECT c.nombreCategoria, SUM(x.ventas), SUM(x.ingresos) "
+                + "FROM (SELECT categoria_id, ventas, ingresos FROM tblResumenDiarioCategoria "
+                + "WHERE fecha BETWEEN ? AND ? "
+                + "UNION ALL "
+                + "SELECT p.categoria_id, COUNT(DISTINCT v.venta_id), SUM(d.precioUnitario * d.cantidad) "
+                + "FROM tblVenta v "
+                + "JOIN tblDetalleVenta d ON d.venta_id = v.venta_id "
+                + "JOIN tblVarianteProducto vp ON vp.varianteproducto_id = d.varianteProducto_id "
+                + "JOIN tblProducto p ON p.producto_id = vp.producto_id "
+                + "WHERE v.fechaVenta BETWEEN ? AND ? "
+                + "GROUP BY p.categoria_id) x "
+                + "JOIN tblCategoria c ON c.categoria_id = x.categoria_id "
+                + "GROUP BY c.nombreCategoria "
+                + "ORDER BY SUM(x.ingresos) DESC";
+
+        recorrer(sql, rangos, rs -> {
+            BigDecimal ingresos = rs.getBigDecimal(3);
+            BigDecimal porcentaje = ingresos.multiply(BigDecimal.valueOf(100)).divide(totalVentas, 2, RoundingMode.HALF_UP);
+            return new ReporteCategoriaDTO(rs.getString(1), rs.getLong(2), ingresos, porcentaje);
+        }, consumidor, "Error al obtener ingresos por categoría");
+    }
+
+    @Override
+    public void recorrerInventarioActual(ConsumidorFilas<ReporteInventarioDTO> consumidor)
+            throws PersistenciaException, IOException {
+        String sql = "SELECT p.nombreProducto, vp.talla, vp.color, vp.stock, vp.precioVenta "
+                + "FROM tblVarianteProducto vp JOIN tblProducto p ON p.producto_id = vp.producto_id "
+                + "WHERE vp.stock > 0 "
+                + "ORDER BY p.nombreProducto, p.descripcionProducto";
+
+        recorrer(sql, new Object[0], rs -> {
+            int stock = rs.getInt(4);
+            BigDecimal precio = rs.getBigDecimal(5);
+            return new ReporteInventarioDTO(rs.getString(1), rs.getString(2), rs.getString(3), stock,
+                    precio, precio.multiply(BigDecimal.valueOf(stock)));
+        }, consumidor, "Error al obtener el inventario actual");
+    }
+
+    private boolean usarResumenes() {
+        if (resumenes == null) {
+            return false;
+        }
+        if (!resumenesCompletos) {
+            try {
+                resumenesCompletos = resumenes.obtenerEstado().isCompleto();
+            } catch (PersistenciaException e) {
+                LOG.log(Level.WARNING, "No se pudo consultar el estado de los resúmenes; se usan las ventas", e);
+                return false;
+            }
+        }
+        return resumenesCompletos;
+    }
+
+    /**
+     * Parámetros para las consultas que unen resúmenes y ventas: primero el
+     * tramo del rango anterior a hoy (de los resúmenes) y luego el tramo de
+     * hoy en adelante (de las ventas). Si el rango cae todo de un lado, el
+     * otro tramo queda invertido y {@code BETWEEN} no devuelve nada.
+     */
+    private static Object[] rangosResumenYHoy(LocalDate fechaInicio, LocalDate fechaFin) {
+        LocalDate hoy = LocalDate.now();
+        LocalDate finResumen = fechaFin.isBefore(hoy) ? fechaFin : hoy.minusDays(1);
+        LocalDate inicioVentas = fechaInicio.isAfter(hoy) ? fechaInicio : hoy;
+        return new Object[]{Date.valueOf(fechaInicio), Date.valueOf(finResumen),
+            Date.valueOf(inicioVentas), Date.valueOf(fechaFin)};
+    }
+
+    private static BigDecimal sumar(BigDecimal a, BigDecimal b) {
+        return (a == null ? BigDecimal.ZERO : a).add(b == null ? BigDecimal.ZERO : b);
+    }
+
+    @FunctionalInterface
+    private interface Recorrido<T> {
+
+        void recorrer(ConsumidorFilas<T> consumidor) throws PersistenciaException, IOException;
+    }
+
+    private static <T> List<T> juntar(Recorrido<T> recorrido, String error) throws PersistenceException {
+        List<T> filas = new ArrayList<>();
+        try {
+            recorrido.recorrer(filas::add);
+        } catch (PersistenciaException | IOException e) {
+            throw new PersistenceException(error, e);
+        }
+        return filas;
+    }
+
+    private long contar(String sql, Object[] parametros, String error) throws PersistenciaException {
+        long[] total = new long[1];
+        try {
+            recorrer(sql, parametros, rs -> rs.getLong(1), n -> total[0] = n, error);
+        } catch (IOException e) {
+            throw new PersistenciaException(error, e);
+        }
+        return total[0];
+    }
+
+    @FunctionalInterface
+    private interface LectorFila<T> {
+
+        T leer(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Ejecuta {@code sql} con un cursor de solo avance y de solo lectura
+     * directamente sobre el pool, sin pasar por el EntityManager (que
+     * guardaría cada resultado). La conexión se ocupa mientras dura el
+     * recorrido.
+     */
+    private <T> void recorrer(String sql, Object[] parametros, LectorFila<T> lector,
+            ConsumidorFilas<T> consumidor, String error) throws PersistenciaException, IOException {
+        try (Connection con = conexionBD.getDataSource().getConnection();
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(tamanoLote(con));
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    try {
+                        consumidor.aceptar(lector.leer(rs));
+                    } catch (IOException e) {
+                        // Sin cancelar, cerrar el cursor leería el resto de las filas
+                        cancelar(ps);
+                        throw e;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new PersistenciaException(error, e);
+        }
+    }
+
+    /**
+     * El driver de MySQL solo entrega las filas conforme llegan (en lugar de
+     * cargarlas todas al ejecutar) con {@code Integer.MIN_VALUE}; los demás
+     * usan un tamaño de lote normal.
+     */
+    private int tamanoLote(Connection con) throws SQLException {
+        Integer t = tamanoLote;
+        if (t == null) {
+            String base = con.getMetaData().getDatabaseProductName();
+            t = (base != null && base.toLowerCase().contains("mysql")) ? Integer.MIN_VALUE : FILAS_POR_LOTE;
+            tamanoLote = t;
+        }
+        return t;
+    }
+
+    private static void cancelar(PreparedStatement ps) {
+        try {
+            ps.cancel();
+        } catch (SQLException ignored) {
+            // El cierre sigue igual; solo tardará más
+        }
+    }
 }
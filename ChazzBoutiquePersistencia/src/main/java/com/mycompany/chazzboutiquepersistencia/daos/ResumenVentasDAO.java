@@ -0,0 +1,216 @@
+package com.mycompany.chazzboutiquepersistencia.daos;
+
+import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
+import com.mycompany.chazzboutiquepersistencia.dominio.DetalleVenta;
+import com.mycompany.chazzboutiquepersistencia.dominio.Producto;
+import com.mycompany.chazzboutiquepersistencia.dominio.Venta;
+import com.mycompany.chazzboutiquepersistencia.dtos.EstadoResumenesDTO;
+import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IResumenVentasDAO;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
+
+/**
+ * Mantiene {@code tblResumenDiarioProducto}, {@code tblResumenDiarioCategoria}
+ * y {@code tblResumenDiarioVendedor} (migración V3).
+ *
+ * Cada venta suma sus renglones con {@code INSERT ... ON DUPLICATE KEY
+ * UPDATE}, así dos cajas que venden a la vez no pierden incrementos. Las
+ * filas se tocan en orden de id para que dos ventas no se bloqueen en orden
+ * cruzado.
+ *
+ * La categoría que cuenta es la que tenía el producto al venderse (o al
+ * reconstruir el día), no la actual.
+ */
+public class ResumenVentasDAO implements IResumenVentasDAO {
+
+    private static final String ACUMULAR_PRODUCTO
+            = "INSERT INTO tblResumenDiarioProducto (fecha, producto_id, unidades, ingresos) VALUES (?1, ?2, ?3, ?4) "
+            + "ON DUPLICATE KEY UPDATE unidades = unidades + VALUES(unidades), ingresos = ingresos + VALUES(ingresos)";
+    private static final String ACUMULAR_CATEGORIA
+            = "INSERT INTO tblResumenDiarioCategoria (fecha, categoria_id, ventas, ingresos) VALUES (?1, ?2, 1, ?3) "
+            + "ON DUPLICATE KEY UPDATE ventas = ventas + 1, ingresos = ingresos + VALUES(ingresos)";
+    private static final String ACUMULAR_VENDEDOR
+            = "INSERT INTO tblResumenDiarioVendedor (fecha, usuario_id, ventas, total) VALUES (?1, ?2, 1, ?3) "
+            + "ON DUPLICATE KEY UPDATE ventas = ventas + 1, total = total + VALUES(total)";
+
+    private static final String RECONSTRUIR_PRODUCTO
+            = "INSERT INTO tblResumenDiarioProducto (fecha, producto_id, unidades, ingresos) "
+            + "SELECT v.fechaVenta, vp.producto_id, SUM(d.cantidad), SUM(d.precioUnitario * d.cantidad) "
+            + "FROM tblVenta v "
+            + "JOIN tblDetalleVenta d ON d.venta_id = v.venta_id "
+            + "JOIN tblVarianteProducto vp ON vp.varianteproducto_id = d.varianteProducto_id "
+            + "WHERE v.fechaVenta = ?1 "
+            + "GROUP BY v.fechaVenta, vp.producto_id";
+    private static final String RECONSTRUIR_CATEGORIA
+            = "INSERT INTO tblResumenDiarioCategoria (fecha, categoria_id, ventas, ingresos) "
+            + "SELECT v.fechaVenta, p.categoria_id, COUNT(DISTINCT v.venta_id), SUM(d.precioUnitario * d.cantidad) "
+            + "FROM tblVenta v "
+            + "JOIN tblDetalleVenta d ON d.venta_id = v.venta_id "
+            + "JOIN tblVarianteProducto vp ON vp.varianteproducto_id = d.varianteProducto_id "
+            + "JOIN tblProducto p ON p.producto_id = vp.producto_id "
+            + "WHERE v.fechaVenta = ?1 AND p.categoria_id IS NOT NULL "
+            + "GROUP BY v.fechaVenta, p.categoria_id";
+    private static final String RECONSTRUIR_VENDEDOR
+            = "INSERT INTO tblResumenDiarioVendedor (fecha, usuario_id, ventas, total) "
+            + "SELECT fechaVenta, usuario_id, COUNT(*), SUM(ventaTotal) "
+            + "FROM tblVenta WHERE fechaVenta = ?1 "
+            + "GROUP BY fechaVenta, usuario_id";
+
+    private static final String[] TABLAS = {
+        "tblResumenDiarioProducto", "tblResumenDiarioCategoria", "tblResumenDiarioVendedor"
+    };
+
+    IConexionBD conexionBD;
+
+    public ResumenVentasDAO(IConexionBD conexionBD) {
+        this.conexionBD = conexionBD;
+    }
+
+    @Override
+    public void acumularVenta(UnidadTrabajo uow, Venta venta) throws PersistenciaException {
+        Map<Long, Long> unidades = new TreeMap<>();
+        Map<Long, BigDecimal> ingresosProducto = new TreeMap<>();
+        Map<Long, BigDecimal> ingresosCategoria = new TreeMap<>();
+        for (DetalleVenta d : venta.getDetallesVentas()) {
+            Producto p = d.getVarianteProducto().getProducto();
+            BigDecimal importe = d.getPrecioUnitario().multiply(BigDecimal.valueOf(d.getCantidad()));
+            unidades.merge(p.getId(), (long) d.getCantidad(), Long::sum);
+            ingresosProducto.merge(p.getId(), importe, BigDecimal::add);
+            if (p.getCategoria() != null) {
+                ingresosCategoria.merge(p.getCategoria().getId(), importe, BigDecimal::add);
+            }
+        }
+
+        try {
+            EntityManager em = uow.getEntityManager();
+            Date fecha = Date.valueOf(venta.getFechaVenta());
+            for (Map.Entry<Long, Long> e : unidades.entrySet()) {
+                em.createNativeQuery(ACUMULAR_PRODUCTO)
+                        .setParameter(1, fecha)
+                        .setParameter(2, e.getKey())
+                        .setParameter(3, e.getValue())
+                        .setParameter(4, ingresosProducto.get(e.getKey()))
+                        .executeUpdate();
+            }
+            for (Map.Entry<Long, BigDecimal> e : ingresosCategoria.entrySet()) {
+                em.createNativeQuery(ACUMULAR_CATEGORIA)
+                        .setParameter(1, fecha)
+                        .setParameter(2, e.getKey())
+                        .setParameter(3, e.getValue())
+                        .executeUpdate();
+            }
+            em.createNativeQuery(ACUMULAR_VENDEDOR)
+                    .setParameter(1, fecha)
+                    .setParameter(2, venta.getUsuario().getId())
+                    .setParameter(3, venta.getVentaTotal())
+                    .executeUpdate();
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al actualizar los resúmenes de ventas", e);
+        }
+    }
+
+    @Override
+    public void reconstruirDia(LocalDate dia) throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            Date fecha = Date.valueOf(dia);
+            for (String tabla : TABLAS) {
+                em.createNativeQuery("DELETE FROM " + tabla + " WHERE fecha = ?1")
+                        .setParameter(1, fecha)
+                        .executeUpdate();
+            }
+            for (String sql : new String[]{RECONSTRUIR_PRODUCTO, RECONSTRUIR_CATEGORIA, RECONSTRUIR_VENDEDOR}) {
+                em.createNativeQuery(sql).setParameter(1, fecha).executeUpdate();
+            }
+            tx.commit();
+        } catch (Exception e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw new PersistenciaException("Error al reconstruir los resúmenes del " + dia, e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<LocalDate> diasConVentas(LocalDate desde, LocalDate hasta) throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            Query query = em.createNativeQuery("SELECT DISTINCT fechaVenta FROM tblVenta "
+                    + "WHERE fechaVenta <= ?1" + (desde != null ? " AND fechaVenta >= ?2" : "")
+                    + " ORDER BY fechaVenta");
+            query.setParameter(1, Date.valueOf(hasta));
+            if (desde != null) {
+                query.setParameter(2, Date.valueOf(desde));
+            }
+            List<LocalDate> dias = new ArrayList<>();
+            for (Object fila : query.getResultList()) {
+                dias.add(aFecha(fila));
+            }
+            return dias;
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al consultar los días con ventas", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public EstadoResumenesDTO obtenerEstado() throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            List<?> filas = em.createNativeQuery(
+                    "SELECT mantenidoDesde, reconstruidoHasta FROM tblResumenEstado WHERE estado_id = 1")
+                    .getResultList();
+            if (filas.isEmpty()) {
+                throw new PersistenciaException("Falta el estado de los resúmenes (migración V3)");
+            }
+            Object[] fila = (Object[]) filas.get(0);
+            return new EstadoResumenesDTO(aFecha(fila[0]), fila[1] == null ? null : aFecha(fila[1]));
+        } catch (PersistenciaException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al consultar el estado de los resúmenes", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public void marcarReconstruidoHasta(LocalDate dia) throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        EntityTransaction tx = em.getTransaction();
+        try {
+            tx.begin();
+            em.createNativeQuery("UPDATE tblResumenEstado SET reconstruidoHasta = ?1 "
+                    + "WHERE estado_id = 1 AND (reconstruidoHasta IS NULL OR reconstruidoHasta < ?1)")
+                    .setParameter(1, Date.valueOf(dia))
+                    .executeUpdate();
+            tx.commit();
+        } catch (Exception e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw new PersistenciaException("Error al actualizar el estado de los resúmenes", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static LocalDate aFecha(Object valor) {
+        return valor instanceof LocalDate ? (LocalDate) valor : ((java.sql.Date) valor).toLocalDate();
+    }
+}
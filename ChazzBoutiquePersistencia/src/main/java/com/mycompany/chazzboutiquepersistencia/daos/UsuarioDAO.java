@@ -5,6 +5,7 @@
 package com.mycompany.chazzboutiquepersistencia.daos;
 
 import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
 import com.mycompany.chazzboutiquepersistencia.dominio.Usuario;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IUsuarioDAO;
@@ -55,5 +56,13 @@ public class UsuarioDAO implements IUsuarioDAO {
             em.close();
         }
     }
-}
 
+    @Override
+    public Usuario buscarPorId(UnidadTrabajo uow, Long id) throws PersistenciaException {
+        try {
+            return uow.getEntityManager().find(Usuario.class, id);
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al buscar usuario por ID", e);
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package com.mycompany.chazzboutiquepersistencia.daos;
 
 import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
 import com.mycompany.chazzboutiquepersistencia.dominio.VarianteProducto;
+import com.mycompany.chazzboutiquepersistencia.dtos.PaginaCursorDTO;
+import com.mycompany.chazzboutiquepersistencia.dtos.VarianteResumenDTO;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IVarianteProductoDAO;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class VarianteProductoDAO implements IVarianteProductoDAO {
 
@@ -53,6 +63,19 @@ public class VarianteProductoDAO implements IVarianteProductoDAO {
     @Override
     public VarianteProducto obtenerPorCodigoBarra(String codigoBarra) throws PersistenciaException {
         EntityManager em = conexionBD.getEntityManager();
+        try {
+            return obtenerPorCodigoBarra(em, codigoBarra);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public VarianteProducto obtenerPorCodigoBarra(UnidadTrabajo uow, String codigoBarra) throws PersistenciaException {
+        return obtenerPorCodigoBarra(uow.getEntityManager(), codigoBarra);
+    }
+
+    private VarianteProducto obtenerPorCodigoBarra(EntityManager em, String codigoBarra) throws PersistenciaException {
         try {
             TypedQuery<VarianteProducto> query = em.createQuery(
                     "SELECT v FROM VarianteProducto v "
@@ -66,6 +89,153 @@ public class VarianteProductoDAO implements IVarianteProductoDAO {
             return null; // mejor que truene, así tu negocio decide qué hacer
         } catch (Exception e) {
             throw new PersistenciaException("Error al obtener variante por código de barras", e);
+        }
+    }
+
+    @Override
+    public Map<String, VarianteProducto> obtenerPorCodigosBarra(Collection<String> codigosBarra) throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            return obtenerPorCodigosBarra(em, codigosBarra);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Map<String, VarianteProducto> obtenerPorCodigosBarra(UnidadTrabajo uow, Collection<String> codigosBarra) throws PersistenciaException {
+        return obtenerPorCodigosBarra(uow.getEntityManager(), codigosBarra);
+    }
+
+    private Map<String, VarianteProducto> obtenerPorCodigosBarra(EntityManager em, Collection<String> codigosBarra) throws PersistenciaException {
+        Map<String, VarianteProducto> resultado = new HashMap<>();
+        if (codigosBarra == null || codigosBarra.isEmpty()) {
+            return resultado;
+        }
+        Set<String> codigos = new LinkedHashSet<>();
+        for (String codigo : codigosBarra) {
+            if (codigo != null) {
+                codigos.add(codigo);
+            }
+        }
+        if (codigos.isEmpty()) {
+            return resultado;
+        }
+        try {
+            TypedQuery<VarianteProducto> query = em.createQuery(
+                    "SELECT v FROM VarianteProducto v "
+                    + "JOIN FETCH v.producto p "
+                    + "WHERE v.codigoBarra IN :codigos AND v.eliminado = false",
+                    VarianteProducto.class
+            );
+            query.setParameter("codigos", codigos);
+            Map<String, List<String>> pedidos = agruparPorCodigoNormalizado(codigos);
+            for (VarianteProducto v : query.getResultList()) {
+                for (String pedido : pedidos.getOrDefault(VarianteProducto.normalizarCodigo(v.getCodigoBarra()), List.of())) {
+                    resultado.put(pedido, v);
+                }
+            }
+            return resultado;
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al obtener variantes por códigos de barras", e);
+        }
+    }
+
+    /**
+     * La base encuentra la variante aunque el código pedido difiera en
+     * mayúsculas o espacios; el resultado va bajo el código tal como se pidió
+     * para que quien llama lo encuentre con su propia llave.
+     */
+    private static Map<String, List<String>> agruparPorCodigoNormalizado(Collection<String> codigos) {
+        Map<String, List<String>> pedidos = new HashMap<>();
+        for (String codigo : codigos) {
+            pedidos.computeIfAbsent(VarianteProducto.normalizarCodigo(codigo), k -> new ArrayList<>(1)).add(codigo);
+        }
+        return pedidos;
+    }
+
+    @Override
+    public VarianteResumenDTO obtenerResumenPorCodigoBarra(String codigoBarra) throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            List<VarianteResumenDTO> filas = em.createQuery(
+                    VarianteResumenDTO.CONSULTA
+                    + "WHERE v.codigoBarra = :cb AND v.eliminado = false",
+                    VarianteResumenDTO.class)
+                    .setParameter("cb", codigoBarra)
+                    .getResultList();
+            return filas.isEmpty() ? null : filas.get(0);
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al obtener variante por código de barras", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Map<String, VarianteResumenDTO> obtenerResumenesPorCodigosBarra(Collection<String> codigosBarra) throws PersistenciaException {
+        Map<String, VarianteResumenDTO> resultado = new HashMap<>();
+        Set<String> codigos = new LinkedHashSet<>();
+        if (codigosBarra != null) {
+            for (String codigo : codigosBarra) {
+                if (codigo != null) {
+                    codigos.add(codigo);
+                }
+            }
+        }
+        if (codigos.isEmpty()) {
+            return resultado;
+        }
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            List<VarianteResumenDTO> filas = em.createQuery(
+                    VarianteResumenDTO.CONSULTA
+                    + "WHERE v.codigoBarra IN :codigos AND v.eliminado = false",
+                    VarianteResumenDTO.class)
+                    .setParameter("codigos", codigos)
+                    .getResultList();
+            Map<String, List<String>> pedidos = agruparPorCodigoNormalizado(codigos);
+            for (VarianteResumenDTO v : filas) {
+                for (String pedido : pedidos.getOrDefault(VarianteProducto.normalizarCodigo(v.getCodigoBarra()), List.of())) {
+                    resultado.put(pedido, v);
+                }
+            }
+            return resultado;
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al obtener variantes por códigos de barras", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public Map<Long, VarianteResumenDTO> obtenerResumenesPorIds(Collection<Long> ids) throws PersistenciaException {
+        Map<Long, VarianteResumenDTO> resultado = new HashMap<>();
+        Set<Long> unicos = new LinkedHashSet<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                if (id != null) {
+                    unicos.add(id);
+                }
+            }
+        }
+        if (unicos.isEmpty()) {
+            return resultado;
+        }
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            List<VarianteResumenDTO> filas = em.createQuery(
+                    VarianteResumenDTO.CONSULTA
+                    + "WHERE v.id IN :ids AND v.eliminado = false",
+                    VarianteResumenDTO.class)
+                    .setParameter("ids", unicos)
+                    .getResultList();
+            for (VarianteResumenDTO v : filas) {
+                resultado.put(v.getId(), v);
+            }
+            return resultado;
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al obtener variantes por id", e);
         } finally {
             em.close();
         }
@@ -89,6 +259,40 @@ public class VarianteProductoDAO implements IVarianteProductoDAO {
         }
     }
 
+    @Override
+    public List<VarianteResumenDTO> obtenerResumenesPorProducto(Long productoId) throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            return em.createQuery(
+                    VarianteResumenDTO.CONSULTA
+                    + "WHERE p.id = :pid AND v.eliminado = false "
+                    + "ORDER BY v.id",
+                    VarianteResumenDTO.class)
+                    .setParameter("pid", productoId)
+                    .getResultList();
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al obtener variantes por producto", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public List<VarianteResumenDTO> obtenerResumenesActivos() throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            return em.createQuery(
+                    VarianteResumenDTO.CONSULTA
+                    + "WHERE v.eliminado = false",
+                    VarianteResumenDTO.class)
+                    .getResultList();
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al obtener las variantes activas", e);
+        } finally {
+            em.close();
+        }
+    }
+
     @Override
     public VarianteProducto actualizarVarianteProducto(VarianteProducto variante) throws PersistenciaException {
         EntityManager em = conexionBD.getEntityManager();
@@ -108,6 +312,63 @@ public class VarianteProductoDAO implements IVarianteProductoDAO {
         }
     }
 
+    @Override
+    public int descontarStock(Long varianteId, int cantidad) throws PersistenciaException {
+        try (UnidadTrabajo uow = conexionBD.iniciarUnidadTrabajo()) {
+            int filas = descontarStock(uow, varianteId, cantidad);
+            uow.confirmar();
+            return filas;
+        }
+    }
+
+    @Override
+    public int descontarStock(UnidadTrabajo uow, Long varianteId, int cantidad) throws PersistenciaException {
+        try {
+            return uow.getEntityManager().createQuery(
+                    "UPDATE VarianteProducto v SET v.stock = v.stock - :cantidad "
+                    + "WHERE v.id = :id AND v.eliminado = false AND v.stock >= :cantidad")
+                    .setParameter("cantidad", cantidad)
+                    .setParameter("id", varianteId)
+                    .executeUpdate();
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al descontar stock de la variante " + varianteId, e);
+        }
+    }
+
+    @Override
+    public int descontarStock(UnidadTrabajo uow, Map<Long, Integer> cantidadesPorVariante) throws PersistenciaException {
+        if (cantidadesPorVariante == null || cantidadesPorVariante.isEmpty()) {
+            return 0;
+        }
+        if (cantidadesPorVariante.size() == 1) {
+            Map.Entry<Long, Integer> e = cantidadesPorVariante.entrySet().iterator().next();
+            return descontarStock(uow, e.getKey(), e.getValue());
+        }
+
+        // CASE v.id WHEN :id0 THEN :c0 WHEN :id1 THEN :c1 ... ELSE 0 END
+        StringBuilder cantidadCase = new StringBuilder("CASE v.id");
+        for (int i = 0; i < cantidadesPorVariante.size(); i++) {
+            cantidadCase.append(" WHEN :id").append(i).append(" THEN :c").append(i);
+        }
+        cantidadCase.append(" ELSE 0 END");
+
+        try {
+            Query query = uow.getEntityManager().createQuery(
+                    "UPDATE VarianteProducto v SET v.stock = v.stock - " + cantidadCase
+                    + " WHERE v.id IN :ids AND v.eliminado = false AND v.stock >= " + cantidadCase);
+            int i = 0;
+            for (Map.Entry<Long, Integer> e : cantidadesPorVariante.entrySet()) {
+                query.setParameter("id" + i, e.getKey());
+                query.setParameter("c" + i, e.getValue());
+                i++;
+            }
+            query.setParameter("ids", List.copyOf(cantidadesPorVariante.keySet()));
+            return query.executeUpdate();
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al descontar stock del carrito", e);
+        }
+    }
+
     @Override
     public void eliminarVarianteProducto(Long id) throws PersistenciaException {
         EntityManager em = conexionBD.getEntityManager();
@@ -130,6 +391,65 @@ public class VarianteProductoDAO implements IVarianteProductoDAO {
         }
     }
 
+    @Override
+    public PaginaCursorDTO<VarianteResumenDTO> obtenerPaginaVariantes(Long idCategoria, Long despuesDeId,
+            int tamano) throws PersistenciaException {
+        if (tamano < 1) {
+            throw new PersistenciaException("El tamaño de página debe ser mayor que cero");
+        }
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            TypedQuery<VarianteResumenDTO> query = em.createQuery(
+                    VarianteResumenDTO.CONSULTA
+                    + filtroPagina(idCategoria)
+                    + (despuesDeId != null ? " AND v.id > :despuesDeId" : "")
+                    + " ORDER BY v.id",
+                    VarianteResumenDTO.class);
+            if (idCategoria != null) {
+                query.setParameter("idCategoria", idCategoria);
+            }
+            if (despuesDeId != null) {
+                query.setParameter("despuesDeId", despuesDeId);
+            }
+            query.setMaxResults(tamano + 1);
+
+            List<VarianteResumenDTO> filas = query.getResultList();
+            boolean haySiguiente = filas.size() > tamano;
+            List<VarianteResumenDTO> pagina = haySiguiente ? new ArrayList<>(filas.subList(0, tamano)) : filas;
+            Long ultimoId = pagina.isEmpty() ? null : pagina.get(pagina.size() - 1).getId();
+            return new PaginaCursorDTO<>(pagina, ultimoId, haySiguiente);
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al obtener la página de variantes", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Override
+    public long contarVariantes(Long idCategoria) throws PersistenciaException {
+        EntityManager em = conexionBD.getEntityManager();
+        try {
+            TypedQuery<Long> query = em.createQuery(
+                    "SELECT COUNT(v) FROM VarianteProducto v JOIN v.producto p "
+                    + filtroPagina(idCategoria),
+                    Long.class);
+            if (idCategoria != null) {
+                query.setParameter("idCategoria", idCategoria);
+            }
+            return query.getSingleResult();
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al contar variantes", e);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static String filtroPagina(Long idCategoria) {
+        return idCategoria != null
+                ? "WHERE v.eliminado = false AND p.categoria.id = :idCategoria"
+                : "WHERE v.eliminado = false";
+    }
+
     @Override
     public List<VarianteProducto> buscarVariantesPorNombreProducto(String terminoBusqueda, int pagina, int tamañoPagina) throws PersistenciaException {
         EntityManager em = conexionBD.getEntityManager();
@@ -200,6 +520,8 @@ public class VarianteProductoDAO implements IVarianteProductoDAO {
                     .getResultList();
         } catch (Exception e) {
             throw new PersistenciaException("Error al buscar variantes por categoría y nombre", e);
+        } finally {
+            em.close();
         }
     }
 
@@ -218,6 +540,8 @@ public class VarianteProductoDAO implements IVarianteProductoDAO {
                     .getSingleResult();
         } catch (Exception e) {
             throw new PersistenciaException("Error al contar variantes por categoría y nombre", e);
+        } finally {
+            em.close();
         }
     }
 
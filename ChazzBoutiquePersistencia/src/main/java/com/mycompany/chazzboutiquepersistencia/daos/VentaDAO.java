@@ -5,6 +5,7 @@
 package com.mycompany.chazzboutiquepersistencia.daos;
 
 import com.mycompany.chazzboutiquepersistencia.conexion.IConexionBD;
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
 import com.mycompany.chazzboutiquepersistencia.dominio.Venta;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 import com.mycompany.chazzboutiquepersistencia.interfacesDAO.IVentaDAO;
@@ -29,7 +30,6 @@ public class VentaDAO implements IVentaDAO {
     public Venta registrarVenta(Venta venta) throws PersistenciaException {
         EntityManager entityManager = conexionBD.getEntityManager();
         EntityTransaction transaccion = null;
-        System.out.println(venta);
         try {
             transaccion = entityManager.getTransaction();
             transaccion.begin();
@@ -48,6 +48,16 @@ public class VentaDAO implements IVentaDAO {
         }
     }
 
+    @Override
+    public Venta registrarVenta(UnidadTrabajo uow, Venta venta) throws PersistenciaException {
+        try {
+            uow.getEntityManager().persist(venta);
+            return venta;
+        } catch (Exception e) {
+            throw new PersistenciaException("Error al registrar venta", e);
+        }
+    }
+
     @Override
     public Venta buscarPorId(Long id) throws PersistenciaException {
         EntityManager em = conexionBD.getEntityManager();
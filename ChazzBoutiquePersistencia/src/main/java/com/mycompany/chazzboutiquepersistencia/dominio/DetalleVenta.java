@@ -11,6 +11,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
@@ -20,7 +21,8 @@ import javax.persistence.Table;
  * @author carli
  */
 @Entity
-@Table(name = "tblDetalleVenta")
+@Table(name = "tblDetalleVenta",
+        indexes = @Index(name = "idx_detalle_venta_variante", columnList = "venta_id, varianteProducto_id"))
 public class DetalleVenta implements Serializable {
 
     @Id
@@ -13,6 +13,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -23,7 +24,9 @@ import javax.persistence.Table;
  * @author carli
  */
 @Entity
-@Table(name = "tblProducto")
+@Table(name = "tblProducto", indexes = {
+    @Index(name = "idx_producto_categoria_nombre", columnList = "categoria_id, nombreProducto"),
+    @Index(name = "idx_producto_nombre", columnList = "nombreProducto")})
 public class Producto implements Serializable {
 
     @Id
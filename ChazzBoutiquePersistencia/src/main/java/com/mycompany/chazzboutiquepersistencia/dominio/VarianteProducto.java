@@ -7,12 +7,15 @@ package com.mycompany.chazzboutiquepersistencia.dominio;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Locale;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -23,7 +26,15 @@ import javax.persistence.Table;
  * @author carli
  */
 @Entity
-@Table(name = "tblVarianteProducto")
+// La unicidad del código entre variantes activas (uk_variante_codigo_barra_activo)
+// usa una columna generada que JPA no puede declarar; ver V2__indices.sql
+@Table(name = "tblVarianteProducto",
+        indexes = {
+            @Index(name = "idx_variante_codigo_barra", columnList = "codigoBarra"),
+            @Index(name = "idx_variante_producto_eliminado", columnList = "producto_id, eliminado")})
+// El stock se descuenta con UPDATE masivo; sin caché compartido cada lectura
+// ve el valor real de la base y no una copia vieja de otro hilo.
+@Cacheable(false)
 public class VarianteProducto implements Serializable {
 
     @Id
@@ -62,6 +73,15 @@ public class VarianteProducto implements Serializable {
     @JoinColumn(name = "producto_id", nullable = false)
     private Producto producto;
 
+    /**
+     * Forma en que la base compara códigos de barras: la collation de MySQL
+     * no distingue mayúsculas ni espacios al final, así que "abc1 " encuentra
+     * a "ABC1". Sirve de llave para emparejar lo pedido con lo encontrado.
+     */
+    public static String normalizarCodigo(String codigoBarra) {
+        return codigoBarra.trim().toUpperCase(Locale.ROOT);
+    }
+
     public VarianteProducto() {
     }
 
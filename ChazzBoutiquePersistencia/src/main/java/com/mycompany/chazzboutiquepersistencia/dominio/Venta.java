@@ -7,6 +7,7 @@ package com.mycompany.chazzboutiquepersistencia.dominio;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -14,6 +15,7 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
@@ -24,7 +26,11 @@ import javax.persistence.Table;
  * @author carli
  */
 @Entity
-@Table(name = "tblVenta")
+@Table(name = "tblVenta",
+        indexes = {
+            @Index(name = "idx_venta_fecha_total", columnList = "fechaVenta, ventaTotal"),
+            @Index(name = "idx_venta_fecha_hora_total", columnList = "fechaHoraVenta, ventaTotal")
+        })
 public class Venta implements Serializable {
 
     @Id
@@ -42,6 +48,13 @@ public class Venta implements Serializable {
     @Column(name = "fechaVenta", nullable = false)
     private LocalDate fechaVenta;
 
+    /**
+     * Día y hora en que se registró; {@code null} en las ventas anteriores a
+     * la migración V4.
+     */
+    @Column(name = "fechaHoraVenta")
+    private LocalDateTime fechaHoraVenta;
+
     @Column(name = "ventaTotal", nullable = false)
     private BigDecimal ventaTotal;
 
@@ -92,6 +105,14 @@ public class Venta implements Serializable {
         this.fechaVenta = fechaVenta;
     }
 
+    public LocalDateTime getFechaHoraVenta() {
+        return fechaHoraVenta;
+    }
+
+    public void setFechaHoraVenta(LocalDateTime fechaHoraVenta) {
+        this.fechaHoraVenta = fechaHoraVenta;
+    }
+
     public BigDecimal getVentaTotal() {
         return ventaTotal;
     }
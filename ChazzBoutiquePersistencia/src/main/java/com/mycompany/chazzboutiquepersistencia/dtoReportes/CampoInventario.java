@@ -0,0 +1,9 @@
+package com.mycompany.chazzboutiquepersistencia.dtoReportes;
+
+/**
+ * Columnas por las que se puede ordenar una página del inventario, en el
+ * orden en que se muestran.
+ */
+public enum CampoInventario {
+    PRODUCTO, TALLA, COLOR, STOCK, PRECIO_UNITARIO, VALOR_TOTAL
+}
@@ -0,0 +1,9 @@
+package com.mycompany.chazzboutiquepersistencia.dtoReportes;
+
+/**
+ * Columnas por las que se puede ordenar una página del reporte de ventas,
+ * en el orden en que se muestran.
+ */
+public enum CampoVenta {
+    VENTA_ID, FECHA, TOTAL, VENDEDOR
+}
@@ -0,0 +1,90 @@
+package com.mycompany.chazzboutiquepersistencia.dtoReportes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Un renglón de venta con los datos de su venta, producto y categoría, tal
+ * como se lee para cargar el motor de análisis. Una venta sin renglones
+ * llega con los campos del renglón en {@code null}.
+ */
+public class HechoVentaDTO {
+
+    private final long ventaId;
+    private final LocalDate fecha;
+    private final BigDecimal ventaTotal;
+    private final long usuarioId;
+    private final String nombreUsuario;
+    private final Long varianteId;
+    private final Long productoId;
+    private final String nombreProducto;
+    private final Long categoriaId;
+    private final String nombreCategoria;
+    private final Integer cantidad;
+    private final BigDecimal precioUnitario;
+
+    public HechoVentaDTO(long ventaId, LocalDate fecha, BigDecimal ventaTotal, long usuarioId, String nombreUsuario,
+            Long varianteId, Long productoId, String nombreProducto, Long categoriaId, String nombreCategoria,
+            Integer cantidad, BigDecimal precioUnitario) {
+        this.ventaId = ventaId;
+        this.fecha = fecha;
+        this.ventaTotal = ventaTotal;
+        this.usuarioId = usuarioId;
+        this.nombreUsuario = nombreUsuario;
+        this.varianteId = varianteId;
+        this.productoId = productoId;
+        this.nombreProducto = nombreProducto;
+        this.categoriaId = categoriaId;
+        this.nombreCategoria = nombreCategoria;
+        this.cantidad = cantidad;
+        this.precioUnitario = precioUnitario;
+    }
+
+    public long getVentaId() {
+        return ventaId;
+    }
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public BigDecimal getVentaTotal() {
+        return ventaTotal;
+    }
+
+    public long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public String getNombreUsuario() {
+        return nombreUsuario;
+    }
+
+    public Long getVarianteId() {
+        return varianteId;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public String getNombreProducto() {
+        return nombreProducto;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+
+    public String getNombreCategoria() {
+        return nombreCategoria;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public BigDecimal getPrecioUnitario() {
+        return precioUnitario;
+    }
+}
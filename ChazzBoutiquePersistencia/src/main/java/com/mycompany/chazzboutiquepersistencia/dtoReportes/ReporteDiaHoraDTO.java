@@ -0,0 +1,61 @@
+package com.mycompany.chazzboutiquepersistencia.dtoReportes;
+
+import java.math.BigDecimal;
+
+/**
+ * Una celda del mapa de calor de ventas: cuántas ventas y cuánto se vendió
+ * en una hora de un día de la semana, sumando todas las semanas del rango.
+ */
+public class ReporteDiaHoraDTO {
+
+    private Integer diaSemana;
+    private Integer hora;
+    private Long ventas;
+    private BigDecimal total;
+
+    public ReporteDiaHoraDTO() {
+    }
+
+    /**
+     * @param diaSemana 1 (lunes) a 7 (domingo).
+     * @param hora 0 a 23.
+     */
+    public ReporteDiaHoraDTO(Integer diaSemana, Integer hora, Long ventas, BigDecimal total) {
+        this.diaSemana = diaSemana;
+        this.hora = hora;
+        this.ventas = ventas;
+        this.total = total;
+    }
+
+    public Integer getDiaSemana() {
+        return diaSemana;
+    }
+
+    public void setDiaSemana(Integer diaSemana) {
+        this.diaSemana = diaSemana;
+    }
+
+    public Integer getHora() {
+        return hora;
+    }
+
+    public void setHora(Integer hora) {
+        this.hora = hora;
+    }
+
+    public Long getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(Long ventas) {
+        this.ventas = ventas;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.chazzboutiquepersistencia.dtoReportes;
+
+import java.math.BigDecimal;
+
+/**
+ * Ventas y total vendido por un usuario en un periodo.
+ */
+public class ReporteVendedorDTO {
+
+    private String vendedor;
+    private Long ventas;
+    private BigDecimal total;
+
+    public ReporteVendedorDTO() {
+    }
+
+    public ReporteVendedorDTO(String vendedor, Long ventas, BigDecimal total) {
+        this.vendedor = vendedor;
+        this.ventas = ventas;
+        this.total = total;
+    }
+
+    public String getVendedor() {
+        return vendedor;
+    }
+
+    public void setVendedor(String vendedor) {
+        this.vendedor = vendedor;
+    }
+
+    public Long getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(Long ventas) {
+        this.ventas = ventas;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,46 @@
+package com.mycompany.chazzboutiquepersistencia.dtos;
+
+import java.time.LocalDate;
+
+/**
+ * Hasta dónde están al día los resúmenes diarios de ventas.
+ */
+public class EstadoResumenesDTO {
+
+    private final LocalDate mantenidoDesde;
+    private final LocalDate reconstruidoHasta;
+
+    public EstadoResumenesDTO(LocalDate mantenidoDesde, LocalDate reconstruidoHasta) {
+        this.mantenidoDesde = mantenidoDesde;
+        this.reconstruidoHasta = reconstruidoHasta;
+    }
+
+    /**
+     * Primer día cuyas ventas actualizan los resúmenes al registrarse. Ese
+     * día puede estar incompleto (ventas previas a la migración).
+     */
+    public LocalDate getMantenidoDesde() {
+        return mantenidoDesde;
+    }
+
+    /**
+     * Último día reconstruido desde las ventas; {@code null} si nunca se ha
+     * reconstruido.
+     */
+    public LocalDate getReconstruidoHasta() {
+        return reconstruidoHasta;
+    }
+
+    /**
+     * @return si todos los días anteriores a hoy tienen su resumen completo.
+     */
+    public boolean isCompleto() {
+        return reconstruidoHasta != null && !reconstruidoHasta.isBefore(mantenidoDesde);
+    }
+
+    @Override
+    public String toString() {
+        return "EstadoResumenesDTO{" + "mantenidoDesde=" + mantenidoDesde
+                + ", reconstruidoHasta=" + reconstruidoHasta + '}';
+    }
+}
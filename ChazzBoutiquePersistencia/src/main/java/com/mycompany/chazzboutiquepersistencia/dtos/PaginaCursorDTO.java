@@ -0,0 +1,39 @@
+package com.mycompany.chazzboutiquepersistencia.dtos;
+
+import java.util.List;
+
+/**
+ * Una página obtenida por búsqueda de llave (keyset): en lugar de saltar
+ * {@code n} filas con OFFSET, la siguiente página empieza después del último
+ * id de esta.
+ *
+ * @param <T> tipo de los elementos.
+ */
+public class PaginaCursorDTO<T> {
+
+    private final List<T> elementos;
+    private final Long ultimoId;
+    private final boolean haySiguiente;
+
+    public PaginaCursorDTO(List<T> elementos, Long ultimoId, boolean haySiguiente) {
+        this.elementos = elementos;
+        this.ultimoId = ultimoId;
+        this.haySiguiente = haySiguiente;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    /**
+     * @return id del último elemento, para pedir la página siguiente;
+     * {@code null} si la página está vacía.
+     */
+    public Long getUltimoId() {
+        return ultimoId;
+    }
+
+    public boolean isHaySiguiente() {
+        return haySiguiente;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mycompany.chazzboutiquepersistencia.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Modelo de lectura de una variante: solo las columnas que muestran el POS,
+ * la lista de variantes de un producto y la cuadrícula del catálogo. Se
+ * llena con {@code SELECT new} (ver {@link #CONSULTA}), así que no se
+ * construye la entidad ni su grafo producto → proveedor/categoría.
+ */
+public class VarianteResumenDTO {
+
+    /**
+     * Consulta base sin condiciones; se le agrega el {@code WHERE} sobre
+     * {@code v} (variante), {@code p} (producto) y {@code c} (categoría).
+     */
+    public static final String CONSULTA = "SELECT new com.mycompany.chazzboutiquepersistencia.dtos.VarianteResumenDTO("
+            + "v.id, v.codigoBarra, v.stock, v.precioCompra, v.talla, v.color, v.precioVenta, v.urlImagen, "
+            + "p.id, p.nombreProducto, c.id) "
+            + "FROM VarianteProducto v JOIN v.producto p JOIN p.categoria c ";
+
+    private final Long id;
+    private final String codigoBarra;
+    private final Integer stock;
+    private final BigDecimal precioCompra;
+    private final String talla;
+    private final String color;
+    private final BigDecimal precioVenta;
+    private final String urlImagen;
+    private final Long productoId;
+    private final String nombreProducto;
+    private final Long categoriaId;
+
+    public VarianteResumenDTO(Long id, String codigoBarra, Integer stock, BigDecimal precioCompra, String talla,
+            String color, BigDecimal precioVenta, String urlImagen, Long productoId, String nombreProducto,
+            Long categoriaId) {
+        this.id = id;
+        this.codigoBarra = codigoBarra;
+        this.stock = stock;
+        this.precioCompra = precioCompra;
+        this.talla = talla;
+        this.color = color;
+        this.precioVenta = precioVenta;
+        this.urlImagen = urlImagen;
+        this.productoId = productoId;
+        this.nombreProducto = nombreProducto;
+        this.categoriaId = categoriaId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCodigoBarra() {
+        return codigoBarra;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public BigDecimal getPrecioCompra() {
+        return precioCompra;
+    }
+
+    public String getTalla() {
+        return talla;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public BigDecimal getPrecioVenta() {
+        return precioVenta;
+    }
+
+    public String getUrlImagen() {
+        return urlImagen;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public String getNombreProducto() {
+        return nombreProducto;
+    }
+
+    public Long getCategoriaId() {
+        return categoriaId;
+    }
+}
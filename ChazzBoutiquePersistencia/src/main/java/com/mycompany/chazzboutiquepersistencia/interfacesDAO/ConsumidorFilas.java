@@ -0,0 +1,19 @@
+package com.mycompany.chazzboutiquepersistencia.interfacesDAO;
+
+import java.io.IOException;
+
+/**
+ * Recibe las filas de un reporte una por una, conforme la base las entrega,
+ * en lugar de recibirlas todas en una lista.
+ *
+ * @param <T> tipo de la fila.
+ */
+@FunctionalInterface
+public interface ConsumidorFilas<T> {
+
+    /**
+     * @throws IOException si no se pudo escribir la fila (p. ej. el cliente
+     * cerró la conexión); el recorrido se detiene y la consulta se cancela.
+     */
+    void aceptar(T fila) throws IOException;
+}
@@ -4,13 +4,20 @@
  */
 package com.mycompany.chazzboutiquepersistencia.interfacesDAO;
 
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoInventario;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.CampoVenta;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.HechoVentaDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteCategoriaDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteDiaHoraDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteInventarioDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteProductoDTO;
+import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVendedorDTO;
 import com.mycompany.chazzboutiquepersistencia.dtoReportes.ReporteVentaDTO;
 import com.mycompany.chazzboutiquepersistencia.dtos.ReporteVentaResultadoDTO;
 import com.mycompany.chazzboutiquepersistencia.dtos.ReporteVentasDTO;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import javax.persistence.PersistenceException;
@@ -28,4 +35,71 @@ public interface IReporteDAO {
     List<ReporteCategoriaDTO> obtenerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenceException;
 
     List<ReporteInventarioDTO> obtenerInventarioActual() throws PersistenceException;
+
+    /**
+     * Suma de {@code ventaTotal} de las ventas del rango (con descuentos
+     * aplicados); es la base del porcentaje de los ingresos por categoría.
+     *
+     * @return cero si no hay ventas.
+     */
+    BigDecimal obtenerTotalVentas(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenciaException;
+
+    /**
+     * Ventas y total por usuario, del que más vendió al que menos.
+     */
+    List<ReporteVendedorDTO> obtenerTotalesPorVendedor(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenciaException;
+
+    /**
+     * Ventas y total por día de la semana y hora del día, agrupados en la
+     * base. Solo hay celdas para las horas con ventas; las ventas sin hora
+     * registrada (anteriores a la migración V4) no cuentan.
+     */
+    List<ReporteDiaHoraDTO> obtenerVentasPorDiaYHora(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenciaException;
+
+    /**
+     * Filas {@code inicio} a {@code inicio + cantidad - 1} de las ventas del
+     * rango ordenadas por {@code orden} (y por id para desempatar), para
+     * mostrar el reporte por partes sin traerlo completo.
+     */
+    List<ReporteVentaDTO> obtenerPaginaVentas(LocalDate fechaInicio, LocalDate fechaFin, CampoVenta orden,
+            boolean descendente, int inicio, int cantidad) throws PersistenciaException;
+
+    long contarVentas(LocalDate fechaInicio, LocalDate fechaFin) throws PersistenciaException;
+
+    /**
+     * Como {@link #obtenerPaginaVentas}, para el inventario actual.
+     */
+    List<ReporteInventarioDTO> obtenerPaginaInventario(CampoInventario orden, boolean descendente, int inicio,
+            int cantidad) throws PersistenciaException;
+
+    long contarInventario() throws PersistenciaException;
+
+    /**
+     * Como {@link #obtenerDatosVentas}, pero con un cursor de solo avance:
+     * cada fila se entrega a {@code consumidor} en cuanto llega y no se
+     * guarda, así la memoria no depende del tamaño del rango. Lo mismo para
+     * los demás {@code recorrer*}.
+     *
+     * @throws IOException la que lance {@code consumidor}; la consulta se
+     * cancela.
+     */
+    void recorrerDatosVentas(LocalDate fechaInicio, LocalDate fechaFin, ConsumidorFilas<ReporteVentaDTO> consumidor)
+            throws PersistenciaException, IOException;
+
+    void recorrerProductosMasVendidos(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteProductoDTO> consumidor) throws PersistenciaException, IOException;
+
+    void recorrerIngresosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin,
+            ConsumidorFilas<ReporteCategoriaDTO> consumidor) throws PersistenciaException, IOException;
+
+    void recorrerInventarioActual(ConsumidorFilas<ReporteInventarioDTO> consumidor)
+            throws PersistenciaException, IOException;
+
+    /**
+     * Recorre los renglones de las ventas con id mayor que
+     * {@code ventaIdDesde}, en orden de venta: los renglones de una venta
+     * llegan juntos.
+     */
+    void recorrerHechosVenta(long ventaIdDesde, ConsumidorFilas<HechoVentaDTO> consumidor)
+            throws PersistenciaException, IOException;
 }
@@ -0,0 +1,44 @@
+package com.mycompany.chazzboutiquepersistencia.interfacesDAO;
+
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
+import com.mycompany.chazzboutiquepersistencia.dominio.Venta;
+import com.mycompany.chazzboutiquepersistencia.dtos.EstadoResumenesDTO;
+import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Resúmenes diarios de ventas por producto, por categoría y por vendedor,
+ * para que los reportes de un rango de fechas no recorran cada venta.
+ */
+public interface IResumenVentasDAO {
+
+    /**
+     * Suma la venta a los resúmenes de su día dentro de la transacción que la
+     * registra; si la venta se revierte, los resúmenes también.
+     */
+    void acumularVenta(UnidadTrabajo uow, Venta venta) throws PersistenciaException;
+
+    /**
+     * Vuelve a calcular desde las ventas los resúmenes de un día, en su
+     * propia transacción. No debe usarse con el día en curso: las ventas que
+     * se registren mientras tanto podrían contarse dos veces o ninguna.
+     */
+    void reconstruirDia(LocalDate dia) throws PersistenciaException;
+
+    /**
+     * Días con al menos una venta, en orden.
+     *
+     * @param desde primer día, o {@code null} para empezar por la venta más
+     * antigua.
+     */
+    List<LocalDate> diasConVentas(LocalDate desde, LocalDate hasta) throws PersistenciaException;
+
+    EstadoResumenesDTO obtenerEstado() throws PersistenciaException;
+
+    /**
+     * Registra que los días hasta {@code dia} ya se reconstruyeron. Nunca
+     * retrocede.
+     */
+    void marcarReconstruidoHasta(LocalDate dia) throws PersistenciaException;
+}
@@ -4,6 +4,7 @@
  */
 package com.mycompany.chazzboutiquepersistencia.interfacesDAO;
 
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
 import com.mycompany.chazzboutiquepersistencia.dominio.Usuario;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 
@@ -17,4 +18,6 @@ public interface IUsuarioDAO {
 
     public Usuario buscarPorId(Long id) throws PersistenciaException;
 
+    public Usuario buscarPorId(UnidadTrabajo uow, Long id) throws PersistenciaException;
+
 }
@@ -4,9 +4,14 @@
  */
 package com.mycompany.chazzboutiquepersistencia.interfacesDAO;
 
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
 import com.mycompany.chazzboutiquepersistencia.dominio.VarianteProducto;
+import com.mycompany.chazzboutiquepersistencia.dtos.PaginaCursorDTO;
+import com.mycompany.chazzboutiquepersistencia.dtos.VarianteResumenDTO;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -16,16 +21,106 @@ public interface IVarianteProductoDAO {
 
     public VarianteProducto obtenerPorCodigoBarra(String codigoBarra) throws PersistenciaException;
 
+    /**
+     * Igual que {@link #obtenerPorCodigoBarra(String)} pero dentro de la
+     * unidad de trabajo del llamador; la variante queda administrada por ella.
+     */
+    public VarianteProducto obtenerPorCodigoBarra(UnidadTrabajo uow, String codigoBarra) throws PersistenciaException;
+
+    /**
+     * Busca varias variantes por código de barras en una sola consulta, con
+     * el producto ya cargado. Los códigos que no existen (o están eliminados)
+     * simplemente no aparecen en el mapa. Como en la base, un código que solo
+     * difiere en mayúsculas o espacios al final encuentra a la variante.
+     *
+     * @return mapa del código tal como se pidió a la variante.
+     */
+    public Map<String, VarianteProducto> obtenerPorCodigosBarra(Collection<String> codigosBarra) throws PersistenciaException;
+
+    public Map<String, VarianteProducto> obtenerPorCodigosBarra(UnidadTrabajo uow, Collection<String> codigosBarra) throws PersistenciaException;
+
+    /**
+     * Búsqueda del POS por código de barras sin construir entidades.
+     *
+     * @return la variante, o {@code null} si no existe o está eliminada.
+     */
+    public VarianteResumenDTO obtenerResumenPorCodigoBarra(String codigoBarra) throws PersistenciaException;
+
+    /**
+     * Versión por lotes de {@link #obtenerResumenPorCodigoBarra}; los códigos
+     * que no existen no aparecen en el mapa.
+     *
+     * @return mapa del código tal como se pidió a la variante.
+     */
+    public Map<String, VarianteResumenDTO> obtenerResumenesPorCodigosBarra(Collection<String> codigosBarra) throws PersistenciaException;
+
+    /**
+     * Igual que {@link #obtenerResumenesPorCodigosBarra} pero por id de
+     * variante.
+     *
+     * @return mapa id a variante.
+     */
+    public Map<Long, VarianteResumenDTO> obtenerResumenesPorIds(Collection<Long> ids) throws PersistenciaException;
+
     public VarianteProducto actualizarVarianteProducto(VarianteProducto variante) throws PersistenciaException;
 
+    /**
+     * Descuenta stock con un UPDATE condicional: solo se aplica si la variante
+     * tiene al menos {@code cantidad} unidades. No lee ni bloquea antes.
+     *
+     * @return filas modificadas (1 si se descontó, 0 si no alcanzó el stock).
+     */
+    public int descontarStock(Long varianteId, int cantidad) throws PersistenciaException;
+
+    public int descontarStock(UnidadTrabajo uow, Long varianteId, int cantidad) throws PersistenciaException;
+
+    /**
+     * Descuenta el stock de todo un carrito en un solo UPDATE dentro de la
+     * unidad de trabajo del llamador. Si el resultado es menor que el número
+     * de variantes, alguna no tenía stock suficiente y el llamador debe
+     * revertir la unidad de trabajo.
+     *
+     * @param cantidadesPorVariante id de variante a cantidad a descontar.
+     * @return filas modificadas.
+     */
+    public int descontarStock(UnidadTrabajo uow, Map<Long, Integer> cantidadesPorVariante) throws PersistenciaException;
+
     public VarianteProducto buscarPorId(Long id) throws PersistenciaException;
 
     public List<VarianteProducto> obtenerVariantesPorProducto(Long productoId) throws PersistenciaException;
 
+    /**
+     * Variantes no eliminadas de un producto, ordenadas por id, sin
+     * construir entidades.
+     */
+    public List<VarianteResumenDTO> obtenerResumenesPorProducto(Long productoId) throws PersistenciaException;
+
+    /**
+     * Todas las variantes no eliminadas, para construir índices en memoria.
+     */
+    public List<VarianteResumenDTO> obtenerResumenesActivos() throws PersistenciaException;
+
     public VarianteProducto crearVariante(VarianteProducto variante) throws PersistenciaException;
 
     public void eliminarVarianteProducto(Long id) throws PersistenciaException;
 
+    /**
+     * Página de variantes ordenadas por id, empezando después de
+     * {@code despuesDeId}. Trae {@code tamano + 1} filas en una sola consulta
+     * para saber si hay página siguiente sin contar.
+     *
+     * @param idCategoria categoría del producto; {@code null} para todas.
+     * @param despuesDeId último id de la página anterior; {@code null} para la
+     * primera página.
+     */
+    public PaginaCursorDTO<VarianteResumenDTO> obtenerPaginaVariantes(Long idCategoria, Long despuesDeId,
+            int tamano) throws PersistenciaException;
+
+    /**
+     * Cuenta las variantes que recorre {@link #obtenerPaginaVariantes}.
+     */
+    public long contarVariantes(Long idCategoria) throws PersistenciaException;
+
     public List<VarianteProducto> buscarVariantesPorNombreProducto(String terminoBusqueda, int pagina, int tamañoPagina) throws PersistenciaException;
 
     public long contarVariantesPorNombreProducto(String terminoBusqueda) throws PersistenciaException;
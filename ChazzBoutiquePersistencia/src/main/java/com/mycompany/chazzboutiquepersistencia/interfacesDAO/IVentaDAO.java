@@ -4,6 +4,7 @@
  */
 package com.mycompany.chazzboutiquepersistencia.interfacesDAO;
 
+import com.mycompany.chazzboutiquepersistencia.conexion.UnidadTrabajo;
 import com.mycompany.chazzboutiquepersistencia.dominio.Venta;
 import com.mycompany.chazzboutiquepersistencia.excepciones.PersistenciaException;
 
@@ -15,6 +16,12 @@ public interface IVentaDAO {
 
     public Venta registrarVenta(Venta venta) throws PersistenciaException;
 
+    /**
+     * Persiste la venta (y sus detalles en cascada) dentro de la unidad de
+     * trabajo del llamador, sin confirmarla.
+     */
+    public Venta registrarVenta(UnidadTrabajo uow, Venta venta) throws PersistenciaException;
+
     Venta buscarPorId(Long id) throws PersistenciaException;
 
 }
@@ -0,0 +1,22 @@
+package com.mycompany.chazzboutiquepersistencia.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador que solo crece (EntityManagers abiertos, transacciones, errores).
+ */
+public final class Contador {
+
+    private final LongAdder valor = new LongAdder();
+
+    Contador() {
+    }
+
+    public void incrementar() {
+        valor.increment();
+    }
+
+    public long getValor() {
+        return valor.sum();
+    }
+}
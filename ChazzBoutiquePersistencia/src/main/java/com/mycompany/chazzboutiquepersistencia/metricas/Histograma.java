@@ -0,0 +1,138 @@
+package com.mycompany.chazzboutiquepersistencia.metricas;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latencias con cubetas fijas de 10 µs a 10 s. Registrar una
+ * medición no toma candados ni reserva memoria, así que puede usarse en
+ * cada llamada de negocio o DAO sin costo apreciable.
+ *
+ * Los percentiles son aproximados: se interpolan dentro de la cubeta donde
+ * caen.
+ */
+public final class Histograma {
+
+    /**
+     * Límite superior de cada cubeta, en nanosegundos. Hay una cubeta más,
+     * sin límite, para lo que pase de 10 s.
+     */
+    static final long[] LIMITES_NANOS = {
+        10_000L, 25_000L, 50_000L,
+        100_000L, 250_000L, 500_000L,
+        1_000_000L, 2_500_000L, 5_000_000L,
+        10_000_000L, 25_000_000L, 50_000_000L,
+        100_000_000L, 250_000_000L, 500_000_000L,
+        1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+        10_000_000_000L
+    };
+
+    private final LongAdder[] cuentas = new LongAdder[LIMITES_NANOS.length + 1];
+    private final LongAdder sumaNanos = new LongAdder();
+    private final LongAccumulator maximoNanos = new LongAccumulator(Long::max, 0L);
+
+    Histograma() {
+        for (int i = 0; i < cuentas.length; i++) {
+            cuentas[i] = new LongAdder();
+        }
+    }
+
+    public void registrar(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        cuentas[cubeta(nanos)].increment();
+        sumaNanos.add(nanos);
+        maximoNanos.accumulate(nanos);
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde {@code inicioNanos}, tomado con
+     * {@link System#nanoTime()}.
+     */
+    public void registrarDesde(long inicioNanos) {
+        registrar(System.nanoTime() - inicioNanos);
+    }
+
+    public long getCuenta() {
+        long total = 0;
+        for (LongAdder c : cuentas) {
+            total += c.sum();
+        }
+        return total;
+    }
+
+    public double getSumaSegundos() {
+        return sumaNanos.sum() / 1e9;
+    }
+
+    public double getMaximoMs() {
+        return maximoNanos.get() / 1e6;
+    }
+
+    public double getPromedioMs() {
+        long cuenta = getCuenta();
+        return cuenta == 0 ? 0d : sumaNanos.sum() / (double) cuenta / 1e6;
+    }
+
+    /**
+     * @param fraccion entre 0 y 1 (0.95 para el percentil 95).
+     * @return el percentil aproximado en milisegundos; 0 si no hay
+     * mediciones.
+     */
+    public double percentilMs(double fraccion) {
+        long[] c = cuentas();
+        long total = 0;
+        for (long n : c) {
+            total += n;
+        }
+        if (total == 0) {
+            return 0d;
+        }
+        double objetivo = fraccion * total;
+        long acumulado = 0;
+        for (int i = 0; i < c.length; i++) {
+            if (c[i] > 0 && acumulado + c[i] >= objetivo) {
+                long desde = i == 0 ? 0 : LIMITES_NANOS[i - 1];
+                // La última cubeta no tiene límite: se acota con el máximo visto
+                long hasta = i < LIMITES_NANOS.length
+                        ? Math.min(LIMITES_NANOS[i], Math.max(desde, maximoNanos.get()))
+                        : Math.max(desde, maximoNanos.get());
+                double dentro = (objetivo - acumulado) / c[i];
+                return (desde + dentro * (hasta - desde)) / 1e6;
+            }
+            acumulado += c[i];
+        }
+        return getMaximoMs();
+    }
+
+    /**
+     * Mediciones por cubeta (no acumuladas); la última es la de más de 10 s.
+     */
+    long[] cuentas() {
+        long[] c = new long[cuentas.length];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = cuentas[i].sum();
+        }
+        return c;
+    }
+
+    static double limiteSegundos(int cubeta) {
+        return LIMITES_NANOS[cubeta] / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static int cubeta(long nanos) {
+        int bajo = 0;
+        int alto = LIMITES_NANOS.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (LIMITES_NANOS[medio] < nanos) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,82 @@
+package com.mycompany.chazzboutiquepersistencia.metricas;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Envuelve un DAO o un objeto de negocio para medir cada método de su
+ * interfaz sin tocar la clase: el tiempo va a
+ * {@value #LATENCIA}{capa, interfaz, metodo} y las excepciones a
+ * {@value #ERRORES}.
+ *
+ * <pre>
+ * IVentaDAO ventaDAO = Instrumentacion.envolver(IVentaDAO.class, new VentaDAO(conexionBD), Instrumentacion.CAPA_DAO);
+ * </pre>
+ *
+ * Se envuelve al armar los objetos (en el {@code main} o en la configuración
+ * de Spring); quien los usa sigue viendo solo la interfaz.
+ */
+public final class Instrumentacion {
+
+    public static final String CAPA_DAO = "dao";
+    public static final String CAPA_NEGOCIO = "negocio";
+
+    static final String LATENCIA = "chazz_llamada_segundos";
+    static final String ERRORES = "chazz_llamada_errores_total";
+
+    private Instrumentacion() {
+    }
+
+    public static <I> I envolver(Class<I> interfaz, I destino, String capa) {
+        return envolver(interfaz, destino, capa, RegistroMetricas.global());
+    }
+
+    static <I> I envolver(Class<I> interfaz, I destino, String capa, RegistroMetricas registro) {
+        if (!interfaz.isInterface()) {
+            throw new IllegalArgumentException(interfaz.getName() + " no es una interfaz");
+        }
+        Medidor medidor = new Medidor(interfaz, destino, capa, registro);
+        return interfaz.cast(Proxy.newProxyInstance(interfaz.getClassLoader(), new Class<?>[]{interfaz}, medidor));
+    }
+
+    private static final class Medidor implements InvocationHandler {
+
+        private final Object destino;
+        // Un histograma por método, resuelto al envolver para no buscarlo en cada llamada
+        private final Map<Method, Histograma> latencias = new HashMap<>();
+        private final Map<Method, Contador> errores = new HashMap<>();
+
+        Medidor(Class<?> interfaz, Object destino, String capa, RegistroMetricas registro) {
+            this.destino = destino;
+            for (Method m : interfaz.getMethods()) {
+                String[] etiquetas = {"capa", capa, "interfaz", interfaz.getSimpleName(), "metodo", m.getName()};
+                latencias.put(m, registro.histograma(LATENCIA,
+                        "Duración de cada método de las interfaces de negocio y DAO", etiquetas));
+                errores.put(m, registro.contador(ERRORES,
+                        "Llamadas que terminaron en excepción", etiquetas));
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            Histograma latencia = latencias.get(metodo);
+            if (latencia == null) {
+                // equals, hashCode y toString de Object
+                return metodo.invoke(destino, args);
+            }
+            long inicio = System.nanoTime();
+            try {
+                return metodo.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                errores.get(metodo).incrementar();
+                throw e.getCause();
+            } finally {
+                latencia.registrarDesde(inicio);
+            }
+        }
+    }
+}
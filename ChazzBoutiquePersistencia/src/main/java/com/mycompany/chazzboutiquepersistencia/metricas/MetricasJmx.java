@@ -0,0 +1,73 @@
+package com.mycompany.chazzboutiquepersistencia.metricas;
+
+import java.util.Map;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.ReflectionException;
+
+/**
+ * MBean de solo lectura con un atributo por cada valor de
+ * {@link Muestras#aplanar()}. Las métricas que aparecen después de conectarse
+ * (un método que aún no se llamaba) se ven al volver a abrir el MBean.
+ */
+class MetricasJmx implements DynamicMBean {
+
+    private final RegistroMetricas registro;
+
+    MetricasJmx(RegistroMetricas registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public Object getAttribute(String atributo) throws AttributeNotFoundException {
+        Number valor = registro.recolectar().aplanar().get(atributo);
+        if (valor == null) {
+            throw new AttributeNotFoundException(atributo);
+        }
+        return valor;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] atributos) {
+        Map<String, Number> valores = registro.recolectar().aplanar();
+        AttributeList lista = new AttributeList();
+        for (String a : atributos) {
+            Number valor = valores.get(a);
+            if (valor != null) {
+                lista.add(new Attribute(a, valor));
+            }
+        }
+        return lista;
+    }
+
+    @Override
+    public void setAttribute(Attribute atributo) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Las métricas son de solo lectura: " + atributo.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList atributos) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String operacion, Object[] parametros, String[] firma) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(operacion));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Number> valores = registro.recolectar().aplanar();
+        MBeanAttributeInfo[] atributos = new MBeanAttributeInfo[valores.size()];
+        int i = 0;
+        for (Map.Entry<String, Number> e : valores.entrySet()) {
+            atributos[i++] = new MBeanAttributeInfo(e.getKey(), e.getValue().getClass().getName(),
+                    e.getKey(), true, false, false);
+        }
+        return new MBeanInfo(getClass().getName(), "Métricas de ChazzBoutique", atributos, null, null, null);
+    }
+}
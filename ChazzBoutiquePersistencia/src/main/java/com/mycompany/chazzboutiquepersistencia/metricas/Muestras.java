@@ -0,0 +1,193 @@
+package com.mycompany.chazzboutiquepersistencia.metricas;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fotografía de todas las métricas en un instante, agrupadas por nombre.
+ * Sabe escribirse en el formato de texto de Prometheus y aplanarse en pares
+ * nombre/valor para JMX.
+ *
+ * Las etiquetas se pasan por pares: {@code "cache", "productos", "tipo", "x"}.
+ */
+public final class Muestras {
+
+    enum Tipo {
+        CONTADOR("counter"), INDICADOR("gauge"), HISTOGRAMA("histogram");
+
+        final String prometheus;
+
+        Tipo(String prometheus) {
+            this.prometheus = prometheus;
+        }
+    }
+
+    private static final class Serie {
+
+        final String[] etiquetas;
+        final double valor;
+        final Histograma histograma;
+
+        Serie(String[] etiquetas, double valor, Histograma histograma) {
+            this.etiquetas = etiquetas;
+            this.valor = valor;
+            this.histograma = histograma;
+        }
+    }
+
+    private static final class Familia {
+
+        final Tipo tipo;
+        final String ayuda;
+        final List<Serie> series = new ArrayList<>();
+
+        Familia(Tipo tipo, String ayuda) {
+            this.tipo = tipo;
+            this.ayuda = ayuda;
+        }
+    }
+
+    private final Map<String, Familia> familias = new LinkedHashMap<>();
+
+    Muestras() {
+    }
+
+    public void contador(String nombre, String ayuda, double valor, String... etiquetas) {
+        familia(nombre, Tipo.CONTADOR, ayuda).series.add(new Serie(validar(etiquetas), valor, null));
+    }
+
+    public void indicador(String nombre, String ayuda, double valor, String... etiquetas) {
+        familia(nombre, Tipo.INDICADOR, ayuda).series.add(new Serie(validar(etiquetas), valor, null));
+    }
+
+    public void histograma(String nombre, String ayuda, Histograma histograma, String... etiquetas) {
+        familia(nombre, Tipo.HISTOGRAMA, ayuda).series.add(new Serie(validar(etiquetas), 0d, histograma));
+    }
+
+    /**
+     * Formato de texto de Prometheus 0.0.4.
+     */
+    public void escribirPrometheus(Appendable salida) throws IOException {
+        for (Map.Entry<String, Familia> e : familias.entrySet()) {
+            String nombre = e.getKey();
+            Familia f = e.getValue();
+            salida.append("# HELP ").append(nombre).append(' ').append(escaparAyuda(f.ayuda)).append('\n');
+            salida.append("# TYPE ").append(nombre).append(' ').append(f.tipo.prometheus).append('\n');
+            for (Serie s : f.series) {
+                if (f.tipo != Tipo.HISTOGRAMA) {
+                    linea(salida, nombre, s.etiquetas, null, s.valor);
+                    continue;
+                }
+                long[] cuentas = s.histograma.cuentas();
+                long acumulado = 0;
+                for (int i = 0; i < cuentas.length; i++) {
+                    acumulado += cuentas[i];
+                    String le = i < Histograma.LIMITES_NANOS.length
+                            ? numero(Histograma.limiteSegundos(i)) : "+Inf";
+                    linea(salida, nombre + "_bucket", s.etiquetas, le, acumulado);
+                }
+                linea(salida, nombre + "_sum", s.etiquetas, null, s.histograma.getSumaSegundos());
+                linea(salida, nombre + "_count", s.etiquetas, null, acumulado);
+            }
+        }
+    }
+
+    /**
+     * Cada serie como un valor suelto; de un histograma salen la cuenta, el
+     * promedio, los percentiles 50/95/99 y el máximo en milisegundos.
+     * Las claves tienen la forma {@code nombre[etiqueta=valor,...].dato}.
+     */
+    public Map<String, Number> aplanar() {
+        Map<String, Number> valores = new LinkedHashMap<>();
+        for (Map.Entry<String, Familia> e : familias.entrySet()) {
+            for (Serie s : e.getValue().series) {
+                String clave = clave(e.getKey(), s.etiquetas);
+                if (s.histograma == null) {
+                    valores.put(clave, s.valor);
+                    continue;
+                }
+                Histograma h = s.histograma;
+                valores.put(clave + ".cuenta", h.getCuenta());
+                valores.put(clave + ".promedioMs", h.getPromedioMs());
+                valores.put(clave + ".p50Ms", h.percentilMs(0.50));
+                valores.put(clave + ".p95Ms", h.percentilMs(0.95));
+                valores.put(clave + ".p99Ms", h.percentilMs(0.99));
+                valores.put(clave + ".maximoMs", h.getMaximoMs());
+            }
+        }
+        return valores;
+    }
+
+    private Familia familia(String nombre, Tipo tipo, String ayuda) {
+        Familia f = familias.computeIfAbsent(nombre, n -> new Familia(tipo, ayuda));
+        if (f.tipo != tipo) {
+            throw new IllegalArgumentException("La métrica " + nombre + " ya existe como " + f.tipo);
+        }
+        return f;
+    }
+
+    static String[] validar(String[] etiquetas) {
+        if (etiquetas.length % 2 != 0) {
+            throw new IllegalArgumentException("Las etiquetas van por pares nombre/valor");
+        }
+        return etiquetas;
+    }
+
+    static String clave(String nombre, String[] etiquetas) {
+        if (etiquetas.length == 0) {
+            return nombre;
+        }
+        StringBuilder sb = new StringBuilder(nombre).append('[');
+        for (int i = 0; i < etiquetas.length; i += 2) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(etiquetas[i]).append('=').append(etiquetas[i + 1]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private static void linea(Appendable salida, String nombre, String[] etiquetas, String le, double valor)
+            throws IOException {
+        salida.append(nombre);
+        if (etiquetas.length > 0 || le != null) {
+            salida.append('{');
+            for (int i = 0; i < etiquetas.length; i += 2) {
+                if (i > 0) {
+                    salida.append(',');
+                }
+                salida.append(etiquetas[i]).append("=\"").append(escaparValor(etiquetas[i + 1])).append('"');
+            }
+            if (le != null) {
+                if (etiquetas.length > 0) {
+                    salida.append(',');
+                }
+                salida.append("le=\"").append(le).append('"');
+            }
+            salida.append('}');
+        }
+        salida.append(' ').append(numero(valor)).append('\n');
+    }
+
+    private static String numero(double valor) {
+        if (valor == Math.rint(valor) && Math.abs(valor) < 1e15) {
+            return Long.toString((long) valor);
+        }
+        if (Double.isNaN(valor) || Double.isInfinite(valor)) {
+            return Double.isNaN(valor) ? "NaN" : (valor > 0 ? "+Inf" : "-Inf");
+        }
+        return BigDecimal.valueOf(valor).stripTrailingZeros().toPlainString();
+    }
+
+    private static String escaparValor(String s) {
+        return s == null ? "" : s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escaparAyuda(String s) {
+        return s.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
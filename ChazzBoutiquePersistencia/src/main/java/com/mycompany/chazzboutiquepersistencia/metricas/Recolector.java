@@ -0,0 +1,11 @@
+package com.mycompany.chazzboutiquepersistencia.metricas;
+
+/**
+ * Fuente de métricas que ya lleva sus propios contadores (pool, cachés,
+ * grupos de hilos). Se consulta solo cuando alguien lee las métricas.
+ */
+@FunctionalInterface
+public interface Recolector {
+
+    void recolectar(Muestras muestras);
+}
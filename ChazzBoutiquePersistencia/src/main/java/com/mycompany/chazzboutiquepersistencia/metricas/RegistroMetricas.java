@@ -0,0 +1,137 @@
+package com.mycompany.chazzboutiquepersistencia.metricas;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registro de las métricas del proceso: histogramas y contadores que se
+ * actualizan en cada operación, más {@link Recolector}es que traen los
+ * contadores que otras clases ya llevan (pool, cachés, grupos de hilos).
+ *
+ * Hay un solo registro por proceso, {@link #global()}, para que las capas
+ * de persistencia, negocio y API escriban en el mismo lugar sin tener que
+ * pasárselo. Se lee con {@link #escribirPrometheus(Appendable)} (la API) o
+ * por JMX con {@link #registrarJmx()} (la aplicación de escritorio).
+ */
+public final class RegistroMetricas {
+
+    private static final Logger LOG = Logger.getLogger(RegistroMetricas.class.getName());
+
+    public static final String NOMBRE_JMX = "com.mycompany.chazzboutique:type=Metricas";
+
+    private static final RegistroMetricas GLOBAL = new RegistroMetricas();
+
+    private static final class Registrada {
+
+        final String nombre;
+        final String ayuda;
+        final String[] etiquetas;
+        final Object metrica;
+
+        Registrada(String nombre, String ayuda, String[] etiquetas, Object metrica) {
+            this.nombre = nombre;
+            this.ayuda = ayuda;
+            this.etiquetas = etiquetas;
+            this.metrica = metrica;
+        }
+    }
+
+    // Ordenadas por clave para que la salida sea estable entre lecturas
+    private final Map<String, Registrada> metricas = new ConcurrentSkipListMap<>();
+    private final Map<String, Recolector> recolectores = new ConcurrentSkipListMap<>();
+
+    RegistroMetricas() {
+    }
+
+    public static RegistroMetricas global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Devuelve el histograma con ese nombre y etiquetas, creándolo la primera
+     * vez. Conviene guardar el resultado en lugar de pedirlo en cada medición.
+     */
+    public Histograma histograma(String nombre, String ayuda, String... etiquetas) {
+        return (Histograma) registrar(nombre, ayuda, etiquetas, Histograma.class).metrica;
+    }
+
+    public Contador contador(String nombre, String ayuda, String... etiquetas) {
+        return (Contador) registrar(nombre, ayuda, etiquetas, Contador.class).metrica;
+    }
+
+    /**
+     * Agrega o reemplaza el recolector con ese id. Reemplazar permite que un
+     * componente que se vuelve a crear no deje al anterior registrado.
+     */
+    public void agregarRecolector(String id, Recolector recolector) {
+        recolectores.put(id, recolector);
+    }
+
+    public void quitarRecolector(String id) {
+        recolectores.remove(id);
+    }
+
+    /**
+     * Lee todas las métricas. Un recolector que falla se omite en esta
+     * lectura, sin afectar a los demás.
+     */
+    public Muestras recolectar() {
+        Muestras muestras = new Muestras();
+        for (Registrada r : metricas.values()) {
+            if (r.metrica instanceof Histograma) {
+                muestras.histograma(r.nombre, r.ayuda, (Histograma) r.metrica, r.etiquetas);
+            } else {
+                muestras.contador(r.nombre, r.ayuda, ((Contador) r.metrica).getValor(), r.etiquetas);
+            }
+        }
+        for (Map.Entry<String, Recolector> e : recolectores.entrySet()) {
+            try {
+                e.getValue().recolectar(muestras);
+            } catch (RuntimeException ex) {
+                LOG.log(Level.WARNING, "Falló el recolector de métricas " + e.getKey(), ex);
+            }
+        }
+        return muestras;
+    }
+
+    public void escribirPrometheus(Appendable salida) throws IOException {
+        recolectar().escribirPrometheus(salida);
+    }
+
+    /**
+     * Publica las métricas como atributos del MBean {@link #NOMBRE_JMX} para
+     * verlas con JConsole o VisualVM. Llamarlo más de una vez no hace nada.
+     */
+    public void registrarJmx() {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(NOMBRE_JMX);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(new MetricasJmx(this), nombre);
+            }
+        } catch (JMException e) {
+            LOG.log(Level.WARNING, "No se pudieron publicar las métricas por JMX", e);
+        }
+    }
+
+    private Registrada registrar(String nombre, String ayuda, String[] etiquetas, Class<?> tipo) {
+        Muestras.validar(etiquetas);
+        String clave = Muestras.clave(nombre, etiquetas);
+        Registrada r = metricas.get(clave);
+        if (r == null) {
+            Object metrica = tipo == Histograma.class ? new Histograma() : new Contador();
+            r = metricas.computeIfAbsent(clave, k -> new Registrada(nombre, ayuda, etiquetas.clone(), metrica));
+        }
+        if (!tipo.isInstance(r.metrica)) {
+            throw new IllegalArgumentException("La métrica " + clave + " ya existe con otro tipo");
+        }
+        return r;
+    }
+}
@@ -0,0 +1,102 @@
+-- Esquema tal como lo generaba EclipseLink con schema-generation=create.
+-- IF NOT EXISTS permite adoptar bases creadas antes de las migraciones.
+
+CREATE TABLE IF NOT EXISTS tblCategoria (
+    categoria_id BIGINT NOT NULL,
+    descripcionCategoria VARCHAR(120) NOT NULL,
+    eliminado TINYINT(1) DEFAULT 0 NOT NULL,
+    imagenCategoria VARCHAR(255) NOT NULL,
+    nombreCategoria VARCHAR(50) NOT NULL,
+    PRIMARY KEY (categoria_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblProveedor (
+    proveedor_id BIGINT AUTO_INCREMENT NOT NULL,
+    correo VARCHAR(50) NOT NULL,
+    direccion VARCHAR(50) NOT NULL,
+    fechaCreacion DATE NOT NULL,
+    nombre VARCHAR(50) NOT NULL,
+    telefono VARCHAR(50) NOT NULL,
+    PRIMARY KEY (proveedor_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblUsuario (
+    usuario_id BIGINT AUTO_INCREMENT NOT NULL,
+    activo TINYINT(1) DEFAULT 0 NOT NULL,
+    contraseña VARCHAR(50) NOT NULL,
+    fechaCreacion DATE NOT NULL,
+    nombreUsuario VARCHAR(50) NOT NULL,
+    rol VARCHAR(50) NOT NULL,
+    PRIMARY KEY (usuario_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblProducto (
+    producto_id BIGINT AUTO_INCREMENT NOT NULL,
+    descripcionProducto VARCHAR(300),
+    fechaCreacion DATE NOT NULL,
+    nombreProducto VARCHAR(100) NOT NULL,
+    categoria_id BIGINT NOT NULL,
+    proveedor_id BIGINT NOT NULL,
+    PRIMARY KEY (producto_id),
+    CONSTRAINT FK_tblProducto_categoria_id FOREIGN KEY (categoria_id) REFERENCES tblCategoria (categoria_id),
+    CONSTRAINT FK_tblProducto_proveedor_id FOREIGN KEY (proveedor_id) REFERENCES tblProveedor (proveedor_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblVarianteProducto (
+    varianteproducto_id BIGINT AUTO_INCREMENT NOT NULL,
+    codigoBarra VARCHAR(50) NOT NULL,
+    color VARCHAR(255) NOT NULL,
+    eliminado TINYINT(1) DEFAULT 0 NOT NULL,
+    precioCompra DECIMAL(38) NOT NULL,
+    precioVenta DECIMAL(38) NOT NULL,
+    stock INTEGER NOT NULL,
+    talla VARCHAR(255) NOT NULL,
+    urlImagen VARCHAR(255),
+    producto_id BIGINT NOT NULL,
+    PRIMARY KEY (varianteproducto_id),
+    CONSTRAINT FK_tblVarianteProducto_producto_id FOREIGN KEY (producto_id) REFERENCES tblProducto (producto_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblVenta (
+    venta_id BIGINT AUTO_INCREMENT NOT NULL,
+    cambio DECIMAL(38) NOT NULL,
+    descuento DECIMAL(38) NOT NULL,
+    estadoVenta VARCHAR(255) NOT NULL,
+    fechaVenta DATE NOT NULL,
+    montoPago DECIMAL(38) NOT NULL,
+    ventaTotal DECIMAL(38) NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    PRIMARY KEY (venta_id),
+    CONSTRAINT FK_tblVenta_usuario_id FOREIGN KEY (usuario_id) REFERENCES tblUsuario (usuario_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblDetalleVenta (
+    detellaventa_id BIGINT AUTO_INCREMENT NOT NULL,
+    cantidad INTEGER NOT NULL,
+    precioUnitario DECIMAL(38) NOT NULL,
+    varianteProducto_id BIGINT NOT NULL,
+    venta_id BIGINT NOT NULL,
+    PRIMARY KEY (detellaventa_id),
+    CONSTRAINT FK_tblDetalleVenta_varianteProducto_id FOREIGN KEY (varianteProducto_id) REFERENCES tblVarianteProducto (varianteproducto_id),
+    CONSTRAINT FK_tblDetalleVenta_venta_id FOREIGN KEY (venta_id) REFERENCES tblVenta (venta_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblCaja (
+    caja_id BIGINT AUTO_INCREMENT NOT NULL,
+    estado VARCHAR(255) NOT NULL,
+    horaApertura DATETIME NOT NULL,
+    horaCierre DATETIME NOT NULL,
+    montoInicial DATETIME NOT NULL,
+    PRIMARY KEY (caja_id)
+);
+
+-- Tabla de secuencias que usa Categoria (GenerationType.AUTO)
+CREATE TABLE IF NOT EXISTS SEQUENCE (
+    SEQ_NAME VARCHAR(50) NOT NULL,
+    SEQ_COUNT DECIMAL(38),
+    PRIMARY KEY (SEQ_NAME)
+);
+
+INSERT INTO SEQUENCE (SEQ_NAME, SEQ_COUNT)
+SELECT 'SEQ_GEN', 0 FROM DUAL
+WHERE NOT EXISTS (SELECT 1 FROM SEQUENCE WHERE SEQ_NAME = 'SEQ_GEN');
@@ -0,0 +1,25 @@
+-- Índices para las consultas más frecuentes.
+
+-- Escaneo en el POS: WHERE codigoBarra = ? / IN (...)
+CREATE INDEX idx_variante_codigo_barra ON tblVarianteProducto (codigoBarra);
+
+-- El código de barras es único solo entre variantes activas: las eliminadas
+-- (borrado lógico) dejan libre su código. La columna vale NULL para las
+-- eliminadas y el índice único admite varios NULL. MigradorEsquema revisa
+-- antes que no haya activas repetidas.
+ALTER TABLE tblVarianteProducto ADD COLUMN codigoBarraActivo VARCHAR(50)
+    AS (CASE WHEN eliminado = 0 THEN codigoBarra END);
+CREATE UNIQUE INDEX uk_variante_codigo_barra_activo ON tblVarianteProducto (codigoBarraActivo);
+
+-- Variantes de un producto: WHERE producto_id = ? AND eliminado = false
+CREATE INDEX idx_variante_producto_eliminado ON tblVarianteProducto (producto_id, eliminado);
+
+-- Reportes por rango de fechas; incluye el total para SUM(ventaTotal) sin leer la fila
+CREATE INDEX idx_venta_fecha_total ON tblVenta (fechaVenta, ventaTotal);
+
+-- Detalles de una venta y su variante (joins de los reportes)
+CREATE INDEX idx_detalle_venta_variante ON tblDetalleVenta (venta_id, varianteProducto_id);
+
+-- Productos de una categoría ordenados/filtrados por nombre
+CREATE INDEX idx_producto_categoria_nombre ON tblProducto (categoria_id, nombreProducto);
+CREATE INDEX idx_producto_nombre ON tblProducto (nombreProducto);
@@ -0,0 +1,42 @@
+-- Totales diarios de ventas para los reportes por rango de fechas.
+-- Cada venta los actualiza en su misma transacción; los días anteriores a
+-- esta migración los llena el trabajo de reconstrucción (ResumenVentasDAO).
+
+CREATE TABLE IF NOT EXISTS tblResumenDiarioProducto (
+    fecha DATE NOT NULL,
+    producto_id BIGINT NOT NULL,
+    unidades BIGINT NOT NULL,
+    ingresos DECIMAL(38,2) NOT NULL,
+    PRIMARY KEY (fecha, producto_id)
+);
+
+-- ventas: cuántas ventas del día llevaron algo de la categoría
+CREATE TABLE IF NOT EXISTS tblResumenDiarioCategoria (
+    fecha DATE NOT NULL,
+    categoria_id BIGINT NOT NULL,
+    ventas BIGINT NOT NULL,
+    ingresos DECIMAL(38,2) NOT NULL,
+    PRIMARY KEY (fecha, categoria_id)
+);
+
+CREATE TABLE IF NOT EXISTS tblResumenDiarioVendedor (
+    fecha DATE NOT NULL,
+    usuario_id BIGINT NOT NULL,
+    ventas BIGINT NOT NULL,
+    total DECIMAL(38,2) NOT NULL,
+    PRIMARY KEY (fecha, usuario_id)
+);
+
+-- mantenidoDesde: primer día que las ventas ya actualizan los resúmenes
+-- (incompleto, le faltan las ventas previas a la migración).
+-- reconstruidoHasta: último día reconstruido desde las ventas.
+-- Los resúmenes se usan cuando reconstruidoHasta >= mantenidoDesde.
+CREATE TABLE IF NOT EXISTS tblResumenEstado (
+    estado_id INTEGER NOT NULL,
+    mantenidoDesde DATE NOT NULL,
+    reconstruidoHasta DATE NULL,
+    PRIMARY KEY (estado_id)
+);
+
+INSERT INTO tblResumenEstado (estado_id, mantenidoDesde, reconstruidoHasta) VALUES (1, CURRENT_DATE, NULL)
+    ON DUPLICATE KEY UPDATE estado_id = estado_id;
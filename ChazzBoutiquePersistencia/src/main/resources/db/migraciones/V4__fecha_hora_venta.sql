@@ -0,0 +1,8 @@
+-- Momento exacto de cada venta, para los reportes por hora del día.
+-- Las ventas anteriores a esta migración solo guardaron el día: quedan en
+-- NULL y los reportes por hora las omiten.
+ALTER TABLE tblVenta ADD COLUMN fechaHoraVenta DATETIME NULL;
+
+-- Ventas por día de la semana y hora: recorre el rango en el índice, con el
+-- total incluido, sin leer las filas
+CREATE INDEX idx_venta_fecha_hora_total ON tblVenta (fechaHoraVenta, ventaTotal);